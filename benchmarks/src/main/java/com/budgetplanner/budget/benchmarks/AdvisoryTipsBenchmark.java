@@ -0,0 +1,74 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.model.BudgetItem;
+import com.budgetplanner.budget.service.AIAdvisoryService;
+import com.budgetplanner.budget.service.AIAdvisoryService.AdvisoryTip;
+import com.budgetplanner.budget.service.BankAccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advisory tip generation: the single-pass rule engine for the dashboard's tips, and the parallel
+ * batch that evaluates every user from one window query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class AdvisoryTipsBenchmark {
+
+    private AIAdvisoryService advisoryService;
+    private YearMonth currentMonth;
+
+    @Setup
+    public void setUp(TransactionDataState data) {
+        currentMonth = YearMonth.now();
+
+        // Planned amounts so the overrun and reallocation rules have something to compare against
+        List<BudgetItem> plannedItems = new ArrayList<>();
+        plannedItems.add(new BudgetItem("Groceries", 600.0, 0.0, "EXPENSES", currentMonth.getYear(), currentMonth.getMonthValue()));
+        plannedItems.add(new BudgetItem("Dining Out", 250.0, 0.0, "EXPENSES", currentMonth.getYear(), currentMonth.getMonthValue()));
+        plannedItems.add(new BudgetItem("Rent", 1500.0, 0.0, "BILLS", currentMonth.getYear(), currentMonth.getMonthValue()));
+
+        BankAccountService bankAccountService = new BankAccountService(
+            null,
+            InMemoryRepositories.bankTransactions(data.transactions),
+            InMemoryRepositories.budgetItems(plannedItems),
+            null,
+            null);
+        advisoryService = new AIAdvisoryService(InMemoryRepositories.bankTransactions(data.transactions), bankAccountService, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        advisoryService.shutdownAdvisoryPool();
+    }
+
+    @Benchmark
+    public List<AdvisoryTip> generatePersonalizedTips() {
+        return advisoryService.generatePersonalizedTips(currentMonth);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, List<AdvisoryTip>> generateTipsForAllUsers() {
+        return advisoryService.generateTipsForAllUsers(currentMonth);
+    }
+}
@@ -0,0 +1,240 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.model.AvatarImage;
+import com.budgetplanner.budget.model.UserProfile;
+import com.budgetplanner.budget.repository.AvatarImageRepository;
+import com.budgetplanner.budget.repository.NotificationPreferenceRepository;
+import com.budgetplanner.budget.repository.UserProfileRepository;
+import com.budgetplanner.budget.service.AvatarImageService;
+import com.budgetplanner.budget.service.UserProfileService;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Check for the avatar pipeline of {@link UserProfileService} and {@link AvatarImageService} against an
+ * in-memory H2 database. Uploads a photo-sized JPEG and expects one square PNG per size in
+ * {@link AvatarImageService#SIZES}, a profile row holding only the hash, no new rows when the same file is
+ * uploaded again, the old variants deleted when another file replaces it or the avatar is removed, and an
+ * undecodable upload served as is for every size. Then has several users switch concurrently between the same
+ * two files and expects no failed upload, the variants of every profile present and none left unused. Prints
+ * the bytes a session held per avatar before (the upload) and after (the hash), and the bytes a view now
+ * fetches. Exits with status 1 on any mismatch.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.AvatarPipelineCheck [width] [height] [threads]
+ * </pre>
+ */
+public class AvatarPipelineCheck {
+
+    private static final int UPLOADS_PER_THREAD = 40;
+
+    public static void main(String[] args) throws Exception {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 1200;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 900;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.ERROR);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CheckConfig.class)) {
+            UserProfileService profileService = context.getBean(UserProfileService.class);
+            AvatarImageService avatarImageService = context.getBean(AvatarImageService.class);
+            AvatarImageRepository avatarImageRepository = context.getBean(AvatarImageRepository.class);
+            int problems = 0;
+
+            byte[] photo = jpeg(width, height, 1);
+            long start = System.nanoTime();
+            UserProfile profile = profileService.uploadAvatar(new ByteArrayInputStream(photo), "image/jpeg");
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            String hash = profile.getAvatarHash();
+            System.out.printf("uploaded %dx%d JPEG of %d bytes, variants stored in %d ms%n",
+                width, height, photo.length, millis);
+
+            for (int size : AvatarImageService.SIZES) {
+                Optional<AvatarImage> variant = avatarImageService.find(hash, size);
+                if (variant.isEmpty()) {
+                    System.out.printf("size %d: missing%n", size);
+                    problems++;
+                    continue;
+                }
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(variant.get().getData()));
+                System.out.printf("size %d: %d bytes %s%n", size, variant.get().getData().length,
+                    variant.get().getContentType());
+                if (image == null || image.getWidth() != size || image.getHeight() != size) {
+                    System.out.printf("size %d: wrong dimensions%n", size);
+                    problems++;
+                }
+            }
+            System.out.printf("session bytes per avatar: before %d, after %d%n", photo.length, hash.length());
+            System.out.printf("bytes fetched by a 45px logo: before %d, after %d%n", photo.length,
+                avatarImageService.find(hash, AvatarImageService.sizeFor(45)).map(v -> v.getData().length).orElse(-1));
+
+            long rows = avatarImageRepository.count();
+            profileService.uploadAvatar(new ByteArrayInputStream(photo), "image/jpeg");
+            if (avatarImageRepository.count() != rows) {
+                System.out.println("re-upload of the same file stored new rows");
+                problems++;
+            }
+
+            UserProfile replaced = profileService.uploadAvatar(new ByteArrayInputStream(jpeg(400, 600, 2)), "image/jpeg");
+            if (avatarImageRepository.existsByHash(hash) || avatarImageRepository.count() != AvatarImageService.SIZES.length) {
+                System.out.println("replaced avatar left its variants behind");
+                problems++;
+            }
+
+            byte[] undecodable = "RIFF\0\0\0\0WEBPVP8 not really".getBytes();
+            UserProfile kept = profileService.uploadAvatar(new ByteArrayInputStream(undecodable), "image/webp");
+            Optional<AvatarImage> original = avatarImageService.find(kept.getAvatarHash(), AvatarImageService.SIZES[0]);
+            if (original.isEmpty() || original.get().getSize() != AvatarImage.ORIGINAL
+                    || !"image/webp".equals(original.get().getContentType())
+                    || avatarImageRepository.existsByHash(replaced.getAvatarHash())) {
+                System.out.println("undecodable upload not served as is");
+                problems++;
+            }
+
+            profileService.removeAvatar();
+            if (avatarImageRepository.count() != 0
+                    || context.getBean(UserProfileRepository.class).findByUserId("default_user")
+                        .map(UserProfile::hasAvatar).orElse(true)) {
+                System.out.println("removed avatar left rows behind");
+                problems++;
+            }
+
+            problems += concurrentUploads(context, threads);
+
+            System.out.printf("problems=%d%n", problems);
+            if (problems > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static int concurrentUploads(AnnotationConfigApplicationContext context, int threads) throws Exception {
+        // Users switching between the same two files: stores race on the insert, releases on the reuse
+        AvatarImageService avatarImageService = context.getBean(AvatarImageService.class);
+        UserProfileRepository profiles = context.getBean(UserProfileRepository.class);
+        TransactionTemplate transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        List<byte[]> files = List.of(jpeg(320, 240, 3), jpeg(240, 320, 4));
+        for (int t = 0; t < threads; t++) {
+            profiles.save(new UserProfile("racer-" + t, "Racer " + t, "racer" + t + "@example.com"));
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> runs = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String userId = "racer-" + t;
+            long threadSeed = t;
+            runs.add(executor.submit(() -> {
+                SplittableRandom random = new SplittableRandom(threadSeed);
+                for (int op = 0; op < UPLOADS_PER_THREAD; op++) {
+                    byte[] file = random.nextInt(4) == 0 ? null : files.get(random.nextInt(files.size()));
+                    try {
+                        transactions.executeWithoutResult(status -> {
+                            UserProfile profile = profiles.findByUserId(userId).orElseThrow();
+                            String previousHash = profile.getAvatarHash();
+                            try {
+                                profile.setAvatarHash(file != null ? avatarImageService.store(file, "image/jpeg") : null);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            profiles.saveAndFlush(profile);
+                            if (previousHash != null && !previousHash.equals(profile.getAvatarHash())) {
+                                avatarImageService.release(previousHash);
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                        System.out.printf("%s: upload failed: %s%n", userId, e);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> run : runs) {
+            run.get();
+        }
+        executor.shutdown();
+
+        int problems = failures.get();
+        Set<String> used = new HashSet<>();
+        for (UserProfile profile : profiles.findAll()) {
+            if (profile.getAvatarHash() == null) {
+                continue;
+            }
+            used.add(profile.getAvatarHash());
+            if (avatarImageService.find(profile.getAvatarHash(), AvatarImageService.SIZES[0]).isEmpty()) {
+                System.out.printf("%s: avatar variants deleted while in use%n", profile.getUserId());
+                problems++;
+            }
+        }
+        long expectedRows = (long) used.size() * AvatarImageService.SIZES.length;
+        long rows = context.getBean(AvatarImageRepository.class).count();
+        System.out.printf("%d threads x %d uploads: %d failed, %d avatars in use, %d variant rows%n",
+            threads, UPLOADS_PER_THREAD, failures.get(), used.size(), rows);
+        if (rows != expectedRows) {
+            System.out.printf("expected %d variant rows%n", expectedRows);
+            problems++;
+        }
+        return problems;
+    }
+
+    private static byte[] jpeg(int width, int height, long seed) throws IOException {
+        // Gradient with noise, so the file is about as large as a phone photo of that size
+        SplittableRandom random = new SplittableRandom(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = (x * 255 / width + random.nextInt(40)) & 0xff;
+                int g = (y * 255 / height + random.nextInt(40)) & 0xff;
+                int b = random.nextInt(256);
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    @Configuration
+    @Import(CheckDatabaseConfig.class)
+    static class CheckConfig {
+
+        @Bean
+        AvatarImageService avatarImageService(AvatarImageRepository avatarImageRepository,
+                                              UserProfileRepository userProfileRepository,
+                                              PlatformTransactionManager transactionManager) {
+            return new AvatarImageService(avatarImageRepository, userProfileRepository, transactionManager);
+        }
+
+        @Bean
+        UserProfileService userProfileService(UserProfileRepository userProfileRepository,
+                                              NotificationPreferenceRepository notificationPreferenceRepository,
+                                              AvatarImageService avatarImageService) {
+            return new UserProfileService(userProfileRepository, notificationPreferenceRepository, avatarImageService);
+        }
+    }
+}
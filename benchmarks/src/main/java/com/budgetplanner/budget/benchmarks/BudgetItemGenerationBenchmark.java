@@ -0,0 +1,64 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.model.BudgetItem;
+import com.budgetplanner.budget.service.BankAccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monthly and all-time BudgetItem aggregation used by the budget, trends and advisory views.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class BudgetItemGenerationBenchmark {
+
+    private BankAccountService bankAccountService;
+    private YearMonth currentMonth;
+
+    @Setup
+    public void setUp(TransactionDataState data) {
+        currentMonth = YearMonth.now();
+
+        // A handful of planned items so the merge with persistent budget items is exercised
+        List<BudgetItem> plannedItems = new ArrayList<>();
+        plannedItems.add(new BudgetItem("Groceries", 600.0, 0.0, "EXPENSES", currentMonth.getYear(), currentMonth.getMonthValue()));
+        plannedItems.add(new BudgetItem("Dining Out", 250.0, 0.0, "EXPENSES", currentMonth.getYear(), currentMonth.getMonthValue()));
+        plannedItems.add(new BudgetItem("Rent", 1500.0, 0.0, "BILLS", currentMonth.getYear(), currentMonth.getMonthValue()));
+        plannedItems.add(new BudgetItem("Salary", 5500.0, 0.0, "INCOME", currentMonth.getYear(), currentMonth.getMonthValue()));
+
+        bankAccountService = new BankAccountService(
+            null,
+            InMemoryRepositories.bankTransactions(data.transactions),
+            InMemoryRepositories.budgetItems(plannedItems),
+            null,
+            null);
+    }
+
+    @Benchmark
+    public List<BudgetItem> generateBudgetItemsForMonth() {
+        return bankAccountService.generateBudgetItemsFromTransactions(currentMonth);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<BudgetItem> generateBudgetItemsFromAllTransactions() {
+        return bankAccountService.generateBudgetItemsFromAllTransactions();
+    }
+}
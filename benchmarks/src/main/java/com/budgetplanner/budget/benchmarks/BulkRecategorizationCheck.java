@@ -0,0 +1,289 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.event.TransactionChangedEvent;
+import com.budgetplanner.budget.model.BankAccount;
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.repository.AuditLogRepository;
+import com.budgetplanner.budget.repository.BankAccountRepository;
+import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.repository.CategorizationRuleRepository;
+import com.budgetplanner.budget.repository.SavingsGoalRepository;
+import com.budgetplanner.budget.repository.TagRepository;
+import com.budgetplanner.budget.repository.TransactionNoteRepository;
+import com.budgetplanner.budget.repository.TransactionTagRepository;
+import com.budgetplanner.budget.service.AuditLogService;
+import com.budgetplanner.budget.service.TagDictionary;
+import com.budgetplanner.budget.service.TransactionMetaService;
+import com.budgetplanner.budget.service.categorization.BulkRecategorizationService;
+import com.budgetplanner.budget.service.categorization.CategorizationRuleBook;
+import com.budgetplanner.budget.service.categorization.RuleBackfill;
+import com.budgetplanner.budget.service.categorization.TransactionCriteria;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Check for {@link BulkRecategorizationService} against an in-memory H2 database. Recategorizing by merchant,
+ * description pattern (including LIKE wildcards in the text) and Plaid category must change exactly the rows
+ * the same conditions select in memory and report that count, repeat runs must change nothing, each call with
+ * changes must write one audit row and one change event per bank login and month, and a remembered rule must
+ * categorize later ingests while a rolled-back one must not. Also prints the time and statement count of
+ * recategorizing every transaction row by row (as the categorization dialog used to) and in one bulk call.
+ * Exits with status 1 on any mismatch.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.BulkRecategorizationCheck [transactions]
+ * </pre>
+ */
+public class BulkRecategorizationCheck {
+
+    private static final int MERCHANTS = 50;
+    private static final String[] PLAID_CATEGORIES = {"Food and Drink", "Shops", "Travel", "Service"};
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.ERROR);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CheckConfig.class)) {
+            BulkRecategorizationService bulkService = context.getBean(BulkRecategorizationService.class);
+            CategorizationRuleBook ruleBook = context.getBean(CategorizationRuleBook.class);
+            BankTransactionRepository transactionRepository = context.getBean(BankTransactionRepository.class);
+            AuditLogRepository auditLogRepository = context.getBean(AuditLogRepository.class);
+            ChangeEvents events = context.getBean(ChangeEvents.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            int problems = 0;
+
+            BankAccountRepository accountRepository = context.getBean(BankAccountRepository.class);
+            List<BankAccount> accounts = List.of(
+                accountRepository.save(new BankAccount("acc-1", "item-1", "Checking", "depository", "Check Bank", "0001", "token")),
+                accountRepository.save(new BankAccount("acc-2", "item-2", "Card", "credit", "Other Bank", "0002", "token")));
+            List<BankTransaction> seeded = new ArrayList<>();
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < count; i++) {
+                String merchant = "Merchant " + (i % MERCHANTS);
+                String description = i % 97 == 0 ? "Promo 50%_off at " + merchant : "Purchase at " + merchant;
+                LocalDate date = today.minusDays(i % 180);
+                BankTransaction transaction = new BankTransaction("txn-" + i, accounts.get(i % 2), -10.0 - i % 90,
+                    merchant, description, date, date, "debit");
+                transaction.setPlaidCategory(PLAID_CATEGORIES[i % PLAID_CATEGORIES.length]);
+                transaction.setBudgetCategoryType("EXPENSES");
+                transaction.setBudgetCategory("Other Expenses");
+                seeded.add(transaction);
+            }
+            List<Long> ids = transactionRepository.saveAll(seeded).stream().map(BankTransaction::getId).toList();
+            statistics.setStatisticsEnabled(true);
+
+            // Row by row, the way the dialog saved before
+            statistics.clear();
+            long start = System.nanoTime();
+            for (Long id : ids) {
+                BankTransaction transaction = transactionRepository.findById(id).orElseThrow();
+                transaction.setBudgetCategory("Shopping");
+                transaction.setIsManuallyReviewed(true);
+                transactionRepository.save(transaction);
+            }
+            long rowMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("row by row: %d transactions in %d ms with %d statements%n",
+                ids.size(), rowMillis, statistics.getPrepareStatementCount());
+
+            // One bulk call back
+            statistics.clear();
+            events.clear();
+            long auditsBefore = auditLogRepository.count();
+            start = System.nanoTime();
+            int changed = bulkService.recategorize(TransactionCriteria.ids(ids), "Other Expenses", "EXPENSES");
+            long bulkMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("bulk by ids: %d transactions in %d ms with %d statements%n",
+                changed, bulkMillis, statistics.getPrepareStatementCount());
+            problems += expect("bulk by ids changed", changed, ids.size());
+            problems += expect("bulk by ids audit rows", auditLogRepository.count() - auditsBefore, 1);
+            problems += expect("bulk by ids events", events.count, expectedEvents(seeded));
+
+            // Conditions must change exactly what the same test in memory selects
+            problems += recategorize("merchant", bulkService, transactionRepository, auditLogRepository, events,
+                TransactionCriteria.matching("Merchant 3", null, null), "Dining Out");
+            problems += recategorize("description with wildcards", bulkService, transactionRepository,
+                auditLogRepository, events, TransactionCriteria.matching(null, "50%_OFF", null), "Entertainment");
+            problems += recategorize("merchant and Plaid category", bulkService, transactionRepository,
+                auditLogRepository, events, TransactionCriteria.matching("Merchant 8", null, "Food and Drink"), "Groceries");
+            problems += recategorize("Plaid category", bulkService, transactionRepository, auditLogRepository, events,
+                TransactionCriteria.matching(null, null, "Travel"), "Vacation");
+
+            // Nothing left to change: no rows, no audit, no events
+            auditsBefore = auditLogRepository.count();
+            events.clear();
+            changed = bulkService.recategorize(TransactionCriteria.matching(null, null, "Travel"), "Vacation", "EXPENSES");
+            problems += expect("repeat changed", changed, 0);
+            problems += expect("repeat audit rows", auditLogRepository.count() - auditsBefore, 0);
+            problems += expect("repeat events", events.count, 0);
+
+            // A remembered rule categorizes later ingests of the merchant
+            int rulesBefore = ruleBook.size();
+            bulkService.recategorize(TransactionCriteria.matching("Merchant 4", null, null), "Coffee", "EXPENSES", true);
+            BankTransaction later = new BankTransaction("txn-later", accounts.get(0), -4.5, "Merchant 4",
+                "Purchase at Merchant 4", today, today, "debit");
+            BankTransaction other = new BankTransaction("txn-other", accounts.get(0), -4.5, "Merchant 5",
+                "Purchase at Merchant 5", today, today, "debit");
+            problems += expect("rules after remember", ruleBook.size(), rulesBefore + 1);
+            problems += expect("rule applied to merchant", ruleBook.apply(later) && "Coffee".equals(later.getBudgetCategory()) ? 1 : 0, 1);
+            problems += expect("rule applied to other merchant", ruleBook.apply(other) ? 1 : 0, 0);
+
+            // A rule saved in a transaction that rolls back never takes effect
+            transactionTemplate.executeWithoutResult(status -> {
+                bulkService.recategorize(TransactionCriteria.matching("Merchant 6", null, null), "Gas", "EXPENSES", true);
+                status.setRollbackOnly();
+            });
+            problems += expect("rules after rollback", ruleBook.size(), rulesBefore + 1);
+
+            // A fresh rule book reads the same rules back
+            CategorizationRuleBook reloaded = new CategorizationRuleBook(context.getBean(CategorizationRuleRepository.class),
+                context.getBean(RuleBackfill.class), context.getBean(SavingsGoalRepository.class),
+                context.getBean(TransactionMetaService.class));
+            reloaded.load();
+            problems += expect("rules reloaded", reloaded.size(), ruleBook.size());
+
+            System.out.printf("problems=%d%n", problems);
+            if (problems > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static int recategorize(String stage, BulkRecategorizationService bulkService,
+                                    BankTransactionRepository transactionRepository, AuditLogRepository auditLogRepository,
+                                    ChangeEvents events, TransactionCriteria criteria, String category) {
+        List<BankTransaction> before = transactionRepository.findAll();
+        List<BankTransaction> selected = before.stream().filter(criteria::matches).toList();
+        List<BankTransaction> toChange = selected.stream().filter(t -> !category.equals(t.getBudgetCategory())).toList();
+        long auditsBefore = auditLogRepository.count();
+        events.clear();
+
+        int changed = bulkService.recategorize(criteria, category, "EXPENSES");
+        int problems = expect(stage + " changed", changed, toChange.size());
+        problems += expect(stage + " audit rows", auditLogRepository.count() - auditsBefore, toChange.isEmpty() ? 0 : 1);
+        problems += expect(stage + " events", events.count, expectedEvents(toChange));
+
+        Set<Long> selectedIds = new HashSet<>();
+        selected.forEach(transaction -> selectedIds.add(transaction.getId()));
+        for (BankTransaction previous : before) {
+            BankTransaction now = transactionRepository.findById(previous.getId()).orElseThrow();
+            String expected = selectedIds.contains(previous.getId()) ? category : previous.getBudgetCategory();
+            if (!expected.equals(now.getBudgetCategory())) {
+                System.out.printf("%s: transaction %d is '%s', expected '%s'%n", stage, now.getId(),
+                    now.getBudgetCategory(), expected);
+                problems++;
+            }
+        }
+        System.out.printf("%s: %d of %d changed%n", stage, changed, selected.size());
+        return problems;
+    }
+
+    private static long expectedEvents(List<BankTransaction> changed) {
+        Set<String> months = new HashSet<>();
+        changed.forEach(transaction -> months.add(transaction.getBankAccount().getPlaidItemId() + "|"
+            + YearMonth.from(transaction.getTransactionDate())));
+        return months.size();
+    }
+
+    private static int expect(String what, long actual, long expected) {
+        if (actual != expected) {
+            System.out.printf("%s: %d, expected %d%n", what, actual, expected);
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Counts the change events the service publishes
+     */
+    static class ChangeEvents {
+
+        private volatile long count;
+
+        @EventListener
+        public synchronized void on(TransactionChangedEvent event) {
+            if (event.getTransactionId() == null && event.getPlaidItemId() != null && event.getTransactionDate() != null) {
+                count++;
+            }
+        }
+
+        synchronized void clear() {
+            count = 0;
+        }
+    }
+
+    @Configuration
+    @Import(CheckDatabaseConfig.class)
+    static class CheckConfig {
+
+        @Bean
+        ChangeEvents changeEvents() {
+            return new ChangeEvents();
+        }
+
+        @Bean
+        TagDictionary tagDictionary(TagRepository tagRepository, TransactionTagRepository transactionTagRepository,
+                                    PlatformTransactionManager transactionManager) {
+            return new TagDictionary(tagRepository, transactionTagRepository, transactionManager);
+        }
+
+        @Bean
+        TransactionMetaService transactionMetaService(TransactionNoteRepository noteRepository,
+                                                      TransactionTagRepository tagRepository,
+                                                      TagDictionary tagDictionary) {
+            return new TransactionMetaService(noteRepository, tagRepository, tagDictionary);
+        }
+
+        @Bean
+        RuleBackfill ruleBackfill(CategorizationRuleRepository ruleRepository,
+                                  BankTransactionRepository transactionRepository,
+                                  SavingsGoalRepository savingsGoalRepository,
+                                  TransactionMetaService transactionMetaService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager) {
+            return new RuleBackfill(ruleRepository, transactionRepository, savingsGoalRepository,
+                transactionMetaService, eventPublisher, transactionManager);
+        }
+
+        @Bean
+        CategorizationRuleBook categorizationRuleBook(CategorizationRuleRepository ruleRepository,
+                                                      RuleBackfill ruleBackfill,
+                                                      SavingsGoalRepository savingsGoalRepository,
+                                                      TransactionMetaService transactionMetaService) {
+            return new CategorizationRuleBook(ruleRepository, ruleBackfill, savingsGoalRepository,
+                transactionMetaService);
+        }
+
+        @Bean
+        AuditLogService auditLogService(AuditLogRepository auditLogRepository) {
+            return new AuditLogService(auditLogRepository);
+        }
+
+        @Bean
+        BulkRecategorizationService bulkRecategorizationService(BankTransactionRepository transactionRepository,
+                                                                CategorizationRuleBook ruleBook,
+                                                                AuditLogService auditLogService,
+                                                                ApplicationEventPublisher eventPublisher) {
+            return new BulkRecategorizationService(transactionRepository, ruleBook, auditLogService, eventPublisher);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.config.EnhancedPlaidConfig;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Check for the Caffeine cache manager built by {@link EnhancedPlaidConfig}. Caches must stay within their
+ * size bound and drop entries after their TTL, unknown cache names must not create caches, statistics must be
+ * recorded, an eviction made in a transaction must apply after its commit, and a balance past its refresh
+ * age must be served from the cache while a background reload replaces it (keeping the old value if the
+ * reload fails). A balance that is not cached must be answered with a pending future at once rather than
+ * after the load. Exits with status 1 otherwise.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.CacheManagerCheck
+ * </pre>
+ */
+public class CacheManagerCheck {
+
+    private static final long LOAD_MILLIS = 300;
+
+    public static void main(String[] args) throws Exception {
+        int problems = 0;
+        AtomicInteger loads = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean();
+        ExecutorService refreshExecutor = Executors.newFixedThreadPool(2);
+
+        // Wrapped like the application's bean
+        CacheManager cacheManager = new TransactionAwareCacheManagerProxy(EnhancedPlaidConfig.caffeineCacheManager(Map.of(
+                EnhancedPlaidConfig.ACCOUNT_BALANCES, "maximumSize=100,expireAfterWrite=30m,refreshAfterWrite=1s",
+                EnhancedPlaidConfig.ACTIVE_SAVINGS_GOALS, "maximumSize=1000,expireAfterWrite=1s"),
+            refreshExecutor,
+            accountId -> {
+                sleep(LOAD_MILLIS);
+                if (failing.get()) {
+                    throw new IllegalStateException("Plaid unavailable");
+                }
+                return 100.0 * loads.incrementAndGet();
+            }));
+        try {
+            // Bound
+            org.springframework.cache.Cache goals = cacheManager.getCache(EnhancedPlaidConfig.ACTIVE_SAVINGS_GOALS);
+            for (int i = 0; i < 5_000; i++) {
+                goals.put("user-" + i, "goals-" + i);
+            }
+            Cache<?, ?> nativeGoals = (Cache<?, ?>) goals.getNativeCache();
+            nativeGoals.cleanUp();
+            System.out.printf("activeSavingsGoals after 5000 puts: %d entries%n", nativeGoals.estimatedSize());
+            if (nativeGoals.estimatedSize() > 1_000) {
+                problems++;
+            }
+
+            // TTL
+            goals.put("user-ttl", "goals");
+            sleep(1_200);
+            if (goals.get("user-ttl") != null) {
+                System.out.println("activeSavingsGoals entry outlived its TTL");
+                problems++;
+            }
+
+            // An eviction in a transaction applies after the commit, dropping what a read re-cached meanwhile
+            goals.put("user-tx", "old goals");
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                goals.clear();
+                boolean clearedEarly = goals.get("user-tx") == null;
+                CompletableFuture.runAsync(() -> goals.put("user-tx", "goals read before the commit")).get();
+                TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+                if (clearedEarly || goals.get("user-tx") != null) {
+                    System.out.printf("eviction in a transaction: cleared before commit %s, cached after commit %s%n",
+                        clearedEarly, goals.get("user-tx") != null);
+                    problems++;
+                }
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            // Removed caches are gone with the rest of the unknown names
+            if (cacheManager.getCache("linkTokens") != null || cacheManager.getCache("transactionCategories") != null) {
+                System.out.println("a removed cache still exists");
+                problems++;
+            }
+
+            // Only the configured caches exist
+            if (cacheManager.getCache("institutionNames") != null) {
+                System.out.println("unknown cache name created a cache");
+                problems++;
+            }
+
+            // Refresh ahead: the first read loads, a stale read answers at once and reloads behind it
+            org.springframework.cache.Cache balances = cacheManager.getCache(EnhancedPlaidConfig.ACCOUNT_BALANCES);
+            Double first = balances.get(1L, Double.class);
+            sleep(1_100);
+            long start = System.nanoTime();
+            Double stale = balances.get(1L, Double.class);
+            long staleMillis = (System.nanoTime() - start) / 1_000_000;
+            sleep(LOAD_MILLIS + 200);
+            Double refreshed = balances.get(1L, Double.class);
+            System.out.printf("balance: first=%s, stale=%s in %d ms, refreshed=%s%n", first, stale, staleMillis, refreshed);
+            if (first == null || !first.equals(stale) || staleMillis > LOAD_MILLIS / 2
+                || refreshed == null || refreshed.equals(first) || loads.get() != 2) {
+                problems++;
+            }
+
+            // A failed refresh keeps the last balance
+            failing.set(true);
+            sleep(1_100);
+            balances.get(1L, Double.class);
+            sleep(LOAD_MILLIS + 200);
+            Double afterFailure = balances.get(1L, Double.class);
+            System.out.printf("balance after failed refresh: %s%n", afterFailure);
+            if (!refreshed.equals(afterFailure)) {
+                problems++;
+            }
+
+            // Statistics for the metrics binder
+            Cache<?, ?> nativeBalances = (Cache<?, ?>) balances.getNativeCache();
+            System.out.printf("balance stats: %s%n", nativeBalances.stats());
+            if (nativeBalances.stats().hitCount() == 0 || nativeBalances.stats().loadCount() == 0) {
+                problems++;
+            }
+
+            // A balance that is not cached answers with a pending future instead of waiting on the load
+            failing.set(false);
+            AsyncLoadingCache<Object, Object> asyncBalances = EnhancedPlaidConfig.accountBalances(cacheManager);
+            start = System.nanoTime();
+            CompletableFuture<Object> pending = asyncBalances.get(2L);
+            long missMillis = (System.nanoTime() - start) / 1_000_000;
+            boolean doneAtOnce = pending.isDone();
+            Object loaded = pending.get();
+            System.out.printf("uncached balance: future in %d ms (done=%s), loaded=%s%n", missMillis, doneAtOnce, loaded);
+            if (doneAtOnce || missMillis > LOAD_MILLIS / 2 || loaded == null) {
+                problems++;
+            }
+        } finally {
+            refreshExecutor.shutdownNow();
+        }
+
+        System.out.printf("problems=%d%n", problems);
+        if (problems > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
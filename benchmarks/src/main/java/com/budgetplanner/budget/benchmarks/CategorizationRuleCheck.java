@@ -0,0 +1,370 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.model.BankAccount;
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.CategorizationRule;
+import com.budgetplanner.budget.model.SavingsGoal;
+import com.budgetplanner.budget.repository.BankAccountRepository;
+import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.repository.CategorizationRuleRepository;
+import com.budgetplanner.budget.repository.SavingsGoalRepository;
+import com.budgetplanner.budget.repository.TagRepository;
+import com.budgetplanner.budget.repository.TransactionNoteRepository;
+import com.budgetplanner.budget.repository.TransactionTagRepository;
+import com.budgetplanner.budget.service.TagDictionary;
+import com.budgetplanner.budget.service.TransactionMetaService;
+import com.budgetplanner.budget.service.categorization.CategorizationRuleBook;
+import com.budgetplanner.budget.service.categorization.RuleBackfill;
+import com.budgetplanner.budget.service.categorization.TransactionCriteria;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Check for user categorization rules ({@link CategorizationRuleBook}, {@link RuleBackfill}) against an
+ * in-memory H2 database. With many rules on merchants, descriptions, amount ranges and accounts, ingesting
+ * transactions must give each one the category, type, goal and tags a plain newest-first scan over every rule
+ * gives. Adding a rule must backfill the stored transactions in the background: category and type except on
+ * transactions reviewed by hand, the goal only where none is set, and the tag on every match. Also prints the
+ * evaluation rate of the rule book against the plain scan. Exits with status 1 on any mismatch.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.CategorizationRuleCheck [rules] [transactions]
+ * </pre>
+ */
+public class CategorizationRuleCheck {
+
+    private static final int MERCHANTS = 400;
+    private static final String[] CATEGORIES = {"Groceries", "Dining Out", "Coffee", "Shopping", "Utilities", "Gas"};
+    private static final String[] TYPES = {"EXPENSES", "BILLS"};
+
+    public static void main(String[] args) throws Exception {
+        int ruleCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.ERROR);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CheckConfig.class)) {
+            CategorizationRuleBook ruleBook = context.getBean(CategorizationRuleBook.class);
+            CategorizationRuleRepository ruleRepository = context.getBean(CategorizationRuleRepository.class);
+            BankTransactionRepository transactionRepository = context.getBean(BankTransactionRepository.class);
+            TransactionMetaService metaService = context.getBean(TransactionMetaService.class);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            SplittableRandom random = new SplittableRandom(7);
+            int problems = 0;
+
+            BankAccountRepository accountRepository = context.getBean(BankAccountRepository.class);
+            List<BankAccount> accounts = List.of(
+                accountRepository.save(new BankAccount("acc-1", "item-1", "Checking", "depository", "Check Bank", "0001", "token")),
+                accountRepository.save(new BankAccount("acc-2", "item-2", "Card", "credit", "Other Bank", "0002", "token")));
+            SavingsGoal goal = new SavingsGoal();
+            goal.setGoalName("Holiday");
+            goal.setTargetAmount(1_000.0);
+            goal.setCurrentAmount(0.0);
+            goal.setCreatedAt(LocalDateTime.now());
+            goal = context.getBean(SavingsGoalRepository.class).save(goal);
+
+            // Rules, most of them indexed by merchant, some by account only, some on description or amount only
+            for (int i = 0; i < ruleCount; i++) {
+                CategorizationRule rule = new CategorizationRule();
+                int shape = random.nextInt(10);
+                if (shape < 7) {
+                    rule.setMerchantName("Merchant " + random.nextInt(MERCHANTS));
+                    if (random.nextInt(3) == 0) {
+                        rule.setMinAmount((double) random.nextInt(50));
+                        rule.setMaxAmount(rule.getMinAmount() + random.nextInt(100));
+                    }
+                } else if (shape < 8) {
+                    rule.setBankAccountId(accounts.get(random.nextInt(2)).getId());
+                    rule.setMinAmount(100.0 + random.nextInt(100));
+                } else if (shape < 9) {
+                    rule.setDescriptionPattern("code " + random.nextInt(200) + ";");
+                } else {
+                    rule.setMinAmount(150.0 + random.nextInt(50));
+                }
+                int action = random.nextInt(10);
+                if (action < 6) {
+                    rule.setBudgetCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                    rule.setBudgetCategoryType(TYPES[random.nextInt(TYPES.length)]);
+                } else if (action < 8) {
+                    rule.setBudgetCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                    rule.setTagName("tag-" + random.nextInt(20));
+                } else if (action < 9) {
+                    rule.setTagName("tag-" + random.nextInt(20));
+                } else {
+                    rule.setSavingsGoalId(goal.getId());
+                }
+                // Backfilled below with one rule of interest, not all of these
+                rule.setBackfilledAt(LocalDate.now().atStartOfDay());
+                ruleRepository.save(rule);
+            }
+            ruleBook.load();
+            List<CategorizationRule> rules = ruleRepository.findByEnabledTrueOrderByIdAsc();
+            List<ScanRule> newestFirst = newestFirst(rules);
+            System.out.printf("loaded %d rules%n", ruleBook.size());
+
+            // Ingest: apply, store, tag, exactly as the sync paths do
+            List<BankTransaction> incoming = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                incoming.add(transaction(accounts, i));
+            }
+            List<Long> ids = transactionTemplate.execute(status -> {
+                for (BankTransaction transaction : incoming) {
+                    ruleBook.apply(transaction);
+                }
+                List<BankTransaction> stored = transactionRepository.saveAll(incoming);
+                ruleBook.applyTags(stored);
+                return stored.stream().map(BankTransaction::getId).toList();
+            });
+            for (int i = 0; i < count; i++) {
+                Expected expected = scan(newestFirst, transaction(accounts, i));
+                problems += compare("ingest", transactionRepository.findById(ids.get(i)).orElseThrow(), expected,
+                    metaService, transactionTemplate);
+            }
+
+            // Evaluation rate against a plain scan over every rule; the first pass only warms up
+            int rounds = 20;
+            long scanNanos = 0;
+            long indexNanos = 0;
+            for (int pass = 0; pass < 2; pass++) {
+                long start = System.nanoTime();
+                int matched = 0;
+                for (int round = 0; round < rounds; round++) {
+                    for (BankTransaction transaction : incoming) {
+                        matched += scan(newestFirst, transaction).matched ? 1 : 0;
+                    }
+                }
+                scanNanos = System.nanoTime() - start;
+                // In a transaction like ingest, where goal references come from the persistence context
+                start = System.nanoTime();
+                matched -= transactionTemplate.execute(status -> {
+                    int applied = 0;
+                    for (int round = 0; round < rounds; round++) {
+                        for (BankTransaction transaction : incoming) {
+                            transaction.setSavingsGoal(null);
+                            applied += ruleBook.apply(transaction) ? 1 : 0;
+                        }
+                    }
+                    return applied;
+                });
+                indexNanos = System.nanoTime() - start;
+                if (matched != 0 && pass == 0) {
+                    System.out.println("rule book and plain scan disagree on which transactions match");
+                    problems++;
+                }
+            }
+            System.out.printf("evaluation with %d rules: plain scan %.0f ns, rule book %.0f ns per transaction%n",
+                rules.size(), (double) scanNanos / (rounds * count), (double) indexNanos / (rounds * count));
+
+            // Backfill: a new rule reaches the stored transactions in the background
+            List<Long> reviewed = ids.subList(0, count / 10);
+            transactionTemplate.executeWithoutResult(status -> transactionRepository.findAllById(reviewed)
+                .forEach(transaction -> transaction.setIsManuallyReviewed(true)));
+            List<BankTransaction> before = transactionRepository.findAllById(ids);
+            TransactionCriteria criteria = TransactionCriteria.matching(null, "purchase", null, 20.0, 60.0, accounts.get(0).getId());
+            CategorizationRule added = new CategorizationRule();
+            added.setDescriptionPattern(criteria.getDescriptionPattern());
+            added.setMinAmount(criteria.getMinAmount());
+            added.setMaxAmount(criteria.getMaxAmount());
+            added.setBankAccountId(criteria.getBankAccountId());
+            added.setBudgetCategory("Backfilled");
+            added.setTagName("backfilled");
+            added.setSavingsGoalId(goal.getId());
+            Long addedId = transactionTemplate.execute(status -> ruleBook.add(added).getId());
+            long waitStart = System.nanoTime();
+            while (ruleRepository.findById(addedId).orElseThrow().getBackfilledAt() == null) {
+                if (System.nanoTime() - waitStart > 60_000_000_000L) {
+                    System.out.println("backfill did not finish within a minute");
+                    problems++;
+                    break;
+                }
+                Thread.sleep(20);
+            }
+            System.out.printf("backfill finished in %d ms%n", (System.nanoTime() - waitStart) / 1_000_000);
+
+            Set<Long> manual = new HashSet<>(reviewed);
+            int selected = 0;
+            for (BankTransaction previous : before) {
+                BankTransaction now = transactionRepository.findById(previous.getId()).orElseThrow();
+                boolean matches = criteria.matches(previous);
+                selected += matches ? 1 : 0;
+                String expectedCategory = matches && !manual.contains(previous.getId())
+                    ? "Backfilled" : previous.getBudgetCategory();
+                Long goalId = transactionTemplate.execute(status -> {
+                    BankTransaction managed = transactionRepository.findById(previous.getId()).orElseThrow();
+                    return managed.getSavingsGoal() != null ? managed.getSavingsGoal().getId() : null;
+                });
+                boolean tagged = metaService.getTagsForTransaction(now).contains("backfilled");
+                if (!Objects.equals(expectedCategory, now.getBudgetCategory())
+                    || !Objects.equals(previous.getBudgetCategoryType(), now.getBudgetCategoryType())
+                    || (matches && goalId == null) || tagged != matches) {
+                    System.out.printf("backfill: transaction %d is %s/%s goal %s tagged %s, expected %s tagged %s%n",
+                        now.getId(), now.getBudgetCategoryType(), now.getBudgetCategory(), goalId, tagged,
+                        expectedCategory, matches);
+                    problems++;
+                }
+            }
+            System.out.printf("backfill matched %d stored transactions%n", selected);
+
+            // Later ingests follow the new rule, which outranks every older one
+            BankTransaction later = new BankTransaction("txn-later", accounts.get(0), -30.0, "Merchant 1",
+                "Purchase code 1; at Merchant 1", LocalDate.now(), LocalDate.now(), "debit");
+            later.setBudgetCategory("Other Expenses");
+            later.setBudgetCategoryType("EXPENSES");
+            ruleBook.apply(later);
+            if (!"Backfilled".equals(later.getBudgetCategory())) {
+                System.out.printf("later ingest got %s, expected Backfilled%n", later.getBudgetCategory());
+                problems++;
+            }
+
+            System.out.printf("problems=%d%n", problems);
+            if (problems > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static BankTransaction transaction(List<BankAccount> accounts, int i) {
+        String merchant = "Merchant " + (i % MERCHANTS);
+        LocalDate date = LocalDate.now().minusDays(i % 120);
+        BankTransaction transaction = new BankTransaction("txn-" + i, accounts.get(i % 2),
+            -(1.0 + (i * 37) % 250), merchant, "Purchase code " + (i % 200) + "; at " + merchant, date, date, "debit");
+        transaction.setBudgetCategory("Other Expenses");
+        transaction.setBudgetCategoryType("EXPENSES");
+        return transaction;
+    }
+
+    private static List<ScanRule> newestFirst(List<CategorizationRule> rules) {
+        List<ScanRule> compiled = new ArrayList<>();
+        for (CategorizationRule rule : rules) {
+            compiled.add(new ScanRule(rule, TransactionCriteria.matching(rule.getMerchantName(),
+                rule.getDescriptionPattern(), rule.getPlaidCategory(), rule.getMinAmount(), rule.getMaxAmount(),
+                rule.getBankAccountId())));
+        }
+        compiled.sort(Comparator.comparing((ScanRule scanRule) -> scanRule.rule.getId()).reversed());
+        return compiled;
+    }
+
+    /**
+     * Reference evaluation: every rule, newest first, each field from the first rule that sets it
+     */
+    private static Expected scan(List<ScanRule> newestFirst, BankTransaction transaction) {
+        Expected expected = new Expected();
+        expected.category = transaction.getBudgetCategory();
+        expected.type = transaction.getBudgetCategoryType();
+        boolean categorySet = false;
+        boolean typeSet = false;
+        for (ScanRule scanRule : newestFirst) {
+            if (!scanRule.criteria.matches(transaction)) {
+                continue;
+            }
+            CategorizationRule rule = scanRule.rule;
+            expected.matched = true;
+            if (!categorySet && rule.getBudgetCategory() != null) {
+                expected.category = rule.getBudgetCategory();
+                categorySet = true;
+            }
+            if (!typeSet && rule.getBudgetCategoryType() != null) {
+                expected.type = rule.getBudgetCategoryType();
+                typeSet = true;
+            }
+            if (expected.goalId == null) {
+                expected.goalId = rule.getSavingsGoalId();
+            }
+            if (rule.getTagName() != null) {
+                expected.tags.add(rule.getTagName());
+            }
+        }
+        return expected;
+    }
+
+    private static int compare(String stage, BankTransaction stored, Expected expected, TransactionMetaService metaService,
+                               TransactionTemplate transactionTemplate) {
+        Long goalId = transactionTemplate.execute(status -> stored.getSavingsGoal() != null
+            ? stored.getSavingsGoal().getId() : null);
+        Set<String> tags = new HashSet<>(metaService.getTagsForTransaction(stored));
+        if (!Objects.equals(expected.category, stored.getBudgetCategory())
+            || !Objects.equals(expected.type, stored.getBudgetCategoryType())
+            || !Objects.equals(expected.goalId, goalId) || !expected.tags.equals(tags)) {
+            System.out.printf("%s: transaction %d is %s/%s goal %s tags %s, expected %s/%s goal %s tags %s%n", stage,
+                stored.getId(), stored.getBudgetCategoryType(), stored.getBudgetCategory(), goalId, tags,
+                expected.type, expected.category, expected.goalId, expected.tags);
+            return 1;
+        }
+        return 0;
+    }
+
+    private static final class ScanRule {
+        private final CategorizationRule rule;
+        private final TransactionCriteria criteria;
+
+        private ScanRule(CategorizationRule rule, TransactionCriteria criteria) {
+            this.rule = rule;
+            this.criteria = criteria;
+        }
+    }
+
+    private static final class Expected {
+        private boolean matched;
+        private String category;
+        private String type;
+        private Long goalId;
+        private final Set<String> tags = new HashSet<>();
+    }
+
+    @Configuration
+    @EnableAsync
+    @Import(CheckDatabaseConfig.class)
+    static class CheckConfig {
+
+        @Bean
+        TagDictionary tagDictionary(TagRepository tagRepository, TransactionTagRepository transactionTagRepository,
+                                    PlatformTransactionManager transactionManager) {
+            return new TagDictionary(tagRepository, transactionTagRepository, transactionManager);
+        }
+
+        @Bean
+        TransactionMetaService transactionMetaService(TransactionNoteRepository noteRepository,
+                                                      TransactionTagRepository tagRepository,
+                                                      TagDictionary tagDictionary) {
+            return new TransactionMetaService(noteRepository, tagRepository, tagDictionary);
+        }
+
+        @Bean
+        RuleBackfill ruleBackfill(CategorizationRuleRepository ruleRepository,
+                                  BankTransactionRepository transactionRepository,
+                                  SavingsGoalRepository savingsGoalRepository,
+                                  TransactionMetaService transactionMetaService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager) {
+            return new RuleBackfill(ruleRepository, transactionRepository, savingsGoalRepository,
+                transactionMetaService, eventPublisher, transactionManager);
+        }
+
+        @Bean
+        CategorizationRuleBook categorizationRuleBook(CategorizationRuleRepository ruleRepository,
+                                                      RuleBackfill ruleBackfill,
+                                                      SavingsGoalRepository savingsGoalRepository,
+                                                      TransactionMetaService transactionMetaService) {
+            return new CategorizationRuleBook(ruleRepository, ruleBackfill, savingsGoalRepository,
+                transactionMetaService);
+        }
+    }
+}
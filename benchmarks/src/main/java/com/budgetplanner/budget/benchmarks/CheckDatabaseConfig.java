@@ -0,0 +1,65 @@
+package com.budgetplanner.budget.benchmarks;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+/**
+ * In-memory H2 database of the equivalence checks, named by {@code check.database}, with the JPA setup of
+ * {@link CheckJpaConfig}. Every statement execution sleeps for {@link #setRoundTripMillis the current round
+ * trip} first, zero unless a check simulates a remote database.
+ */
+@Configuration
+@Import(CheckJpaConfig.class)
+class CheckDatabaseConfig {
+
+    private static volatile long roundTripMillis;
+
+    /**
+     * Delay of every statement execution from now on, in all check databases of this JVM
+     */
+    static void setRoundTripMillis(long millis) {
+        roundTripMillis = millis;
+    }
+
+    @Bean
+    DataSource dataSource(@Value("${check.database:check}") String name) {
+        DataSource h2 = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .setName(name)
+            .build();
+        return (DataSource) delayed(h2, DataSource.class);
+    }
+
+    private static Object delayed(Object target, Class<?> type) {
+        InvocationHandler handler = (proxy, method, methodArgs) -> {
+            if (method.getName().startsWith("execute") && roundTripMillis > 0) {
+                Thread.sleep(roundTripMillis);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, methodArgs);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof PreparedStatement && method.getName().startsWith("prepare")) {
+                return delayed(result, PreparedStatement.class);
+            }
+            if (result instanceof Connection) {
+                return delayed(result, Connection.class);
+            }
+            return result;
+        };
+        return Proxy.newProxyInstance(CheckDatabaseConfig.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,53 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.tenant.TenantResolver;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.util.Properties;
+
+/**
+ * JPA setup shared by the equivalence checks: the application's entities with its naming strategy and
+ * tenant resolver, every repository, and a JPA transaction manager, over whatever {@link DataSource} the
+ * context provides. The schema is created and dropped with the context unless {@code check.ddl} says
+ * otherwise. Most checks import {@link CheckDatabaseConfig}, which brings this along with an H2 database.
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableJpaRepositories(basePackageClasses = BankTransactionRepository.class)
+class CheckJpaConfig {
+
+    @Bean
+    LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource,
+                                                                @Value("${check.ddl:create-drop}") String ddl) {
+        Properties jpa = new Properties();
+        jpa.setProperty("hibernate.hbm2ddl.auto", ddl);
+        jpa.setProperty("hibernate.jdbc.batch_size", "50");
+        jpa.setProperty("hibernate.order_inserts", "true");
+        jpa.setProperty("hibernate.physical_naming_strategy",
+            "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy");
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.budgetplanner.budget.model");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaProperties(jpa);
+        factory.getJpaPropertyMap().put("hibernate.tenant_identifier_resolver", new TenantResolver());
+        return factory;
+    }
+
+    @Bean
+    PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
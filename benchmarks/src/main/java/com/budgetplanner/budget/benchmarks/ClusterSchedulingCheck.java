@@ -0,0 +1,376 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.model.AppNotification;
+import com.budgetplanner.budget.model.CategorizationRule;
+import com.budgetplanner.budget.model.NotificationTemplate;
+import com.budgetplanner.budget.model.RecurringTransaction;
+import com.budgetplanner.budget.model.RecurringTransaction.RecurrenceFrequency;
+import com.budgetplanner.budget.model.SchedulerLock;
+import com.budgetplanner.budget.repository.CategorizationRuleRepository;
+import com.budgetplanner.budget.repository.ClusterNodeRepository;
+import com.budgetplanner.budget.repository.NotificationTemplateRepository;
+import com.budgetplanner.budget.repository.RecurringTransactionRepository;
+import com.budgetplanner.budget.repository.SchedulerLockRepository;
+import com.budgetplanner.budget.service.NodeCacheResync;
+import com.budgetplanner.budget.service.RecurringPatternIndex;
+import com.budgetplanner.budget.service.TagDictionary;
+import com.budgetplanner.budget.service.TransactionMetaService;
+import com.budgetplanner.budget.service.UpcomingBillsTimeline;
+import com.budgetplanner.budget.service.categorization.CategorizationRuleBook;
+import com.budgetplanner.budget.service.categorization.RuleBackfill;
+import com.budgetplanner.budget.service.cluster.ClusterMembership;
+import com.budgetplanner.budget.service.cluster.JobLocks;
+import com.budgetplanner.budget.service.notification.NotificationInbox;
+import com.budgetplanner.budget.service.notification.NotificationSettingsCache;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Check for scheduled work shared by several nodes: starts one application context per node, all on the same
+ * H2 database. Nodes join one by one; after each join every account key must belong to exactly one node,
+ * and only keys moving to the new node may change owner. A simulated sync round (each node sleeps per account
+ * of its share) must get faster as nodes join. Another node's writes must reach a node's notification counts,
+ * pattern index, categorization rules and notification templates at its next cache resync. Then one node shuts down cleanly and one stops its heartbeats;
+ * the others must take over exactly their keys. Finally all nodes race for job locks: every lock must run its
+ * job once, a lock held past its maximum must pass to another node, and the late holder's release must not
+ * free the new one's. Exits with status 1 on any mismatch.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.ClusterSchedulingCheck [accounts] [nodes] [work ms]
+ * </pre>
+ */
+public class ClusterSchedulingCheck {
+
+    private static final long NODE_TTL_SECONDS = 2;
+    private static final int LOCK_ROUNDS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int maxNodes = Math.max(3, args.length > 1 ? Integer.parseInt(args[1]) : 4);
+        long workMillis = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        LoggerContext logging = (LoggerContext) LoggerFactory.getILoggerFactory();
+        logging.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.ERROR);
+        // Nodes racing to create a lock row log the losers' primary key violations
+        logging.getLogger("org.hibernate.engine.jdbc.spi.SqlExceptionHelper").setLevel(Level.OFF);
+
+        List<String> keys = new ArrayList<>(accounts);
+        for (int i = 1; i <= accounts; i++) {
+            keys.add(String.valueOf(i));
+        }
+        List<Node> nodes = new ArrayList<>();
+        int problems = 0;
+        try {
+            // Nodes join one by one
+            Map<String, String> owners = null;
+            for (int n = 0; n < maxNodes; n++) {
+                Node joined = Node.start(n);
+                nodes.add(joined);
+                refreshAll(nodes);
+                Map<String, String> next = new HashMap<>();
+                problems += assign(nodes, keys, next);
+                if (owners != null) {
+                    problems += compareMoves(owners, next, null, joined.membership.getNodeId());
+                }
+                owners = next;
+                long millis = syncRound(nodes, keys, workMillis);
+                System.out.printf("%d node(s): shares %s, sync round of %d accounts in %d ms%n", nodes.size(),
+                    shares(nodes, keys), accounts, millis);
+            }
+
+            problems += localCacheProblems(nodes.get(0), nodes.get(1));
+
+            // A node shuts down cleanly: the others take its keys at their next heartbeat
+            Node leaving = nodes.remove(nodes.size() - 1);
+            String left = leaving.membership.getNodeId();
+            leaving.context.close();
+            refreshAll(nodes);
+            Map<String, String> afterLeave = new HashMap<>();
+            problems += assign(nodes, keys, afterLeave);
+            problems += compareMoves(owners, afterLeave, left, null);
+            System.out.printf("%s left: shares %s%n", left, shares(nodes, keys));
+            owners = afterLeave;
+
+            // A node goes silent: the others drop it once its heartbeat is older than the TTL
+            Node silent = nodes.get(nodes.size() - 1);
+            String silentId = silent.membership.getNodeId();
+            List<Node> live = nodes.subList(0, nodes.size() - 1);
+            Thread.sleep(Duration.ofSeconds(NODE_TTL_SECONDS).toMillis() + 500);
+            refreshAll(live);
+            Map<String, String> afterSilence = new HashMap<>();
+            problems += assign(live, keys, afterSilence);
+            problems += compareMoves(owners, afterSilence, silentId, null);
+            System.out.printf("%s silent: shares %s%n", silentId, shares(live, keys));
+
+            // Every node races for the same locks; each job runs once
+            Map<String, AtomicInteger> runs = new ConcurrentHashMap<>();
+            CyclicBarrier barrier = new CyclicBarrier(nodes.size());
+            ExecutorService executor = Executors.newFixedThreadPool(nodes.size());
+            List<Future<?>> racers = new ArrayList<>();
+            for (Node node : nodes) {
+                racers.add(executor.submit(() -> {
+                    for (int round = 0; round < LOCK_ROUNDS; round++) {
+                        String job = "job-" + round;
+                        barrier.await();
+                        node.locks.runLocked(job, Duration.ofMinutes(1),
+                            () -> runs.computeIfAbsent(job, name -> new AtomicInteger()).incrementAndGet());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> racer : racers) {
+                racer.get();
+            }
+            int wrongRuns = 0;
+            for (int round = 0; round < LOCK_ROUNDS; round++) {
+                AtomicInteger count = runs.get("job-" + round);
+                if (count == null || count.get() != 1) {
+                    wrongRuns++;
+                }
+            }
+            // A node running late after the job finished still finds it held for the minimum hold
+            boolean lateRun = nodes.get(0).locks.runLocked("job-0", Duration.ofMinutes(1), () -> { });
+            System.out.printf("%d nodes raced for %d locks: %d ran other than once, late rerun %s%n", nodes.size(),
+                LOCK_ROUNDS, wrongRuns, lateRun ? "ran" : "skipped");
+            problems += wrongRuns + (lateRun ? 1 : 0);
+
+            // A holder past its maximum loses the lock, and its late release leaves the new holder's alone
+            Node first = nodes.get(0);
+            Node second = nodes.get(1);
+            Future<?> stuck = executor.submit(() -> first.locks.runLocked("stuck", Duration.ofSeconds(1), () -> sleep(1_500)));
+            sleep(300);
+            boolean whileHeld = second.locks.runLocked("stuck", Duration.ofMinutes(1), () -> { });
+            sleep(1_000);
+            boolean afterMost = second.locks.runLocked("stuck", Duration.ofMinutes(1), () -> { });
+            stuck.get();
+            String holder = second.context.getBean(SchedulerLockRepository.class).findById("stuck")
+                .map(SchedulerLock::getLockedBy).orElse(null);
+            boolean stillHeld = !first.locks.runLocked("stuck", Duration.ofMinutes(1), () -> { });
+            System.out.printf("lock past its maximum: taken while held %s, taken after %s, holder %s, still held %s%n",
+                whileHeld, afterMost, holder, stillHeld);
+            if (whileHeld || !afterMost || !second.membership.getNodeId().equals(holder) || !stillHeld) {
+                problems++;
+            }
+            executor.shutdown();
+        } finally {
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                nodes.get(i).context.close();
+            }
+        }
+
+        System.out.printf("problems=%d%n", problems);
+        if (problems > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * One node writes notifications and a pattern; the other's caches miss them until its resync
+     */
+    private static int localCacheProblems(Node writer, Node reader) {
+        String user = "user-1";
+        NotificationInbox readerInbox = reader.context.getBean(NotificationInbox.class);
+        RecurringPatternIndex readerIndex = reader.context.getBean(RecurringPatternIndex.class);
+        CategorizationRuleBook readerRules = reader.context.getBean(CategorizationRuleBook.class);
+        NotificationSettingsCache readerSettings = reader.context.getBean(NotificationSettingsCache.class);
+        readerIndex.rebuild();
+        readerRules.resync();
+        long unreadBefore = TenantContext.callAs(user, readerInbox::unread);
+        int patternsBefore = readerIndex.size();
+        int rulesBefore = readerRules.size();
+        boolean templateBefore = readerSettings.getTemplate("CLUSTER_CHECK").isPresent();
+
+        NotificationInbox writerInbox = writer.context.getBean(NotificationInbox.class);
+        RecurringTransactionRepository writerPatterns = writer.context.getBean(RecurringTransactionRepository.class);
+        TenantContext.runAs(user, () -> {
+            for (int i = 0; i < 3; i++) {
+                writerInbox.create(new AppNotification("Budget alert " + i, "Over budget", "BUDGET_ALERT", "HIGH"));
+            }
+            RecurringTransaction pattern = new RecurringTransaction("Gym", -40.0, RecurrenceFrequency.MONTHLY);
+            pattern.setFirstOccurrence(LocalDate.now().minusMonths(3));
+            pattern.setLastOccurrence(LocalDate.now().minusDays(25));
+            pattern.setNextExpectedDate(LocalDate.now().plusDays(5));
+            writerPatterns.save(pattern);
+            CategorizationRule rule = new CategorizationRule("Gym", null, null, "Fitness", "EXPENSES");
+            rule.setEnabled(true);
+            writer.context.getBean(CategorizationRuleRepository.class).save(rule);
+        });
+        NotificationTemplate template = new NotificationTemplate("cluster-check", "CLUSTER_CHECK", "EMAIL");
+        template.setEmailSubject("Subject");
+        template.setEmailBody("Body");
+        writer.context.getBean(NotificationTemplateRepository.class).save(template);
+        long unreadStale = TenantContext.callAs(user, readerInbox::unread);
+
+        reader.context.getBean(NodeCacheResync.class).resyncIfClustered();
+        long unreadAfter = TenantContext.callAs(user, readerInbox::unread);
+        int patternsAfter = readerIndex.size();
+        int rulesAfter = readerRules.size();
+        boolean templateAfter = readerSettings.getTemplate("CLUSTER_CHECK").isPresent();
+        System.out.printf("other node's writes: unread %d -> %d before resync, %d after; patterns %d -> %d; "
+            + "rules %d -> %d; template %s -> %s%n", unreadBefore, unreadStale, unreadAfter, patternsBefore,
+            patternsAfter, rulesBefore, rulesAfter, templateBefore, templateAfter);
+        return unreadAfter == unreadBefore + 3 && patternsAfter == patternsBefore + 1
+            && rulesAfter == rulesBefore + 1 && !templateBefore && templateAfter ? 0 : 1;
+    }
+
+    /**
+     * Heartbeats of all nodes, then a second round so every node has seen the others' fresh heartbeats
+     * (running nodes heartbeat well within the TTL; here the rounds in between can outlast it)
+     */
+    private static void refreshAll(List<Node> nodes) {
+        nodes.forEach(node -> node.membership.refresh());
+        nodes.forEach(node -> node.membership.refresh());
+    }
+
+    /**
+     * Fills key -> owning node; counts keys owned by no node or by several
+     */
+    private static int assign(List<Node> nodes, List<String> keys, Map<String, String> owners) {
+        int problems = 0;
+        for (Node node : nodes) {
+            for (String key : node.membership.ownShare(keys, key -> key)) {
+                if (owners.put(key, node.membership.getNodeId()) != null) {
+                    problems++;
+                }
+            }
+        }
+        if (owners.size() != keys.size()) {
+            System.out.printf("%d of %d keys have no owner%n", keys.size() - owners.size(), keys.size());
+            problems++;
+        }
+        if (problems > 0) {
+            System.out.printf("%d problems assigning keys to %d nodes%n", problems, nodes.size());
+        }
+        return problems;
+    }
+
+    /**
+     * Keys may only move away from {@code from} (when set) and only to {@code to} (when set)
+     */
+    private static int compareMoves(Map<String, String> before, Map<String, String> after, String from, String to) {
+        int moved = 0;
+        int wrong = 0;
+        for (Map.Entry<String, String> entry : before.entrySet()) {
+            String now = after.get(entry.getKey());
+            if (entry.getValue().equals(now)) {
+                continue;
+            }
+            moved++;
+            if ((from != null && !from.equals(entry.getValue())) || (to != null && !to.equals(now))) {
+                wrong++;
+            }
+        }
+        System.out.printf("%d of %d keys moved, %d of them between other nodes%n", moved, before.size(), wrong);
+        return wrong;
+    }
+
+    private static Map<String, Integer> shares(List<Node> nodes, List<String> keys) {
+        Map<String, Integer> shares = new TreeMap<>();
+        for (Node node : nodes) {
+            shares.put(node.membership.getNodeId(), node.membership.ownShare(keys, key -> key).size());
+        }
+        return shares;
+    }
+
+    /**
+     * Every node works through its share at once, one account at a time; returns the round's wall time
+     */
+    private static long syncRound(List<Node> nodes, List<String> keys, long workMillis) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(nodes.size());
+        long start = System.nanoTime();
+        List<Future<?>> rounds = new ArrayList<>();
+        for (Node node : nodes) {
+            rounds.add(executor.submit(() -> node.membership.ownShare(keys, key -> key).forEach(key -> sleep(workMillis))));
+        }
+        for (Future<?> round : rounds) {
+            round.get();
+        }
+        executor.shutdown();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Node {
+        private final AnnotationConfigApplicationContext context;
+        private final ClusterMembership membership;
+        private final JobLocks locks;
+
+        private Node(AnnotationConfigApplicationContext context) {
+            this.context = context;
+            this.membership = context.getBean(ClusterMembership.class);
+            this.locks = context.getBean(JobLocks.class);
+        }
+
+        static Node start(int index) {
+            AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("node", Map.of(
+                "cluster.node-id", "node-" + index,
+                "cluster.node-ttl-seconds", String.valueOf(NODE_TTL_SECONDS),
+                "cluster.lock.min-hold-seconds", "30",
+                // The first node creates the schema, the others use it
+                "check.ddl", index == 0 ? "create" : "none")));
+            context.register(NodeConfig.class);
+            context.refresh();
+            return new Node(context);
+        }
+    }
+
+    @Configuration
+    @Import({CheckJpaConfig.class, NodeCacheResync.class, RecurringPatternIndex.class, UpcomingBillsTimeline.class,
+        NotificationInbox.class, TagDictionary.class, TransactionMetaService.class, RuleBackfill.class,
+        CategorizationRuleBook.class, NotificationSettingsCache.class})
+    static class NodeConfig {
+
+        @Bean
+        DataSource dataSource() {
+            // One database for all nodes, kept while any node is connected to it
+            return new DriverManagerDataSource("jdbc:h2:mem:clustercheck;DB_CLOSE_DELAY=-1", "sa", "");
+        }
+
+        @Bean
+        ClusterMembership clusterMembership(ClusterNodeRepository repository,
+                                            PlatformTransactionManager transactionManager,
+                                            @Value("${cluster.node-id}") String nodeId,
+                                            @Value("${cluster.node-ttl-seconds}") long nodeTtlSeconds) {
+            return new ClusterMembership(repository, transactionManager, nodeId, nodeTtlSeconds);
+        }
+
+        @Bean
+        JobLocks jobLocks(SchedulerLockRepository repository, ClusterMembership membership,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${cluster.lock.min-hold-seconds}") long minHoldSeconds) {
+            return new JobLocks(repository, membership, transactionManager, minHoldSeconds);
+        }
+    }
+}
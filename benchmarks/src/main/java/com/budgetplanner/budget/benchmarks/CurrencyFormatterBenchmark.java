@@ -0,0 +1,74 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.util.CurrencyFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting calls made for every grid cell and card on the dashboard.
+ * Independent of data set size, so it uses its own small seeded amount table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrencyFormatterBenchmark {
+
+    private static final int AMOUNT_COUNT = 1024;
+
+    private final double[] amounts = new double[AMOUNT_COUNT];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SyntheticTransactions.DEFAULT_SEED);
+        for (int i = 0; i < AMOUNT_COUNT; i++) {
+            // Mix of small card spend, bills and large balances up to the billions
+            double magnitude = Math.pow(10, random.nextInt(10));
+            amounts[i] = (random.nextDouble() * 2 - 1) * magnitude;
+        }
+    }
+
+    private double nextAmount() {
+        index = (index + 1) & (AMOUNT_COUNT - 1);
+        return amounts[index];
+    }
+
+    @Benchmark
+    public String formatUSD() {
+        return CurrencyFormatter.formatUSD(nextAmount());
+    }
+
+    @Benchmark
+    public String formatAmount() {
+        return CurrencyFormatter.formatAmount(nextAmount());
+    }
+
+    @Benchmark
+    public String formatCompactUSD() {
+        return CurrencyFormatter.formatCompactUSD(nextAmount());
+    }
+
+    @Benchmark
+    public String formatSignedUSD() {
+        return CurrencyFormatter.formatSignedUSD(nextAmount());
+    }
+
+    @Benchmark
+    public String formatPercentage() {
+        return CurrencyFormatter.formatPercentage(nextAmount() / 1_000_000_000);
+    }
+}
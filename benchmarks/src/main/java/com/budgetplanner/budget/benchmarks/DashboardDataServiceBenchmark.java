@@ -0,0 +1,77 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.service.DashboardDataService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard card and chart computations over the current month / last 30 days.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class DashboardDataServiceBenchmark {
+
+    private DashboardDataService dashboardDataService;
+    private LocalDate rangeStart;
+    private LocalDate rangeEnd;
+
+    @Setup
+    public void setUp(TransactionDataState data) {
+        dashboardDataService = new DashboardDataService(InMemoryRepositories.bankTransactions(data.transactions));
+        rangeEnd = LocalDate.now();
+        rangeStart = rangeEnd.minusDays(90);
+    }
+
+    @Benchmark
+    public double totalEarnings() {
+        return dashboardDataService.getTotalEarnings();
+    }
+
+    @Benchmark
+    public double totalSpendings() {
+        return dashboardDataService.getTotalSpendings();
+    }
+
+    @Benchmark
+    public Map<String, Double> expensePercentages() {
+        return dashboardDataService.getExpensePercentages();
+    }
+
+    @Benchmark
+    public Map<String, List<BankTransaction>> recentTransactions() {
+        return dashboardDataService.getRecentTransactions(7);
+    }
+
+    @Benchmark
+    public Map<Integer, Double> activityStatistics() {
+        return dashboardDataService.getActivityStatistics();
+    }
+
+    @Benchmark
+    public Map<LocalDate, Double> activityStatisticsByDateRange() {
+        return dashboardDataService.getActivityStatisticsByDateRange(rangeStart, rangeEnd);
+    }
+
+    @Benchmark
+    public double dailyBudgetLimit() {
+        return dashboardDataService.getDailyBudgetLimit();
+    }
+}
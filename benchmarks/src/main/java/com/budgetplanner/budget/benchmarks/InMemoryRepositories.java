@@ -0,0 +1,176 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.BudgetItem;
+import com.budgetplanner.budget.model.NotificationPreference;
+import com.budgetplanner.budget.model.NotificationTemplate;
+import com.budgetplanner.budget.repository.BankAccountRepository;
+import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.repository.BudgetItemRepository;
+import com.budgetplanner.budget.repository.NotificationPreferenceRepository;
+import com.budgetplanner.budget.repository.NotificationTemplateRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory stand-ins for the Spring Data repositories used by the benchmarked services.
+ * Date range finders use binary search over a date-sorted list, mirroring an indexed lookup,
+ * so the measured time is dominated by the service code rather than the stub.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    /**
+     * @param byDateAsc transactions sorted by transaction date ascending
+     */
+    static BankTransactionRepository bankTransactions(List<BankTransaction> byDateAsc) {
+        return proxy(BankTransactionRepository.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "findByTransactionDateBetween":
+                    return new ArrayList<>(range(byDateAsc, (LocalDate) args[0], (LocalDate) args[1]));
+                case "findByTransactionDateBetweenOrderByTransactionDateDesc": {
+                    List<BankTransaction> result = new ArrayList<>(range(byDateAsc, (LocalDate) args[0], (LocalDate) args[1]));
+                    Collections.reverse(result);
+                    return result;
+                }
+                case "findAll":
+                    return new ArrayList<>(byDateAsc);
+                case "count":
+                    return (long) byDateAsc.size();
+                default:
+                    return objectMethod(proxy, method.getName(), args);
+            }
+        });
+    }
+
+    /**
+     * Write-side stub for the sync path: nothing is stored, so every incoming transaction is new
+     */
+    static BankTransactionRepository discardingBankTransactions() {
+        return proxy(BankTransactionRepository.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "findByPlaidTransactionId":
+                    return Optional.empty();
+                case "save":
+                    return args[0];
+                default:
+                    return objectMethod(proxy, method.getName(), args);
+            }
+        });
+    }
+
+    static BankAccountRepository discardingBankAccounts() {
+        return proxy(BankAccountRepository.class, (proxy, method, args) -> {
+            if ("save".equals(method.getName())) {
+                return args[0];
+            }
+            return objectMethod(proxy, method.getName(), args);
+        });
+    }
+
+    static BudgetItemRepository budgetItems(List<BudgetItem> items) {
+        return proxy(BudgetItemRepository.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "findByYearAndMonth": {
+                    List<BudgetItem> result = new ArrayList<>();
+                    for (BudgetItem item : items) {
+                        if (args[0].equals(item.getYear()) && args[1].equals(item.getMonth())) {
+                            result.add(item);
+                        }
+                    }
+                    return result;
+                }
+                case "findByCategoryAndCategoryTypeAndYearAndMonth":
+                    return Optional.empty();
+                case "save":
+                    return args[0];
+                default:
+                    return objectMethod(proxy, method.getName(), args);
+            }
+        });
+    }
+
+    static NotificationPreferenceRepository notificationPreferences(Map<String, NotificationPreference> byUserId) {
+        return proxy(NotificationPreferenceRepository.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "findByUserId":
+                    return Optional.ofNullable(byUserId.get((String) args[0]));
+                case "findByUserIdIn": {
+                    List<NotificationPreference> result = new ArrayList<>();
+                    for (Object userId : (Collection<?>) args[0]) {
+                        NotificationPreference preference = byUserId.get((String) userId);
+                        if (preference != null) {
+                            result.add(preference);
+                        }
+                    }
+                    return result;
+                }
+                default:
+                    return objectMethod(proxy, method.getName(), args);
+            }
+        });
+    }
+
+    static NotificationTemplateRepository notificationTemplates(List<NotificationTemplate> templates) {
+        return proxy(NotificationTemplateRepository.class, (proxy, method, args) -> {
+            if ("findByCategoryAndIsActiveTrue".equals(method.getName())) {
+                List<NotificationTemplate> result = new ArrayList<>();
+                for (NotificationTemplate template : templates) {
+                    if (args[0].equals(template.getCategory()) && Boolean.TRUE.equals(template.getIsActive())) {
+                        result.add(template);
+                    }
+                }
+                return result;
+            }
+            return objectMethod(proxy, method.getName(), args);
+        });
+    }
+
+    private static List<BankTransaction> range(List<BankTransaction> byDateAsc, LocalDate start, LocalDate end) {
+        int from = firstIndexOnOrAfter(byDateAsc, start);
+        int to = firstIndexOnOrAfter(byDateAsc, end.plusDays(1));
+        return byDateAsc.subList(from, Math.max(from, to));
+    }
+
+    private static int firstIndexOnOrAfter(List<BankTransaction> byDateAsc, LocalDate date) {
+        int low = 0;
+        int high = byDateAsc.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byDateAsc.get(mid).getTransactionDate().isBefore(date)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Object objectMethod(Object proxy, String name, Object[] args) {
+        switch (name) {
+            case "toString":
+                return "InMemoryRepository";
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                throw new UnsupportedOperationException("Not stubbed for benchmarks: " + name);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,158 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.service.InstitutionDirectory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Check for {@link InstitutionDirectory}. Many threads link accounts at the same banks at once against a
+ * slow lookup; each institution must be fetched exactly once. Failed lookups must not be kept, the map must
+ * stay within its bound, and a directory preloaded from a saved snapshot must answer without any lookup.
+ * Exits with status 1 otherwise.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.InstitutionDirectoryCheck [threads] [institutions]
+ * </pre>
+ */
+public class InstitutionDirectoryCheck {
+
+    private static final long LOOKUP_MILLIS = 50;
+    private static final int LINKS_PER_THREAD = 20;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int institutions = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int problems = 0;
+
+        LookupCounts calls = new LookupCounts();
+        Function<String, String> lookup = id -> {
+            calls.count(id);
+            sleep(LOOKUP_MILLIS);
+            return "Bank " + id.substring("ins_".length());
+        };
+
+        // Concurrent links: every thread starts at the same moment and cycles through the banks
+        Path snapshot = Files.createTempFile("institutions", ".properties");
+        InstitutionDirectory directory = new InstitutionDirectory(60, 1000, snapshot.toString());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> runs = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            runs.add(executor.submit(() -> {
+                start.await();
+                int wrong = 0;
+                for (int i = 0; i < LINKS_PER_THREAD; i++) {
+                    int bank = (offset + i) % institutions;
+                    if (!("Bank " + bank).equals(directory.name("ins_" + bank, lookup))) {
+                        wrong++;
+                    }
+                }
+                return wrong;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<Integer> run : runs) {
+            problems += run.get();
+        }
+        long millis = (System.nanoTime() - begin) / 1_000_000;
+        executor.shutdown();
+        System.out.printf("%d links over %d institutions: %d lookups in %d ms%n",
+            threads * LINKS_PER_THREAD, institutions, calls.total(), millis);
+        for (int bank = 0; bank < institutions; bank++) {
+            if (calls.of("ins_" + bank) != 1) {
+                System.out.printf("ins_%d looked up %d times%n", bank, calls.of("ins_" + bank));
+                problems++;
+            }
+        }
+
+        // Failures answer Unknown Bank and are retried next time
+        AtomicInteger failures = new AtomicInteger();
+        Function<String, String> failing = id -> {
+            failures.incrementAndGet();
+            return null;
+        };
+        String first = directory.name("ins_down", failing);
+        String second = directory.name("ins_down", failing);
+        if (!InstitutionDirectory.UNKNOWN.equals(first) || !InstitutionDirectory.UNKNOWN.equals(second)
+            || failures.get() != 2) {
+            System.out.printf("failed lookups: %s, %s after %d calls%n", first, second, failures.get());
+            problems++;
+        }
+
+        // Bound: the cache evicts down to its maximum size
+        InstitutionDirectory bounded = new InstitutionDirectory(60, 4, "");
+        for (int bank = 0; bank < 10; bank++) {
+            bounded.name("ins_" + bank, id -> "Bank");
+        }
+        if (bounded.size() != 4) {
+            System.out.printf("bounded directory holds %d names%n", bounded.size());
+            problems++;
+        }
+
+        // Snapshot written on shutdown warms the next start
+        directory.saveSnapshot();
+        InstitutionDirectory restarted = new InstitutionDirectory(60, 1000, snapshot.toString());
+        restarted.preload();
+        LookupCounts afterRestart = new LookupCounts();
+        for (int bank = 0; bank < institutions; bank++) {
+            String name = restarted.name("ins_" + bank, id -> {
+                afterRestart.count(id);
+                return "Bank " + id.substring("ins_".length());
+            });
+            if (!("Bank " + bank).equals(name)) {
+                problems++;
+            }
+        }
+        System.out.printf("after restart from snapshot: %d names, %d lookups%n", restarted.size(), afterRestart.total());
+        if (afterRestart.total() != 0) {
+            problems++;
+        }
+        Files.deleteIfExists(snapshot);
+
+        System.out.printf("problems=%d%n", problems);
+        if (problems > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Lookup calls per institution id
+     */
+    private static final class LookupCounts {
+
+        private final ConcurrentHashMap<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+        void count(String id) {
+            counts.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+        }
+
+        int of(String id) {
+            AtomicInteger count = counts.get(id);
+            return count != null ? count.get() : 0;
+        }
+
+        int total() {
+            return counts.values().stream().mapToInt(AtomicInteger::get).sum();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.event.BankAccountChangedEvent;
+import com.budgetplanner.budget.event.NotificationChangedEvent;
+import com.budgetplanner.budget.event.SyncCompletedEvent;
+import com.budgetplanner.budget.event.TransactionChangedEvent;
+import com.budgetplanner.budget.service.live.LiveTopic;
+import com.budgetplanner.budget.service.live.LiveUpdateBus;
+import com.budgetplanner.budget.tenant.TenantContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Coalescing check for the {@link LiveUpdateBus}. A sync that stores N transactions arrives as N committed
+ * {@link TransactionChangedEvent}s followed by a {@link SyncCompletedEvent}; every subscriber (one per open
+ * UI) must get exactly one callback for it. A steady trickle of changes must be flushed at least once per
+ * max delay, and subscribers must only hear about their own topics. A change one user commits must only
+ * reach that user's subscribers, one committed as the system tenant reaches everyone's. Exits with status 1
+ * otherwise.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.LiveUpdateCoalescingCheck [transactions] [subscribers]
+ * </pre>
+ */
+public class LiveUpdateCoalescingCheck {
+
+    private static final long QUIET_MILLIS = 250;
+    private static final long MAX_DELAY_MILLIS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int transactions = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int subscriberCount = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int problems = 0;
+
+        LiveUpdateBus bus = new LiveUpdateBus(QUIET_MILLIS, MAX_DELAY_MILLIS);
+        try {
+            // Half the subscribers are dashboards (everything), half notification lists
+            List<List<Set<LiveTopic>>> received = new ArrayList<>();
+            for (int i = 0; i < subscriberCount; i++) {
+                List<Set<LiveTopic>> calls = new CopyOnWriteArrayList<>();
+                received.add(calls);
+                Set<LiveTopic> topics = i % 2 == 0 ? EnumSet.allOf(LiveTopic.class) : EnumSet.of(LiveTopic.NOTIFICATIONS);
+                bus.subscribe(topics, calls::add);
+            }
+
+            // One sync: the events reach the bus back to back once the sync transaction commits
+            long start = System.nanoTime();
+            for (int i = 0; i < transactions; i++) {
+                bus.onTransactionChanged(new TransactionChangedEvent((long) i, "item-1", LocalDate.now()));
+            }
+            bus.onSyncCompleted(new SyncCompletedEvent(1L, transactions));
+            Thread.sleep(QUIET_MILLIS + 200);
+            long syncMillis = (System.nanoTime() - start) / 1_000_000;
+
+            for (int i = 0; i < subscriberCount; i++) {
+                List<Set<LiveTopic>> calls = received.get(i);
+                Set<LiveTopic> expected = i % 2 == 0 ? EnumSet.of(LiveTopic.TRANSACTIONS, LiveTopic.SYNC) : null;
+                boolean ok = expected == null ? calls.isEmpty() : calls.size() == 1 && calls.get(0).equals(expected);
+                if (!ok) {
+                    System.out.printf("Subscriber %d after sync: %s%n", i, calls);
+                    problems++;
+                }
+                calls.clear();
+            }
+            System.out.printf("sync: %d transaction events -> %d flush(es), pushed within %d ms%n",
+                transactions, bus.flushCount(), syncMillis);
+            if (bus.flushCount() != 1) {
+                problems++;
+            }
+
+            // A trickle that never goes quiet: one notification every 20 ms for 3 s
+            long trickleStart = System.nanoTime();
+            int trickle = 0;
+            while (System.nanoTime() - trickleStart < 3_000_000_000L) {
+                bus.onNotificationChanged(new NotificationChangedEvent((long) trickle++));
+                Thread.sleep(20);
+            }
+            Thread.sleep(QUIET_MILLIS + 200);
+            long trickleFlushes = bus.flushCount() - 1;
+            int notificationCalls = received.get(1).size();
+            System.out.printf("trickle: %d notification events over 3 s -> %d flushes%n", trickle, trickleFlushes);
+            // Max delay bounds the gap between flushes, so 3 s of changes need 3-4 of them, not one per event
+            if (trickleFlushes < 3 || trickleFlushes > 5 || notificationCalls != trickleFlushes) {
+                problems++;
+            }
+        } finally {
+            bus.stop();
+        }
+        problems += tenantProblems(subscriberCount);
+
+        System.out.printf("problems=%d%n", problems);
+        if (problems > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Subscribers of two users: each user's change reaches only their own, a system change reaches both
+     */
+    private static int tenantProblems(int subscriberCount) throws InterruptedException {
+        int problems = 0;
+        LiveUpdateBus bus = new LiveUpdateBus(QUIET_MILLIS, MAX_DELAY_MILLIS);
+        try {
+            List<String> tenants = List.of("user-a", "user-b");
+            List<List<Set<LiveTopic>>> received = new ArrayList<>();
+            for (int i = 0; i < subscriberCount; i++) {
+                List<Set<LiveTopic>> calls = new CopyOnWriteArrayList<>();
+                received.add(calls);
+                TenantContext.runAs(tenants.get(i % 2),
+                    () -> bus.subscribe(EnumSet.allOf(LiveTopic.class), calls::add));
+            }
+
+            TenantContext.runAs("user-a", () -> bus.onTransactionChanged(
+                new TransactionChangedEvent(1L, "item-a", LocalDate.now())));
+            TenantContext.runAs("user-b", () -> bus.onNotificationChanged(new NotificationChangedEvent(1L)));
+            Thread.sleep(QUIET_MILLIS + 200);
+            for (int i = 0; i < subscriberCount; i++) {
+                Set<LiveTopic> expected = EnumSet.of(i % 2 == 0 ? LiveTopic.TRANSACTIONS : LiveTopic.NOTIFICATIONS);
+                problems += expectOnly(received.get(i), expected, "user change", i);
+            }
+
+            TenantContext.runAsSystem(() -> bus.onSyncCompleted(new SyncCompletedEvent(1L, 1)));
+            TenantContext.runAs("user-a", () -> bus.onBankAccountChanged(new BankAccountChangedEvent(1L)));
+            Thread.sleep(QUIET_MILLIS + 200);
+            for (int i = 0; i < subscriberCount; i++) {
+                Set<LiveTopic> expected = i % 2 == 0
+                    ? EnumSet.of(LiveTopic.SYNC, LiveTopic.ACCOUNTS)
+                    : EnumSet.of(LiveTopic.SYNC);
+                problems += expectOnly(received.get(i), expected, "system change", i);
+            }
+            System.out.printf("tenants: %d subscribers of %d users, %d flushes%n",
+                subscriberCount, tenants.size(), bus.flushCount());
+        } finally {
+            bus.stop();
+        }
+        return problems;
+    }
+
+    private static int expectOnly(List<Set<LiveTopic>> calls, Set<LiveTopic> expected, String phase, int subscriber) {
+        boolean ok = calls.size() == 1 && calls.get(0).equals(expected);
+        if (!ok) {
+            System.out.printf("Subscriber %d after %s: %s, expected %s%n", subscriber, phase, calls, expected);
+        }
+        calls.clear();
+        return ok ? 0 : 1;
+    }
+}
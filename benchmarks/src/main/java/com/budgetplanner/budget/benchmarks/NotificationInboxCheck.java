@@ -0,0 +1,192 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.model.AppNotification;
+import com.budgetplanner.budget.repository.AppNotificationRepository;
+import com.budgetplanner.budget.service.notification.NotificationInbox;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Check for {@link NotificationInbox} against an in-memory H2 database. Several threads create, read,
+ * unread and delete notifications concurrently; afterwards the maintained counts must equal a GROUP BY over
+ * the table, and the keyset pages of every filter must list exactly the filter's rows in newest-first order.
+ * Also prints the time of one page against loading the whole list. Exits with status 1 on any mismatch.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.NotificationInboxCheck [notifications] [threads]
+ * </pre>
+ */
+public class NotificationInboxCheck {
+
+    private static final String[] CATEGORIES = {"AI_INSIGHT", "BUDGET_ALERT", "SAVINGS_TIP", "RECURRING_REMINDER"};
+    private static final int OPERATIONS_PER_THREAD = 2_000;
+    private static final int PAGE_SIZE = 20;
+
+    public static void main(String[] args) throws Exception {
+        int notifications = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.ERROR);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CheckConfig.class)) {
+            AppNotificationRepository repository = context.getBean(AppNotificationRepository.class);
+            NotificationInbox inbox = context.getBean(NotificationInbox.class);
+            int problems = 0;
+
+            // History written around the inbox, picked up by the startup count
+            SplittableRandom seed = new SplittableRandom(7);
+            List<AppNotification> history = new ArrayList<>();
+            for (int i = 0; i < notifications; i++) {
+                history.add(notification(seed, i));
+                if (history.size() == 1_000) {
+                    repository.saveAll(history);
+                    history.clear();
+                }
+            }
+            repository.saveAll(history);
+            inbox.resync();
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> runs = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long threadSeed = t;
+                runs.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(threadSeed);
+                    for (int op = 0; op < OPERATIONS_PER_THREAD; op++) {
+                        long id = 1 + random.nextLong(notifications);
+                        AppNotification target = repository.findById(id).orElse(null);
+                        int action = random.nextInt(10);
+                        if (action < 3 || target == null) {
+                            inbox.create(notification(random, op));
+                        } else if (action < 8) {
+                            inbox.setRead(target, !target.getIsRead());
+                        } else {
+                            inbox.delete(target);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+            executor.shutdown();
+
+            problems += compareCounts("after concurrent writes", inbox, repository);
+            problems += comparePages(inbox, repository);
+
+            long start = System.nanoTime();
+            List<AppNotification> firstPage = inbox.page(NotificationInbox.ALL, null, PAGE_SIZE);
+            long pageMicros = (System.nanoTime() - start) / 1_000;
+            start = System.nanoTime();
+            int all = repository.findAllByOrderByCreatedAtDesc().size();
+            long allMicros = (System.nanoTime() - start) / 1_000;
+            System.out.printf("first page of %d: %d us, whole list of %d: %d us%n",
+                firstPage.size(), pageMicros, all, allMicros);
+
+            int marked = inbox.markAllRead();
+            problems += compareCounts("after mark all read (" + marked + ")", inbox, repository);
+            if (inbox.unread() != 0) {
+                problems++;
+            }
+            int cleared = inbox.clearAll();
+            problems += compareCounts("after clear all (" + cleared + ")", inbox, repository);
+            if (inbox.total() != 0 || repository.count() != 0) {
+                problems++;
+            }
+
+            System.out.printf("problems=%d%n", problems);
+            if (problems > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static AppNotification notification(SplittableRandom random, int index) {
+        AppNotification notification = new AppNotification("Notification " + index, "Message " + index,
+            CATEGORIES[random.nextInt(CATEGORIES.length)], "MEDIUM");
+        notification.setIsRead(random.nextInt(3) == 0);
+        return notification;
+    }
+
+    private static int compareCounts(String stage, NotificationInbox inbox, AppNotificationRepository repository) {
+        Map<String, long[]> actual = new HashMap<>();
+        for (Object[] row : repository.countByCategoryAndRead()) {
+            long[] counts = actual.computeIfAbsent((String) row[0], key -> new long[2]);
+            long rows = ((Number) row[2]).longValue();
+            counts[0] += rows;
+            if (!Boolean.TRUE.equals(row[1])) {
+                counts[1] += rows;
+            }
+        }
+        int problems = 0;
+        for (String category : CATEGORIES) {
+            long[] counts = actual.getOrDefault(category, new long[2]);
+            if (inbox.total(category) != counts[0] || inbox.unread(category) != counts[1]) {
+                System.out.printf("%s, %s: counted total=%d unread=%d, table total=%d unread=%d%n", stage, category,
+                    inbox.total(category), inbox.unread(category), counts[0], counts[1]);
+                problems++;
+            }
+        }
+        System.out.printf("%s: total=%d unread=%d%n", stage, inbox.total(), inbox.unread());
+        return problems;
+    }
+
+    private static int comparePages(NotificationInbox inbox, AppNotificationRepository repository) {
+        Comparator<AppNotification> newestFirst = Comparator.comparing(AppNotification::getCreatedAt)
+            .thenComparing(AppNotification::getId).reversed();
+        List<AppNotification> everything = new ArrayList<>(repository.findAll());
+        everything.sort(newestFirst);
+
+        List<String> filters = new ArrayList<>(List.of(NotificationInbox.ALL, NotificationInbox.UNREAD));
+        filters.addAll(List.of(CATEGORIES));
+        int problems = 0;
+        for (String filter : filters) {
+            List<Long> expected = everything.stream()
+                .filter(n -> NotificationInbox.ALL.equals(filter)
+                    || (NotificationInbox.UNREAD.equals(filter) ? !n.getIsRead() : filter.equals(n.getCategory())))
+                .map(AppNotification::getId)
+                .toList();
+            List<Long> paged = new ArrayList<>();
+            AppNotification last = null;
+            List<AppNotification> page;
+            do {
+                page = inbox.page(filter, last, PAGE_SIZE);
+                page.forEach(n -> paged.add(n.getId()));
+                last = page.isEmpty() ? null : page.get(page.size() - 1);
+            } while (page.size() == PAGE_SIZE);
+            if (!paged.equals(expected)) {
+                System.out.printf("Pages of %s: %d rows, expected %d%n", filter, paged.size(), expected.size());
+                problems++;
+            }
+        }
+        return problems;
+    }
+
+    @Configuration
+    @Import(CheckDatabaseConfig.class)
+    static class CheckConfig {
+
+        @Bean
+        NotificationInbox notificationInbox(AppNotificationRepository repository,
+                                            org.springframework.context.ApplicationEventPublisher eventPublisher,
+                                            PlatformTransactionManager transactionManager) {
+            return new NotificationInbox(repository, eventPublisher, transactionManager);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.model.AppNotification;
+import com.budgetplanner.budget.model.NotificationOutboxEntry;
+import com.budgetplanner.budget.model.NotificationOutboxEntry.OutboxStatus;
+import com.budgetplanner.budget.model.NotificationPreference;
+import com.budgetplanner.budget.model.NotificationTemplate;
+import com.budgetplanner.budget.repository.NotificationOutboxRepository;
+import com.budgetplanner.budget.service.notification.NotificationChannel;
+import com.budgetplanner.budget.service.notification.NotificationDispatcher;
+import com.budgetplanner.budget.service.notification.NotificationOutbox;
+import com.budgetplanner.budget.service.notification.NotificationOutboxPoller;
+import com.budgetplanner.budget.service.notification.NotificationProvider;
+import com.budgetplanner.budget.service.notification.NotificationSettingsCache;
+import com.budgetplanner.budget.service.notification.OutboundMessage;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Scope;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-node check for the notification outbox: several {@link NotificationOutbox}/{@link NotificationOutboxPoller}
+ * pairs, each with its own node id, drain the same outbox table in an in-memory H2 database concurrently,
+ * while the providers fail a share of the batches. Every entry must end up SENT and reach every channel it
+ * targets exactly once. A second, small wave goes to a provider slower than half the lease: those entries must
+ * stay claimed until their dispatch settles and then be SENT, without a retry sending them again. Exits with
+ * status 1 otherwise.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.NotificationOutboxCheck [entries] [nodes] [errorRate]
+ * </pre>
+ */
+public class NotificationOutboxCheck {
+
+    private static final int DEFAULT_ENTRIES = 20_000;
+    private static final int DEFAULT_NODES = 4;
+    private static final double DEFAULT_ERROR_RATE = 0.1;
+    private static final long TIMEOUT_MILLIS = 120_000;
+    private static final int SLOW_ENTRIES = 50;
+    private static final long SLOW_SEND_MILLIS = 1_500;
+
+    public static void main(String[] args) throws Exception {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ENTRIES;
+        int nodes = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_NODES;
+        double errorRate = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_ERROR_RATE;
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.ERROR);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CheckConfig.class)) {
+            NotificationOutboxRepository repository = context.getBean(NotificationOutboxRepository.class);
+
+            // Users with an even index also get SMS, so those entries are expected on both channels
+            NotificationSettingsCache settings = new NotificationSettingsCache(
+                InMemoryRepositories.notificationPreferences(preferences(entries)),
+                InMemoryRepositories.notificationTemplates(List.of(template())),
+                entries);
+            RecordingProvider email = new RecordingProvider(NotificationChannel.EMAIL, errorRate, 1, 0);
+            RecordingProvider sms = new RecordingProvider(NotificationChannel.SMS, errorRate, 2, 0);
+            NotificationDispatcher dispatcher = new NotificationDispatcher(settings, List.of(email, sms),
+                10_000, 2, 100, 50, 5, 60_000);
+            dispatcher.start();
+
+            // Shortest backoff (1 s) so failed entries come back quickly; the lease is far above a batch
+            List<NotificationOutbox> outboxes = new ArrayList<>();
+            List<NotificationOutboxPoller> pollers = new ArrayList<>();
+            for (int node = 0; node < nodes; node++) {
+                NotificationOutbox outbox = context.getBean(NotificationOutbox.class,
+                    repository, "node-" + node, 60L, 1000, 1L, 1L);
+                outboxes.add(outbox);
+                pollers.add(new NotificationOutboxPoller(outbox, dispatcher, 200, 1000, 7));
+            }
+
+            // The same wave queued twice: the second time every idempotency key is taken
+            AppNotification alert = new AppNotification("Groceries over budget",
+                "You have spent 92% of your Groceries budget.", "BUDGET_ALERT", "HIGH");
+            alert.setId(1L);
+            List<String> userIds = new ArrayList<>();
+            for (int i = 0; i < entries; i++) {
+                userIds.add("user-" + i);
+            }
+            int queued = outboxes.get(0).enqueueAll(alert, userIds);
+            int requeued = outboxes.get(outboxes.size() - 1).enqueueAll(alert, userIds);
+
+            long start = System.currentTimeMillis();
+            ExecutorService executor = Executors.newFixedThreadPool(nodes);
+            List<Future<?>> runs = new ArrayList<>();
+            for (NotificationOutboxPoller poller : pollers) {
+                runs.add(executor.submit(() -> {
+                    while (repository.countByStatus(OutboxStatus.SENT) < entries
+                            && System.currentTimeMillis() - start < TIMEOUT_MILLIS) {
+                        if (poller.drain() == 0) {
+                            Thread.sleep(10);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            executor.shutdown();
+            dispatcher.stop();
+
+            int problems = queued == entries && requeued == 0 ? 0 : 1;
+            Map<OutboxStatus, Integer> byStatus = new HashMap<>();
+            for (NotificationOutboxEntry entry : repository.findAll()) {
+                byStatus.merge(entry.getStatus(), 1, Integer::sum);
+                int userIndex = Integer.parseInt(entry.getUserId().substring("user-".length()));
+                int expectedSms = userIndex % 2 == 0 ? 1 : 0;
+                int emails = email.deliveries(entry.getIdempotencyKey());
+                int texts = sms.deliveries(entry.getIdempotencyKey());
+                if (entry.getStatus() != OutboxStatus.SENT || emails != 1 || texts != expectedSms) {
+                    if (problems < 10) {
+                        System.out.printf("Entry %s: status=%s emails=%d sms=%d%n",
+                            entry.getIdempotencyKey(), entry.getStatus(), emails, texts);
+                    }
+                    problems++;
+                }
+            }
+
+            System.out.printf("entries=%d nodes=%d errorRate=%.2f queued=%d requeued=%d statuses=%s in %d ms%n",
+                entries, nodes, errorRate, queued, requeued, byStatus, elapsed);
+            System.out.printf("failed batches: email=%d sms=%d%n", email.failedBatches.get(), sms.failedBatches.get());
+            problems += slowDeliveryProblems(context, repository, settings);
+            System.out.printf("problems=%d%n", problems);
+            if (problems > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Two nodes drain a wave whose email batches take longer than the poller waits (half of a 2 s lease)
+     */
+    private static int slowDeliveryProblems(AnnotationConfigApplicationContext context,
+                                            NotificationOutboxRepository repository,
+                                            NotificationSettingsCache settings) throws Exception {
+        RecordingProvider email = new RecordingProvider(NotificationChannel.EMAIL, 0, 3, SLOW_SEND_MILLIS);
+        RecordingProvider sms = new RecordingProvider(NotificationChannel.SMS, 0, 4, 0);
+        NotificationDispatcher dispatcher = new NotificationDispatcher(settings, List.of(email, sms),
+            10_000, 2, 100, 50, 5, 60_000);
+        dispatcher.start();
+
+        List<NotificationOutboxPoller> pollers = new ArrayList<>();
+        for (int node = 0; node < 2; node++) {
+            NotificationOutbox outbox = context.getBean(NotificationOutbox.class,
+                repository, "slow-node-" + node, 2L, 1000, 1L, 1L);
+            pollers.add(new NotificationOutboxPoller(outbox, dispatcher, 200, 1000, 7));
+        }
+        AppNotification alert = new AppNotification("Dining over budget",
+            "You have spent 105% of your Dining budget.", "BUDGET_ALERT", "HIGH");
+        alert.setId(2L);
+        List<String> userIds = new ArrayList<>();
+        for (int i = 0; i < SLOW_ENTRIES; i++) {
+            userIds.add("user-" + i);
+        }
+        context.getBean(NotificationOutbox.class, repository, "slow-node-0", 2L, 1000, 1L, 1L).enqueueAll(alert, userIds);
+
+        String prefix = "notification-2-";
+        long start = System.currentTimeMillis();
+        while (System.currentTimeMillis() - start < TIMEOUT_MILLIS && !allSent(repository, prefix)) {
+            for (NotificationOutboxPoller poller : pollers) {
+                poller.drain();
+            }
+            Thread.sleep(50);
+        }
+        dispatcher.stop();
+
+        int problems = 0;
+        for (NotificationOutboxEntry entry : repository.findAll()) {
+            if (!entry.getIdempotencyKey().startsWith(prefix)) {
+                continue;
+            }
+            int userIndex = Integer.parseInt(entry.getUserId().substring("user-".length()));
+            int emails = email.deliveries(entry.getIdempotencyKey());
+            int texts = sms.deliveries(entry.getIdempotencyKey());
+            if (entry.getStatus() != OutboxStatus.SENT || entry.getAttempts() != 1 || emails != 1
+                    || texts != (userIndex % 2 == 0 ? 1 : 0)) {
+                if (problems < 10) {
+                    System.out.printf("Slow entry %s: status=%s attempts=%d emails=%d sms=%d%n",
+                        entry.getIdempotencyKey(), entry.getStatus(), entry.getAttempts(), emails, texts);
+                }
+                problems++;
+            }
+        }
+        System.out.printf("slow provider: %d entries settled after the batch deadline in %d ms%n",
+            SLOW_ENTRIES, System.currentTimeMillis() - start);
+        return problems;
+    }
+
+    private static boolean allSent(NotificationOutboxRepository repository, String prefix) {
+        return repository.findAll().stream()
+            .filter(entry -> entry.getIdempotencyKey().startsWith(prefix))
+            .allMatch(entry -> entry.getStatus() == OutboxStatus.SENT);
+    }
+
+    private static Map<String, NotificationPreference> preferences(int users) {
+        Map<String, NotificationPreference> preferences = new HashMap<>();
+        for (int i = 0; i < users; i++) {
+            NotificationPreference preference = new NotificationPreference("user-" + i);
+            preference.setEmailAddress("user" + i + "@example.com");
+            preference.setPhoneNumber("+1555" + String.format("%07d", i));
+            preference.setSmsEnabled(i % 2 == 0);
+            preferences.put(preference.getUserId(), preference);
+        }
+        return preferences;
+    }
+
+    private static NotificationTemplate template() {
+        NotificationTemplate template = new NotificationTemplate("budget_alert", "BUDGET_ALERT", "BOTH");
+        template.setEmailSubject("Budget Alert: {title}");
+        template.setEmailBody("<p>{message}</p>");
+        template.setSmsBody("Budget Planner: {title}");
+        return template;
+    }
+
+    /**
+     * Counts accepted messages per idempotency key; a failed batch records nothing
+     */
+    private static final class RecordingProvider implements NotificationProvider {
+
+        private final NotificationChannel channel;
+        private final double errorRate;
+        private final SplittableRandom random;
+        private final Map<String, AtomicInteger> deliveries = new ConcurrentHashMap<>();
+        private final long sendMillis;
+        private final AtomicInteger failedBatches = new AtomicInteger();
+
+        private RecordingProvider(NotificationChannel channel, double errorRate, long seed, long sendMillis) {
+            this.channel = channel;
+            this.errorRate = errorRate;
+            this.random = new SplittableRandom(seed);
+            this.sendMillis = sendMillis;
+        }
+
+        @Override
+        public NotificationChannel getChannel() {
+            return channel;
+        }
+
+        @Override
+        public boolean sendBatch(List<OutboundMessage> batch) {
+            // Single sender thread per channel, so the random source is not shared
+            if (random.nextDouble() < errorRate) {
+                failedBatches.incrementAndGet();
+                return false;
+            }
+            if (sendMillis > 0) {
+                try {
+                    Thread.sleep(sendMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            for (OutboundMessage message : batch) {
+                deliveries.computeIfAbsent(message.getIdempotencyKey(), key -> new AtomicInteger()).incrementAndGet();
+            }
+            return true;
+        }
+
+        int deliveries(String key) {
+            AtomicInteger count = deliveries.get(key);
+            return count != null ? count.get() : 0;
+        }
+    }
+
+    @Configuration
+    @Import(CheckDatabaseConfig.class)
+    static class CheckConfig {
+
+        // One transactional outbox per simulated node, created with its node id
+        @Bean
+        @Scope("prototype")
+        NotificationOutbox notificationOutbox(NotificationOutboxRepository repository, String nodeId, long leaseSeconds,
+                                              int maxAttempts, long initialBackoffSeconds, long maxBackoffSeconds) {
+            return new NotificationOutbox(repository, nodeId, leaseSeconds, maxAttempts, initialBackoffSeconds, maxBackoffSeconds);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.model.RecurringTransaction;
+import com.budgetplanner.budget.model.RecurringTransaction.RecurrenceFrequency;
+import com.budgetplanner.budget.model.RecurringTransaction.RecurringStatus;
+import com.budgetplanner.budget.repository.RecurringTransactionRepository;
+import com.budgetplanner.budget.service.UpcomingBillsTimeline;
+import com.budgetplanner.budget.service.forecast.BusinessCalendar;
+import com.budgetplanner.budget.service.forecast.ForecastOccurrence;
+import com.budgetplanner.budget.service.forecast.RecurrenceForecaster;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Check for the recurring forecast and the {@link UpcomingBillsTimeline} built from it.
+ *
+ * For anchors on every day of two years and every cadence, each forecast date must keep the anchor's day of
+ * month (clamped, month end staying at month end) or its weekday spacing, and post on the first business day
+ * on or after it; a few known US holidays are checked by date. Patterns of several users are then stored in
+ * an in-memory H2 database and edited, paused, deactivated and added one save at a time: the timeline kept up
+ * to date by change events must equal a freshly rebuilt one, and a rolled-back save must not reach it.
+ * Readers scanning the timeline while it is rebuilt must always see every pattern. Exits with status 1 on any
+ * mismatch.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.RecurrenceForecastCheck [patterns] [users] [edits]
+ * </pre>
+ */
+public class RecurrenceForecastCheck {
+
+    private static final int OCCURRENCES = 12;
+    private static final int REBUILDS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int patterns = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int edits = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.ERROR);
+
+        int problems = calendarProblems();
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CheckConfig.class)) {
+            RecurringTransactionRepository repository = context.getBean(RecurringTransactionRepository.class);
+            UpcomingBillsTimeline timeline = context.getBean(UpcomingBillsTimeline.class);
+            TransactionTemplate transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            SplittableRandom random = new SplittableRandom(SyntheticTransactions.DEFAULT_SEED);
+            LocalDate today = LocalDate.now();
+
+            Map<String, List<Long>> idsByUser = new HashMap<>();
+            for (int i = 0; i < patterns; i++) {
+                String user = "user-" + (i % users);
+                RecurringTransaction saved = TenantContext.callAs(user, () -> repository.save(pattern(random, today)));
+                idsByUser.computeIfAbsent(user, key -> new ArrayList<>()).add(saved.getId());
+            }
+            long start = System.nanoTime();
+            timeline.rebuild();
+            System.out.printf("rebuild of %d patterns: %.1f ms%n", patterns, (System.nanoTime() - start) / 1e6);
+
+            // Single-pattern saves, each reaching the timeline through its change event after commit
+            long updateNanos = 0;
+            for (int i = 0; i < edits; i++) {
+                String user = "user-" + random.nextInt(users);
+                List<Long> ids = idsByUser.get(user);
+                long editStart = System.nanoTime();
+                TenantContext.runAs(user, () -> {
+                    if (random.nextInt(10) == 0) {
+                        ids.add(repository.save(pattern(random, today)).getId());
+                        return;
+                    }
+                    RecurringTransaction pattern = repository.findById(ids.get(random.nextInt(ids.size()))).orElseThrow();
+                    edit(pattern, random, today);
+                    repository.save(pattern);
+                });
+                updateNanos += System.nanoTime() - editStart;
+            }
+            System.out.printf("%d single-pattern saves: %.2f ms each, including the save%n", edits, updateNanos / 1e6 / edits);
+
+            // A rolled-back save must leave the timeline alone
+            String rolledBackUser = "user-0";
+            Long rolledBackId = idsByUser.get(rolledBackUser).get(0);
+            Map<Long, List<String>> beforeRollback = snapshot(timeline, rolledBackUser, today);
+            TenantContext.runAs(rolledBackUser, () -> transactions.executeWithoutResult(status -> {
+                RecurringTransaction pattern = repository.findById(rolledBackId).orElseThrow();
+                pattern.setNextExpectedDate(today.plusDays(3));
+                pattern.setAmount(pattern.getAmount() - 1000);
+                repository.save(pattern);
+                status.setRollbackOnly();
+            }));
+            if (!beforeRollback.equals(snapshot(timeline, rolledBackUser, today))) {
+                System.out.println("rolled-back save changed the timeline");
+                problems++;
+            }
+
+            // The event-maintained timeline against one rebuilt from the stored patterns
+            UpcomingBillsTimeline rebuilt = new UpcomingBillsTimeline(repository, OCCURRENCES, "US");
+            rebuilt.rebuild();
+            Map<String, Integer> expectedPatterns = new HashMap<>();
+            for (String user : idsByUser.keySet()) {
+                Map<Long, List<String>> live = snapshot(timeline, user, today);
+                Map<Long, List<String>> fresh = snapshot(rebuilt, user, today);
+                expectedPatterns.put(user, fresh.size());
+                if (!live.equals(fresh)) {
+                    int differing = 0;
+                    for (Long id : fresh.keySet()) {
+                        if (!fresh.get(id).equals(live.get(id))) {
+                            differing++;
+                        }
+                    }
+                    System.out.printf("%s: live timeline has %d patterns, rebuilt %d, %d differ%n",
+                        user, live.size(), fresh.size(), differing);
+                    problems++;
+                }
+            }
+
+            // Readers during rebuilds: no pattern may go missing while the index is replaced
+            problems += concurrentRebuildProblems(timeline, expectedPatterns, today);
+        }
+
+        System.out.printf("problems=%d%n", problems);
+        if (problems > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int calendarProblems() {
+        BusinessCalendar calendar = BusinessCalendar.forRegion("US");
+        RecurrenceForecaster forecaster = new RecurrenceForecaster(calendar);
+        int problems = 0;
+        int checked = 0;
+
+        LocalDate first = LocalDate.of(2024, 1, 1);
+        for (LocalDate anchor = first; anchor.isBefore(first.plusYears(2)); anchor = anchor.plusDays(1)) {
+            for (RecurrenceFrequency frequency : RecurrenceFrequency.values()) {
+                RecurringTransaction pattern = new RecurringTransaction("Anchor", -50.0, frequency);
+                if (frequency == RecurrenceFrequency.CUSTOM) {
+                    pattern.setIntervalDays(10);
+                }
+                pattern.setNextExpectedDate(anchor);
+                List<ForecastOccurrence> occurrences = forecaster.forecast(pattern, OCCURRENCES);
+                if (occurrences.size() != OCCURRENCES) {
+                    System.out.printf("%s from %s: %d occurrences%n", frequency, anchor, occurrences.size());
+                    problems++;
+                    continue;
+                }
+                for (int n = 0; n < occurrences.size(); n++) {
+                    checked++;
+                    ForecastOccurrence occurrence = occurrences.get(n);
+                    if (!onCadence(anchor, frequency, n, occurrence.getScheduledDate())
+                            || !postsOnFirstBusinessDay(calendar, occurrence)) {
+                        if (problems < 10) {
+                            System.out.printf("%s from %s, occurrence %d: scheduled %s, due %s%n", frequency, anchor, n,
+                                occurrence.getScheduledDate(), occurrence.getDueDate());
+                        }
+                        problems++;
+                    }
+                }
+            }
+        }
+
+        // Known dates: Independence Day 2025 is a Friday, Christmas 2025 a Thursday, Jan 31 stays at month end
+        problems += expectDue(forecaster, LocalDate.of(2025, 7, 4), RecurrenceFrequency.WEEKLY, 0, LocalDate.of(2025, 7, 7));
+        problems += expectDue(forecaster, LocalDate.of(2025, 12, 25), RecurrenceFrequency.ANNUALLY, 0, LocalDate.of(2025, 12, 26));
+        problems += expectDue(forecaster, LocalDate.of(2025, 1, 31), RecurrenceFrequency.MONTHLY, 1, LocalDate.of(2025, 2, 28));
+        problems += expectDue(forecaster, LocalDate.of(2025, 1, 31), RecurrenceFrequency.MONTHLY, 2, LocalDate.of(2025, 3, 31));
+        System.out.printf("forecast dates checked: %d%n", checked);
+        return problems;
+    }
+
+    private static boolean onCadence(LocalDate anchor, RecurrenceFrequency frequency, int n, LocalDate scheduled) {
+        int months;
+        switch (frequency) {
+            case WEEKLY:
+                return ChronoUnit.DAYS.between(anchor, scheduled) == 7L * n;
+            case BI_WEEKLY:
+                return ChronoUnit.DAYS.between(anchor, scheduled) == 14L * n;
+            case CUSTOM:
+                return ChronoUnit.DAYS.between(anchor, scheduled) == 10L * n;
+            case MONTHLY:
+                months = n;
+                break;
+            case BI_MONTHLY:
+                months = 2 * n;
+                break;
+            case QUARTERLY:
+                months = 3 * n;
+                break;
+            case SEMI_ANNUALLY:
+                months = 6 * n;
+                break;
+            default:
+                months = 12 * n;
+        }
+        YearMonth target = YearMonth.from(anchor).plusMonths(months);
+        int day = anchor.getDayOfMonth() == anchor.lengthOfMonth()
+            ? target.lengthOfMonth()
+            : Math.min(anchor.getDayOfMonth(), target.lengthOfMonth());
+        return scheduled.equals(target.atDay(day));
+    }
+
+    private static boolean postsOnFirstBusinessDay(BusinessCalendar calendar, ForecastOccurrence occurrence) {
+        if (occurrence.getDueDate().isBefore(occurrence.getScheduledDate()) || !calendar.isBusinessDay(occurrence.getDueDate())) {
+            return false;
+        }
+        for (LocalDate day = occurrence.getScheduledDate(); day.isBefore(occurrence.getDueDate()); day = day.plusDays(1)) {
+            if (calendar.isBusinessDay(day)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int expectDue(RecurrenceForecaster forecaster, LocalDate anchor, RecurrenceFrequency frequency,
+                                 int n, LocalDate expected) {
+        RecurringTransaction pattern = new RecurringTransaction("Known", -50.0, frequency);
+        pattern.setNextExpectedDate(anchor);
+        LocalDate due = forecaster.forecast(pattern, n + 1).get(n).getDueDate();
+        if (!due.equals(expected)) {
+            System.out.printf("%s from %s, occurrence %d: due %s, expected %s%n", frequency, anchor, n, due, expected);
+            return 1;
+        }
+        return 0;
+    }
+
+    private static int concurrentRebuildProblems(UpcomingBillsTimeline timeline, Map<String, Integer> expectedPatterns,
+                                                 LocalDate today) throws Exception {
+        AtomicBoolean rebuilding = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(expectedPatterns.size());
+        List<Future<int[]>> results = new ArrayList<>();
+        for (Map.Entry<String, Integer> user : expectedPatterns.entrySet()) {
+            results.add(readers.submit(() -> TenantContext.callAs(user.getKey(), () -> {
+                int reads = 0;
+                int missing = 0;
+                while (rebuilding.get()) {
+                    if (timeline.patternsDueBetween(today.minusYears(50), today.plusYears(50)).size() != user.getValue()) {
+                        missing++;
+                    }
+                    reads++;
+                }
+                return new int[]{reads, missing};
+            })));
+        }
+        for (int i = 0; i < REBUILDS; i++) {
+            timeline.rebuild();
+        }
+        rebuilding.set(false);
+        int reads = 0;
+        int incomplete = 0;
+        for (Future<int[]> result : results) {
+            reads += result.get()[0];
+            incomplete += result.get()[1];
+        }
+        readers.shutdown();
+        readers.awaitTermination(10, TimeUnit.SECONDS);
+        System.out.printf("%d reads during %d rebuilds, %d saw an incomplete timeline%n", reads, REBUILDS, incomplete);
+        return incomplete;
+    }
+
+    /**
+     * A user's forecast in the timeline: each pattern's occurrences as comparable strings
+     */
+    private static Map<Long, List<String>> snapshot(UpcomingBillsTimeline timeline, String user, LocalDate today) {
+        Map<Long, List<String>> byPattern = new TreeMap<>();
+        for (ForecastOccurrence occurrence : TenantContext.callAs(user,
+                () -> timeline.occurrencesBetween(today.minusYears(50), today.plusYears(50)))) {
+            byPattern.computeIfAbsent(occurrence.getPatternId(), id -> new ArrayList<>()).add(
+                occurrence.getScheduledDate() + "/" + occurrence.getDueDate() + "/" + occurrence.getAmount()
+                    + "/" + occurrence.getBudgetCategoryType() + "/" + occurrence.getMerchantName());
+        }
+        return byPattern;
+    }
+
+    private static RecurringTransaction pattern(SplittableRandom random, LocalDate today) {
+        RecurrenceFrequency[] frequencies = RecurrenceFrequency.values();
+        RecurrenceFrequency frequency = frequencies[random.nextInt(frequencies.length)];
+        RecurringTransaction pattern = new RecurringTransaction("Merchant " + random.nextInt(200),
+            -5.0 - random.nextInt(500), frequency);
+        if (frequency == RecurrenceFrequency.CUSTOM) {
+            pattern.setIntervalDays(1 + random.nextInt(60));
+        }
+        pattern.setBudgetCategoryType(random.nextBoolean() ? "EXPENSES" : "BILLS");
+        pattern.setFirstOccurrence(today.minusDays(400));
+        pattern.setLastOccurrence(today.minusDays(random.nextInt(60)));
+        pattern.setNextExpectedDate(random.nextInt(8) == 0 ? null : today.plusDays(random.nextInt(90) - 30));
+        return pattern;
+    }
+
+    private static void edit(RecurringTransaction pattern, SplittableRandom random, LocalDate today) {
+        switch (random.nextInt(6)) {
+            case 0:
+                pattern.setAmount(pattern.getAmount() - random.nextInt(50));
+                break;
+            case 1:
+                pattern.setNextExpectedDate(today.plusDays(random.nextInt(120) - 30));
+                break;
+            case 2:
+                pattern.setFrequency(random.nextBoolean() ? RecurrenceFrequency.MONTHLY : RecurrenceFrequency.WEEKLY);
+                break;
+            case 3:
+                pattern.setStatus(pattern.getStatus() == RecurringStatus.ACTIVE ? RecurringStatus.PAUSED : RecurringStatus.ACTIVE);
+                break;
+            case 4:
+                pattern.setIsActive(!Boolean.TRUE.equals(pattern.getIsActive()));
+                break;
+            default:
+                // Expected date derived from the last occurrence
+                pattern.setNextExpectedDate(null);
+                pattern.setLastOccurrence(today.minusDays(random.nextInt(30)));
+        }
+    }
+
+    @Configuration
+    @Import(CheckDatabaseConfig.class)
+    static class CheckConfig {
+
+        @Bean
+        UpcomingBillsTimeline upcomingBillsTimeline(RecurringTransactionRepository repository) {
+            return new UpcomingBillsTimeline(repository, OCCURRENCES, "US");
+        }
+    }
+}
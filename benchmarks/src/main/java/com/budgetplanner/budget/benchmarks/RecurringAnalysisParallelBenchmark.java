@@ -0,0 +1,62 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.RecurringTransaction;
+import com.budgetplanner.budget.service.RecurringTransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compute phase of {@code analyzeAllTransactionsForRecurringPatterns}
+ * ({@link RecurringTransactionService#detectAllRecurringPatterns}) on a 1M history, with the detection
+ * pool sized by {@code parallelism}. {@code parallelism=0} uses every available core, like the default
+ * of {@code recurring.detection.parallelism}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class RecurringAnalysisParallelBenchmark {
+
+    @Param({"1000000"})
+    public int transactionCount;
+
+    @Param({"1", "2", "4", "8", "0"})
+    public int parallelism;
+
+    private RecurringTransactionService recurringTransactionService;
+    private List<BankTransaction> transactions;
+
+    @Setup
+    public void setUp() {
+        transactions = SyntheticTransactions.generate(transactionCount, SyntheticTransactions.DEFAULT_SEED, LocalDate.now());
+        // The compute phase never touches the repositories
+        recurringTransactionService = new RecurringTransactionService(null, null, null, null, parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        recurringTransactionService.shutdownDetectionPool();
+    }
+
+    @Benchmark
+    public List<RecurringTransaction> detectAllRecurringPatterns() {
+        return recurringTransactionService.detectAllRecurringPatterns(transactions);
+    }
+}
@@ -0,0 +1,60 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.RecurringTransaction;
+import com.budgetplanner.budget.service.RecurringTransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pattern detection over every merchant group of the history, i.e. the compute part of
+ * {@code analyzeAllTransactionsForRecurringPatterns} without persistence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class RecurringDetectionBenchmark {
+
+    private RecurringTransactionService recurringTransactionService;
+    private Map<String, List<BankTransaction>> transactionsByMerchant;
+
+    @Setup
+    public void setUp(TransactionDataState data) {
+        // detectRecurringPatterns is pure computation, the repositories are never touched
+        recurringTransactionService = new RecurringTransactionService(null, null, null, null, 1);
+
+        transactionsByMerchant = new LinkedHashMap<>();
+        for (BankTransaction transaction : data.transactions) {
+            transactionsByMerchant
+                .computeIfAbsent(transaction.getMerchantName().toLowerCase(), key -> new ArrayList<>())
+                .add(transaction);
+        }
+    }
+
+    @Benchmark
+    public void detectRecurringPatterns(Blackhole blackhole) {
+        for (Map.Entry<String, List<BankTransaction>> entry : transactionsByMerchant.entrySet()) {
+            List<RecurringTransaction> patterns = recurringTransactionService
+                .detectRecurringPatterns(entry.getKey(), entry.getValue());
+            blackhole.consume(patterns);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.model.RecurringTransaction;
+import com.budgetplanner.budget.model.RecurringTransaction.RecurrenceFrequency;
+import com.budgetplanner.budget.model.RecurringTransaction.RecurringStatus;
+import com.budgetplanner.budget.repository.ClusterNodeRepository;
+import com.budgetplanner.budget.repository.RecurringTransactionRepository;
+import com.budgetplanner.budget.repository.SchedulerLockRepository;
+import com.budgetplanner.budget.service.RecurringPatternIndex;
+import com.budgetplanner.budget.service.RecurringStatusSweeper;
+import com.budgetplanner.budget.service.UpcomingBillsTimeline;
+import com.budgetplanner.budget.service.cluster.ClusterMembership;
+import com.budgetplanner.budget.service.cluster.JobLocks;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Equivalence check for {@link RecurringStatusSweeper}: runs the former per-row status loop and the
+ * set-based sweep on the same seeded fixture in an in-memory H2 database, and compares every row's
+ * resulting status. Prints both timings; exits with status 1 on any difference.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.RecurringStatusSweepCheck [rows] [seed]
+ * </pre>
+ */
+public class RecurringStatusSweepCheck {
+
+    private static final int DEFAULT_ROWS = 100_000;
+    private static final int INSERT_BATCH = 5_000;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : SyntheticTransactions.DEFAULT_SEED;
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.WARN);
+
+        LocalDate today = LocalDate.now();
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CheckConfig.class)) {
+            RecurringTransactionRepository repository = context.getBean(RecurringTransactionRepository.class);
+            TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            insertFixture(repository, rows, seed, today);
+            long loopStart = System.currentTimeMillis();
+            int loopUpdated = transaction.execute(status -> perRowLoop(repository, today));
+            long loopMs = System.currentTimeMillis() - loopStart;
+            Map<String, RecurringStatus> expected = statusesByFixtureKey(repository);
+
+            repository.deleteAllInBatch();
+            insertFixture(repository, rows, seed, today);
+            RecurringStatusSweeper.SweepResult result = context.getBean(RecurringStatusSweeper.class).sweep(today);
+            Map<String, RecurringStatus> actual = statusesByFixtureKey(repository);
+
+            int mismatches = 0;
+            for (Map.Entry<String, RecurringStatus> entry : expected.entrySet()) {
+                RecurringStatus status = actual.get(entry.getKey());
+                if (status != entry.getValue()) {
+                    if (mismatches < 10) {
+                        System.out.printf("Mismatch %s: loop=%s sweep=%s%n", entry.getKey(), entry.getValue(), status);
+                    }
+                    mismatches++;
+                }
+            }
+
+            System.out.printf("rows=%d per-row loop: updated=%d in %d ms%n", rows, loopUpdated, loopMs);
+            System.out.printf("rows=%d set-based sweep: updated=%d (ended=%d, irregular=%d) in %d ms%n",
+                rows, result.getUpdated(), result.getEnded(), result.getIrregular(), result.getDurationMs());
+            System.out.printf("mismatches=%d%n", mismatches);
+            if (mismatches > 0 || loopUpdated != result.getUpdated()) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * The status loop as it ran before the sweeper, kept as the reference
+     */
+    private static int perRowLoop(RecurringTransactionRepository repository, LocalDate today) {
+        int updatedCount = 0;
+        for (RecurringTransaction transaction : repository
+                .findByIsActiveTrueAndStatusOrderByNextExpectedDateAsc(RecurringStatus.ACTIVE)) {
+            boolean updated = false;
+
+            if (transaction.getNextExpectedDate() != null && today.isAfter(transaction.getNextExpectedDate().plusDays(3))) {
+                long daysOverdue = ChronoUnit.DAYS.between(transaction.getNextExpectedDate(), today);
+                if (daysOverdue > transaction.getIntervalDays() * 2) {
+                    transaction.setStatus(RecurringStatus.IRREGULAR);
+                    updated = true;
+                }
+            }
+
+            if (transaction.getLastOccurrence() != null) {
+                long daysSinceLastOccurrence = ChronoUnit.DAYS.between(transaction.getLastOccurrence(), today);
+                if (daysSinceLastOccurrence > transaction.getIntervalDays() * 3) {
+                    transaction.setStatus(RecurringStatus.ENDED);
+                    updated = true;
+                }
+            }
+
+            if (updated) {
+                repository.save(transaction);
+                updatedCount++;
+            }
+        }
+        return updatedCount;
+    }
+
+    /**
+     * Seeded patterns around the rule boundaries: every frequency, dates from years ago to next month,
+     * some without dates, some paused or deactivated. Every pattern has an interval, the per-row loop
+     * fails on patterns without one.
+     */
+    private static void insertFixture(RecurringTransactionRepository repository, int rows, long seed, LocalDate today) {
+        SplittableRandom random = new SplittableRandom(seed);
+        RecurrenceFrequency[] frequencies = RecurrenceFrequency.values();
+        List<RecurringTransaction> batch = new ArrayList<>(INSERT_BATCH);
+
+        for (int i = 0; i < rows; i++) {
+            RecurrenceFrequency frequency = frequencies[random.nextInt(frequencies.length)];
+            RecurringTransaction pattern = new RecurringTransaction("Merchant " + random.nextInt(500), -10.0 - random.nextInt(500), frequency);
+            if (frequency == RecurrenceFrequency.CUSTOM) {
+                pattern.setIntervalDays(1 + random.nextInt(120));
+            }
+            int span = pattern.getIntervalDays() * 4 + 10;
+            pattern.setFirstOccurrence(today.minusDays(span * 2L));
+            pattern.setLastOccurrence(random.nextInt(10) == 0 ? null : today.minusDays(random.nextInt(span)));
+            pattern.setNextExpectedDate(random.nextInt(10) == 0 ? null : today.plusDays(30).minusDays(random.nextInt(span)));
+            pattern.setStatus(random.nextInt(8) == 0 ? RecurringStatus.PAUSED : RecurringStatus.ACTIVE);
+            pattern.setIsActive(random.nextInt(12) != 0);
+            pattern.setNotes("fixture-" + i);
+            batch.add(pattern);
+
+            if (batch.size() == INSERT_BATCH) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+    }
+
+    private static Map<String, RecurringStatus> statusesByFixtureKey(RecurringTransactionRepository repository) {
+        Map<String, RecurringStatus> statuses = new HashMap<>();
+        for (RecurringTransaction pattern : repository.findAll()) {
+            statuses.put(pattern.getNotes(), pattern.getStatus());
+        }
+        return statuses;
+    }
+
+    @Configuration
+    @Import(CheckDatabaseConfig.class)
+    static class CheckConfig {
+
+        @Bean
+        RecurringPatternIndex recurringPatternIndex(RecurringTransactionRepository repository) {
+            return new RecurringPatternIndex(repository);
+        }
+
+        @Bean
+        UpcomingBillsTimeline upcomingBillsTimeline(RecurringTransactionRepository repository) {
+            return new UpcomingBillsTimeline(repository, 12, "US");
+        }
+
+        @Bean
+        ClusterMembership clusterMembership(ClusterNodeRepository repository, PlatformTransactionManager transactionManager) {
+            return new ClusterMembership(repository, transactionManager, "sweepcheck", 30);
+        }
+
+        @Bean
+        JobLocks jobLocks(SchedulerLockRepository repository, ClusterMembership membership,
+                          PlatformTransactionManager transactionManager) {
+            return new JobLocks(repository, membership, transactionManager, 30);
+        }
+
+        @Bean
+        RecurringStatusSweeper recurringStatusSweeper(RecurringTransactionRepository repository,
+                                                      RecurringPatternIndex index,
+                                                      UpcomingBillsTimeline timeline,
+                                                      JobLocks jobLocks) {
+            return new RecurringStatusSweeper(repository, index, timeline, jobLocks, 5_000);
+        }
+    }
+}
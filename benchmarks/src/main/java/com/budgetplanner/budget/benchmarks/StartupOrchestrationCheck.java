@@ -0,0 +1,317 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.StartupTransactionResetRunner;
+import com.budgetplanner.budget.config.SavingsGoalDataInitializer;
+import com.budgetplanner.budget.repository.AuditLogRepository;
+import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.repository.NotificationPreferenceRepository;
+import com.budgetplanner.budget.repository.NotificationTemplateRepository;
+import com.budgetplanner.budget.repository.RecurringTransactionRepository;
+import com.budgetplanner.budget.repository.SavingsGoalRepository;
+import com.budgetplanner.budget.repository.UserProfileRepository;
+import com.budgetplanner.budget.service.AuditLogInitializerService;
+import com.budgetplanner.budget.service.NotificationInitializerService;
+import com.budgetplanner.budget.service.RecurringTransactionDataInitializer;
+import com.budgetplanner.budget.service.SavingsGoalService;
+import com.budgetplanner.budget.service.UserProfileInitializerService;
+import com.budgetplanner.budget.startup.StartupInitializer;
+import com.budgetplanner.budget.startup.StartupOrchestrator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Check for {@link StartupOrchestrator} with the application's startup initializers against an in-memory H2
+ * database whose every statement execution is delayed by a simulated round trip. Seeds one database by
+ * running the initializers one after another, the way the chain of runners did, and another through the
+ * orchestrator, after a warm-up run. Both must end with the same rows. Prints the time to ready of each (for the orchestrator,
+ * the critical phase alone), the statements of the seeding, and the {@code budget.startup.*} steps recorded
+ * in a {@link BufferingApplicationStartup}. Also checks with stub initializers that dependencies are
+ * waited for, independent ones overlap, and bad graphs or a failing critical initializer stop startup.
+ * Exits with status 1 on any mismatch.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.StartupOrchestrationCheck [roundTripMillis]
+ * </pre>
+ */
+public class StartupOrchestrationCheck {
+
+    public static void main(String[] args) throws Exception {
+        int roundTrip = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.ERROR);
+
+        int problems = 0;
+
+        // The first context pays for class loading and JIT, so it only warms up
+        seedOneAfterAnother("startupwarm", roundTrip, false);
+        Map<String, Long> sequentialRows = seedOneAfterAnother("startupseq", roundTrip, true);
+
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(256);
+        try (AnnotationConfigApplicationContext context = context("startuporch")) {
+            Statistics statistics = statistics(context);
+            StartupOrchestrator orchestrator = new StartupOrchestrator(
+                new ArrayList<>(context.getBeansOfType(StartupInitializer.class).values()), applicationStartup, 4);
+            CheckDatabaseConfig.setRoundTripMillis(roundTrip);
+            long start = System.nanoTime();
+            orchestrator.run(null);
+            long ready = (System.nanoTime() - start) / 1_000_000;
+            orchestrator.startDeferred().join();
+            long all = (System.nanoTime() - start) / 1_000_000;
+            CheckDatabaseConfig.setRoundTripMillis(0);
+            orchestrator.shutdown();
+            System.out.printf("%d ms per statement, orchestrated: ready after %d ms, deferred done after %d ms, %d statements%n",
+                roundTrip, ready, all, statistics.getPrepareStatementCount());
+
+            Map<String, Long> orchestratedRows = rows(context);
+            System.out.printf("rows: %s%n", orchestratedRows);
+            if (!orchestratedRows.equals(sequentialRows)) {
+                System.out.printf("rows differ, one after another: %s%n", sequentialRows);
+                problems++;
+            }
+        }
+
+        StartupTimeline timeline = applicationStartup.getBufferedTimeline();
+        int phases = 0;
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            StartupStep step = event.getStartupStep();
+            if (step.getName().startsWith("budget.startup.")) {
+                phases++;
+                List<String> tags = new ArrayList<>();
+                step.getTags().forEach(tag -> tags.add(tag.getKey() + "=" + tag.getValue()));
+                System.out.printf("step %s %d ms %s%n", step.getName(), event.getDuration().toMillis(), tags);
+            }
+        }
+        if (phases != 2) {
+            System.out.printf("expected 2 startup phase steps, found %d%n", phases);
+            problems++;
+        }
+
+        problems += checkOrdering();
+        problems += expectFailure("cycle", List.of(
+            stub("a", StartupInitializer.Phase.CRITICAL, Set.of("b"), 0, null),
+            stub("b", StartupInitializer.Phase.CRITICAL, Set.of("a"), 0, null)));
+        problems += expectFailure("critical after deferred", List.of(
+            stub("a", StartupInitializer.Phase.CRITICAL, Set.of("b"), 0, null),
+            stub("b", StartupInitializer.Phase.DEFERRED, Set.of(), 0, null)));
+        problems += expectFailure("failing critical initializer", List.of(
+            stub("a", StartupInitializer.Phase.CRITICAL, Set.of(), 0, name -> {
+                throw new IllegalStateException("seed failed");
+            })));
+
+        System.out.printf("problems=%d%n", problems);
+        if (problems > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Long> seedOneAfterAnother(String database, int roundTrip, boolean print) {
+        try (AnnotationConfigApplicationContext context = context(database)) {
+            Statistics statistics = statistics(context);
+            CheckDatabaseConfig.setRoundTripMillis(roundTrip);
+            long start = System.nanoTime();
+            for (StartupInitializer initializer : context.getBeansOfType(StartupInitializer.class).values()) {
+                initializer.initialize();
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            CheckDatabaseConfig.setRoundTripMillis(0);
+            if (print) {
+                System.out.printf("%d ms per statement, one after another: ready after %d ms, %d statements%n",
+                    roundTrip, millis, statistics.getPrepareStatementCount());
+            }
+            return rows(context);
+        }
+    }
+
+    /**
+     * b waits for a, c runs next to a, the deferred d runs only when asked
+     */
+    private static int checkOrdering() {
+        Map<String, long[]> spans = new ConcurrentHashMap<>();
+        Consumer<String> none = name -> { };
+        List<StartupInitializer> initializers = List.of(
+            stub("b", StartupInitializer.Phase.CRITICAL, Set.of("a"), 20, none),
+            stub("a", StartupInitializer.Phase.CRITICAL, Set.of(), 100, none),
+            stub("c", StartupInitializer.Phase.CRITICAL, Set.of(), 100, none),
+            stub("d", StartupInitializer.Phase.DEFERRED, Set.of("a"), 0, none));
+        initializers.forEach(initializer -> ((Stub) initializer).spans = spans);
+
+        StartupOrchestrator orchestrator = new StartupOrchestrator(initializers, new BufferingApplicationStartup(16), 4);
+        orchestrator.run(null);
+        int problems = 0;
+        if (spans.containsKey("d")) {
+            System.out.println("deferred initializer ran in the critical phase");
+            problems++;
+        }
+        orchestrator.startDeferred().join();
+        orchestrator.shutdown();
+
+        long[] a = spans.get("a");
+        long[] b = spans.get("b");
+        long[] c = spans.get("c");
+        if (b[0] < a[1]) {
+            System.out.println("b started before its dependency a finished");
+            problems++;
+        }
+        if (c[0] >= a[1]) {
+            System.out.println("independent c did not overlap a");
+            problems++;
+        }
+        if (!spans.containsKey("d")) {
+            System.out.println("deferred initializer never ran");
+            problems++;
+        }
+        System.out.printf("ordering: a %d-%d ms, b %d-%d ms, c %d-%d ms%n",
+            a[0], a[1], b[0], b[1], c[0], c[1]);
+        return problems;
+    }
+
+    private static int expectFailure(String label, List<StartupInitializer> initializers) {
+        StartupOrchestrator orchestrator = new StartupOrchestrator(initializers, new BufferingApplicationStartup(16), 2);
+        try {
+            orchestrator.run(null);
+            System.out.printf("%s: startup went on%n", label);
+            return 1;
+        } catch (IllegalStateException e) {
+            System.out.printf("%s: %s%n", label, e.getMessage());
+            return 0;
+        } finally {
+            orchestrator.shutdown();
+        }
+    }
+
+    private static StartupInitializer stub(String name, StartupInitializer.Phase phase, Set<String> dependsOn,
+                                           long sleepMillis, Consumer<String> work) {
+        return new Stub(name, phase, dependsOn, sleepMillis, work);
+    }
+
+    private static final long ORIGIN = System.nanoTime();
+
+    private static final class Stub implements StartupInitializer {
+
+        private final String name;
+        private final Phase phase;
+        private final Set<String> dependsOn;
+        private final long sleepMillis;
+        private final Consumer<String> work;
+        private Map<String, long[]> spans = new ConcurrentHashMap<>();
+
+        private Stub(String name, Phase phase, Set<String> dependsOn, long sleepMillis, Consumer<String> work) {
+            this.name = name;
+            this.phase = phase;
+            this.dependsOn = dependsOn;
+            this.sleepMillis = sleepMillis;
+            this.work = work != null ? work : ignored -> { };
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Phase phase() {
+            return phase;
+        }
+
+        @Override
+        public Set<String> dependsOn() {
+            return dependsOn;
+        }
+
+        @Override
+        public void initialize() {
+            long start = (System.nanoTime() - ORIGIN) / 1_000_000;
+            work.accept(name);
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            spans.put(name, new long[]{start, (System.nanoTime() - ORIGIN) / 1_000_000});
+        }
+    }
+
+    private static AnnotationConfigApplicationContext context(String database) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(
+            new MapPropertySource("check", Map.of("check.database", database)));
+        context.register(CheckConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    private static Statistics statistics(AnnotationConfigApplicationContext context) {
+        Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private static Map<String, Long> rows(AnnotationConfigApplicationContext context) {
+        return Map.of(
+            "auditLogs", context.getBean(AuditLogRepository.class).count(),
+            "templates", context.getBean(NotificationTemplateRepository.class).count(),
+            "preferences", context.getBean(NotificationPreferenceRepository.class).count(),
+            "profiles", context.getBean(UserProfileRepository.class).count(),
+            "savingsGoals", context.getBean(SavingsGoalRepository.class).count(),
+            "recurring", context.getBean(RecurringTransactionRepository.class).count());
+    }
+
+    @Configuration
+    @Import(CheckDatabaseConfig.class)
+    static class CheckConfig {
+
+        // Registered in the order the runners used to run in
+        @Bean
+        AuditLogInitializerService auditLogInitializerService(AuditLogRepository repository) {
+            return new AuditLogInitializerService(repository);
+        }
+
+        @Bean
+        NotificationInitializerService notificationInitializerService(NotificationTemplateRepository templateRepository,
+                                                                      NotificationPreferenceRepository preferenceRepository) {
+            return new NotificationInitializerService(templateRepository, preferenceRepository);
+        }
+
+        @Bean
+        UserProfileInitializerService userProfileInitializerService(UserProfileRepository profileRepository,
+                                                                    NotificationPreferenceRepository preferenceRepository) {
+            return new UserProfileInitializerService(profileRepository, preferenceRepository);
+        }
+
+        @Bean
+        SavingsGoalDataInitializer savingsGoalDataInitializer(SavingsGoalRepository repository) {
+            return new SavingsGoalDataInitializer(new SavingsGoalService(repository));
+        }
+
+        @Bean
+        RecurringTransactionDataInitializer recurringTransactionDataInitializer() {
+            return new RecurringTransactionDataInitializer();
+        }
+
+        @Bean
+        StartupTransactionResetRunner startupTransactionResetRunner(BankTransactionRepository transactionRepository,
+                                                                    RecurringTransactionRepository recurringRepository) {
+            return new StartupTransactionResetRunner(transactionRepository, recurringRepository);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.budgetplanner.budget.model.BankAccount;
+import com.budgetplanner.budget.service.PlaidService;
+import com.budgetplanner.budget.service.categorization.CategorizationRuleBook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mock account sync ({@link PlaidService#syncTransactionsForAccount}) from four threads with different
+ * logging setups. {@code sync} writes through a blocking, flush-per-event file appender, the same
+ * contention the old System.out calls had on the console stream; {@code async} puts the AsyncAppender
+ * from logback-spring.xml in front of it; {@code off} is the no-logging ceiling.
+ *
+ * Output goes to a file under target/ rather than the console so the fork's stdout does not flood the
+ * JMH report. {@code level=TRACE} turns on the per-transaction lines, matching the old printf volume.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+@Threads(4)
+public class SyncLoggingBenchmark {
+
+    private static final String LOG_FILE = "target/sync-logging-benchmark.log";
+
+    @Param({"sync", "async", "off"})
+    public String appender;
+
+    @Param({"INFO", "TRACE"})
+    public String level;
+
+    private PlaidService plaidService;
+    private LoggerContext loggerContext;
+
+    @Setup
+    public void setUp() {
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.reset();
+
+        Logger root = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.WARN);
+        Logger application = loggerContext.getLogger("com.budgetplanner.budget");
+        application.setLevel("off".equals(appender) ? Level.OFF : Level.toLevel(level));
+        if (!"off".equals(appender)) {
+            root.addAppender("async".equals(appender) ? asyncAppender(fileAppender()) : fileAppender());
+        }
+
+        plaidService = new PlaidService(InMemoryRepositories.discardingBankAccounts(),
+                                        InMemoryRepositories.discardingBankTransactions(),
+                                        event -> { },
+                                        // No rules loaded, so ingest keeps the built-in categorization
+                                        new CategorizationRuleBook(null, null, null, null),
+                                        "benchmark-client", "benchmark-secret", "sandbox", "");
+    }
+
+    @TearDown
+    public void tearDown() {
+        // Stopping the context drains the async queue, so the next trial starts with an idle appender
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public int syncAccount() {
+        BankAccount account = new BankAccount();
+        account.setId(1L);
+        account.setAccountName("Benchmark Checking");
+        account.setAccountType("checking");
+        return plaidService.syncTransactionsForAccount(account);
+    }
+
+    private Appender<ILoggingEvent> fileAppender() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d %5p [%t] %logger{39} : %m %kvp{NONE}%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(loggerContext);
+        file.setName("FILE");
+        file.setFile(new File(LOG_FILE).getAbsolutePath());
+        file.setAppend(false);
+        file.setImmediateFlush(true);
+        file.setEncoder(encoder);
+        file.start();
+        return file;
+    }
+
+    private Appender<ILoggingEvent> asyncAppender(Appender<ILoggingEvent> delegate) {
+        // Same settings as logback-spring.xml
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(loggerContext);
+        async.setName("ASYNC");
+        async.setQueueSize(8192);
+        async.setIncludeCallerData(false);
+        async.addAppender(delegate);
+        async.start();
+        return async;
+    }
+}
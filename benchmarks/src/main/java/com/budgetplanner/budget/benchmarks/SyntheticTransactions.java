@@ -0,0 +1,140 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.model.BankAccount;
+import com.budgetplanner.budget.model.BankTransaction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator for benchmark data sets.
+ * The same seed and size always produce the same merchants, amounts and day offsets,
+ * only the anchor date moves so that "current month" queries find data.
+ */
+public final class SyntheticTransactions {
+
+    public static final long DEFAULT_SEED = 20240917L;
+    private static final int HISTORY_DAYS = 365;
+    private static final int ACCOUNT_COUNT = 8;
+
+    private SyntheticTransactions() {
+    }
+
+    // Merchant templates, weighted towards everyday spending like real card data
+    private static final Template[] TEMPLATES = {
+        new Template("Direct Deposit - Salary", "Transfer > Deposit", 2500.0, 3000.0, "INCOME", "Salary", 1),
+        new Template("Freelance Payment", "Transfer > Deposit", 800.0, 1200.0, "INCOME", "Freelance", 1),
+        new Template("Walmart", "Shops > Supermarkets and Groceries", -50.0, -150.0, "EXPENSES", "Groceries", 12),
+        new Template("Kroger", "Shops > Supermarkets and Groceries", -60.0, -180.0, "EXPENSES", "Groceries", 10),
+        new Template("Shell Gas Station", "Transportation > Gas Stations", -30.0, -80.0, "EXPENSES", "Gas", 8),
+        new Template("Starbucks", "Food and Drink > Coffee Shops", -5.0, -15.0, "EXPENSES", "Dining Out", 20),
+        new Template("McDonald's", "Food and Drink > Restaurants", -8.0, -25.0, "EXPENSES", "Dining Out", 10),
+        new Template("Amazon", "Shops > Online Retailers", -20.0, -200.0, "EXPENSES", "Shopping", 12),
+        new Template("Best Buy", "Shops > Electronics", -50.0, -500.0, "EXPENSES", "Shopping", 2),
+        new Template("Movie Theater", "Entertainment > Movies", -12.0, -30.0, "EXPENSES", "Entertainment", 3),
+        new Template("Electric Company", "Bills > Utilities", -80.0, -150.0, "BILLS", "Utilities", 1),
+        new Template("Verizon", "Bills > Phone", -50.0, -80.0, "BILLS", "Phone", 1),
+        new Template("Netflix", "Entertainment > Streaming", -15.49, -15.49, "BILLS", "Entertainment", 1),
+        new Template("Rent Payment", "Bills > Rent", -1500.0, -1500.0, "BILLS", "Rent", 1),
+        new Template("Transfer to Savings", "Transfer > Savings", -300.0, -600.0, "SAVINGS", "Emergency Fund", 1),
+        new Template("Coffee Subscription", "Food and Drink > Coffee Shops", -12.0, -12.0, "EXPENSES", "Dining Out", 1),
+        new Template("Local Restaurant", "Food and Drink > Restaurants", -25.0, -80.0, "EXPENSES", "Dining Out", 6),
+        new Template("Unlabelled Merchant", null, -5.0, -90.0, null, null, 4)
+    };
+
+    /**
+     * Generate {@code count} transactions ending at {@code endDate}, sorted by transaction date ascending.
+     * Roughly one in seven transactions is left uncategorized so categorization has work to do.
+     */
+    public static List<BankTransaction> generate(int count, long seed, LocalDate endDate) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDate startDate = endDate.minusDays(HISTORY_DAYS - 1);
+        LocalDateTime createdAt = endDate.atStartOfDay();
+
+        // Shared date instances keep the 10M data set within a few GB of heap
+        LocalDate[] days = new LocalDate[HISTORY_DAYS];
+        for (int i = 0; i < HISTORY_DAYS; i++) {
+            days[i] = startDate.plusDays(i);
+        }
+
+        List<BankAccount> accounts = new ArrayList<>(ACCOUNT_COUNT);
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            BankAccount account = new BankAccount("bench_acc_" + i, "bench_item_" + i, "Account " + i,
+                    i % 2 == 0 ? "checking" : "credit", "Benchmark Bank", String.format("%04d", i), "bench-token-" + i);
+            account.setId((long) i + 1);
+            // One user per account, as the advisory batch evaluates per user
+            account.setUserId("bench_user_" + i);
+            accounts.add(account);
+        }
+
+        int totalWeight = 0;
+        for (Template template : TEMPLATES) {
+            totalWeight += template.weight;
+        }
+
+        List<BankTransaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Spread evenly over the history, with a little jitter inside the day bucket
+            int dayIndex = (int) ((long) i * HISTORY_DAYS / count);
+            Template template = pick(random.nextInt(totalWeight));
+            double amount = template.minAmount == template.maxAmount
+                    ? template.minAmount
+                    : template.minAmount + random.nextDouble() * (template.maxAmount - template.minAmount);
+            amount = Math.round(amount * 100.0) / 100.0;
+
+            BankTransaction transaction = new BankTransaction();
+            transaction.setId((long) i + 1);
+            transaction.setPlaidTransactionId("bench_txn_" + i);
+            transaction.setBankAccount(accounts.get(random.nextInt(ACCOUNT_COUNT)));
+            transaction.setAmount(amount);
+            transaction.setMerchantName(template.merchantName);
+            transaction.setDescription(template.description);
+            transaction.setTransactionDate(days[dayIndex]);
+            transaction.setAuthorizedDate(days[dayIndex]);
+            transaction.setTransactionType(amount > 0 ? "credit" : "debit");
+            transaction.setPlaidCategory(template.plaidCategory);
+            transaction.setBudgetCategory(template.budgetCategory);
+            transaction.setBudgetCategoryType(template.budgetCategoryType);
+            transaction.setCreatedAt(createdAt);
+            transaction.setUpdatedAt(createdAt);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    private static Template pick(int roll) {
+        for (Template template : TEMPLATES) {
+            roll -= template.weight;
+            if (roll < 0) {
+                return template;
+            }
+        }
+        return TEMPLATES[TEMPLATES.length - 1];
+    }
+
+    private static final class Template {
+        final String merchantName;
+        final String description;
+        final String plaidCategory;
+        final double minAmount;
+        final double maxAmount;
+        final String budgetCategoryType;
+        final String budgetCategory;
+        final int weight;
+
+        Template(String merchantName, String plaidCategory, double minAmount, double maxAmount,
+                 String budgetCategoryType, String budgetCategory, int weight) {
+            this.merchantName = merchantName;
+            this.description = merchantName + " Transaction";
+            this.plaidCategory = plaidCategory;
+            this.minAmount = minAmount;
+            this.maxAmount = maxAmount;
+            this.budgetCategoryType = budgetCategoryType;
+            this.budgetCategory = budgetCategory;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.model.BankAccount;
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.repository.BankAccountRepository;
+import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.repository.TagRepository;
+import com.budgetplanner.budget.repository.TransactionNoteRepository;
+import com.budgetplanner.budget.repository.TransactionTagRepository;
+import com.budgetplanner.budget.service.TagDictionary;
+import com.budgetplanner.budget.service.TransactionMetaService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Check for tag persistence through {@link TransactionMetaService} and {@link TagDictionary} against an
+ * in-memory H2 database. Several threads re-tag their own transactions and bulk-tag slices of them at once;
+ * afterwards every transaction must carry exactly the tags last given to it, and the in-memory list of tags
+ * in use must equal a GROUP BY over the link table. Also prints the time and statement count of bulk-tagging
+ * every transaction, and the statements of a save that changes nothing. Exits with status 1 on any mismatch.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.TagPersistenceCheck [transactions] [threads]
+ * </pre>
+ */
+public class TagPersistenceCheck {
+
+    private static final int TAGS = 40;
+    private static final int OPERATIONS_PER_THREAD = 500;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.ERROR);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CheckConfig.class)) {
+            TransactionMetaService metaService = context.getBean(TransactionMetaService.class);
+            TagDictionary dictionary = context.getBean(TagDictionary.class);
+            TransactionTagRepository linkRepository = context.getBean(TransactionTagRepository.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            int problems = 0;
+
+            BankAccount account = context.getBean(BankAccountRepository.class).save(
+                new BankAccount("acc-1", "item-1", "Checking", "depository", "Check Bank", "0000", "token"));
+            List<BankTransaction> seeded = new ArrayList<>();
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < count; i++) {
+                seeded.add(new BankTransaction("txn-" + i, account, -10.0, "Merchant " + (i % 50), "Purchase",
+                    today.minusDays(i % 365), today.minusDays(i % 365), "debit"));
+            }
+            List<BankTransaction> transactions = context.getBean(BankTransactionRepository.class).saveAll(seeded);
+            dictionary.resync();
+
+            // Concurrent edits, each thread on its own slice so the expected tags are known
+            Map<Long, Set<String>> expected = new ConcurrentHashMap<>();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> runs = new ArrayList<>();
+            int slice = count / threads;
+            for (int t = 0; t < threads; t++) {
+                List<BankTransaction> mine = transactions.subList(t * slice, (t + 1) * slice);
+                long threadSeed = t;
+                runs.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(threadSeed);
+                    for (int op = 0; op < OPERATIONS_PER_THREAD; op++) {
+                        if (random.nextInt(10) == 0) {
+                            String tag = "tag-" + random.nextInt(TAGS);
+                            int from = random.nextInt(mine.size());
+                            List<BankTransaction> bulk = mine.subList(from, Math.min(mine.size(), from + 200));
+                            metaService.tagAll(bulk, tag);
+                            bulk.forEach(transaction -> expected
+                                .computeIfAbsent(transaction.getId(), key -> new HashSet<>()).add(tag));
+                        } else {
+                            BankTransaction transaction = mine.get(random.nextInt(mine.size()));
+                            Set<String> tags = new LinkedHashSet<>();
+                            for (int n = random.nextInt(5); n > 0; n--) {
+                                tags.add("tag-" + random.nextInt(TAGS));
+                            }
+                            metaService.saveNoteAndTags(transaction, "", String.join(", ", tags) + ", ");
+                            expected.put(transaction.getId(), new HashSet<>(tags));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+            executor.shutdown();
+
+            for (BankTransaction transaction : transactions) {
+                Set<String> stored = new HashSet<>(metaService.getTagsForTransaction(transaction));
+                if (!stored.equals(expected.getOrDefault(transaction.getId(), Set.of()))) {
+                    System.out.printf("transaction %d: stored %s, expected %s%n", transaction.getId(), stored,
+                        expected.get(transaction.getId()));
+                    problems++;
+                }
+            }
+            problems += compareUsedNames("after concurrent edits", dictionary, linkRepository);
+
+            // Bulk tagging everything with one new tag
+            statistics.setStatisticsEnabled(true);
+            statistics.clear();
+            long start = System.nanoTime();
+            int tagged = metaService.tagAll(transactions, "bulk");
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("bulk-tagged %d transactions in %d ms with %d statements%n",
+                tagged, millis, statistics.getPrepareStatementCount());
+            if (tagged != count || metaService.tagAll(transactions, "bulk") != 0) {
+                problems++;
+            }
+            problems += compareUsedNames("after bulk tagging", dictionary, linkRepository);
+
+            // A save that changes nothing writes no tag rows
+            BankTransaction first = transactions.get(0);
+            String unchanged = String.join(",", metaService.getTagsForTransaction(first));
+            statistics.clear();
+            metaService.saveNoteAndTags(first, "", unchanged);
+            System.out.printf("unchanged save: %d statements, %d tag inserts%n",
+                statistics.getPrepareStatementCount(), statistics.getEntityInsertCount());
+            if (statistics.getEntityInsertCount() != 0) {
+                problems++;
+            }
+
+            // Removing a tag from its only transactions drops it from the list
+            for (BankTransaction transaction : transactions) {
+                List<String> tags = new ArrayList<>(metaService.getTagsForTransaction(transaction));
+                if (tags.remove("tag-0")) {
+                    metaService.saveNoteAndTags(transaction, "", String.join(",", tags));
+                }
+            }
+            if (dictionary.usedNames().contains("tag-0")) {
+                System.out.println("tag-0 still listed after removing it everywhere");
+                problems++;
+            }
+            problems += compareUsedNames("after removing tag-0", dictionary, linkRepository);
+
+            System.out.printf("problems=%d%n", problems);
+            if (problems > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static int compareUsedNames(String stage, TagDictionary dictionary, TransactionTagRepository repository) {
+        Set<String> actual = new TreeSet<>();
+        for (Object[] row : repository.countByTagName()) {
+            actual.add((String) row[0]);
+        }
+        List<String> listed = dictionary.usedNames();
+        System.out.printf("%s: %d tags in use%n", stage, listed.size());
+        if (!listed.equals(new ArrayList<>(actual))) {
+            System.out.printf("%s: listed %s, table %s%n", stage, listed, actual);
+            return 1;
+        }
+        return 0;
+    }
+
+    @Configuration
+    @Import(CheckDatabaseConfig.class)
+    static class CheckConfig {
+
+        @Bean
+        TagDictionary tagDictionary(TagRepository tagRepository, TransactionTagRepository transactionTagRepository,
+                                    PlatformTransactionManager transactionManager) {
+            return new TagDictionary(tagRepository, transactionTagRepository, transactionManager);
+        }
+
+        @Bean
+        TransactionMetaService transactionMetaService(TransactionNoteRepository noteRepository,
+                                                      TransactionTagRepository tagRepository,
+                                                      TagDictionary tagDictionary) {
+            return new TransactionMetaService(noteRepository, tagRepository, tagDictionary);
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.config.EnhancedPlaidConfig;
+import com.budgetplanner.budget.model.AppNotification;
+import com.budgetplanner.budget.model.BankAccount;
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.BudgetItem;
+import com.budgetplanner.budget.model.CategorizationRule;
+import com.budgetplanner.budget.repository.AppNotificationRepository;
+import com.budgetplanner.budget.repository.BankAccountRepository;
+import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.repository.BudgetItemRepository;
+import com.budgetplanner.budget.repository.CategorizationRuleRepository;
+import com.budgetplanner.budget.repository.NotificationOutboxRepository;
+import com.budgetplanner.budget.repository.NotificationPreferenceRepository;
+import com.budgetplanner.budget.repository.NotificationTemplateRepository;
+import com.budgetplanner.budget.repository.SavingsGoalRepository;
+import com.budgetplanner.budget.repository.TagRepository;
+import com.budgetplanner.budget.repository.TransactionNoteRepository;
+import com.budgetplanner.budget.repository.TransactionTagRepository;
+import com.budgetplanner.budget.service.AIAdvisoryService;
+import com.budgetplanner.budget.service.AIAdvisoryService.AdvisoryTip;
+import com.budgetplanner.budget.service.BankAccountService;
+import com.budgetplanner.budget.service.NotificationSenderService;
+import com.budgetplanner.budget.service.TagDictionary;
+import com.budgetplanner.budget.service.TransactionMetaService;
+import com.budgetplanner.budget.service.categorization.CategorizationRuleBook;
+import com.budgetplanner.budget.service.categorization.RuleBackfill;
+import com.budgetplanner.budget.service.notification.NotificationDispatcher;
+import com.budgetplanner.budget.service.notification.NotificationInbox;
+import com.budgetplanner.budget.service.notification.NotificationOutbox;
+import com.budgetplanner.budget.service.notification.NotificationSettingsCache;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check for per-user data scoping ({@code @TenantId} with {@link TenantContext}) against an in-memory H2
+ * database. Seeds one big user and several small ones, each with an account and transactions. Every user must
+ * then see only their own rows through the repositories, bulk UPDATEs, tag usage and notification counts,
+ * while the system tenant sees everyone's. A notification sent to several users must be stored once per user
+ * as that user, and not at all from a rolled-back transaction. A user must not be able to write into another
+ * user's account.
+ * Work handed to other threads must run as the user who handed it over: {@code @Async} methods, a rule
+ * backfill, and the all-users advisory batch, whose tips must equal each user's own.
+ * Prints the time of a user's date-range query for the big and a small user and checks that the query plan
+ * uses the per-user index. Exits with status 1 on any mismatch.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.TenantScopingCheck [users] [big user transactions]
+ * </pre>
+ */
+public class TenantScopingCheck {
+
+    private static final int SMALL_USER_TRANSACTIONS = 200;
+    private static final int QUERY_RUNS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int big = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.ERROR);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CheckConfig.class)) {
+            BankAccountRepository accountRepository = context.getBean(BankAccountRepository.class);
+            BankTransactionRepository transactionRepository = context.getBean(BankTransactionRepository.class);
+            AppNotificationRepository notificationRepository = context.getBean(AppNotificationRepository.class);
+            TransactionMetaService metaService = context.getBean(TransactionMetaService.class);
+            TagDictionary dictionary = context.getBean(TagDictionary.class);
+            NotificationInbox inbox = context.getBean(NotificationInbox.class);
+            TransactionTemplate transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            TenantProbe probe = context.getBean(TenantProbe.class);
+            CategorizationRuleBook ruleBook = context.getBean(CategorizationRuleBook.class);
+            RuleBackfill ruleBackfill = context.getBean(RuleBackfill.class);
+            CategorizationRuleRepository ruleRepository = context.getBean(CategorizationRuleRepository.class);
+            BudgetItemRepository budgetItemRepository = context.getBean(BudgetItemRepository.class);
+            AIAdvisoryService advisoryService = context.getBean(AIAdvisoryService.class);
+            NotificationSenderService sender = context.getBean(NotificationSenderService.class);
+            int problems = 0;
+
+            // Seed: user-0 is the big user, each user seeds as themselves
+            Map<String, BankAccount> accounts = new HashMap<>();
+            Map<String, Integer> expected = new HashMap<>();
+            LocalDate today = LocalDate.now();
+            long start = System.nanoTime();
+            for (int u = 0; u < users; u++) {
+                String user = "user-" + u;
+                int count = u == 0 ? big : SMALL_USER_TRANSACTIONS;
+                TenantContext.runAs(user, () -> {
+                    BankAccount account = accountRepository.save(new BankAccount("acc-" + user, "item-" + user,
+                        "Checking", "depository", "Check Bank", "0000", "token"));
+                    List<BankTransaction> seeded = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        LocalDate date = today.minusDays(i % 365);
+                        seeded.add(new BankTransaction("txn-" + user + "-" + i, account, -10.0,
+                            "Merchant " + (i % 50), "Purchase", date, date, "debit"));
+                    }
+                    transactionRepository.saveAll(seeded);
+                    accounts.put(user, account);
+                });
+                expected.put(user, count);
+            }
+            int total = big + (users - 1) * SMALL_USER_TRANSACTIONS;
+            System.out.printf("seeded %d users, %d transactions in %d ms%n", users, total,
+                (System.nanoTime() - start) / 1_000_000);
+
+            // Stamping: every row carries its user
+            for (Map<String, Object> row : jdbc.queryForList(
+                    "SELECT t.user_id, a.user_id AS account_user, COUNT(*) AS n FROM bank_transactions t " +
+                    "JOIN bank_accounts a ON a.id = t.bank_account_id GROUP BY t.user_id, a.user_id")) {
+                String user = (String) row.get("USER_ID");
+                if (!user.equals(row.get("ACCOUNT_USER"))
+                        || ((Number) row.get("N")).intValue() != expected.getOrDefault(user, -1)) {
+                    System.out.printf("stored rows %s%n", row);
+                    problems++;
+                }
+            }
+
+            // Reads: each user sees their own rows, the system tenant everyone's
+            for (int u = 0; u < users; u++) {
+                String user = "user-" + u;
+                long seen = TenantContext.callAs(user, transactionRepository::count);
+                List<BankAccount> own = TenantContext.callAs(user, accountRepository::findByIsActiveTrue);
+                if (seen != expected.get(user) || own.size() != 1 || !user.equals(own.get(0).getUserId())) {
+                    System.out.printf("%s sees %d transactions and %d accounts%n", user, seen, own.size());
+                    problems++;
+                }
+            }
+            long systemSeen = TenantContext.callAsSystem(transactionRepository::count);
+            System.out.printf("system tenant sees %d of %d transactions%n", systemSeen, total);
+            if (systemSeen != total) {
+                problems++;
+            }
+
+            // Bulk UPDATE: only the caller's rows change
+            int changed = TenantContext.callAs("user-1", () -> transactions.execute(status ->
+                transactionRepository.recategorizeMatching("Merchant 0", null, null, null, null, null,
+                    "Isolated", "EXPENSES", LocalDateTime.now())));
+            List<Map<String, Object>> isolated = jdbc.queryForList(
+                "SELECT user_id, COUNT(*) AS n FROM bank_transactions WHERE budget_category = 'Isolated' GROUP BY user_id");
+            System.out.printf("bulk update as user-1 changed %d rows: %s%n", changed, isolated);
+            if (changed != SMALL_USER_TRANSACTIONS / 50 || isolated.size() != 1
+                    || !"user-1".equals(isolated.get(0).get("USER_ID"))) {
+                problems++;
+            }
+
+            // Tags: each user lists only the tags they use
+            dictionary.resync();
+            int taggers = Math.min(3, users);
+            for (int u = 0; u < taggers; u++) {
+                String user = "user-" + u;
+                TenantContext.runAs(user, () -> {
+                    List<BankTransaction> mine = transactionRepository.findByBankAccount(accounts.get(user)).subList(0, 10);
+                    metaService.tagAll(mine, "shared");
+                    metaService.tagAll(mine, "tag-" + user);
+                });
+            }
+            for (int u = 0; u < users; u++) {
+                String user = "user-" + u;
+                List<String> listed = TenantContext.callAs(user, dictionary::usedNames);
+                List<String> wanted = u < taggers ? List.of("shared", "tag-" + user) : List.of();
+                if (!listed.equals(wanted)) {
+                    System.out.printf("%s lists tags %s, expected %s%n", user, listed, wanted);
+                    problems++;
+                }
+            }
+
+            // Notifications: counts and mark all read stay per user
+            for (int u = 0; u < users; u++) {
+                int n = u + 1;
+                TenantContext.runAs("user-" + u, () -> {
+                    for (int i = 0; i < n; i++) {
+                        inbox.create(new AppNotification("Title " + i, "Message", "BUDGET", "MEDIUM"));
+                    }
+                });
+            }
+            int markedRead = TenantContext.callAs("user-0", inbox::markAllRead);
+            for (int u = 0; u < users; u++) {
+                int n = u + 1;
+                String user = "user-" + u;
+                long inboxTotal = TenantContext.callAs(user, () -> inbox.total());
+                long inboxUnread = TenantContext.callAs(user, () -> inbox.unread());
+                long stored = TenantContext.callAs(user, notificationRepository::count);
+                if (inboxTotal != n || stored != n || inboxUnread != (u == 0 ? 0 : n)) {
+                    System.out.printf("%s: inbox total=%d unread=%d, stored=%d, expected %d%n", user, inboxTotal,
+                        inboxUnread, stored, n);
+                    problems++;
+                }
+            }
+            if (markedRead != 1) {
+                System.out.printf("mark all read as user-0 marked %d%n", markedRead);
+                problems++;
+            }
+
+            // Sends: every recipient gets a row of their own, a rolled-back send reaches no one
+            long user2Before = TenantContext.callAs("user-2", () -> inbox.total());
+            TenantContext.runAs("user-0", () -> transactions.executeWithoutResult(status -> {
+                sender.sendNotificationToUsers(new AppNotification("Fan-out", "Message", "BUDGET", "MEDIUM"),
+                    List.of("user-1", "user-2", "user-2"));
+                sender.sendNotification(new AppNotification("Rolled back", "Message", "BUDGET", "MEDIUM"), "user-1");
+                status.setRollbackOnly();
+            }));
+            TenantContext.runAs("user-0", () -> sender.sendNotificationToUsers(
+                new AppNotification("Fan-out", "Message", "BUDGET", "MEDIUM"), List.of("user-1", "user-2", "user-2")));
+            List<Map<String, Object>> inboxRows = jdbc.queryForList("SELECT n.user_id, n.title, o.user_id AS recipient " +
+                "FROM app_notifications n LEFT JOIN notification_outbox o ON o.notification_id = n.id " +
+                "WHERE n.title IN ('Fan-out', 'Rolled back') ORDER BY n.user_id");
+            long user2After = TenantContext.callAs("user-2", () -> inbox.total());
+            System.out.printf("notification sent to user-1 and user-2: %s%n", inboxRows);
+            if (inboxRows.size() != 2 || user2After != user2Before + 1
+                    || !inboxRows.stream().allMatch(row -> "Fan-out".equals(row.get("TITLE"))
+                        && row.get("USER_ID").equals(row.get("RECIPIENT")))
+                    || !"user-1".equals(inboxRows.get(0).get("USER_ID"))
+                    || !"user-2".equals(inboxRows.get(1).get("USER_ID"))) {
+                problems++;
+            }
+
+            // Writes: a user cannot add to another user's account, the system tenant adds as the account's user
+            try {
+                TenantContext.runAs("user-1", () -> transactionRepository.save(new BankTransaction("txn-foreign",
+                    accounts.get("user-2"), -1.0, "Merchant", "Foreign", today, today, "debit")));
+                System.out.println("user-1 wrote into user-2's account");
+                problems++;
+            } catch (RuntimeException expectedFailure) {
+                System.out.println("write into another user's account rejected");
+            }
+            TenantContext.runAsSystem(() -> transactionRepository.save(new BankTransaction("txn-system",
+                accounts.get("user-2"), -1.0, "Merchant", "System", today, today, "debit")));
+            String systemWritten = jdbc.queryForObject(
+                "SELECT user_id FROM bank_transactions WHERE plaid_transaction_id = 'txn-system'", String.class);
+            if (!"user-2".equals(systemWritten)) {
+                System.out.printf("system write stored as %s%n", systemWritten);
+                problems++;
+            }
+
+            // Hand-offs: @Async work, a rule backfill and the all-users advisory batch run as the right user
+            String asyncTenant = TenantContext.callAs("user-3", () -> probe.tenant()).get(10, TimeUnit.SECONDS);
+            if (!"user-3".equals(asyncTenant)) {
+                System.out.printf("@Async method called as user-3 ran as %s%n", asyncTenant);
+                problems++;
+            }
+            CategorizationRule rule = new CategorizationRule("Merchant 1", null, null, "Backfilled", "EXPENSES");
+            Long ruleId = TenantContext.callAs("user-2", () -> transactions.execute(status -> ruleBook.add(rule).getId()));
+            long backfillStart = System.nanoTime();
+            while (TenantContext.callAsSystem(() -> ruleRepository.findById(ruleId)).orElseThrow().getBackfilledAt() == null
+                    && System.nanoTime() - backfillStart < 60_000_000_000L) {
+                Thread.sleep(20);
+            }
+            List<Map<String, Object>> backfilled = jdbc.queryForList(
+                "SELECT user_id, COUNT(*) AS n FROM bank_transactions WHERE budget_category = 'Backfilled' GROUP BY user_id");
+            System.out.printf("rule of user-2 backfilled %s%n", backfilled);
+            if (backfilled.size() != 1 || !"user-2".equals(backfilled.get(0).get("USER_ID"))
+                    || ((Number) backfilled.get(0).get("N")).intValue() != SMALL_USER_TRANSACTIONS / 50) {
+                problems++;
+            }
+            try {
+                ruleBackfill.backfill("user-2", -1L).get(10, TimeUnit.SECONDS);
+                System.out.println("backfill of a missing rule completed normally");
+                problems++;
+            } catch (ExecutionException expectedFailure) {
+                System.out.println("backfill of a missing rule failed");
+            }
+            YearMonth month = YearMonth.from(today);
+            TenantContext.runAs("user-1", () -> budgetItemRepository.save(
+                new BudgetItem("Other", 1.0, 0.0, "EXPENSES", month.getYear(), month.getMonthValue())));
+            Map<String, List<AdvisoryTip>> tipsByUser = TenantContext.callAs("user-0",
+                () -> advisoryService.generateTipsForAllUsers(month));
+            if (!tipsByUser.keySet().equals(expected.keySet())) {
+                System.out.printf("advisory batch covers users %s%n", tipsByUser.keySet());
+                problems++;
+            }
+            for (String user : expected.keySet()) {
+                List<String> alone = titles(TenantContext.callAs(user, () -> advisoryService.generatePersonalizedTips(month)));
+                List<String> batch = titles(tipsByUser.getOrDefault(user, List.of()));
+                if (!alone.equals(batch)) {
+                    System.out.printf("%s: batch tips %s, own tips %s%n", user, batch, alone);
+                    problems++;
+                }
+            }
+
+            // Cost: a user's query reads that user's rows through the per-user index
+            String plan = jdbc.queryForObject("EXPLAIN SELECT * FROM bank_transactions WHERE user_id = 'user-1' " +
+                "AND transaction_date BETWEEN DATE '2020-01-01' AND DATE '2030-01-01'", String.class);
+            if (!plan.toLowerCase().contains("idx_bank_transactions_user_date")) {
+                System.out.printf("date range plan does not use the per-user index: %s%n", plan);
+                problems++;
+            }
+            for (String user : List.of("user-0", "user-1")) {
+                int[] rows = new int[1];
+                long queryStart = System.nanoTime();
+                TenantContext.runAs(user, () -> {
+                    for (int run = 0; run < QUERY_RUNS; run++) {
+                        rows[0] = transactionRepository.findByTransactionDateBetweenOrderByTransactionDateDesc(
+                            today.minusDays(29), today).size();
+                    }
+                });
+                System.out.printf("%s (%d transactions): last 30 days = %d rows in %d us per query%n", user,
+                    expected.get(user), rows[0], (System.nanoTime() - queryStart) / 1_000 / QUERY_RUNS);
+            }
+
+            System.out.printf("problems=%d%n", problems);
+            if (problems > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static List<String> titles(List<AdvisoryTip> tips) {
+        return tips.stream().map(tip -> tip.getTitle() + ": " + tip.getMessage()).toList();
+    }
+
+    /**
+     * Reports the tenant an {@code @Async} method runs as
+     */
+    static class TenantProbe {
+
+        @Async
+        public CompletableFuture<String> tenant() {
+            return CompletableFuture.completedFuture(TenantContext.current());
+        }
+    }
+
+    @Configuration
+    @Import({CheckDatabaseConfig.class, EnhancedPlaidConfig.class})
+    static class CheckConfig {
+
+        @Bean
+        TenantProbe tenantProbe() {
+            return new TenantProbe();
+        }
+
+        @Bean
+        RuleBackfill ruleBackfill(CategorizationRuleRepository ruleRepository,
+                                  BankTransactionRepository transactionRepository,
+                                  SavingsGoalRepository savingsGoalRepository,
+                                  TransactionMetaService transactionMetaService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager) {
+            return new RuleBackfill(ruleRepository, transactionRepository, savingsGoalRepository,
+                transactionMetaService, eventPublisher, transactionManager);
+        }
+
+        @Bean
+        CategorizationRuleBook categorizationRuleBook(CategorizationRuleRepository ruleRepository,
+                                                      RuleBackfill ruleBackfill,
+                                                      SavingsGoalRepository savingsGoalRepository,
+                                                      TransactionMetaService transactionMetaService) {
+            return new CategorizationRuleBook(ruleRepository, ruleBackfill, savingsGoalRepository,
+                transactionMetaService);
+        }
+
+        @Bean
+        NotificationSenderService notificationSenderService(NotificationPreferenceRepository preferenceRepository,
+                                                            NotificationTemplateRepository templateRepository,
+                                                            NotificationOutboxRepository outboxRepository,
+                                                            NotificationInbox inbox,
+                                                            PlatformTransactionManager transactionManager) {
+            // Only queues; nothing drains the outbox here
+            NotificationDispatcher dispatcher = new NotificationDispatcher(
+                new NotificationSettingsCache(preferenceRepository, templateRepository, 100), List.of(),
+                10, 1, 1, 1, 0, 0);
+            NotificationOutbox outbox = new NotificationOutbox(outboxRepository, "check-node", 60, 3, 1, 1);
+            return new NotificationSenderService(dispatcher, outbox, inbox, transactionManager);
+        }
+
+        @Bean
+        AIAdvisoryService advisoryService(BankTransactionRepository transactionRepository,
+                                          BudgetItemRepository budgetItemRepository) {
+            BankAccountService bankAccountService = new BankAccountService(null, transactionRepository,
+                budgetItemRepository, null, null);
+            return new AIAdvisoryService(transactionRepository, bankAccountService, 2);
+        }
+
+        @Bean
+        TagDictionary tagDictionary(TagRepository tagRepository, TransactionTagRepository transactionTagRepository,
+                                    PlatformTransactionManager transactionManager) {
+            return new TagDictionary(tagRepository, transactionTagRepository, transactionManager);
+        }
+
+        @Bean
+        TransactionMetaService transactionMetaService(TransactionNoteRepository noteRepository,
+                                                      TransactionTagRepository tagRepository,
+                                                      TagDictionary tagDictionary) {
+            return new TransactionMetaService(noteRepository, tagRepository, tagDictionary);
+        }
+
+        @Bean
+        NotificationInbox notificationInbox(AppNotificationRepository repository, ApplicationEventPublisher eventPublisher,
+                                            PlatformTransactionManager transactionManager) {
+            return new NotificationInbox(repository, eventPublisher, transactionManager);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.service.TransactionCategorizationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-transaction categorization cost, cycling through the synthetic history so that
+ * every merchant pattern and the Plaid-category fallback are exercised.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class TransactionCategorizationBenchmark {
+
+    private TransactionCategorizationService categorizationService;
+    private List<BankTransaction> transactions;
+    private int index;
+
+    @Setup
+    public void setUp(TransactionDataState data) {
+        categorizationService = new TransactionCategorizationService();
+        transactions = data.transactions;
+    }
+
+    @Benchmark
+    public String categorizeTransaction() {
+        BankTransaction transaction = transactions.get(index);
+        index = index + 1 == transactions.size() ? 0 : index + 1;
+        categorizationService.categorizeTransaction(transaction);
+        return transaction.getBudgetCategory();
+    }
+}
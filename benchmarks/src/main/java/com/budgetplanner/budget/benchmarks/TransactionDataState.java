@@ -0,0 +1,32 @@
+package com.budgetplanner.budget.benchmarks;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Shared benchmark state: a seeded synthetic transaction history of the requested size.
+ * The 10M data set needs a large heap, see the @Fork settings on the benchmarks.
+ */
+@State(Scope.Benchmark)
+public class TransactionDataState {
+
+    @Param({"1000", "100000", "10000000"})
+    public int transactionCount;
+
+    @Param({"" + SyntheticTransactions.DEFAULT_SEED})
+    public long seed;
+
+    public List<BankTransaction> transactions;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        transactions = SyntheticTransactions.generate(transactionCount, seed, LocalDate.now());
+    }
+}
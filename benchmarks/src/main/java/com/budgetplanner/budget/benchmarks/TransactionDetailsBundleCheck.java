@@ -0,0 +1,317 @@
+package com.budgetplanner.budget.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.budgetplanner.budget.config.EnhancedPlaidConfig;
+import com.budgetplanner.budget.model.BankAccount;
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.RecurringTransaction;
+import com.budgetplanner.budget.model.SavingsGoal;
+import com.budgetplanner.budget.model.TransactionNote;
+import com.budgetplanner.budget.model.TransactionSplit;
+import com.budgetplanner.budget.repository.BankAccountRepository;
+import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.repository.RecurringTransactionRepository;
+import com.budgetplanner.budget.repository.SavingsGoalRepository;
+import com.budgetplanner.budget.repository.TagRepository;
+import com.budgetplanner.budget.repository.TransactionNoteRepository;
+import com.budgetplanner.budget.repository.TransactionSplitRepository;
+import com.budgetplanner.budget.repository.TransactionTagRepository;
+import com.budgetplanner.budget.service.RecurringPatternIndex;
+import com.budgetplanner.budget.service.RecurringTransactionService;
+import com.budgetplanner.budget.service.SavingsGoalService;
+import com.budgetplanner.budget.service.TagDictionary;
+import com.budgetplanner.budget.service.TransactionDetailsBundle;
+import com.budgetplanner.budget.service.TransactionMetaService;
+import com.budgetplanner.budget.service.UpcomingBillsTimeline;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Check for {@link TransactionDetailsBundle} against an in-memory H2 database whose statements are each
+ * delayed to stand in for a network round trip. For a sample of transactions the bundle must return the same
+ * data as the dialog's former one-query-at-a-time reads, and a tag saved through {@link TransactionMetaService}
+ * must show up in the next bundle. Prints the mean open time of both ways, alone
+ * and with several dialogs opening at once. Exits with status 1 on any mismatch.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetplanner.budget.benchmarks.TransactionDetailsBundleCheck [roundTripMillis] [openers]
+ * </pre>
+ */
+public class TransactionDetailsBundleCheck {
+
+    private static final int TRANSACTIONS = 2_000;
+    private static final int MERCHANTS = 40;
+    private static final int SAMPLE = 40;
+    private static final int OPENS_PER_OPENER = 20;
+
+    public static void main(String[] args) throws Exception {
+        int delay = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int openers = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.ERROR);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CheckConfig.class)) {
+            List<BankTransaction> transactions = seed(context);
+            TransactionDetailsBundle bundle = context.getBean(TransactionDetailsBundle.class);
+            SequentialReads sequential = new SequentialReads(context);
+            int problems = 0;
+
+            // Same data as the sequential reads
+            SplittableRandom random = new SplittableRandom(11);
+            for (int i = 0; i < SAMPLE; i++) {
+                BankTransaction transaction = transactions.get(random.nextInt(transactions.size()));
+                String expected = sequential.open(transaction);
+                String actual = describe(bundle.load(transaction));
+                if (!expected.equals(actual)) {
+                    System.out.printf("transaction %d:%n  sequential %s%n  bundle     %s%n",
+                        transaction.getId(), expected, actual);
+                    problems++;
+                }
+            }
+
+            // Saved tags reach the in-memory tag list
+            TransactionMetaService metaService = context.getBean(TransactionMetaService.class);
+            BankTransaction tagged = transactions.get(0);
+            bundle.load(tagged);
+            metaService.saveNoteAndTags(tagged, "checked", "brand-new-tag");
+            if (!bundle.load(tagged).getAllTagNames().contains("brand-new-tag")) {
+                System.out.println("saved tag missing from the tag names");
+                problems++;
+            }
+
+            CheckDatabaseConfig.setRoundTripMillis(delay);
+            List<BankTransaction> sample = transactions.subList(0, SAMPLE);
+            System.out.printf("%d ms per statement, one opener: sequential %.1f ms, bundle %.1f ms%n", delay,
+                meanMillis(1, sample, sequential::open), meanMillis(1, sample, t -> describe(bundle.load(t))));
+            System.out.printf("%d ms per statement, %d openers: sequential %.1f ms, bundle %.1f ms%n", delay, openers,
+                meanMillis(openers, sample, sequential::open), meanMillis(openers, sample, t -> describe(bundle.load(t))));
+
+            System.out.printf("problems=%d%n", problems);
+            if (problems > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static List<BankTransaction> seed(AnnotationConfigApplicationContext context) {
+        BankAccount account = context.getBean(BankAccountRepository.class).save(
+            new BankAccount("acc-1", "item-1", "Checking", "depository", "Check Bank", "0000", "token"));
+
+        SavingsGoalRepository goalRepository = context.getBean(SavingsGoalRepository.class);
+        List<SavingsGoal> goals = new ArrayList<>();
+        for (int g = 0; g < 6; g++) {
+            SavingsGoal goal = new SavingsGoal();
+            goal.setGoalName("Goal " + g);
+            goal.setTargetAmount(1_000.0 * (g + 1));
+            goal.setCurrentAmount(0.0);
+            goal.setIsActive(g % 3 != 0);
+            goal.setCreatedAt(LocalDateTime.now());
+            goals.add(goalRepository.save(goal));
+        }
+
+        SplittableRandom random = new SplittableRandom(7);
+        List<BankTransaction> transactions = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            String merchant = "Merchant " + random.nextInt(MERCHANTS);
+            BankTransaction transaction = new BankTransaction("txn-" + i, account, -(10.0 + random.nextInt(20)),
+                merchant, merchant + " purchase", today.minusDays(i), today.minusDays(i), "debit");
+            if (random.nextInt(4) == 0) {
+                transaction.setSavingsGoal(goals.get(random.nextInt(goals.size())));
+            }
+            transactions.add(transaction);
+        }
+        transactions = context.getBean(BankTransactionRepository.class).saveAll(transactions);
+
+        Map<String, List<BankTransaction>> tagged = new HashMap<>();
+        TransactionNoteRepository noteRepository = context.getBean(TransactionNoteRepository.class);
+        TransactionSplitRepository splitRepository = context.getBean(TransactionSplitRepository.class);
+        for (BankTransaction transaction : transactions) {
+            if (random.nextInt(3) == 0) {
+                tagged.computeIfAbsent("tag-" + random.nextInt(30), key -> new ArrayList<>()).add(transaction);
+            }
+            if (random.nextInt(5) == 0) {
+                TransactionNote note = new TransactionNote();
+                note.setBankTransaction(transaction);
+                note.setNoteText("Note for " + transaction.getPlaidTransactionId());
+                noteRepository.save(note);
+            }
+            if (random.nextInt(10) == 0) {
+                for (int s = 0; s < 2; s++) {
+                    TransactionSplit split = new TransactionSplit();
+                    split.setParentTransaction(transaction);
+                    split.setAmount(transaction.getAmount() / 2);
+                    split.setBudgetCategory("Category " + s);
+                    split.setBudgetCategoryType("EXPENSES");
+                    splitRepository.save(split);
+                }
+            }
+        }
+
+        TransactionMetaService metaService = context.getBean(TransactionMetaService.class);
+        tagged.forEach((tag, tagTransactions) -> metaService.tagAll(tagTransactions, tag));
+
+        RecurringTransactionRepository recurringRepository = context.getBean(RecurringTransactionRepository.class);
+        for (int m = 0; m < MERCHANTS; m += 4) {
+            RecurringTransaction pattern = new RecurringTransaction("Merchant " + m, -20.0,
+                RecurringTransaction.RecurrenceFrequency.MONTHLY);
+            pattern.setFirstOccurrence(today.minusMonths(6));
+            recurringRepository.save(pattern);
+        }
+        context.getBean(RecurringPatternIndex.class).rebuild();
+        return transactions;
+    }
+
+    private static double meanMillis(int openers, List<BankTransaction> sample,
+                                     java.util.function.Function<BankTransaction, String> open) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(openers);
+        List<Callable<Long>> runs = new ArrayList<>();
+        for (int t = 0; t < openers; t++) {
+            int offset = t;
+            runs.add(() -> {
+                long nanos = 0;
+                for (int i = 0; i < OPENS_PER_OPENER; i++) {
+                    long start = System.nanoTime();
+                    open.apply(sample.get((offset + i) % sample.size()));
+                    nanos += System.nanoTime() - start;
+                }
+                return nanos;
+            });
+        }
+        long total = 0;
+        for (Future<Long> run : executor.invokeAll(runs)) {
+            total += run.get();
+        }
+        executor.shutdown();
+        return total / 1_000_000.0 / (openers * OPENS_PER_OPENER);
+    }
+
+    private static String describe(TransactionDetailsBundle.Details details) {
+        return describe(details.getSavingsGoal(), details.getNote(), details.getTags(), details.getSplits(),
+            details.getSimilarTransactions(), details.getRecurringMatches(), details.getAllTagNames(),
+            details.getActiveSavingsGoals());
+    }
+
+    private static String describe(SavingsGoal goal, String note, List<String> tags, List<TransactionSplit> splits,
+                                   List<BankTransaction> similar, List<RecurringTransaction> recurring,
+                                   List<String> allTags, List<SavingsGoal> activeGoals) {
+        return "goal=" + (goal != null ? goal.getId() : null)
+            + " note=" + note
+            + " tags=" + tags
+            + " splits=" + splits.stream().map(TransactionSplit::getId).toList()
+            + " similar=" + similar.stream().map(BankTransaction::getId).toList()
+            + " recurring=" + recurring.stream().map(RecurringTransaction::getId).sorted().toList()
+            + " allTags=" + allTags
+            + " activeGoals=" + activeGoals.stream().map(SavingsGoal::getId).toList();
+    }
+
+    /**
+     * The reads the dialog made before the bundle, one after another
+     */
+    private static final class SequentialReads {
+
+        private final BankTransactionRepository transactionRepository;
+        private final TransactionMetaService metaService;
+        private final TransactionSplitRepository splitRepository;
+        private final RecurringTransactionService recurringTransactionService;
+        private final SavingsGoalService savingsGoalService;
+
+        SequentialReads(AnnotationConfigApplicationContext context) {
+            this.transactionRepository = context.getBean(BankTransactionRepository.class);
+            this.metaService = context.getBean(TransactionMetaService.class);
+            this.splitRepository = context.getBean(TransactionSplitRepository.class);
+            this.recurringTransactionService = context.getBean(RecurringTransactionService.class);
+            this.savingsGoalService = context.getBean(SavingsGoalService.class);
+        }
+
+        String open(BankTransaction transaction) {
+            SavingsGoal goal = transactionRepository.findById(transaction.getId())
+                .map(BankTransaction::getSavingsGoal)
+                .orElse(null);
+            return describe(goal,
+                metaService.getNoteForTransaction(transaction),
+                metaService.getTagsForTransaction(transaction),
+                splitRepository.findByParentTransaction(transaction),
+                transactionRepository.findTop5ByMerchantNameAndIdNotOrderByTransactionDateDesc(
+                    transaction.getMerchantName(), transaction.getId()),
+                recurringTransactionService.findMatchingRecurringPatterns(transaction),
+                metaService.getAllTagNames(),
+                savingsGoalService.getAllActiveGoals());
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    @Import(CheckDatabaseConfig.class)
+    static class CheckConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            Map<String, String> specs = Map.of(
+                EnhancedPlaidConfig.ACTIVE_SAVINGS_GOALS, "maximumSize=1,expireAfterWrite=5m");
+            return EnhancedPlaidConfig.caffeineCacheManager(specs, Runnable::run, accountId -> null);
+        }
+
+        @Bean
+        RecurringPatternIndex recurringPatternIndex(RecurringTransactionRepository repository) {
+            return new RecurringPatternIndex(repository);
+        }
+
+        @Bean
+        RecurringTransactionService recurringTransactionService(RecurringTransactionRepository repository,
+                                                                BankTransactionRepository transactionRepository,
+                                                                RecurringPatternIndex index) {
+            return new RecurringTransactionService(repository, transactionRepository, index,
+                new UpcomingBillsTimeline(repository, 12, "US"), 1);
+        }
+
+        @Bean
+        SavingsGoalService savingsGoalService(SavingsGoalRepository repository) {
+            return new SavingsGoalService(repository);
+        }
+
+        @Bean
+        TagDictionary tagDictionary(TagRepository tagRepository, TransactionTagRepository transactionTagRepository,
+                                    PlatformTransactionManager transactionManager) {
+            return new TagDictionary(tagRepository, transactionTagRepository, transactionManager);
+        }
+
+        @Bean
+        TransactionMetaService transactionMetaService(TransactionNoteRepository noteRepository,
+                                                      TransactionTagRepository tagRepository,
+                                                      TagDictionary tagDictionary) {
+            return new TransactionMetaService(noteRepository, tagRepository, tagDictionary);
+        }
+
+        @Bean
+        TransactionDetailsBundle transactionDetailsBundle(BankTransactionRepository transactionRepository,
+                                                          TransactionNoteRepository noteRepository,
+                                                          TransactionTagRepository tagRepository,
+                                                          TransactionSplitRepository splitRepository,
+                                                          RecurringTransactionService recurringTransactionService,
+                                                          SavingsGoalService savingsGoalService,
+                                                          TagDictionary tagDictionary,
+                                                          CacheManager cacheManager) {
+            return new TransactionDetailsBundle(transactionRepository, noteRepository, tagRepository, splitRepository,
+                recurringTransactionService, savingsGoalService, tagDictionary, cacheManager, 4);
+        }
+    }
+}
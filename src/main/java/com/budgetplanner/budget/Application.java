@@ -1,11 +1,21 @@
 package com.budgetplanner.budget;
 
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
+/**
+ * Server push is on so views can be updated from the live-update bus without a page reload.
+ * Startup steps, including the phases of the startup initializers, are buffered for {@code /actuator/startup}.
+ */
 @SpringBootApplication
-public class Application {
+@Push
+public class Application implements AppShellConfigurator {
     public static void main(String[] args) {
-        SpringApplication.run(Application.class, args);
+        SpringApplication application = new SpringApplication(Application.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
 }
@@ -1,13 +1,19 @@
 package com.budgetplanner.budget;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
 import com.budgetplanner.budget.model.BudgetItem;
 import com.budgetplanner.budget.service.BankAccountService;
 import com.budgetplanner.budget.service.PlaidService;
+import com.budgetplanner.budget.service.categorization.BulkRecategorizationService;
+import com.budgetplanner.budget.service.live.LiveTopic;
+import com.budgetplanner.budget.service.live.LiveUpdateBus;
 import com.budgetplanner.budget.view.BankAccountManagementDialog;
+import com.budgetplanner.budget.view.LiveUpdates;
 import com.budgetplanner.budget.view.TransactionCategorizationDialog;
 import com.budgetplanner.budget.view.ManualTransactionDialog;
 import com.budgetplanner.budget.view.NotificationCenterDialog;
 import com.budgetplanner.budget.service.AIAdvisoryService;
+import com.budgetplanner.budget.service.AdvisoryTipStore;
 import com.budgetplanner.budget.util.CurrencyFormatter;
 import com.vaadin.flow.component.charts.Chart;
 import com.vaadin.flow.component.charts.model.*;
@@ -52,6 +58,8 @@ import com.vaadin.flow.component.upload.receivers.MemoryBuffer;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.avatar.Avatar;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.io.*;
 
 import java.time.LocalDate;
@@ -67,6 +75,8 @@ import java.util.*;
 @CssImport("./styles/mobile-responsive.css")
 public class BudgetView extends VerticalLayout {
 
+    private static final Logger log = LoggerFactory.getLogger(BudgetView.class);
+
     // Constants for category types
     private static final String CATEGORY_INCOME = "INCOME";
     private static final String CATEGORY_EXPENSES = "EXPENSES";
@@ -129,7 +139,8 @@ public class BudgetView extends VerticalLayout {
     // Bank integration services
     private final BankAccountService bankAccountService;
     private final PlaidService plaidService;
-    private final AIAdvisoryService aiAdvisoryService;
+    private final AdvisoryTipStore advisoryTipStore;
+    private final BulkRecategorizationService bulkRecategorizationService;
     
     // Notification bell button
     private Button notificationBellButton;
@@ -138,10 +149,12 @@ public class BudgetView extends VerticalLayout {
     private Button mobileNavToggle;
     private Div sidebarOverlay;
 
-    public BudgetView(BankAccountService bankAccountService, PlaidService plaidService, AIAdvisoryService aiAdvisoryService) {
+    public BudgetView(BankAccountService bankAccountService, PlaidService plaidService, AdvisoryTipStore advisoryTipStore,
+                      LiveUpdateBus liveUpdateBus, BulkRecategorizationService bulkRecategorizationService) {
         this.bankAccountService = bankAccountService;
         this.plaidService = plaidService;
-        this.aiAdvisoryService = aiAdvisoryService;
+        this.advisoryTipStore = advisoryTipStore;
+        this.bulkRecategorizationService = bulkRecategorizationService;
         // Enable dark theme
         getElement().setAttribute("theme", Lumo.DARK);
         
@@ -182,6 +195,9 @@ public class BudgetView extends VerticalLayout {
         
         // Initial data load
         refreshDashboard();
+
+        // Synced or edited transactions refresh the grids and charts through server push
+        LiveUpdates.bind(this, liveUpdateBus, EnumSet.of(LiveTopic.TRANSACTIONS), changed -> refreshDashboard());
     }
 
     // Sample/demo data removed: BudgetView now uses only real transaction-based data.
@@ -482,7 +498,7 @@ public class BudgetView extends VerticalLayout {
             List<BudgetItem> realTransactionItems = bankAccountService.generateBudgetItemsFromTransactions(yearMonth);
             return realTransactionItems != null ? realTransactionItems : java.util.Collections.emptyList();
         } catch (Exception e) {
-            System.err.println("Error getting real transaction data for BudgetView: " + e.getMessage());
+            log.atError().setCause(e).log("Error getting real transaction data for BudgetView");
             return java.util.Collections.emptyList();
         }
     }
@@ -1162,10 +1178,7 @@ public class BudgetView extends VerticalLayout {
     
     private void openBankAccountManagement() {
         BankAccountManagementDialog dialog = new BankAccountManagementDialog(bankAccountService, plaidService, bankAccountService.getBankAccountRepository());
-        // When dialog closes, reload the entire page so all views re-query fresh data
-        dialog.addDialogCloseActionListener(e ->
-            getUI().ifPresent(ui -> ui.getPage().reload())
-        );
+        // Synced transactions arrive through the live-update bus, no reload needed
         dialog.open();
     }
     
@@ -1173,7 +1186,9 @@ public class BudgetView extends VerticalLayout {
      * Public method to refresh dashboard data - can be called externally
      */
     public void refreshBudgetData() {
-        refreshDashboard();
+        BudgetMetrics.timeViewLoad("BudgetView", "refresh", () -> {
+            refreshDashboard();
+        });
     }
     
     /**
@@ -1184,6 +1199,7 @@ public class BudgetView extends VerticalLayout {
         
         TransactionCategorizationDialog dialog = new TransactionCategorizationDialog(
             bankAccountService,
+            bulkRecategorizationService,
             category,
             categoryType,
             currentPeriod,
@@ -1199,7 +1215,7 @@ public class BudgetView extends VerticalLayout {
     private void showAIAdvisoryNotifications() {
         try {
             YearMonth currentPeriod = YearMonth.of(currentYear.getValue(), currentMonth.getValue());
-            List<AIAdvisoryService.AdvisoryTip> tips = aiAdvisoryService.generatePersonalizedTips(currentPeriod);
+            List<AIAdvisoryService.AdvisoryTip> tips = advisoryTipStore.getDashboardTips(currentPeriod).getTips();
             
             // Show only the highest priority tip as a notification to avoid spam
             if (!tips.isEmpty()) {
@@ -1208,7 +1224,7 @@ public class BudgetView extends VerticalLayout {
             }
         } catch (Exception e) {
             // Silently fail - don't show error notifications for advisory tips
-            System.err.println("Failed to generate AI advisory tips: " + e.getMessage());
+            log.atWarn().setCause(e).log("Failed to generate AI advisory tips");
         }
     }
     
@@ -1285,7 +1301,7 @@ public class BudgetView extends VerticalLayout {
      */
     private void openNotificationCenter() {
         YearMonth currentPeriod = YearMonth.of(currentYear.getValue(), currentMonth.getValue());
-        NotificationCenterDialog dialog = new NotificationCenterDialog(aiAdvisoryService, currentPeriod);
+        NotificationCenterDialog dialog = new NotificationCenterDialog(advisoryTipStore, currentPeriod);
         dialog.open();
     }
     
@@ -1295,7 +1311,7 @@ public class BudgetView extends VerticalLayout {
     private void updateNotificationBadge() {
         try {
             YearMonth currentPeriod = YearMonth.of(currentYear.getValue(), currentMonth.getValue());
-            List<AIAdvisoryService.AdvisoryTip> tips = aiAdvisoryService.generatePersonalizedTips(currentPeriod);
+            List<AIAdvisoryService.AdvisoryTip> tips = advisoryTipStore.getDashboardTips(currentPeriod).getTips();
             
             if (!tips.isEmpty()) {
                 // Set notification count for CSS badge
@@ -1,5 +1,6 @@
 package com.budgetplanner.budget;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
 import com.budgetplanner.budget.model.BankAccount;
 import com.budgetplanner.budget.model.BankTransaction;
 import com.budgetplanner.budget.model.BudgetItem;
@@ -12,12 +13,17 @@ import com.budgetplanner.budget.service.DashboardDataService;
 import com.budgetplanner.budget.service.TransactionMetaService;
 import com.budgetplanner.budget.service.PlaidService;
 import com.budgetplanner.budget.service.SimplifiedEnhancedPlaidService;
+import com.budgetplanner.budget.service.TransactionDetailsBundle;
 import com.budgetplanner.budget.service.RecurringTransactionService;
 import com.budgetplanner.budget.service.SavingsGoalService;
 import com.budgetplanner.budget.service.UserSessionService;
+import com.budgetplanner.budget.service.live.LiveTopic;
+import com.budgetplanner.budget.service.live.LiveUpdateBus;
+import com.budgetplanner.budget.service.notification.NotificationInbox;
 import com.budgetplanner.budget.util.AvatarHelper;
 import com.budgetplanner.budget.util.CurrencyFormatter;
 import com.budgetplanner.budget.view.BankAccountManagementDialog;
+import com.budgetplanner.budget.view.LiveUpdates;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.charts.Chart;
@@ -49,17 +55,20 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.component.ClientCallable;
-import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Modern Financial Dashboard View with real data integration and USD conversion
@@ -82,13 +91,17 @@ public class ModernDashboardView extends Div {
     private final BudgetItemRepository budgetItemRepository;
     private final BankAccountService bankAccountService;
     private final PlaidService plaidService;
+    private final SimplifiedEnhancedPlaidService enhancedPlaidService;
     private final BankAccountRepository bankAccountRepository;
     private final SavingsGoalService savingsGoalService;
     private final BankTransactionRepository bankTransactionRepository;
     private final TransactionMetaService transactionMetaService;
     private final RecurringTransactionService recurringTransactionService;
     private final UserSessionService userSessionService;
+    private final NotificationInbox notificationInbox;
+    private final TransactionDetailsBundle transactionDetailsBundle;
     
+    private Button notificationsButton;
     private Div creditCardSection;
     private Div savingsSectionContainer;
     private Div summaryCardsContainer;
@@ -102,13 +115,18 @@ public class ModernDashboardView extends Div {
                                BudgetItemRepository budgetItemRepository,
                                BankAccountService bankAccountService,
                                PlaidService plaidService,
+                               SimplifiedEnhancedPlaidService enhancedPlaidService,
                                BankAccountRepository bankAccountRepository,
                                SavingsGoalService savingsGoalService,
                                BankTransactionRepository bankTransactionRepository,
                                UserSessionService userSessionService,
                                TransactionMetaService transactionMetaService,
-                               RecurringTransactionService recurringTransactionService) {
+                               RecurringTransactionService recurringTransactionService,
+                               NotificationInbox notificationInbox,
+                               TransactionDetailsBundle transactionDetailsBundle,
+                               LiveUpdateBus liveUpdateBus) {
         this.plaidService = plaidService;
+        this.enhancedPlaidService = enhancedPlaidService;
         this.bankAccountService = bankAccountService;
         this.dashboardDataService = dashboardDataService;
         this.budgetItemRepository = budgetItemRepository;
@@ -118,12 +136,18 @@ public class ModernDashboardView extends Div {
         this.userSessionService = userSessionService;
         this.transactionMetaService = transactionMetaService;
         this.recurringTransactionService = recurringTransactionService;
+        this.notificationInbox = notificationInbox;
+        this.transactionDetailsBundle = transactionDetailsBundle;
         
         setSizeFull();
         addClassName("modern-dashboard");
 
         createLayout();
         addFloatingActionButton();
+        updateNotificationBadge();
+
+        // Pushed, coalesced refreshes of the affected sections instead of page reloads
+        LiveUpdates.bind(this, liveUpdateBus, EnumSet.allOf(LiveTopic.class), this::applyLiveUpdate);
     }
     
     @Override
@@ -197,6 +221,7 @@ public class ModernDashboardView extends Div {
         Button savingsBtn = createNavButton(VaadinIcon.PIGGY_BANK, "Savings", false);
         Button planBtn = createNavButton(VaadinIcon.CALENDAR, "Monthly Plan", false);
         Button notificationsBtn = createNavButton(VaadinIcon.STAR, "Notifications", false);
+        notificationsButton = notificationsBtn;
         Button userBtn = createNavButton(VaadinIcon.USER, "Profile", false);
         
         // Add click listeners for navigation
@@ -262,16 +287,8 @@ public class ModernDashboardView extends Div {
         // Check if user has avatar in session
         if (userSessionService.hasAvatar()) {
             // Show avatar image
-            Image avatarImg = new Image();
-            byte[] avatarData = userSessionService.getAvatarFromSession();
-            StreamResource resource = new StreamResource("avatar.png", 
-                () -> new ByteArrayInputStream(avatarData));
-            avatarImg.setSrc(resource);
-            avatarImg.setWidth("32px");
-            avatarImg.setHeight("32px");
-            avatarImg.getStyle()
-                .set("border-radius", "50%")
-                .set("object-fit", "cover");
+            Image avatarImg = AvatarHelper.createAvatarImage(userSessionService.getAvatarHash(), 32);
+            avatarImg.getStyle().set("border-radius", "50%");
             btn.setIcon(avatarImg);
         } else {
             // Show initials placeholder
@@ -443,12 +460,41 @@ public class ModernDashboardView extends Div {
         institutionValue.addClassName("card-value");
         institutionInfo.add(institutionLabel, institutionValue);
 
-        cardFooter.add(accountInfo, institutionInfo);
+        // Cached balance, refreshed ahead in the background; a balance still loading is pushed when it arrives
+        Div balanceInfo = new Div();
+        balanceInfo.addClassName("card-balance");
+        Span balanceLabel = new Span("BALANCE");
+        balanceLabel.addClassName("card-label");
+        Span balanceValue = new Span("N/A");
+        balanceValue.addClassName("card-value");
+        balanceInfo.add(balanceLabel, balanceValue);
+        if (primaryAccount != null) {
+            CompletableFuture<Double> balance = enhancedPlaidService.getAccountBalance(primaryAccount);
+            if (balance.isDone()) {
+                showBalance(balanceValue, balance.join());
+            } else {
+                balanceValue.setText("Loading...");
+                UI ui = UI.getCurrent();
+                balance.thenAccept(loaded -> {
+                    try {
+                        ui.access(() -> showBalance(balanceValue, loaded));
+                    } catch (UIDetachedException e) {
+                        // Dashboard closed before the balance arrived
+                    }
+                });
+            }
+        }
+
+        cardFooter.add(accountInfo, institutionInfo, balanceInfo);
 
         card.add(nameSection, accountTypeLogo, cardNumber, cardFooter);
         return card;
     }
 
+    private void showBalance(Span balanceValue, Double balance) {
+        balanceValue.setText(balance != null ? dashboardDataService.formatUSD(balance) : "N/A");
+    }
+
 
     private Div createActivityStatistics() {
         Div container = new Div();
@@ -894,7 +940,8 @@ public class ModernDashboardView extends Div {
                 bankAccountService,
                 dashboardDataService,
                 transactionMetaService,
-                recurringTransactionService
+                recurringTransactionService,
+                transactionDetailsBundle
             );
         dialog.open();
     }
@@ -1722,8 +1769,8 @@ public class ModernDashboardView extends Div {
         );
         notification.addThemeVariants(NotificationVariant.LUMO_SUCCESS);
         
-        // Refresh the page to show new data
-        getUI().ifPresent(ui -> ui.getPage().reload());
+        // Rebuild the sections that show budget totals
+        refreshTransactionSections();
     }
     
     private void openBankAccountManagement() {
@@ -1732,19 +1779,7 @@ public class ModernDashboardView extends Div {
             plaidService,
             bankAccountRepository
         );
-        // When dialog closes, reload the entire page so all views re-query fresh data
-        dialog.addDialogCloseActionListener(e -> {
-            new Thread(() -> {
-                try {
-                    // Small delay to ensure database changes are persisted
-                    Thread.sleep(300);
-
-                    getUI().ifPresent(ui -> ui.access(() -> ui.getPage().reload()));
-                } catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
-            }).start();
-        });
+        // Linked accounts and synced transactions reach the dashboard through the live-update bus
         dialog.open();
     }
     
@@ -1807,50 +1842,78 @@ public class ModernDashboardView extends Div {
      * Comprehensive dashboard refresh - updates all sections with latest data
      */
     public void refreshDashboard() {
-        // Refresh credit card section (bank accounts)
-        if (creditCardSection != null) {
-            creditCardSection.removeAll();
-            Div newCreditCard = createCreditCard();
-            newCreditCard.getChildren().forEach(creditCardSection::add);
+        BudgetMetrics.timeViewLoad("ModernDashboardView", "refresh", () -> {
+            updateCreditCardSection();
+            refreshTransactionSections();
+            refreshSavingsSection();
+        });
+    }
+    
+    /**
+     * Refreshes only the sections affected by one coalesced flush of the live-update bus
+     */
+    private void applyLiveUpdate(Set<LiveTopic> changed) {
+        BudgetMetrics.timeViewLoad("ModernDashboardView", "live", () -> {
+            if (changed.contains(LiveTopic.ACCOUNTS) || changed.contains(LiveTopic.SYNC)) {
+                updateCreditCardSection();
+            }
+            if (changed.contains(LiveTopic.TRANSACTIONS)) {
+                refreshTransactionSections();
+            }
+            if (changed.contains(LiveTopic.NOTIFICATIONS)) {
+                updateNotificationBadge();
+            }
+        });
+    }
+    
+    /**
+     * Unread count on the notifications nav button
+     */
+    private void updateNotificationBadge() {
+        if (notificationsButton != null) {
+            notificationsButton.getElement().setAttribute("data-count",
+                String.valueOf(notificationInbox.unread()));
         }
-        
+    }
+    
+    /**
+     * Rebuilds the sections derived from transactions and budget items
+     */
+    private void refreshTransactionSections() {
         // Refresh summary cards (earnings, spendings, savings)
         if (summaryCardsContainer != null) {
             summaryCardsContainer.removeAll();
             Div newSummaryCards = createSummaryCards();
             newSummaryCards.getChildren().forEach(summaryCardsContainer::add);
         }
-        
+
         // Refresh activity section (recent transactions)
         if (activitySectionContainer != null) {
             activitySectionContainer.removeAll();
             Div newActivitySection = createActivitySection();
             newActivitySection.getChildren().forEach(activitySectionContainer::add);
         }
-        
+
         // Refresh activity statistics
         if (activityStatsContainer != null) {
             activityStatsContainer.removeAll();
             Div newActivityStats = createActivityStatistics();
             newActivityStats.getChildren().forEach(activityStatsContainer::add);
         }
-        
+
         // Refresh daily expenses
         if (dailyExpensesContainer != null) {
             dailyExpensesContainer.removeAll();
             Div newDailyExpenses = createDailyExpenses();
             newDailyExpenses.getChildren().forEach(dailyExpensesContainer::add);
         }
-        
+
         // Refresh all expenses
         if (allExpensesContainer != null) {
             allExpensesContainer.removeAll();
             Div newAllExpenses = createAllExpenses();
             newAllExpenses.getChildren().forEach(allExpensesContainer::add);
         }
-        
-        // Refresh savings section
-        refreshSavingsSection();
     }
     
     /**
@@ -1,5 +1,6 @@
 package com.budgetplanner.budget;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
 import com.budgetplanner.budget.model.BudgetItem;
 import com.budgetplanner.budget.repository.BudgetItemRepository;
 import com.budgetplanner.budget.service.BankAccountService;
@@ -373,21 +374,23 @@ public class MonthlyPlanView extends VerticalLayout {
 
 
     private void refreshData() {
-        // First, try to get saved budget items from database
-        String userId = userSessionService.getCurrentUserId();
-        List<BudgetItem> budgetItems = budgetItemRepository.findByUserIdAndYearAndMonth(
-            userId, 
-            currentMonth.getYear(), 
-            currentMonth.getMonthValue()
-        );
+        BudgetMetrics.timeViewLoad("MonthlyPlanView", "refresh", () -> {
+            // First, try to get saved budget items from database
+            String userId = userSessionService.getCurrentUserId();
+            List<BudgetItem> budgetItems = budgetItemRepository.findByUserIdAndYearAndMonth(
+                userId, 
+                currentMonth.getYear(), 
+                currentMonth.getMonthValue()
+            );
         
-        // If no saved budget, try to get from transactions
-        if (budgetItems.isEmpty()) {
-            budgetItems = bankAccountService.generateBudgetItemsFromTransactions(currentMonth);
-        }
+            // If no saved budget, try to get from transactions
+            if (budgetItems.isEmpty()) {
+                budgetItems = bankAccountService.generateBudgetItemsFromTransactions(currentMonth);
+            }
 
-        budgetGrid.setItems(budgetItems);
-        updateSummaryCards(budgetItems);
+            budgetGrid.setItems(budgetItems);
+            updateSummaryCards(budgetItems);
+        });
     }
 
     private void updateSummaryCards(List<BudgetItem> items) {
@@ -1,9 +1,12 @@
 package com.budgetplanner.budget;
 
 import com.budgetplanner.budget.model.AppNotification;
-import com.budgetplanner.budget.repository.AppNotificationRepository;
 import com.budgetplanner.budget.service.UserSessionService;
+import com.budgetplanner.budget.service.live.LiveTopic;
+import com.budgetplanner.budget.service.live.LiveUpdateBus;
+import com.budgetplanner.budget.service.notification.NotificationInbox;
 import com.budgetplanner.budget.util.AvatarHelper;
+import com.budgetplanner.budget.view.LiveUpdates;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.html.Div;
@@ -27,6 +30,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
 import java.util.List;
 
 /**
@@ -40,17 +44,22 @@ import java.util.List;
 @CssImport("./styles/mobile-responsive.css")
 public class NotificationsView extends VerticalLayout {
 
-    private final AppNotificationRepository notificationRepository;
+    private static final int PAGE_SIZE = 20;
+
+    private final NotificationInbox inbox;
     private final UserSessionService userSessionService;
     
     private Div summaryCards;
     private Tabs filterTabs;
     private VerticalLayout contentArea;
-    private String currentFilter = "ALL";
+    private String currentFilter = NotificationInbox.ALL;
+    private AppNotification lastLoaded;
+    private Button loadMoreButton;
 
     @Autowired
-    public NotificationsView(AppNotificationRepository notificationRepository, UserSessionService userSessionService) {
-        this.notificationRepository = notificationRepository;
+    public NotificationsView(NotificationInbox inbox, UserSessionService userSessionService,
+                             LiveUpdateBus liveUpdateBus) {
+        this.inbox = inbox;
         this.userSessionService = userSessionService;
         
         setSizeFull();
@@ -88,6 +97,9 @@ public class NotificationsView extends VerticalLayout {
         initializeSampleNotifications();
         
         refreshData();
+
+        // New or read notifications (from any session) update the counts and the list through server push
+        LiveUpdates.bind(this, liveUpdateBus, EnumSet.of(LiveTopic.NOTIFICATIONS), changed -> refreshData());
     }
 
     private Div createSidebar() {
@@ -283,32 +295,45 @@ public class NotificationsView extends VerticalLayout {
 
     private void loadNotifications() {
         contentArea.removeAll();
+        lastLoaded = null;
+        loadMoreButton = null;
+        appendPage();
+    }
+
+    /**
+     * Adds the next keyset page of the current filter, with a "Load more" button if there is another one
+     */
+    private void appendPage() {
+        if (loadMoreButton != null) {
+            contentArea.remove(loadMoreButton);
+            loadMoreButton = null;
+        }
         
-        List<AppNotification> notifications;
-        
-        switch (currentFilter) {
-            case "UNREAD":
-                notifications = notificationRepository.findByIsReadFalseOrderByCreatedAtDesc();
-                break;
-            case "AI_INSIGHT":
-            case "BUDGET_ALERT":
-            case "SAVINGS_TIP":
-            case "RECURRING_REMINDER":
-                notifications = notificationRepository.findByCategoryOrderByCreatedAtDesc(currentFilter);
-                break;
-            default:
-                notifications = notificationRepository.findAllByOrderByCreatedAtDesc();
-                break;
+        // One row beyond the page tells whether there is a next page
+        List<AppNotification> notifications = inbox.page(currentFilter, lastLoaded, PAGE_SIZE + 1);
+        boolean hasMore = notifications.size() > PAGE_SIZE;
+        if (hasMore) {
+            notifications = notifications.subList(0, PAGE_SIZE);
         }
         
-        if (notifications.isEmpty()) {
+        if (notifications.isEmpty() && lastLoaded == null) {
             Div emptyState = createEmptyState();
             contentArea.add(emptyState);
-        } else {
-            for (AppNotification notification : notifications) {
-                Div notificationCard = createNotificationCard(notification);
-                contentArea.add(notificationCard);
-            }
+            return;
+        }
+        for (AppNotification notification : notifications) {
+            Div notificationCard = createNotificationCard(notification);
+            contentArea.add(notificationCard);
+        }
+        lastLoaded = notifications.get(notifications.size() - 1);
+        
+        if (hasMore) {
+            loadMoreButton = new Button("Load more", new Icon(VaadinIcon.ANGLE_DOWN), e -> appendPage());
+            loadMoreButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+            loadMoreButton.getStyle()
+                .set("border-radius", "10px")
+                .set("color", "#9CA3AF");
+            contentArea.add(loadMoreButton);
         }
     }
 
@@ -489,29 +514,24 @@ public class NotificationsView extends VerticalLayout {
     }
 
     private void toggleReadStatus(AppNotification notification) {
-        notification.setIsRead(!notification.getIsRead());
-        notificationRepository.save(notification);
+        inbox.setRead(notification, !notification.getIsRead());
     }
 
     private void deleteNotification(AppNotification notification) {
-        notificationRepository.delete(notification);
+        inbox.delete(notification);
         Notification.show("Notification deleted", 2000, Notification.Position.BOTTOM_END)
             .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
     }
 
     private void markAllAsRead() {
-        List<AppNotification> unreadNotifications = notificationRepository.findByIsReadFalseOrderByCreatedAtDesc();
-        for (AppNotification notification : unreadNotifications) {
-            notification.setIsRead(true);
-            notificationRepository.save(notification);
-        }
+        inbox.markAllRead();
         Notification.show("All notifications marked as read", 2000, Notification.Position.TOP_END)
             .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
         refreshData();
     }
 
     private void clearAllNotifications() {
-        notificationRepository.deleteAll();
+        inbox.clearAll();
         Notification.show("All notifications cleared", 2000, Notification.Position.TOP_END)
             .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
         refreshData();
@@ -525,10 +545,11 @@ public class NotificationsView extends VerticalLayout {
     private void updateSummaryCards() {
         summaryCards.removeAll();
         
-        long totalNotifications = notificationRepository.count();
-        long unreadNotifications = notificationRepository.countByIsReadFalse();
-        long aiInsights = notificationRepository.findByCategoryOrderByCreatedAtDesc("AI_INSIGHT").size();
-        long budgetAlerts = notificationRepository.findByCategoryOrderByCreatedAtDesc("BUDGET_ALERT").size();
+        // Maintained counters, no rows are loaded for the stat cards
+        long totalNotifications = inbox.total();
+        long unreadNotifications = inbox.unread();
+        long aiInsights = inbox.total("AI_INSIGHT");
+        long budgetAlerts = inbox.total("BUDGET_ALERT");
         
         summaryCards.add(
             createSummaryCard("Total Notifications", String.valueOf(totalNotifications), "#60a5fa", VaadinIcon.BELL),
@@ -580,36 +601,36 @@ public class NotificationsView extends VerticalLayout {
 
     private void initializeSampleNotifications() {
         // Only create sample data if none exists
-        if (notificationRepository.count() == 0) {
-            notificationRepository.save(new AppNotification(
+        if (inbox.total() == 0) {
+            inbox.create(new AppNotification(
                 "Budget Overspending Alert",
                 "You've spent 92% of your planned budget for Dining Out this month. Consider reducing expenses to stay on track.",
                 "BUDGET_ALERT",
                 "HIGH"
             ));
             
-            notificationRepository.save(new AppNotification(
+            inbox.create(new AppNotification(
                 "AI Insight: Savings Opportunity",
                 "Based on your spending patterns, you could save $250/month by reducing subscription services and dining out expenses.",
                 "AI_INSIGHT",
                 "MEDIUM"
             ));
             
-            notificationRepository.save(new AppNotification(
+            inbox.create(new AppNotification(
                 "Savings Goal Progress",
                 "Great job! You're 65% of the way to your Emergency Fund goal. Keep up the momentum!",
                 "SAVINGS_TIP",
                 "LOW"
             ));
             
-            notificationRepository.save(new AppNotification(
+            inbox.create(new AppNotification(
                 "Recurring Payment Due",
                 "Your Netflix subscription ($15.99) is due in 3 days.",
                 "RECURRING_REMINDER",
                 "MEDIUM"
             ));
             
-            notificationRepository.save(new AppNotification(
+            inbox.create(new AppNotification(
                 "AI Insight: Spending Pattern",
                 "Your grocery spending is 15% lower than last month. This is helping you stay within budget!",
                 "AI_INSIGHT",
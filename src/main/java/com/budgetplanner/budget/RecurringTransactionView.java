@@ -1,5 +1,6 @@
 package com.budgetplanner.budget;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
 import com.budgetplanner.budget.model.RecurringTransaction;
 import com.budgetplanner.budget.service.DashboardDataService;
 import com.budgetplanner.budget.service.UserSessionService;
@@ -477,29 +478,31 @@ public class RecurringTransactionView extends VerticalLayout {
     }
 
     private void refreshData() {
-        try {
-            // Load active transactions
-            List<RecurringTransaction> activeTransactions = 
-                recurringTransactionService.getAllActiveRecurringTransactions();
-            activeGrid.setItems(activeTransactions);
+        BudgetMetrics.timeViewLoad("RecurringTransactionView", "refresh", () -> {
+            try {
+                // Load active transactions
+                List<RecurringTransaction> activeTransactions = 
+                    recurringTransactionService.getAllActiveRecurringTransactions();
+                activeGrid.setItems(activeTransactions);
             
-            // Load due soon transactions
-            List<RecurringTransaction> dueSoonTransactions = 
-                recurringTransactionService.getTransactionsDueSoon(7);
-            dueSoonGrid.setItems(dueSoonTransactions);
+                // Load due soon transactions
+                List<RecurringTransaction> dueSoonTransactions = 
+                    recurringTransactionService.getTransactionsDueSoon(7);
+                dueSoonGrid.setItems(dueSoonTransactions);
             
-            // Load overdue transactions
-            List<RecurringTransaction> overdueTransactions = 
-                recurringTransactionService.getOverdueTransactions();
-            overdueGrid.setItems(overdueTransactions);
+                // Load overdue transactions
+                List<RecurringTransaction> overdueTransactions = 
+                    recurringTransactionService.getOverdueTransactions();
+                overdueGrid.setItems(overdueTransactions);
             
-            // Update summary cards
-            updateSummaryCards(activeTransactions, dueSoonTransactions, overdueTransactions);
+                // Update summary cards
+                updateSummaryCards(activeTransactions, dueSoonTransactions, overdueTransactions);
             
-        } catch (Exception e) {
-            Notification.show("Error loading recurring transactions: " + e.getMessage())
-                .addThemeVariants(NotificationVariant.LUMO_ERROR);
-        }
+            } catch (Exception e) {
+                Notification.show("Error loading recurring transactions: " + e.getMessage())
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            }
+        });
     }
 
     private void updateSummaryCards(List<RecurringTransaction> active, 
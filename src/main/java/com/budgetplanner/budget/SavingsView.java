@@ -1,11 +1,13 @@
 package com.budgetplanner.budget;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
 import com.budgetplanner.budget.model.BudgetItem;
 import com.budgetplanner.budget.model.SavingsGoal;
 import com.budgetplanner.budget.repository.BudgetItemRepository;
 import com.budgetplanner.budget.service.DashboardDataService;
 import com.budgetplanner.budget.service.SavingsGoalService;
 import com.budgetplanner.budget.service.UserSessionService;
+import com.budgetplanner.budget.util.AvatarHelper;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.dialog.Dialog;
@@ -15,7 +17,6 @@ import com.vaadin.flow.component.grid.GridVariant;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H3;
-import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
@@ -30,10 +31,8 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.component.dependency.CssImport;
-import com.vaadin.flow.server.StreamResource;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
@@ -122,15 +121,7 @@ public class SavingsView extends VerticalLayout {
             .set("margin", "20px auto 0");
         
         if (userSessionService.hasAvatar()) {
-            Image img = new Image();
-            byte[] avatarData = userSessionService.getAvatarFromSession();
-            StreamResource resource = new StreamResource("avatar.png", 
-                () -> new ByteArrayInputStream(avatarData));
-            img.setSrc(resource);
-            img.setWidth("45px");
-            img.setHeight("45px");
-            img.getStyle().set("object-fit", "cover");
-            logo.add(img);
+            logo.add(AvatarHelper.createAvatarImage(userSessionService.getAvatarHash(), 45));
         } else {
             logo.getStyle()
                 .set("background", "#01a1be")
@@ -472,8 +463,10 @@ public class SavingsView extends VerticalLayout {
     }
 
     private void refreshData() {
-        updateSummaryCards();
-        loadSavingsGoals();
+        BudgetMetrics.timeViewLoad("SavingsView", "refresh", () -> {
+            updateSummaryCards();
+            loadSavingsGoals();
+        });
     }
 
     private void loadSavingsGoals() {
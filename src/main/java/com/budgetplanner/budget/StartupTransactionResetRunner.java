@@ -2,7 +2,8 @@ package com.budgetplanner.budget;
 
 import com.budgetplanner.budget.repository.BankTransactionRepository;
 import com.budgetplanner.budget.repository.RecurringTransactionRepository;
-import org.springframework.boot.CommandLineRunner;
+import com.budgetplanner.budget.startup.StartupInitializer;
+import com.budgetplanner.budget.tenant.TenantContext;
 import org.springframework.stereotype.Component;
 
 /**
@@ -11,7 +12,9 @@ import org.springframework.stereotype.Component;
  * consistent, empty state after each restart.
  */
 @Component
-public class StartupTransactionResetRunner implements CommandLineRunner {
+public class StartupTransactionResetRunner implements StartupInitializer {
+
+    public static final String NAME = "transaction-reset";
 
     private final BankTransactionRepository bankTransactionRepository;
     private final RecurringTransactionRepository recurringTransactionRepository;
@@ -23,11 +26,19 @@ public class StartupTransactionResetRunner implements CommandLineRunner {
     }
 
     @Override
-    public void run(String... args) {
-        // Clear recurring patterns first (they reference transactions)
-        recurringTransactionRepository.deleteAll();
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize() {
+        // Every user's data, not just the default user's
+        TenantContext.runAsSystem(() -> {
+            // Clear recurring patterns first (they reference transactions)
+            recurringTransactionRepository.deleteAll();
 
-        // Then clear all bank transactions so every restart starts fresh
-        bankTransactionRepository.deleteAll();
+            // Then clear all bank transactions so every restart starts fresh
+            bankTransactionRepository.deleteAll();
+        });
     }
 }
@@ -1,5 +1,6 @@
 package com.budgetplanner.budget;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
 import com.budgetplanner.budget.model.BankTransaction;
 import com.budgetplanner.budget.model.BudgetItem;
 import com.budgetplanner.budget.repository.BankTransactionRepository;
@@ -8,7 +9,9 @@ import com.budgetplanner.budget.service.BankAccountService;
 import com.budgetplanner.budget.service.DashboardDataService;
 import com.budgetplanner.budget.service.TransactionMetaService;
 import com.budgetplanner.budget.service.RecurringTransactionService;
+import com.budgetplanner.budget.service.TransactionDetailsBundle;
 import com.budgetplanner.budget.service.UserSessionService;
+import com.budgetplanner.budget.util.AvatarHelper;
 import com.budgetplanner.budget.util.CurrencyFormatter;
 import com.budgetplanner.budget.view.TransactionDetailsDialog;
 import com.vaadin.flow.component.button.Button;
@@ -20,7 +23,6 @@ import com.vaadin.flow.component.grid.GridVariant;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H3;
-import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
@@ -37,10 +39,8 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.component.dependency.CssImport;
-import com.vaadin.flow.server.StreamResource;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
@@ -66,6 +66,7 @@ public class TrendsView extends VerticalLayout {
     private final UserSessionService userSessionService;
     private final TransactionMetaService transactionMetaService;
     private final RecurringTransactionService recurringTransactionService;
+    private final TransactionDetailsBundle transactionDetailsBundle;
     
     private Grid<BankTransaction> allActivityGrid;
     private Grid<BudgetItem> incomeGrid;
@@ -83,7 +84,8 @@ public class TrendsView extends VerticalLayout {
                       DashboardDataService dashboardDataService,
                       UserSessionService userSessionService,
                       TransactionMetaService transactionMetaService,
-                      RecurringTransactionService recurringTransactionService) {
+                      RecurringTransactionService recurringTransactionService,
+                      TransactionDetailsBundle transactionDetailsBundle) {
         this.budgetItemRepository = budgetItemRepository;
         this.bankAccountService = bankAccountService;
         this.bankTransactionRepository = bankTransactionRepository;
@@ -91,6 +93,7 @@ public class TrendsView extends VerticalLayout {
         this.userSessionService = userSessionService;
         this.transactionMetaService = transactionMetaService;
         this.recurringTransactionService = recurringTransactionService;
+        this.transactionDetailsBundle = transactionDetailsBundle;
         
         setSizeFull();
         setPadding(false);
@@ -149,15 +152,7 @@ public class TrendsView extends VerticalLayout {
             .set("margin", "20px auto 0");
         
         if (userSessionService.hasAvatar()) {
-            Image img = new Image();
-            byte[] avatarData = userSessionService.getAvatarFromSession();
-            StreamResource resource = new StreamResource("avatar.png", 
-                () -> new ByteArrayInputStream(avatarData));
-            img.setSrc(resource);
-            img.setWidth("45px");
-            img.setHeight("45px");
-            img.getStyle().set("object-fit", "cover");
-            logo.add(img);
+            logo.add(AvatarHelper.createAvatarImage(userSessionService.getAvatarHash(), 45));
         } else {
             logo.getStyle()
                 .set("background", "#01a1be")
@@ -505,13 +500,15 @@ public class TrendsView extends VerticalLayout {
     }
 
     private void refreshData() {
-        updateSummaryCards();
+        BudgetMetrics.timeViewLoad("TrendsView", "refresh", () -> {
+            updateSummaryCards();
         
-        // Refresh the currently visible grid
-        Tab selectedTab = categoryTabs.getSelectedTab();
-        if (selectedTab != null) {
-            updateContentForTab(selectedTab);
-        }
+            // Refresh the currently visible grid
+            Tab selectedTab = categoryTabs.getSelectedTab();
+            if (selectedTab != null) {
+                updateContentForTab(selectedTab);
+            }
+        });
     }
 
     private void updateSummaryCards() {
@@ -789,7 +786,8 @@ public class TrendsView extends VerticalLayout {
                 bankAccountService,
                 dashboardDataService,
                 transactionMetaService,
-                recurringTransactionService
+                recurringTransactionService,
+                transactionDetailsBundle
         );
         dialog.open();
     }
@@ -30,10 +30,8 @@ import com.vaadin.flow.component.upload.receivers.MemoryBuffer;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.component.dependency.CssImport;
-import com.vaadin.flow.server.StreamResource;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.io.ByteArrayInputStream;
 
 /**
  * Vaadin view for user profile and settings management
@@ -117,7 +115,7 @@ public class UserSettingsView extends VerticalLayout {
         
         // Load avatar into session for cross-view availability
         if (currentProfile.hasAvatar()) {
-            userSessionService.setAvatarInSession(currentProfile.getAvatarImage(), currentProfile.getAvatarContentType());
+            userSessionService.setAvatarInSession(currentProfile.getAvatarHash());
         }
         userSessionService.setUserInitials(currentProfile.getInitials());
         userSessionService.setUserName(currentProfile.getFullName());
@@ -341,11 +339,7 @@ public class UserSettingsView extends VerticalLayout {
             .set("flex-shrink", "0");
         
         if (currentProfile.hasAvatar()) {
-            avatarImage = new Image();
-            avatarImage.setSrc(createAvatarResource());
-            avatarImage.setWidth("80px");
-            avatarImage.setHeight("80px");
-            avatarImage.getStyle().set("object-fit", "cover");
+            avatarImage = AvatarHelper.createAvatarImage(currentProfile.getAvatarHash(), 80);
             avatarContainer.add(avatarImage);
         } else {
             avatarPlaceholder = new Div();
@@ -392,7 +386,7 @@ public class UserSettingsView extends VerticalLayout {
                 UserProfile updatedProfile = userProfileService.uploadAvatar(buffer.getInputStream(), event.getMIMEType());
                 
                 // Store in session for immediate cross-view availability
-                userSessionService.setAvatarInSession(updatedProfile.getAvatarImage(), updatedProfile.getAvatarContentType());
+                userSessionService.setAvatarInSession(updatedProfile.getAvatarHash());
                 userSessionService.setUserInitials(updatedProfile.getInitials());
                 userSessionService.setUserName(updatedProfile.getFullName());
                 
@@ -578,11 +572,6 @@ public class UserSettingsView extends VerticalLayout {
         }
     }
 
-    private StreamResource createAvatarResource() {
-        return new StreamResource("avatar.png", () -> 
-            new ByteArrayInputStream(currentProfile.getAvatarImage()));
-    }
-
     private void styleTextField(Object field) {
         // Field labels and placeholders are now styled via accordion-styles.css
         // Just set the Lumo theme variables for consistency
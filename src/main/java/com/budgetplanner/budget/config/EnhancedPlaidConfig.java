@@ -1,15 +1,32 @@
 package com.budgetplanner.budget.config;
 
+import com.budgetplanner.budget.service.SimplifiedEnhancedPlaidService;
+import com.budgetplanner.budget.tenant.TenantContext;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 /**
  * Configuration for enhanced Plaid service features including:
@@ -22,7 +39,10 @@ import java.util.concurrent.Executor;
 @EnableAsync
 @EnableCaching
 @EnableScheduling
-public class EnhancedPlaidConfig {
+public class EnhancedPlaidConfig implements AsyncConfigurer {
+
+    public static final String ACCOUNT_BALANCES = "accountBalances";
+    public static final String ACTIVE_SAVINGS_GOALS = "activeSavingsGoals";
 
     /**
      * Configure thread pool for async Plaid operations
@@ -35,28 +55,82 @@ public class EnhancedPlaidConfig {
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("PlaidAsync-");
         executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        // Tasks run as the user who submitted them
+        executor.setTaskDecorator(TenantContext::propagate);
         executor.initialize();
         return executor;
     }
 
     /**
-     * Configure cache manager for Plaid data
+     * Runs every {@code @Async} method on the Plaid pool, so it runs as the user who called it
+     */
+    @Override
+    public Executor getAsyncExecutor() {
+        return plaidTaskExecutor();
+    }
+
+    /**
+     * Caffeine caches for Plaid balances and savings goals, each bounded and expiring per its spec in
+     * application.properties. Statistics are recorded so the actuator binds them as cache metrics. Balances are
+     * a loading cache that refreshes entries in the background once they pass refreshAfterWrite, so readers
+     * keep getting the old value instead of waiting on Plaid. Puts and evictions made in a transaction apply
+     * after its commit, so a read racing the commit cannot re-cache what the transaction replaced.
      */
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        
-        // Configure caches for different data types
-        cacheManager.setCacheNames(java.util.Arrays.asList(
-            "institutionNames",    // Institution name lookup cache
-            "linkTokens",          // Link token cache (short-lived)
-            "accountBalances",     // Account balance cache
-            "transactionCategories" // Transaction categorization cache
-        ));
-        
+    public CacheManager cacheManager(@Value("${cache.account-balances.spec:maximumSize=10000,expireAfterWrite=30m,refreshAfterWrite=5m}") String accountBalancesSpec,
+                                     @Value("${cache.active-savings-goals.spec:maximumSize=1000,expireAfterWrite=5m}") String activeSavingsGoalsSpec,
+                                     @Qualifier("plaidTaskExecutor") Executor plaidTaskExecutor,
+                                     ObjectProvider<SimplifiedEnhancedPlaidService> plaidService) {
+        Map<String, String> specs = Map.of(
+            ACCOUNT_BALANCES, accountBalancesSpec,
+            ACTIVE_SAVINGS_GOALS, activeSavingsGoalsSpec);
+        // Resolved lazily, the Plaid service is created after the cache manager
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager(specs, plaidTaskExecutor,
+            accountId -> plaidService.getObject().fetchAccountBalance(accountId)));
+    }
+
+    /**
+     * Builds the cache manager with one cache per entry of {@code specs} (name to Caffeine spec).
+     * {@code balanceLoader} loads (and reloads) one account's balance on {@code refreshExecutor} and throws
+     * when it cannot.
+     */
+    public static CaffeineCacheManager caffeineCacheManager(Map<String, String> specs, Executor refreshExecutor,
+                                                            Function<Long, Double> balanceLoader) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches below; a typo in a cache name fails instead of creating an unbounded cache
+        cacheManager.setCacheNames(List.of());
+
+        specs.forEach((name, spec) -> {
+            if (!ACCOUNT_BALANCES.equals(name)) {
+                cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+            }
+        });
+
+        if (specs.containsKey(ACCOUNT_BALANCES)) {
+            AsyncCacheLoader<Object, Object> loader = (accountId, executor) -> CompletableFuture.supplyAsync(
+                () -> balanceLoader.apply((Long) accountId), executor);
+            cacheManager.registerCustomCache(ACCOUNT_BALANCES, Caffeine.from(specs.get(ACCOUNT_BALANCES))
+                .executor(refreshExecutor)
+                .recordStats()
+                .buildAsync(loader));
+        }
+
         return cacheManager;
     }
 
+    /**
+     * The native balance cache, for reads that must not wait on Plaid: its futures are complete for cached
+     * balances and complete later for loads
+     */
+    @SuppressWarnings("unchecked")
+    public static AsyncLoadingCache<Object, Object> accountBalances(CacheManager cacheManager) {
+        Cache cache = cacheManager.getCache(ACCOUNT_BALANCES);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        return (AsyncLoadingCache<Object, Object>) ((CaffeineCache) cache).getAsyncCache();
+    }
+
     /**
      * Configuration properties for enhanced Plaid service
      */
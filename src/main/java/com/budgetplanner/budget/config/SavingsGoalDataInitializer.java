@@ -1,20 +1,33 @@
 package com.budgetplanner.budget.config;
 
 import com.budgetplanner.budget.service.SavingsGoalService;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
+import com.budgetplanner.budget.startup.StartupInitializer;
+import org.springframework.stereotype.Component;
 
 /**
- * Initializer for savings goal sample data
+ * Initializer for savings goal sample data, deferred until the application is ready
  */
-@Configuration
-public class SavingsGoalDataInitializer {
-    
-    @Bean
-    CommandLineRunner initSavingsGoals(SavingsGoalService savingsGoalService) {
-        return args -> {
-            savingsGoalService.initializeSampleGoals();
-        };
+@Component
+public class SavingsGoalDataInitializer implements StartupInitializer {
+
+    private final SavingsGoalService savingsGoalService;
+
+    public SavingsGoalDataInitializer(SavingsGoalService savingsGoalService) {
+        this.savingsGoalService = savingsGoalService;
+    }
+
+    @Override
+    public String name() {
+        return "savings-goal-samples";
+    }
+
+    @Override
+    public Phase phase() {
+        return Phase.DEFERRED;
+    }
+
+    @Override
+    public void initialize() {
+        savingsGoalService.initializeSampleGoals();
     }
 }
@@ -0,0 +1,26 @@
+package com.budgetplanner.budget.config;
+
+import com.budgetplanner.budget.service.UserSessionService;
+import com.budgetplanner.budget.tenant.TenantContext;
+import com.budgetplanner.budget.tenant.TenantResolver;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-user data scoping: Hibernate resolves the tenant of each session from {@link TenantContext}, which
+ * falls back to the user signed in to the UI session.
+ */
+@Configuration
+public class TenantConfig {
+
+    public TenantConfig() {
+        TenantContext.setSessionTenant(UserSessionService::getSessionUserId);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantResolverCustomizer() {
+        return properties -> properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new TenantResolver());
+    }
+}
@@ -0,0 +1,65 @@
+package com.budgetplanner.budget.controller;
+
+import com.budgetplanner.budget.model.AvatarImage;
+import com.budgetplanner.budget.service.AvatarImageService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Serves avatar variants at {@code /avatars/{hash}/{size}}. The hash names the content, so responses are
+ * cacheable for a year without revalidation; a browser that revalidates anyway gets a 304 from the ETag.
+ */
+@RestController
+@RequestMapping(AvatarController.PATH)
+public class AvatarController {
+
+    public static final String PATH = "/avatars";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final CacheControl CACHE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final AvatarImageService avatarImageService;
+
+    public AvatarController(AvatarImageService avatarImageService) {
+        this.avatarImageService = avatarImageService;
+    }
+
+    /**
+     * URL of the variant of {@code hash} that suits an image shown {@code cssPixels} wide
+     */
+    public static String url(String hash, int cssPixels) {
+        return PATH + "/" + hash + "/" + AvatarImageService.sizeFor(cssPixels);
+    }
+
+    @GetMapping("/{hash}/{size}")
+    public ResponseEntity<byte[]> getAvatar(@PathVariable String hash, @PathVariable int size, WebRequest request) {
+        if (!HASH.matcher(hash).matches() || !AvatarImageService.isStoredSize(size)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = "\"" + hash + "-" + size + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(304).eTag(etag).cacheControl(CACHE).build();
+        }
+
+        Optional<AvatarImage> image = avatarImageService.find(hash, size);
+        if (image.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CACHE)
+            .contentType(MediaType.parseMediaType(image.get().getContentType()))
+            .body(image.get().getData());
+    }
+}
@@ -1,8 +1,11 @@
 package com.budgetplanner.budget.controller;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
 import com.budgetplanner.budget.service.SimplifiedEnhancedPlaidService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +22,8 @@ import java.util.Map;
 @RequestMapping("/api/plaid/webhook")
 public class PlaidWebhookController {
 
+    private static final Logger log = LoggerFactory.getLogger(PlaidWebhookController.class);
+
     private final SimplifiedEnhancedPlaidService enhancedPlaidService;
     private final ObjectMapper objectMapper;
 
@@ -35,6 +40,7 @@ public class PlaidWebhookController {
             @RequestBody String payload,
             HttpServletRequest request) {
         
+        BudgetMetrics.webhookStarted();
         try {
             // Parse webhook payload
             JsonNode webhookData = objectMapper.readTree(payload);
@@ -46,8 +52,11 @@ public class PlaidWebhookController {
                            webhookData.get("item_id").asText() : null;
             
             // Log webhook receipt
-            System.out.printf("Received Plaid webhook: %s/%s for item: %s%n", 
-                             webhookType, webhookCode, itemId);
+            log.atInfo()
+                .addKeyValue("webhookType", webhookType)
+                .addKeyValue("webhookCode", webhookCode)
+                .addKeyValue("itemId", itemId)
+                .log("Received Plaid webhook");
             
             // Route to appropriate handler based on webhook type
             switch (webhookType.toUpperCase()) {
@@ -72,7 +81,7 @@ public class PlaidWebhookController {
                     break;
                     
                 default:
-                    System.out.printf("Unknown webhook type received: %s%n", webhookType);
+                    log.atWarn().addKeyValue("webhookType", webhookType).log("Unknown webhook type received");
                     break;
             }
             
@@ -85,7 +94,7 @@ public class PlaidWebhookController {
             ));
             
         } catch (IOException e) {
-            System.err.printf("Error parsing webhook payload: %s%n", e.getMessage());
+            log.atWarn().addKeyValue("error", e.getMessage()).log("Error parsing webhook payload");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of(
                     "status", "error",
@@ -93,13 +102,14 @@ public class PlaidWebhookController {
                 ));
                 
         } catch (Exception e) {
-            System.err.printf("Error processing webhook: %s%n", e.getMessage());
-            e.printStackTrace();
+            log.atError().setCause(e).log("Error processing webhook");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of(
                     "status", "error",
                     "message", "Internal server error processing webhook"
                 ));
+        } finally {
+            BudgetMetrics.webhookFinished();
         }
     }
 
@@ -109,30 +119,32 @@ public class PlaidWebhookController {
     private void handleTransactionsWebhook(String webhookCode, String itemId, JsonNode data) {
         switch (webhookCode.toUpperCase()) {
             case "INITIAL_UPDATE":
-                System.out.printf("Initial transaction data available for item: %s%n", itemId);
+                log.atDebug().addKeyValue("itemId", itemId).log("Initial transaction data available");
                 enhancedPlaidService.processWebhookNotification("TRANSACTIONS", itemId, null);
                 break;
                 
             case "HISTORICAL_UPDATE":
-                System.out.printf("Historical transaction data available for item: %s%n", itemId);
+                log.atDebug().addKeyValue("itemId", itemId).log("Historical transaction data available");
                 enhancedPlaidService.processWebhookNotification("TRANSACTIONS", itemId, null);
                 break;
                 
             case "DEFAULT_UPDATE":
-                System.out.printf("New transaction data available for item: %s%n", itemId);
+                log.atDebug().addKeyValue("itemId", itemId).log("New transaction data available");
                 enhancedPlaidService.processWebhookNotification("TRANSACTIONS", itemId, null);
                 break;
                 
             case "TRANSACTIONS_REMOVED":
                 int removedCount = data.has("removed_transactions") ? 
                                   data.get("removed_transactions").size() : 0;
-                System.out.printf("Transactions removed for item %s: %d transactions%n", 
-                                 itemId, removedCount);
+                log.atInfo()
+                    .addKeyValue("itemId", itemId)
+                    .addKeyValue("removed", removedCount)
+                    .log("Transactions removed");
                 // Handle transaction removal logic here
                 break;
                 
             default:
-                System.out.printf("Unknown transactions webhook code: %s%n", webhookCode);
+                log.atWarn().addKeyValue("webhookCode", webhookCode).log("Unknown transactions webhook code");
                 break;
         }
     }
@@ -147,26 +159,30 @@ public class PlaidWebhookController {
                 String errorCode = error != null ? error.get("error_code").asText() : "UNKNOWN";
                 String errorMessage = error != null ? error.get("error_message").asText() : "Unknown error";
                 
-                System.out.printf("Item error for %s: %s - %s%n", itemId, errorCode, errorMessage);
+                log.atWarn()
+                    .addKeyValue("itemId", itemId)
+                    .addKeyValue("errorCode", errorCode)
+                    .addKeyValue("errorMessage", errorMessage)
+                    .log("Item error");
                 enhancedPlaidService.processWebhookNotification("ITEM", itemId, errorCode);
                 break;
                 
             case "PENDING_EXPIRATION":
-                System.out.printf("Item %s access will expire soon%n", itemId);
+                log.atInfo().addKeyValue("itemId", itemId).log("Item access will expire soon");
                 // Notify user to re-authenticate
                 break;
                 
             case "USER_PERMISSION_REVOKED":
-                System.out.printf("User revoked permissions for item %s%n", itemId);
+                log.atInfo().addKeyValue("itemId", itemId).log("User revoked permissions");
                 // Deactivate the item
                 break;
                 
             case "WEBHOOK_UPDATE_ACKNOWLEDGED":
-                System.out.printf("Webhook update acknowledged for item %s%n", itemId);
+                log.atDebug().addKeyValue("itemId", itemId).log("Webhook update acknowledged");
                 break;
                 
             default:
-                System.out.printf("Unknown item webhook code: %s%n", webhookCode);
+                log.atWarn().addKeyValue("webhookCode", webhookCode).log("Unknown item webhook code");
                 break;
         }
     }
@@ -177,15 +193,15 @@ public class PlaidWebhookController {
     private void handleAuthWebhook(String webhookCode, String itemId, JsonNode data) {
         switch (webhookCode.toUpperCase()) {
             case "AUTOMATICALLY_VERIFIED":
-                System.out.printf("Auth automatically verified for item %s%n", itemId);
+                log.atDebug().addKeyValue("itemId", itemId).log("Auth automatically verified");
                 break;
                 
             case "VERIFICATION_EXPIRED":
-                System.out.printf("Auth verification expired for item %s%n", itemId);
+                log.atDebug().addKeyValue("itemId", itemId).log("Auth verification expired");
                 break;
                 
             default:
-                System.out.printf("Unknown auth webhook code: %s%n", webhookCode);
+                log.atWarn().addKeyValue("webhookCode", webhookCode).log("Unknown auth webhook code");
                 break;
         }
     }
@@ -196,11 +212,11 @@ public class PlaidWebhookController {
     private void handleIdentityWebhook(String webhookCode, String itemId, JsonNode data) {
         switch (webhookCode.toUpperCase()) {
             case "DEFAULT_UPDATE":
-                System.out.printf("Identity data updated for item %s%n", itemId);
+                log.atDebug().addKeyValue("itemId", itemId).log("Identity data updated");
                 break;
                 
             default:
-                System.out.printf("Unknown identity webhook code: %s%n", webhookCode);
+                log.atWarn().addKeyValue("webhookCode", webhookCode).log("Unknown identity webhook code");
                 break;
         }
     }
@@ -211,17 +227,17 @@ public class PlaidWebhookController {
     private void handleAssetsWebhook(String webhookCode, String itemId, JsonNode data) {
         switch (webhookCode.toUpperCase()) {
             case "PRODUCT_READY":
-                System.out.printf("Assets product ready for item %s%n", itemId);
+                log.atDebug().addKeyValue("itemId", itemId).log("Assets product ready");
                 break;
                 
             case "ERROR":
                 JsonNode error = data.get("error");
                 String errorCode = error != null ? error.get("error_code").asText() : "UNKNOWN";
-                System.out.printf("Assets error for item %s: %s%n", itemId, errorCode);
+                log.atWarn().addKeyValue("itemId", itemId).addKeyValue("errorCode", errorCode).log("Assets error");
                 break;
                 
             default:
-                System.out.printf("Unknown assets webhook code: %s%n", webhookCode);
+                log.atWarn().addKeyValue("webhookCode", webhookCode).log("Unknown assets webhook code");
                 break;
         }
     }
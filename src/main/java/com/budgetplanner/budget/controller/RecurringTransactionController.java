@@ -141,7 +141,7 @@ public class RecurringTransactionController {
     @PostMapping("/{id}/confirm")
     public ResponseEntity<Map<String, Object>> confirmRecurringTransaction(@PathVariable Long id) {
         try {
-            // This would need to be implemented in the service
+            recurringTransactionService.confirmRecurringTransaction(id);
             return ResponseEntity.ok(Map.of(
                 "status", "confirmed",
                 "message", "Recurring transaction confirmed"
@@ -161,7 +161,7 @@ public class RecurringTransactionController {
     @PostMapping("/{id}/pause")
     public ResponseEntity<Map<String, Object>> pauseRecurringTransaction(@PathVariable Long id) {
         try {
-            // This would need to be implemented in the service
+            recurringTransactionService.updateRecurringTransactionStatus(id, RecurringTransaction.RecurringStatus.PAUSED);
             return ResponseEntity.ok(Map.of(
                 "status", "paused",
                 "message", "Recurring transaction paused"
@@ -181,7 +181,7 @@ public class RecurringTransactionController {
     @PostMapping("/{id}/resume")
     public ResponseEntity<Map<String, Object>> resumeRecurringTransaction(@PathVariable Long id) {
         try {
-            // This would need to be implemented in the service
+            recurringTransactionService.updateRecurringTransactionStatus(id, RecurringTransaction.RecurringStatus.ACTIVE);
             return ResponseEntity.ok(Map.of(
                 "status", "resumed",
                 "message", "Recurring transaction resumed"
@@ -201,7 +201,7 @@ public class RecurringTransactionController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteRecurringTransaction(@PathVariable Long id) {
         try {
-            // This would need to be implemented in the service
+            recurringTransactionService.deactivateRecurringTransaction(id);
             return ResponseEntity.ok(Map.of(
                 "status", "deleted",
                 "message", "Recurring transaction deleted"
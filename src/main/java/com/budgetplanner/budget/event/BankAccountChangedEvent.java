@@ -0,0 +1,17 @@
+package com.budgetplanner.budget.event;
+
+/**
+ * A bank account was linked, updated or deactivated through its repository.
+ */
+public class BankAccountChangedEvent {
+
+    private final Long accountId;
+
+    public BankAccountChangedEvent(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+}
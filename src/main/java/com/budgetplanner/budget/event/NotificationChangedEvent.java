@@ -0,0 +1,18 @@
+package com.budgetplanner.budget.event;
+
+/**
+ * An in-app notification was created, read or deleted through its repository. Lets open views
+ * update their unread counts without polling.
+ */
+public class NotificationChangedEvent {
+
+    private final Long notificationId;
+
+    public NotificationChangedEvent(Long notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    public Long getNotificationId() {
+        return notificationId;
+    }
+}
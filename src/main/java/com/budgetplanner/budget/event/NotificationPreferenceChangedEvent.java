@@ -0,0 +1,18 @@
+package com.budgetplanner.budget.event;
+
+/**
+ * A user's notification preferences were stored through their repository. Lets the dispatch
+ * pipeline drop its cached copy of that user's channels and category switches.
+ */
+public class NotificationPreferenceChangedEvent {
+
+    private final String userId;
+
+    public NotificationPreferenceChangedEvent(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+}
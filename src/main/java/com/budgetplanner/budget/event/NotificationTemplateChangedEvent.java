@@ -0,0 +1,18 @@
+package com.budgetplanner.budget.event;
+
+/**
+ * A notification template was stored through its repository. Lets the dispatch pipeline
+ * recompile the templates of that category.
+ */
+public class NotificationTemplateChangedEvent {
+
+    private final String category;
+
+    public NotificationTemplateChangedEvent(String category) {
+        this.category = category;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+}
@@ -0,0 +1,94 @@
+package com.budgetplanner.budget.event;
+
+import com.budgetplanner.budget.model.RecurringTransaction;
+import com.budgetplanner.budget.model.RecurringTransaction.RecurrenceFrequency;
+import com.budgetplanner.budget.model.RecurringTransaction.RecurringStatus;
+
+import java.time.LocalDate;
+
+/**
+ * A recurring transaction pattern was stored, updated, paused or deactivated through its repository.
+ * Carries the fields live matching and forecasting depend on, as of the save, so the in-memory pattern
+ * index and the upcoming bills timeline can follow the change without reading the pattern back.
+ */
+public class RecurringPatternChangedEvent {
+
+    private final Long patternId;
+    private final String userId;
+    private final String merchantName;
+    private final Double amount;
+    private final Double amountTolerance;
+    private final RecurringStatus status;
+    private final boolean active;
+    private final String budgetCategoryType;
+    private final RecurrenceFrequency frequency;
+    private final Integer intervalDays;
+    private final LocalDate expectedDate;
+
+    public RecurringPatternChangedEvent(RecurringTransaction pattern) {
+        this.patternId = pattern.getId();
+        this.userId = pattern.getUserId();
+        this.merchantName = pattern.getMerchantName();
+        this.amount = pattern.getAmount();
+        this.amountTolerance = pattern.getAmountTolerance();
+        this.status = pattern.getStatus();
+        this.active = Boolean.TRUE.equals(pattern.getIsActive());
+        this.budgetCategoryType = pattern.getBudgetCategoryType();
+        this.frequency = pattern.getFrequency();
+        this.intervalDays = pattern.getIntervalDays();
+        this.expectedDate = pattern.currentExpectedDate();
+    }
+
+    public Long getPatternId() {
+        return patternId;
+    }
+
+    /**
+     * User the pattern belongs to
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getMerchantName() {
+        return merchantName;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    /**
+     * Tolerance in percent of the amount
+     */
+    public Double getAmountTolerance() {
+        return amountTolerance;
+    }
+
+    public RecurringStatus getStatus() {
+        return status;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public String getBudgetCategoryType() {
+        return budgetCategoryType;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public Integer getIntervalDays() {
+        return intervalDays;
+    }
+
+    /**
+     * The occurrence currently expected, see {@link RecurringTransaction#currentExpectedDate()}
+     */
+    public LocalDate getExpectedDate() {
+        return expectedDate;
+    }
+}
@@ -0,0 +1,27 @@
+package com.budgetplanner.budget.event;
+
+/**
+ * A transaction sync for one bank account finished. Published once per account, after the
+ * per-transaction {@link TransactionChangedEvent}s of that sync.
+ */
+public class SyncCompletedEvent {
+
+    private final Long accountId;
+    private final int transactions;
+
+    public SyncCompletedEvent(Long accountId, int transactions) {
+        this.accountId = accountId;
+        this.transactions = transactions;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    /**
+     * New transactions stored by the sync
+     */
+    public int getTransactions() {
+        return transactions;
+    }
+}
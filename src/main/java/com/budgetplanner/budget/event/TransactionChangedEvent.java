@@ -0,0 +1,40 @@
+package com.budgetplanner.budget.event;
+
+import java.time.LocalDate;
+
+/**
+ * A bank transaction was stored or updated through its repository (sync, CSV import, manual entry,
+ * recategorization). Published as a Spring Data domain event, so listeners can use
+ * {@code @TransactionalEventListener} to react only after the write is committed.
+ * Bulk updates, which bypass domain events, publish one event per bank login and month instead.
+ */
+public class TransactionChangedEvent {
+
+    private final Long transactionId;
+    private final String plaidItemId;
+    private final LocalDate transactionDate;
+
+    public TransactionChangedEvent(Long transactionId, String plaidItemId, LocalDate transactionDate) {
+        this.transactionId = transactionId;
+        this.plaidItemId = plaidItemId;
+        this.transactionDate = transactionDate;
+    }
+
+    /**
+     * Id of the changed transaction, null for a bulk update covering several
+     */
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * Plaid item (linked bank login) of the transaction's account, null if it has no account
+     */
+    public String getPlaidItemId() {
+        return plaidItemId;
+    }
+
+    public LocalDate getTransactionDate() {
+        return transactionDate;
+    }
+}
@@ -0,0 +1,88 @@
+package com.budgetplanner.budget.loadtest;
+
+import com.budgetplanner.budget.service.notification.NotificationChannel;
+import com.budgetplanner.budget.service.notification.NotificationProvider;
+import com.budgetplanner.budget.service.notification.OutboundMessage;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline stand-in for the SendGrid or Twilio API, for measuring notification dispatch throughput.
+ *
+ * Each batch costs a fixed per-call latency (the HTTP round trip) plus a per-message cost, and can be
+ * made to fail at a given rate. Nothing leaves the process; the counters record what would have been sent.
+ */
+public class StubNotificationProvider implements NotificationProvider {
+
+    private final NotificationChannel channel;
+
+    private long callLatencyMillis = 0;
+    private long perMessageMicros = 0;
+    private double errorRate = 0.0;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    public StubNotificationProvider(NotificationChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public boolean sendBatch(List<OutboundMessage> batch) {
+        calls.incrementAndGet();
+        long delayMicros = TimeUnit.MILLISECONDS.toMicros(callLatencyMillis) + perMessageMicros * batch.size();
+        if (delayMicros > 0) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(delayMicros);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            failedBatches.incrementAndGet();
+            return false;
+        }
+        messagesSent.addAndGet(batch.size());
+        return true;
+    }
+
+    public void setCallLatencyMillis(long callLatencyMillis) {
+        this.callLatencyMillis = callLatencyMillis;
+    }
+
+    public void setPerMessageMicros(long perMessageMicros) {
+        this.perMessageMicros = perMessageMicros;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getMessagesSent() {
+        return messagesSent.get();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    public void resetCounters() {
+        calls.set(0);
+        messagesSent.set(0);
+        failedBatches.set(0);
+    }
+}
@@ -0,0 +1,43 @@
+package com.budgetplanner.budget.loadtest;
+
+import com.budgetplanner.budget.service.notification.NotificationChannel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the SendGrid and Twilio providers with {@link StubNotificationProvider}s when
+ * {@code notification.stub.enabled=true}, so notification waves can be load tested offline.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notification.stub.enabled", havingValue = "true")
+public class StubNotificationProviderConfig {
+
+    @Value("${notification.stub.call-latency-ms:50}")
+    private long callLatencyMillis;
+
+    @Value("${notification.stub.per-message-micros:200}")
+    private long perMessageMicros;
+
+    @Value("${notification.stub.error-rate:0.0}")
+    private double errorRate;
+
+    @Bean
+    public StubNotificationProvider stubEmailProvider() {
+        return stub(NotificationChannel.EMAIL);
+    }
+
+    @Bean
+    public StubNotificationProvider stubSmsProvider() {
+        return stub(NotificationChannel.SMS);
+    }
+
+    private StubNotificationProvider stub(NotificationChannel channel) {
+        StubNotificationProvider provider = new StubNotificationProvider(channel);
+        provider.setCallLatencyMillis(callLatencyMillis);
+        provider.setPerMessageMicros(perMessageMicros);
+        provider.setErrorRate(errorRate);
+        return provider;
+    }
+}
@@ -0,0 +1,372 @@
+package com.budgetplanner.budget.loadtest;
+
+import com.budgetplanner.budget.model.BankAccount;
+import com.budgetplanner.budget.model.BankTransaction;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal Plaid API stand-in backed by {@link SyntheticTransactionGenerator}, for offline sync
+ * throughput and resilience testing. Point the application at it with {@code plaid.base-url}.
+ *
+ * Serves /transactions/get, /transactions/sync, /item/get and /accounts/get. Access tokens have the form
+ * produced by {@link SyntheticTransactionGenerator#accessTokenFor(long, int)}; the user index in the token
+ * selects which synthetic history is returned. Latency, server errors and 429 rate limiting can be injected
+ * to exercise retry and circuit-breaker behaviour.
+ */
+public class StubPlaidServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StubPlaidServer.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = objectMapper.getFactory();
+
+    private final int port;
+    private final SyntheticTransactionGenerator generator;
+    private final int transactionsPerUser;
+    private final String tokenPrefix;
+
+    private long latencyMillis = 0;
+    private long latencyJitterMillis = 0;
+    private double errorRate = 0.0;
+    private double rateLimitRate = 0.0;
+    private int threads = 16;
+    private int cachedUsers = 1024;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong injectedRateLimits = new AtomicLong();
+
+    // Generated histories for recently used tokens, oldest first (LRU)
+    private final Map<Integer, UserData> userCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, UserData> eldest) {
+            return size() > cachedUsers;
+        }
+    };
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubPlaidServer(int port, long seed, int transactionsPerUser) {
+        this.port = port;
+        this.generator = new SyntheticTransactionGenerator(seed, LocalDate.now());
+        this.transactionsPerUser = transactionsPerUser;
+        this.tokenPrefix = SyntheticTransactionGenerator.accessTokenFor(seed, 0);
+    }
+
+    public long getLatencyMillis() { return latencyMillis; }
+    public void setLatencyMillis(long latencyMillis) { this.latencyMillis = latencyMillis; }
+
+    public long getLatencyJitterMillis() { return latencyJitterMillis; }
+    public void setLatencyJitterMillis(long latencyJitterMillis) { this.latencyJitterMillis = latencyJitterMillis; }
+
+    /** Share of requests answered with a 500 INTERNAL_SERVER_ERROR, 0.0 - 1.0 */
+    public double getErrorRate() { return errorRate; }
+    public void setErrorRate(double errorRate) { this.errorRate = errorRate; }
+
+    /** Share of requests answered with a 429 RATE_LIMIT_EXCEEDED, 0.0 - 1.0 */
+    public double getRateLimitRate() { return rateLimitRate; }
+    public void setRateLimitRate(double rateLimitRate) { this.rateLimitRate = rateLimitRate; }
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+
+    public int getCachedUsers() { return cachedUsers; }
+    public void setCachedUsers(int cachedUsers) { this.cachedUsers = cachedUsers; }
+
+    public long getRequestCount() { return requestCount.get(); }
+    public long getInjectedErrors() { return injectedErrors.get(); }
+    public long getInjectedRateLimits() { return injectedRateLimits.get(); }
+
+    /** Port actually bound, useful when started with port 0 */
+    public int getPort() { return server != null ? server.getAddress().getPort() : port; }
+
+    public String getBaseUrl() { return "http://localhost:" + getPort(); }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/transactions/get", exchange -> handle(exchange, this::transactionsGet));
+        server.createContext("/transactions/sync", exchange -> handle(exchange, this::transactionsSync));
+        server.createContext("/item/get", exchange -> handle(exchange, this::itemGet));
+        server.createContext("/accounts/get", exchange -> handle(exchange, this::accountsGet));
+        server.createContext("/accounts/balance/get", exchange -> handle(exchange, this::accountsGet));
+        server.start();
+        log.atInfo().addKeyValue("baseUrl", getBaseUrl()).log("Stub Plaid server listening");
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    // Endpoints
+
+    private interface Endpoint {
+        void write(JsonNode request, UserData user, JsonGenerator json, String requestId) throws IOException;
+    }
+
+    private void transactionsGet(JsonNode request, UserData user, JsonGenerator json, String requestId) throws IOException {
+        LocalDate startDate = LocalDate.parse(request.path("start_date").asText(generator.getEndDate().minusDays(30).toString()));
+        LocalDate endDate = LocalDate.parse(request.path("end_date").asText(generator.getEndDate().toString()));
+        JsonNode options = request.path("options");
+        int count = Math.min(options.path("count").asInt(100), 500);
+        int offset = Math.max(options.path("offset").asInt(0), 0);
+
+        // Newest first, like the real API
+        List<BankTransaction> matching = new ArrayList<>();
+        for (int i = user.transactions.size() - 1; i >= 0; i--) {
+            BankTransaction transaction = user.transactions.get(i);
+            LocalDate date = transaction.getTransactionDate();
+            if (!date.isBefore(startDate) && !date.isAfter(endDate)) {
+                matching.add(transaction);
+            }
+        }
+        List<BankTransaction> page = offset >= matching.size()
+            ? Collections.emptyList()
+            : matching.subList(offset, Math.min(matching.size(), offset + count));
+        SyntheticPlaidJsonWriter.writeTransactionsResponse(json, user.itemId, user.accounts, page, matching.size(), requestId);
+    }
+
+    /**
+     * The cursor is the number of transactions already handed out, oldest first.
+     * Everything is reported as "added"; the stub never modifies or removes history.
+     */
+    private void transactionsSync(JsonNode request, UserData user, JsonGenerator json, String requestId) throws IOException {
+        String cursor = request.path("cursor").asText("");
+        int from = cursor.isEmpty() ? 0 : parseCursor(cursor);
+        int count = Math.min(Math.max(request.path("count").asInt(100), 1), 500);
+        int to = Math.min(user.transactions.size(), from + count);
+
+        json.writeStartObject();
+        SyntheticPlaidJsonWriter.writeAccounts(json, user.accounts);
+        json.writeArrayFieldStart("added");
+        for (int i = from; i < to; i++) {
+            SyntheticPlaidJsonWriter.writeTransaction(json, user.transactions.get(i));
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("modified");
+        json.writeEndArray();
+        json.writeArrayFieldStart("removed");
+        json.writeEndArray();
+        json.writeStringField("next_cursor", Integer.toString(to));
+        json.writeBooleanField("has_more", to < user.transactions.size());
+        json.writeStringField("request_id", requestId);
+        json.writeEndObject();
+    }
+
+    private void itemGet(JsonNode request, UserData user, JsonGenerator json, String requestId) throws IOException {
+        json.writeStartObject();
+        SyntheticPlaidJsonWriter.writeItem(json, user.itemId, user.accounts.get(0).getInstitutionName());
+        json.writeObjectFieldStart("status");
+        json.writeObjectFieldStart("transactions");
+        String lastSync = generator.getEndDate().atStartOfDay().toString() + ":00Z";
+        json.writeStringField("last_successful_update", lastSync);
+        json.writeNullField("last_failed_update");
+        json.writeEndObject();
+        json.writeEndObject();
+        json.writeStringField("request_id", requestId);
+        json.writeEndObject();
+    }
+
+    private void accountsGet(JsonNode request, UserData user, JsonGenerator json, String requestId) throws IOException {
+        json.writeStartObject();
+        SyntheticPlaidJsonWriter.writeAccounts(json, user.accounts);
+        SyntheticPlaidJsonWriter.writeItem(json, user.itemId, user.accounts.get(0).getInstitutionName());
+        json.writeStringField("request_id", requestId);
+        json.writeEndObject();
+    }
+
+    // Request handling
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        requestCount.incrementAndGet();
+        String requestId = UUID.randomUUID().toString().substring(0, 8);
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "INVALID_REQUEST", "INVALID_HTTP_METHOD", "Only POST is supported", requestId);
+                return;
+            }
+            injectLatency();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (rateLimitRate > 0 && random.nextDouble() < rateLimitRate) {
+                injectedRateLimits.incrementAndGet();
+                sendError(exchange, 429, "RATE_LIMIT_EXCEEDED", "TRANSACTIONS_LIMIT",
+                          "rate limit exceeded for attempts to access this item", requestId);
+                return;
+            }
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                sendError(exchange, 500, "API_ERROR", "INTERNAL_SERVER_ERROR",
+                          "an unexpected error occurred", requestId);
+                return;
+            }
+
+            JsonNode request = readBody(exchange.getRequestBody());
+            int userIndex = userIndexFor(request.path("access_token").asText(""));
+            if (userIndex < 0) {
+                sendError(exchange, 400, "INVALID_INPUT", "INVALID_ACCESS_TOKEN",
+                          "provided access token is in an invalid format", requestId);
+                return;
+            }
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream(16 * 1024);
+            try (JsonGenerator json = jsonFactory.createGenerator(body, JsonEncoding.UTF8)) {
+                endpoint.write(request, userData(userIndex), json, requestId);
+            }
+            send(exchange, 200, body.toByteArray());
+        } catch (RuntimeException e) {
+            sendError(exchange, 400, "INVALID_REQUEST", "INVALID_FIELD", String.valueOf(e.getMessage()), requestId);
+        }
+    }
+
+    private void injectLatency() {
+        long delay = latencyMillis;
+        if (latencyJitterMillis > 0) {
+            delay += ThreadLocalRandom.current().nextLong(latencyJitterMillis + 1);
+        }
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private JsonNode readBody(InputStream in) throws IOException {
+        byte[] bytes = in.readAllBytes();
+        return bytes.length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(bytes);
+    }
+
+    /** Maps "access-synthetic-&lt;seed&gt;-&lt;index&gt;" back to the user index, -1 if it is not one of ours */
+    private int userIndexFor(String accessToken) {
+        String prefix = tokenPrefix.substring(0, tokenPrefix.length() - 1);
+        if (!accessToken.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(accessToken.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int parseCursor(String cursor) {
+        try {
+            return Math.max(Integer.parseInt(cursor), 0);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("cursor is not valid: " + cursor);
+        }
+    }
+
+    private UserData userData(int userIndex) {
+        synchronized (userCache) {
+            UserData cached = userCache.get(userIndex);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Generate outside the lock; concurrent first requests for the same user produce identical data
+        UserData data = new UserData(SyntheticTransactionGenerator.itemIdFor(generator.getSeed(), userIndex));
+        generator.generateUser(userIndex, transactionsPerUser, data);
+        synchronized (userCache) {
+            userCache.put(userIndex, data);
+        }
+        return data;
+    }
+
+    private void sendError(HttpExchange exchange, int status, String errorType, String errorCode,
+                           String message, String requestId) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        try (JsonGenerator json = jsonFactory.createGenerator(body, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeStringField("error_type", errorType);
+            json.writeStringField("error_code", errorCode);
+            json.writeStringField("error_message", message);
+            json.writeNullField("display_message");
+            json.writeStringField("request_id", requestId);
+            json.writeEndObject();
+        }
+        send(exchange, status, body.toByteArray());
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static final class UserData implements SyntheticTransactionGenerator.Sink {
+        final String itemId;
+        final List<BankAccount> accounts = new ArrayList<>();
+        final List<BankTransaction> transactions = new ArrayList<>();
+
+        UserData(String itemId) {
+            this.itemId = itemId;
+        }
+
+        @Override
+        public void account(int userIndex, BankAccount account) {
+            accounts.add(account);
+        }
+
+        @Override
+        public void transaction(int userIndex, BankTransaction transaction) {
+            transactions.add(transaction);
+        }
+    }
+
+    /**
+     * Standalone mode for CI: {@code java -cp app.jar ...StubPlaidServer [port] [seed] [transactionsPerUser]}.
+     * Fault injection is read from the stub.latency-ms, stub.error-rate and stub.rate-limit-rate system properties.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : SyntheticTransactionGenerator.DEFAULT_SEED;
+        int perUser = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        StubPlaidServer server = new StubPlaidServer(port, seed, perUser);
+        server.setLatencyMillis(Long.getLong("stub.latency-ms", 0L));
+        server.setErrorRate(Double.parseDouble(System.getProperty("stub.error-rate", "0")));
+        server.setRateLimitRate(Double.parseDouble(System.getProperty("stub.rate-limit-rate", "0")));
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    }
+}
@@ -0,0 +1,46 @@
+package com.budgetplanner.budget.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Starts the embedded {@link StubPlaidServer} when {@code plaid.stub.enabled=true}.
+ * Combine with {@code plaid.base-url=http://localhost:<plaid.stub.port>} so the Plaid services talk to it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "plaid.stub.enabled", havingValue = "true")
+public class StubPlaidServerConfig {
+
+    @Value("${plaid.stub.port:8089}")
+    private int port;
+
+    @Value("${loadtest.synthetic.seed:" + SyntheticTransactionGenerator.DEFAULT_SEED + "}")
+    private long seed;
+
+    @Value("${plaid.stub.transactions-per-user:1000}")
+    private int transactionsPerUser;
+
+    @Value("${plaid.stub.latency-ms:0}")
+    private long latencyMillis;
+
+    @Value("${plaid.stub.latency-jitter-ms:0}")
+    private long latencyJitterMillis;
+
+    @Value("${plaid.stub.error-rate:0.0}")
+    private double errorRate;
+
+    @Value("${plaid.stub.rate-limit-rate:0.0}")
+    private double rateLimitRate;
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public StubPlaidServer stubPlaidServer() {
+        StubPlaidServer server = new StubPlaidServer(port, seed, transactionsPerUser);
+        server.setLatencyMillis(latencyMillis);
+        server.setLatencyJitterMillis(latencyJitterMillis);
+        server.setErrorRate(errorRate);
+        server.setRateLimitRate(rateLimitRate);
+        return server;
+    }
+}
@@ -0,0 +1,235 @@
+package com.budgetplanner.budget.loadtest;
+
+import com.budgetplanner.budget.model.BankAccount;
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.TransactionSplit;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * Bulk loader that streams generated data straight into the database with batched JDBC inserts.
+ * Going through JPA for millions of rows would spend most of the time in the persistence context,
+ * so this writer bypasses it and commits every {@link #getBatchSize()} rows.
+ *
+ * Generated ids are shifted past the current maximum of each table, and the identity columns are
+ * restarted afterwards so rows created by the application later on do not collide.
+ */
+public class SyntheticDataJdbcWriter implements SyntheticTransactionGenerator.Sink, AutoCloseable {
+
+    private static final String INSERT_ACCOUNT =
+        "INSERT INTO bank_accounts (id, plaid_account_id, plaid_item_id, account_name, account_type, " +
+        "institution_name, mask, is_active, created_at, last_sync_at, access_token, user_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TRANSACTION =
+        "INSERT INTO bank_transactions (id, plaid_transaction_id, bank_account_id, amount, merchant_name, " +
+        "description, transaction_date, authorized_date, transaction_type, plaid_category, budget_category, " +
+        "budget_category_type, is_processed, is_manually_reviewed, created_at, updated_at, user_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_SPLIT =
+        "INSERT INTO transaction_splits (id, transaction_id, amount, budget_category, budget_category_type, " +
+        "created_at, updated_at, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final Connection connection;
+    private final boolean previousAutoCommit;
+    private final PreparedStatement accountInsert;
+    private final PreparedStatement transactionInsert;
+    private final PreparedStatement splitInsert;
+
+    private final long accountIdOffset;
+    private final long transactionIdOffset;
+    private final long splitIdOffset;
+
+    private int batchSize = 5000;
+    private int pendingRows = 0;
+    private long maxAccountId;
+    private long maxTransactionId;
+    private long maxSplitId;
+
+    private long accountsWritten = 0;
+    private long transactionsWritten = 0;
+    private long splitsWritten = 0;
+
+    public SyntheticDataJdbcWriter(DataSource dataSource) throws SQLException {
+        this.connection = dataSource.getConnection();
+        this.previousAutoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        this.accountIdOffset = maxId("bank_accounts");
+        this.transactionIdOffset = maxId("bank_transactions");
+        this.splitIdOffset = maxId("transaction_splits");
+        this.maxAccountId = accountIdOffset;
+        this.maxTransactionId = transactionIdOffset;
+        this.maxSplitId = splitIdOffset;
+
+        this.accountInsert = connection.prepareStatement(INSERT_ACCOUNT);
+        this.transactionInsert = connection.prepareStatement(INSERT_TRANSACTION);
+        this.splitInsert = connection.prepareStatement(INSERT_SPLIT);
+    }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public long getAccountsWritten() { return accountsWritten; }
+    public long getTransactionsWritten() { return transactionsWritten; }
+    public long getSplitsWritten() { return splitsWritten; }
+
+    /**
+     * Check whether a data set with the given first transaction id has already been loaded
+     */
+    public static boolean alreadyLoaded(DataSource dataSource, String plaidTransactionId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT COUNT(*) FROM bank_transactions WHERE plaid_transaction_id = ?")) {
+            statement.setString(1, plaidTransactionId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getLong(1) > 0;
+            }
+        }
+    }
+
+    @Override
+    public void account(int userIndex, BankAccount account) {
+        try {
+            long id = accountIdOffset + account.getId();
+            accountInsert.setLong(1, id);
+            accountInsert.setString(2, account.getPlaidAccountId());
+            accountInsert.setString(3, account.getPlaidItemId());
+            accountInsert.setString(4, account.getAccountName());
+            accountInsert.setString(5, account.getAccountType());
+            accountInsert.setString(6, account.getInstitutionName());
+            accountInsert.setString(7, account.getMask());
+            accountInsert.setBoolean(8, Boolean.TRUE.equals(account.getIsActive()));
+            accountInsert.setTimestamp(9, Timestamp.valueOf(account.getCreatedAt()));
+            accountInsert.setTimestamp(10, Timestamp.valueOf(account.getLastSyncAt()));
+            accountInsert.setString(11, account.getAccessToken());
+            accountInsert.setString(12, account.getUserId());
+            accountInsert.addBatch();
+            maxAccountId = Math.max(maxAccountId, id);
+            accountsWritten++;
+            rowAdded();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to write synthetic account " + account.getPlaidAccountId(), e);
+        }
+    }
+
+    @Override
+    public void transaction(int userIndex, BankTransaction transaction) {
+        try {
+            long id = transactionIdOffset + transaction.getId();
+            transactionInsert.setLong(1, id);
+            transactionInsert.setString(2, transaction.getPlaidTransactionId());
+            transactionInsert.setLong(3, accountIdOffset + transaction.getBankAccount().getId());
+            transactionInsert.setDouble(4, transaction.getAmount());
+            transactionInsert.setString(5, transaction.getMerchantName());
+            transactionInsert.setString(6, transaction.getDescription());
+            transactionInsert.setDate(7, Date.valueOf(transaction.getTransactionDate()));
+            transactionInsert.setDate(8, Date.valueOf(transaction.getAuthorizedDate()));
+            transactionInsert.setString(9, transaction.getTransactionType());
+            setNullableString(transactionInsert, 10, transaction.getPlaidCategory());
+            setNullableString(transactionInsert, 11, transaction.getBudgetCategory());
+            setNullableString(transactionInsert, 12, transaction.getBudgetCategoryType());
+            transactionInsert.setBoolean(13, Boolean.TRUE.equals(transaction.getIsProcessed()));
+            transactionInsert.setBoolean(14, Boolean.TRUE.equals(transaction.getIsManuallyReviewed()));
+            transactionInsert.setTimestamp(15, Timestamp.valueOf(transaction.getCreatedAt()));
+            transactionInsert.setTimestamp(16, Timestamp.valueOf(transaction.getUpdatedAt()));
+            transactionInsert.setString(17, transaction.getUserId());
+            transactionInsert.addBatch();
+            maxTransactionId = Math.max(maxTransactionId, id);
+            transactionsWritten++;
+            rowAdded();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to write synthetic transaction " + transaction.getPlaidTransactionId(), e);
+        }
+    }
+
+    @Override
+    public void split(int userIndex, TransactionSplit split) {
+        try {
+            long id = splitIdOffset + split.getId();
+            splitInsert.setLong(1, id);
+            splitInsert.setLong(2, transactionIdOffset + split.getParentTransaction().getId());
+            splitInsert.setDouble(3, split.getAmount());
+            setNullableString(splitInsert, 4, split.getBudgetCategory());
+            setNullableString(splitInsert, 5, split.getBudgetCategoryType());
+            splitInsert.setTimestamp(6, Timestamp.valueOf(split.getCreatedAt()));
+            splitInsert.setTimestamp(7, Timestamp.valueOf(split.getCreatedAt()));
+            splitInsert.setString(8, split.getParentTransaction().getUserId());
+            splitInsert.addBatch();
+            maxSplitId = Math.max(maxSplitId, id);
+            splitsWritten++;
+            rowAdded();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to write synthetic split", e);
+        }
+    }
+
+    /**
+     * Flush the remaining rows, move the identity columns past the loaded ids and release the connection
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            restartIdentity("bank_accounts", maxAccountId + 1);
+            restartIdentity("bank_transactions", maxTransactionId + 1);
+            restartIdentity("transaction_splits", maxSplitId + 1);
+            connection.commit();
+        } finally {
+            accountInsert.close();
+            transactionInsert.close();
+            splitInsert.close();
+            connection.setAutoCommit(previousAutoCommit);
+            connection.close();
+        }
+    }
+
+    private void rowAdded() throws SQLException {
+        if (++pendingRows >= batchSize) {
+            flush();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pendingRows == 0) {
+            return;
+        }
+        // Parents before children so the foreign keys resolve within the same commit
+        accountInsert.executeBatch();
+        transactionInsert.executeBatch();
+        splitInsert.executeBatch();
+        connection.commit();
+        pendingRows = 0;
+    }
+
+    private long maxId(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0L;
+        }
+    }
+
+    private void restartIdentity(String table, long next) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // Supported by both H2 and PostgreSQL for identity columns
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+
+    private static void setNullableString(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.VARCHAR);
+        } else {
+            statement.setString(index, value);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.budgetplanner.budget.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Load-test fixture: fills the database (or a directory of Plaid JSON files) with a deterministic
+ * synthetic data set. Disabled unless {@code loadtest.synthetic.enabled=true}.
+ *
+ * Runs on ApplicationReadyEvent so it happens after the startup reset runners have cleared the tables.
+ */
+@Component
+@ConditionalOnProperty(name = "loadtest.synthetic.enabled", havingValue = "true")
+public class SyntheticDataLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataLoader.class);
+
+    private final DataSource dataSource;
+
+    @Value("${loadtest.synthetic.users:10000}")
+    private int users;
+
+    @Value("${loadtest.synthetic.transactions:10000000}")
+    private long transactions;
+
+    @Value("${loadtest.synthetic.seed:" + SyntheticTransactionGenerator.DEFAULT_SEED + "}")
+    private long seed;
+
+    @Value("${loadtest.synthetic.history-days:365}")
+    private int historyDays;
+
+    @Value("${loadtest.synthetic.mode:jdbc}")
+    private String mode;
+
+    @Value("${loadtest.synthetic.output-dir:target/synthetic-plaid}")
+    private String outputDir;
+
+    @Value("${loadtest.synthetic.batch-size:5000}")
+    private int batchSize;
+
+    public SyntheticDataLoader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        SyntheticTransactionGenerator generator = new SyntheticTransactionGenerator(seed, LocalDate.now());
+        generator.setHistoryDays(historyDays);
+
+        long startTime = System.currentTimeMillis();
+        log.atInfo()
+            .addKeyValue("transactions", transactions)
+            .addKeyValue("users", users)
+            .addKeyValue("seed", seed)
+            .addKeyValue("mode", mode)
+            .log("Generating synthetic data set");
+
+        if ("json".equalsIgnoreCase(mode)) {
+            SyntheticPlaidJsonWriter writer = new SyntheticPlaidJsonWriter(Paths.get(outputDir), seed);
+            generator.generate(users, transactions, writer);
+            log.atInfo()
+                .addKeyValue("files", writer.getFilesWritten())
+                .addKeyValue("outputDir", outputDir)
+                .addKeyValue("durationMs", System.currentTimeMillis() - startTime)
+                .log("Wrote synthetic Plaid item files");
+            return;
+        }
+
+        try {
+            if (SyntheticDataJdbcWriter.alreadyLoaded(dataSource, "syn_" + seed + "_0_0")) {
+                log.atInfo().addKeyValue("seed", seed).log("Synthetic data set already present, skipping load");
+                return;
+            }
+            try (SyntheticDataJdbcWriter writer = new SyntheticDataJdbcWriter(dataSource)) {
+                writer.setBatchSize(batchSize);
+                generator.generate(users, transactions, writer);
+                log.atInfo()
+                    .addKeyValue("transactions", writer.getTransactionsWritten())
+                    .addKeyValue("splits", writer.getSplitsWritten())
+                    .addKeyValue("accounts", writer.getAccountsWritten())
+                    .addKeyValue("durationMs", System.currentTimeMillis() - startTime)
+                    .log("Loaded synthetic data set");
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load synthetic data set", e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.budgetplanner.budget.loadtest;
+
+import com.budgetplanner.budget.model.BankAccount;
+import com.budgetplanner.budget.model.BankTransaction;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes generated data as Plaid /transactions/get response bodies, one file per user (Plaid item).
+ * The files can be replayed by a stub Plaid server or fed to the webhook and sync code paths.
+ *
+ * Plaid reports outflows as positive amounts, the opposite of the application's convention,
+ * so amounts are negated on the way out.
+ */
+public class SyntheticPlaidJsonWriter implements SyntheticTransactionGenerator.Sink {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Path outputDirectory;
+    private final long seed;
+
+    private final List<BankAccount> accounts = new ArrayList<>();
+    private final List<BankTransaction> transactions = new ArrayList<>();
+    private long filesWritten = 0;
+
+    public SyntheticPlaidJsonWriter(Path outputDirectory, long seed) {
+        this.outputDirectory = outputDirectory;
+        this.seed = seed;
+        try {
+            Files.createDirectories(outputDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create output directory " + outputDirectory, e);
+        }
+    }
+
+    public long getFilesWritten() { return filesWritten; }
+
+    @Override
+    public void beginUser(int userIndex) {
+        accounts.clear();
+        transactions.clear();
+    }
+
+    @Override
+    public void account(int userIndex, BankAccount account) {
+        accounts.add(account);
+    }
+
+    @Override
+    public void transaction(int userIndex, BankTransaction transaction) {
+        transactions.add(transaction);
+    }
+
+    @Override
+    public void endUser(int userIndex) {
+        String itemId = SyntheticTransactionGenerator.itemIdFor(seed, userIndex);
+        Path file = outputDirectory.resolve(itemId + ".json");
+        try (JsonGenerator json = jsonFactory.createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            // Newest first, like the real API
+            List<BankTransaction> newestFirst = new ArrayList<>(transactions);
+            Collections.reverse(newestFirst);
+            writeTransactionsResponse(json, itemId, accounts, newestFirst, newestFirst.size(), "synthetic-" + userIndex);
+            filesWritten++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + file, e);
+        }
+    }
+
+    /**
+     * Write a /transactions/get shaped response. {@code page} is the slice being returned,
+     * {@code totalTransactions} the size of the whole result set.
+     */
+    public static void writeTransactionsResponse(JsonGenerator json, String itemId, List<BankAccount> accounts,
+                                                 List<BankTransaction> page, int totalTransactions,
+                                                 String requestId) throws IOException {
+        json.writeStartObject();
+        writeAccounts(json, accounts);
+
+        json.writeArrayFieldStart("transactions");
+        for (BankTransaction transaction : page) {
+            writeTransaction(json, transaction);
+        }
+        json.writeEndArray();
+
+        writeItem(json, itemId, accounts.isEmpty() ? null : accounts.get(0).getInstitutionName());
+        json.writeNumberField("total_transactions", totalTransactions);
+        json.writeStringField("request_id", requestId);
+        json.writeEndObject();
+    }
+
+    public static void writeAccounts(JsonGenerator json, List<BankAccount> accounts) throws IOException {
+        json.writeArrayFieldStart("accounts");
+        for (BankAccount account : accounts) {
+            boolean credit = "credit".equals(account.getAccountType());
+            json.writeStartObject();
+            json.writeStringField("account_id", account.getPlaidAccountId());
+            json.writeObjectFieldStart("balances");
+            double current = syntheticBalance(account);
+            if (credit) {
+                json.writeNullField("available");
+            } else {
+                json.writeNumberField("available", current);
+            }
+            json.writeNumberField("current", current);
+            if (credit) {
+                json.writeNumberField("limit", 5000.0);
+            } else {
+                json.writeNullField("limit");
+            }
+            json.writeStringField("iso_currency_code", "USD");
+            json.writeNullField("unofficial_currency_code");
+            json.writeEndObject();
+            json.writeStringField("mask", account.getMask());
+            json.writeStringField("name", account.getAccountName());
+            json.writeStringField("official_name", account.getInstitutionName() + " " + account.getAccountName());
+            json.writeStringField("type", account.getAccountType());
+            json.writeStringField("subtype", credit ? "credit card" : account.getAccountName().contains("Savings") ? "savings" : "checking");
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+    }
+
+    public static void writeTransaction(JsonGenerator json, BankTransaction transaction) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("transaction_id", transaction.getPlaidTransactionId());
+        json.writeStringField("account_id", transaction.getBankAccount().getPlaidAccountId());
+        json.writeNumberField("amount", -transaction.getAmount());
+        json.writeStringField("iso_currency_code", "USD");
+        json.writeNullField("unofficial_currency_code");
+        json.writeArrayFieldStart("category");
+        if (transaction.getPlaidCategory() != null) {
+            for (String part : transaction.getPlaidCategory().split(" > ")) {
+                json.writeString(part);
+            }
+        }
+        json.writeEndArray();
+        json.writeStringField("date", transaction.getTransactionDate().toString());
+        json.writeStringField("authorized_date", transaction.getAuthorizedDate().toString());
+        json.writeStringField("name", transaction.getDescription());
+        json.writeStringField("merchant_name", transaction.getMerchantName());
+        json.writeStringField("payment_channel", transaction.getAmount() > 0 ? "other" : "in store");
+        json.writeBooleanField("pending", false);
+        json.writeStringField("transaction_type", "place");
+        json.writeEndObject();
+    }
+
+    public static void writeItem(JsonGenerator json, String itemId, String institutionName) throws IOException {
+        json.writeObjectFieldStart("item");
+        json.writeStringField("item_id", itemId);
+        json.writeStringField("institution_id", institutionName == null ? null
+            : "ins_" + Math.abs(institutionName.hashCode() % 100000));
+        json.writeArrayFieldStart("available_products");
+        json.writeString("balance");
+        json.writeEndArray();
+        json.writeArrayFieldStart("billed_products");
+        json.writeString("transactions");
+        json.writeEndArray();
+        json.writeNullField("error");
+        json.writeStringField("webhook", "");
+        json.writeEndObject();
+    }
+
+    /** Stable pseudo balance so repeated requests for the same account agree */
+    private static double syntheticBalance(BankAccount account) {
+        int hash = (account.getPlaidAccountId().hashCode() * 0x9E3779B1) & 0x7fffffff;
+        return Math.round((200 + hash % 800000 / 100.0) * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,579 @@
+package com.budgetplanner.budget.loadtest;
+
+import com.budgetplanner.budget.model.BankAccount;
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.TransactionSplit;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of realistic transaction histories for load testing and benchmarks.
+ *
+ * Every user gets its own random stream derived from the seed and the user index, so a user's
+ * history is identical whether it is generated alone (e.g. by the stub Plaid server) or as part
+ * of a 10M row bulk load. Histories contain:
+ * - salaries (monthly or bi-weekly, moved to the previous Friday on weekends)
+ * - recurring bills and subscriptions with day and amount jitter
+ * - discretionary spend drawn from a Zipf-like merchant distribution, with weekend and seasonal peaks
+ * - occasional split transactions for mixed-basket stores
+ *
+ * Amounts follow the application's sign convention: income is positive, spending is negative.
+ */
+public class SyntheticTransactionGenerator {
+
+    public static final long DEFAULT_SEED = 20240917L;
+
+    private static final String INCOME = "INCOME";
+    private static final String EXPENSES = "EXPENSES";
+    private static final String BILLS = "BILLS";
+    private static final String SAVINGS = "SAVINGS";
+
+    /**
+     * Receives the generated data. Calls for one user are bracketed by beginUser/endUser,
+     * and transactions of a user arrive in transaction date order.
+     */
+    public interface Sink {
+        default void beginUser(int userIndex) {
+        }
+
+        void account(int userIndex, BankAccount account);
+
+        void transaction(int userIndex, BankTransaction transaction);
+
+        default void split(int userIndex, TransactionSplit split) {
+        }
+
+        default void endUser(int userIndex) {
+        }
+    }
+
+    private final long seed;
+    private final LocalDate endDate;
+    private int historyDays = 365;
+    private double uncategorizedShare = 0.0;
+    private double splitShare = 0.02;
+
+    public SyntheticTransactionGenerator(long seed, LocalDate endDate) {
+        this.seed = seed;
+        this.endDate = endDate;
+    }
+
+    public long getSeed() { return seed; }
+    public LocalDate getEndDate() { return endDate; }
+
+    public int getHistoryDays() { return historyDays; }
+    public void setHistoryDays(int historyDays) { this.historyDays = historyDays; }
+
+    /** Share of discretionary transactions left without a budget category, 0.0 - 1.0 */
+    public double getUncategorizedShare() { return uncategorizedShare; }
+    public void setUncategorizedShare(double uncategorizedShare) { this.uncategorizedShare = uncategorizedShare; }
+
+    /** Share of eligible mixed-basket purchases that are split into two lines, 0.0 - 1.0 */
+    public double getSplitShare() { return splitShare; }
+    public void setSplitShare(double splitShare) { this.splitShare = splitShare; }
+
+    /**
+     * Generate {@code totalTransactions} transactions spread evenly across {@code userCount} users.
+     */
+    public void generate(int userCount, long totalTransactions, Sink sink) {
+        if (userCount <= 0) {
+            throw new IllegalArgumentException("userCount must be positive");
+        }
+        long perUser = totalTransactions / userCount;
+        long remainder = totalTransactions % userCount;
+        for (int userIndex = 0; userIndex < userCount; userIndex++) {
+            int quota = (int) (perUser + (userIndex < remainder ? 1 : 0));
+            generateUser(userIndex, quota, sink);
+        }
+    }
+
+    /**
+     * Generate exactly {@code transactionCount} transactions for a single user.
+     * Transaction and account ids are stable per user: user index times a fixed stride plus ordinal.
+     */
+    public void generateUser(int userIndex, int transactionCount, Sink sink) {
+        SplittableRandom random = new SplittableRandom(mix(seed, userIndex));
+        LocalDate startDate = endDate.minusDays(historyDays - 1L);
+        LocalDateTime createdAt = endDate.atStartOfDay();
+
+        sink.beginUser(userIndex);
+
+        List<BankAccount> accounts = createAccounts(userIndex, random, createdAt);
+        for (BankAccount account : accounts) {
+            sink.account(userIndex, account);
+        }
+        BankAccount checking = accounts.get(0);
+        BankAccount card = accounts.size() > 1 ? accounts.get(1) : checking;
+
+        List<Draft> drafts = new ArrayList<>();
+        addSalary(drafts, random, startDate, checking);
+        addRecurringBills(drafts, random, startDate, checking, card);
+
+        if (drafts.size() > transactionCount) {
+            // Tiny quotas: keep the most recent recurring activity
+            drafts.sort(Comparator.comparing((Draft d) -> d.date));
+            drafts = new ArrayList<>(drafts.subList(drafts.size() - transactionCount, drafts.size()));
+        }
+        addDiscretionarySpend(drafts, random, startDate, transactionCount - drafts.size(), checking, card);
+        drafts.sort(Comparator.comparing((Draft d) -> d.date));
+
+        long baseId = (long) userIndex * ID_STRIDE;
+        long splitId = baseId;
+        for (int i = 0; i < drafts.size(); i++) {
+            Draft draft = drafts.get(i);
+            BankTransaction transaction = draft.toTransaction(baseId + i + 1, createdAt);
+            transaction.setPlaidTransactionId("syn_" + seed + "_" + userIndex + "_" + i);
+            sink.transaction(userIndex, transaction);
+
+            if (draft.split != null) {
+                for (int line = 0; line < 2; line++) {
+                    TransactionSplit split = new TransactionSplit();
+                    split.setId(++splitId);
+                    split.setParentTransaction(transaction);
+                    split.setAmount(line == 0 ? draft.split.firstAmount : draft.amount - draft.split.firstAmount);
+                    split.setBudgetCategory(line == 0 ? draft.category : draft.split.secondCategory);
+                    split.setBudgetCategoryType(EXPENSES);
+                    split.setCreatedAt(createdAt);
+                    sink.split(userIndex, split);
+                }
+            }
+        }
+
+        sink.endUser(userIndex);
+    }
+
+    /** Upper bound of transactions per user, used to derive stable ids */
+    public static final long ID_STRIDE = 1_000_000L;
+
+    public static String userIdFor(long seed, int userIndex) {
+        return "syn_user_" + seed + "_" + userIndex;
+    }
+
+    public static String itemIdFor(long seed, int userIndex) {
+        return "syn_item_" + seed + "_" + userIndex;
+    }
+
+    public static String accessTokenFor(long seed, int userIndex) {
+        return "access-synthetic-" + seed + "-" + userIndex;
+    }
+
+    // Account layout
+
+    private List<BankAccount> createAccounts(int userIndex, SplittableRandom random, LocalDateTime createdAt) {
+        int accountCount = 1 + random.nextInt(3);
+        String institution = INSTITUTIONS[random.nextInt(INSTITUTIONS.length)];
+        List<BankAccount> accounts = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            String type = i == 0 ? "depository" : i == 1 ? "credit" : "depository";
+            String name = i == 0 ? "Everyday Checking" : i == 1 ? "Rewards Card" : "High Yield Savings";
+            BankAccount account = new BankAccount(
+                "syn_acc_" + seed + "_" + userIndex + "_" + i,
+                itemIdFor(seed, userIndex),
+                name,
+                type,
+                institution,
+                String.format("%04d", random.nextInt(10000)),
+                accessTokenFor(seed, userIndex));
+            account.setId((long) userIndex * 4 + i + 1);
+            // Every synthetic user is a tenant of its own
+            account.setUserId(userIdFor(seed, userIndex));
+            account.setCreatedAt(createdAt);
+            account.setLastSyncAt(createdAt);
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+    // Income
+
+    private void addSalary(List<Draft> drafts, SplittableRandom random, LocalDate startDate, BankAccount account) {
+        String employer = EMPLOYERS[random.nextInt(EMPLOYERS.length)];
+        double annual = 35_000 + random.nextInt(120_000);
+        boolean biWeekly = random.nextInt(3) > 0;
+
+        if (biWeekly) {
+            double amount = round(annual / 26);
+            LocalDate payday = startDate.with(DayOfWeek.FRIDAY).plusWeeks(random.nextInt(2));
+            for (LocalDate date = payday; !date.isAfter(endDate); date = date.plusWeeks(2)) {
+                if (!date.isBefore(startDate)) {
+                    drafts.add(new Draft(account, employer + " Payroll", employer + " DIRECT DEP PAYROLL",
+                        "Transfer > Payroll", amount, date, INCOME, "Salary"));
+                }
+            }
+        } else {
+            double amount = round(annual / 12);
+            for (LocalDate month = startDate.withDayOfMonth(1); !month.isAfter(endDate); month = month.plusMonths(1)) {
+                LocalDate date = previousBusinessDay(month.withDayOfMonth(month.lengthOfMonth()));
+                if (!date.isBefore(startDate) && !date.isAfter(endDate)) {
+                    drafts.add(new Draft(account, employer + " Payroll", employer + " DIRECT DEP SALARY",
+                        "Transfer > Payroll", amount, date, INCOME, "Salary"));
+                }
+            }
+        }
+    }
+
+    // Recurring bills and subscriptions
+
+    private void addRecurringBills(List<Draft> drafts, SplittableRandom random, LocalDate startDate,
+                                   BankAccount checking, BankAccount card) {
+        boolean owner = random.nextInt(4) == 0;
+        double housing = round(-(900 + random.nextInt(2600)));
+        addMonthly(drafts, random, startDate, checking,
+            owner ? "Rocket Mortgage" : "Property Management Co.", owner ? "MORTGAGE PAYMENT" : "RENT PAYMENT",
+            "Payment > Rent", housing, 0.0, 1, 2, BILLS, owner ? "Mortgage" : "Rent");
+
+        addMonthly(drafts, random, startDate, checking, "City Electric Company", "ELECTRIC BILL AUTOPAY",
+            "Service > Utilities > Electric", -(60 + random.nextInt(90)), 0.15, 5 + random.nextInt(20), 3, BILLS, "Utilities");
+        addMonthly(drafts, random, startDate, checking, "Municipal Water", "WATER SEWER BILL",
+            "Service > Utilities > Water", -(30 + random.nextInt(40)), 0.10, 10 + random.nextInt(15), 3, BILLS, "Utilities");
+
+        String[] telecom = TELECOM[random.nextInt(TELECOM.length)];
+        addMonthly(drafts, random, startDate, card, telecom[0], telecom[1], "Service > Telecommunication Services",
+            -(45 + random.nextInt(60)), 0.0, 1 + random.nextInt(27), 1, BILLS, "Phone");
+        addMonthly(drafts, random, startDate, card, "Comcast Xfinity", "XFINITY INTERNET",
+            "Service > Cable", -(60 + random.nextInt(40)), 0.0, 1 + random.nextInt(27), 1, BILLS, "Internet");
+        addMonthly(drafts, random, startDate, checking, INSURERS[random.nextInt(INSURERS.length)], "AUTO INSURANCE PREMIUM",
+            "Service > Insurance", -(80 + random.nextInt(150)), 0.0, 1 + random.nextInt(27), 1, BILLS, "Insurance");
+
+        int subscriptionCount = 2 + random.nextInt(4);
+        for (int i = 0; i < subscriptionCount; i++) {
+            String[] subscription = SUBSCRIPTIONS[random.nextInt(SUBSCRIPTIONS.length)];
+            addMonthly(drafts, random, startDate, card, subscription[0], subscription[0].toUpperCase() + " SUBSCRIPTION",
+                "Service > Subscription", -Double.parseDouble(subscription[1]), 0.0, 1 + random.nextInt(27), 0,
+                BILLS, "Entertainment");
+        }
+
+        if (random.nextInt(3) > 0) {
+            addMonthly(drafts, random, startDate, checking, "Transfer to Savings", "ONLINE TRANSFER TO SAVINGS",
+                "Transfer > Savings", -(100 + random.nextInt(900)), 0.0, 2, 1, SAVINGS, "Emergency Fund");
+        }
+        if (random.nextInt(2) == 0) {
+            addMonthly(drafts, random, startDate, checking, "Fidelity 401k", "401K CONTRIBUTION",
+                "Transfer > Retirement", -(200 + random.nextInt(800)), 0.0, 15, 0, SAVINGS, "Retirement");
+        }
+    }
+
+    private void addMonthly(List<Draft> drafts, SplittableRandom random, LocalDate startDate, BankAccount account,
+                            String merchant, String description, String plaidCategory, double baseAmount,
+                            double amountJitter, int dayOfMonth, int dayJitter, String categoryType, String category) {
+        for (LocalDate month = startDate.withDayOfMonth(1); !month.isAfter(endDate); month = month.plusMonths(1)) {
+            int day = Math.min(dayOfMonth, month.lengthOfMonth());
+            LocalDate date = month.withDayOfMonth(day).plusDays(dayJitter > 0 ? random.nextInt(dayJitter + 1) : 0);
+            if (date.isBefore(startDate) || date.isAfter(endDate)) {
+                continue;
+            }
+            double factor = 1.0 + (amountJitter > 0 ? (random.nextDouble() * 2 - 1) * amountJitter : 0.0);
+            if ("Utilities".equals(category)) {
+                factor *= utilitySeasonFactor(date.getMonth());
+            }
+            drafts.add(new Draft(account, merchant, description, plaidCategory, round(baseAmount * factor),
+                date, categoryType, category));
+        }
+    }
+
+    // Discretionary spend
+
+    private void addDiscretionarySpend(List<Draft> drafts, SplittableRandom random, LocalDate startDate, int count,
+                                       BankAccount checking, BankAccount card) {
+        if (count <= 0) {
+            return;
+        }
+        // Cumulative day weights (weekend and seasonal peaks) for inverse-CDF sampling of dates
+        double[] cumulative = new double[historyDays];
+        double total = 0;
+        for (int i = 0; i < historyDays; i++) {
+            total += dayWeight(startDate.plusDays(i));
+            cumulative[i] = total;
+        }
+
+        for (int i = 0; i < count; i++) {
+            LocalDate date = startDate.plusDays(sampleDay(cumulative, random.nextDouble() * total));
+            Merchant merchant = pickMerchant(random, date.getMonth());
+            double amount = -round(merchant.minAmount + random.nextDouble() * (merchant.maxAmount - merchant.minAmount));
+            BankAccount account = random.nextInt(4) == 0 ? checking : card;
+
+            Draft draft = new Draft(account, merchant.name, merchant.name.toUpperCase() + " #" + (1000 + random.nextInt(9000)),
+                merchant.plaidCategory, amount, date, EXPENSES, merchant.category);
+            if (uncategorizedShare > 0 && random.nextDouble() < uncategorizedShare) {
+                draft.categoryType = null;
+                draft.category = null;
+            } else if (merchant.splitCategory != null && amount < -60 && random.nextDouble() < splitShare) {
+                double first = round(amount * (0.4 + random.nextDouble() * 0.4));
+                draft.split = new SplitDraft(first, merchant.splitCategory);
+            }
+            drafts.add(draft);
+        }
+    }
+
+    private Merchant pickMerchant(SplittableRandom random, Month month) {
+        double[] weights = CATEGORY_WEIGHTS.clone();
+        // Seasonal shifts: holiday shopping, summer travel
+        if (month == Month.NOVEMBER || month == Month.DECEMBER) {
+            weights[SHOPPING] *= 1.8;
+        } else if (month == Month.JUNE || month == Month.JULY || month == Month.AUGUST) {
+            weights[TRAVEL] *= 2.5;
+        }
+        double totalWeight = 0;
+        for (double weight : weights) {
+            totalWeight += weight;
+        }
+        double roll = random.nextDouble() * totalWeight;
+        int group = 0;
+        while (group < weights.length - 1 && (roll -= weights[group]) >= 0) {
+            group++;
+        }
+
+        Merchant[] merchants = MERCHANTS[group];
+        double[] zipf = ZIPF_CUMULATIVE[group];
+        double pick = random.nextDouble() * zipf[zipf.length - 1];
+        for (int i = 0; i < zipf.length; i++) {
+            if (pick < zipf[i]) {
+                return merchants[i];
+            }
+        }
+        return merchants[merchants.length - 1];
+    }
+
+    private static int sampleDay(double[] cumulative, double target) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static double dayWeight(LocalDate date) {
+        double weight = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY ? 1.4 : 1.0;
+        if (date.getMonth() == Month.DECEMBER && date.getDayOfMonth() <= 24) {
+            weight *= 1.5;
+        } else if (date.getMonth() == Month.NOVEMBER && date.getDayOfMonth() >= 20) {
+            weight *= 1.3;
+        } else if (date.getMonth() == Month.JANUARY) {
+            weight *= 0.85;
+        }
+        return weight;
+    }
+
+    private static double utilitySeasonFactor(Month month) {
+        switch (month) {
+            case DECEMBER:
+            case JANUARY:
+            case FEBRUARY:
+                return 1.35;
+            case JULY:
+            case AUGUST:
+                return 1.25;
+            default:
+                return 1.0;
+        }
+    }
+
+    private static LocalDate previousBusinessDay(LocalDate date) {
+        while (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            date = date.minusDays(1);
+        }
+        return date;
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100.0) / 100.0;
+    }
+
+    /** SplitMix64 finalizer, spreads (seed, user) pairs over independent streams */
+    private static long mix(long seed, int userIndex) {
+        long z = seed + 0x9E3779B97F4A7C15L * (userIndex + 1L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Reference data
+
+    private static final String[] INSTITUTIONS = {
+        "Chase", "Bank of America", "Wells Fargo", "Citi", "Capital One", "US Bank", "PNC", "Ally Bank"
+    };
+
+    private static final String[] EMPLOYERS = {
+        "Acme Corp", "Globex", "Initech", "Umbrella Health", "Stark Industries", "Wayne Enterprises", "City of Springfield"
+    };
+
+    private static final String[][] TELECOM = {
+        {"Verizon Wireless", "VERIZON WIRELESS PAYMENT"},
+        {"AT&T", "AT&T MOBILITY BILL"},
+        {"T-Mobile", "T-MOBILE AUTOPAY"}
+    };
+
+    private static final String[] INSURERS = {"GEICO", "State Farm", "Progressive", "Allstate"};
+
+    private static final String[][] SUBSCRIPTIONS = {
+        {"Netflix", "15.49"}, {"Spotify", "10.99"}, {"Hulu", "7.99"}, {"Disney Plus", "13.99"},
+        {"Amazon Prime", "14.99"}, {"Apple iCloud", "2.99"}, {"YouTube Premium", "13.99"}, {"Planet Fitness", "24.99"}
+    };
+
+    private static final int GROCERIES = 0;
+    private static final int DINING = 1;
+    private static final int GAS = 2;
+    private static final int SHOPPING = 3;
+    private static final int ENTERTAINMENT = 4;
+    private static final int HEALTH = 5;
+    private static final int TRAVEL = 6;
+
+    private static final double[] CATEGORY_WEIGHTS = {26, 30, 12, 18, 6, 4, 4};
+
+    private static final Merchant[][] MERCHANTS = {
+        {
+            new Merchant("Walmart", "Shops > Supermarkets and Groceries", 15, 220, "Groceries", "Shopping"),
+            new Merchant("Kroger", "Shops > Supermarkets and Groceries", 12, 180, "Groceries", null),
+            new Merchant("Costco", "Shops > Warehouses and Wholesale Stores", 40, 350, "Groceries", "Shopping"),
+            new Merchant("Target", "Shops > Supermarkets and Groceries", 10, 160, "Groceries", "Shopping"),
+            new Merchant("Trader Joe's", "Shops > Supermarkets and Groceries", 15, 120, "Groceries", null),
+            new Merchant("Whole Foods Market", "Shops > Supermarkets and Groceries", 20, 200, "Groceries", null),
+            new Merchant("Safeway", "Shops > Supermarkets and Groceries", 10, 150, "Groceries", null),
+            new Merchant("Aldi", "Shops > Supermarkets and Groceries", 10, 90, "Groceries", null)
+        },
+        {
+            new Merchant("Starbucks", "Food and Drink > Restaurants > Coffee Shop", 3, 15, "Dining Out", null),
+            new Merchant("McDonald's", "Food and Drink > Restaurants > Fast Food", 5, 25, "Dining Out", null),
+            new Merchant("Chipotle", "Food and Drink > Restaurants", 9, 35, "Dining Out", null),
+            new Merchant("DoorDash", "Food and Drink > Restaurants", 15, 70, "Dining Out", null),
+            new Merchant("Dunkin'", "Food and Drink > Restaurants > Coffee Shop", 3, 12, "Dining Out", null),
+            new Merchant("Subway", "Food and Drink > Restaurants > Fast Food", 6, 20, "Dining Out", null),
+            new Merchant("Olive Garden", "Food and Drink > Restaurants", 25, 110, "Dining Out", null),
+            new Merchant("Local Bistro", "Food and Drink > Restaurants", 20, 150, "Dining Out", null)
+        },
+        {
+            new Merchant("Shell", "Travel > Gas Stations", 20, 85, "Gas", null),
+            new Merchant("Chevron", "Travel > Gas Stations", 20, 90, "Gas", null),
+            new Merchant("Exxon", "Travel > Gas Stations", 20, 80, "Gas", null),
+            new Merchant("BP", "Travel > Gas Stations", 15, 75, "Gas", null),
+            new Merchant("Uber", "Travel > Taxi", 8, 60, "Gas", null)
+        },
+        {
+            new Merchant("Amazon", "Shops > Digital Purchase", 8, 250, "Shopping", null),
+            new Merchant("Target", "Shops > Department Stores", 15, 200, "Shopping", "Groceries"),
+            new Merchant("Best Buy", "Shops > Computers and Electronics", 20, 900, "Shopping", null),
+            new Merchant("Home Depot", "Shops > Hardware Store", 10, 400, "Shopping", null),
+            new Merchant("Macy's", "Shops > Department Stores", 20, 300, "Shopping", null),
+            new Merchant("eBay", "Shops > Digital Purchase", 5, 200, "Shopping", null),
+            new Merchant("IKEA", "Shops > Furniture and Home Decor", 25, 700, "Shopping", null)
+        },
+        {
+            new Merchant("AMC Theatres", "Recreation > Arts and Entertainment", 12, 60, "Entertainment", null),
+            new Merchant("Steam Games", "Shops > Digital Purchase", 5, 70, "Entertainment", null),
+            new Merchant("Ticketmaster", "Recreation > Arts and Entertainment", 40, 300, "Entertainment", null),
+            new Merchant("Bowlero", "Recreation > Arts and Entertainment", 20, 90, "Entertainment", null)
+        },
+        {
+            new Merchant("CVS Pharmacy", "Healthcare > Pharmacies", 5, 80, "Healthcare", "Groceries"),
+            new Merchant("Walgreens", "Healthcare > Pharmacies", 5, 70, "Healthcare", null),
+            new Merchant("Kaiser Copay", "Healthcare > Healthcare Services", 20, 150, "Healthcare", null)
+        },
+        {
+            new Merchant("Delta Air Lines", "Travel > Airlines and Aviation Services", 120, 900, "Travel", null),
+            new Merchant("Marriott", "Travel > Lodging", 110, 600, "Travel", null),
+            new Merchant("Airbnb", "Travel > Lodging", 90, 800, "Travel", null),
+            new Merchant("Hertz", "Travel > Car Service", 60, 400, "Travel", null)
+        }
+    };
+
+    private static final double[][] ZIPF_CUMULATIVE = new double[MERCHANTS.length][];
+
+    static {
+        for (int group = 0; group < MERCHANTS.length; group++) {
+            double[] cumulative = new double[MERCHANTS[group].length];
+            double sum = 0;
+            for (int rank = 0; rank < cumulative.length; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, 1.1);
+                cumulative[rank] = sum;
+            }
+            ZIPF_CUMULATIVE[group] = cumulative;
+        }
+    }
+
+    private static final class Merchant {
+        final String name;
+        final String plaidCategory;
+        final double minAmount;
+        final double maxAmount;
+        final String category;
+        final String splitCategory;
+
+        Merchant(String name, String plaidCategory, double minAmount, double maxAmount,
+                 String category, String splitCategory) {
+            this.name = name;
+            this.plaidCategory = plaidCategory;
+            this.minAmount = minAmount;
+            this.maxAmount = maxAmount;
+            this.category = category;
+            this.splitCategory = splitCategory;
+        }
+    }
+
+    private static final class SplitDraft {
+        final double firstAmount;
+        final String secondCategory;
+
+        SplitDraft(double firstAmount, String secondCategory) {
+            this.firstAmount = firstAmount;
+            this.secondCategory = secondCategory;
+        }
+    }
+
+    /** Mutable intermediate form, sorted by date before ids are assigned */
+    private static final class Draft {
+        final BankAccount account;
+        final String merchant;
+        final String description;
+        final String plaidCategory;
+        final double amount;
+        final LocalDate date;
+        String categoryType;
+        String category;
+        SplitDraft split;
+
+        Draft(BankAccount account, String merchant, String description, String plaidCategory,
+              double amount, LocalDate date, String categoryType, String category) {
+            this.account = account;
+            this.merchant = merchant;
+            this.description = description;
+            this.plaidCategory = plaidCategory;
+            this.amount = amount;
+            this.date = date;
+            this.categoryType = categoryType;
+            this.category = category;
+        }
+
+        BankTransaction toTransaction(long id, LocalDateTime createdAt) {
+            BankTransaction transaction = new BankTransaction();
+            transaction.setId(id);
+            transaction.setBankAccount(account);
+            transaction.setAmount(amount);
+            transaction.setMerchantName(merchant);
+            transaction.setDescription(description);
+            transaction.setTransactionDate(date);
+            // Card purchases usually authorize a day or two before they post
+            transaction.setAuthorizedDate(amount < 0 && "credit".equals(account.getAccountType()) ? date.minusDays(1) : date);
+            transaction.setTransactionType(amount > 0 ? "credit" : "debit");
+            transaction.setPlaidCategory(plaidCategory);
+            transaction.setBudgetCategory(category);
+            transaction.setBudgetCategoryType(categoryType);
+            transaction.setIsProcessed(category != null);
+            transaction.setCreatedAt(createdAt);
+            transaction.setUpdatedAt(createdAt);
+            return transaction;
+        }
+    }
+}
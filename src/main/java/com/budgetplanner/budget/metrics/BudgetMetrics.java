@@ -0,0 +1,202 @@
+package com.budgetplanner.budget.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Central place for the application's Micrometer meters.
+ *
+ * Meters are registered on {@link Metrics#globalRegistry}. Spring Boot adds its Prometheus registry to the
+ * global composite (management.metrics.use-global-registry, on by default), so everything recorded here shows
+ * up on /actuator/prometheus. Outside Spring (benchmarks, load-test tools) the global registry is empty and
+ * recording is a no-op, which keeps service constructors free of metrics plumbing. Each meter is built once and
+ * kept by name and tags; the global composite hands registries added later to the meters it already has.
+ */
+public final class BudgetMetrics {
+
+    public static final String PLAID_REQUESTS = "plaid.api.requests";
+    public static final String TRANSACTIONS_INGESTED = "budget.transactions.ingested";
+    public static final String TRANSACTIONS_DEDUPED = "budget.transactions.deduped";
+    public static final String TRANSACTIONS_CATEGORIZED = "budget.transactions.categorized";
+    public static final String RECURRING_DETECTION = "budget.recurring.detection";
+    public static final String WEBHOOK_QUEUE_DEPTH = "plaid.webhook.queue.depth";
+    public static final String VIEW_LOAD = "budget.view.load";
+    public static final String NOTIFICATIONS_SENT = "budget.notifications.sent";
+    public static final String NOTIFICATIONS_REJECTED = "budget.notifications.rejected";
+    public static final String NOTIFICATION_QUEUE_DEPTH = "budget.notifications.queue.depth";
+    public static final String NOTIFICATION_OUTBOX = "budget.notifications.outbox";
+    public static final String LIVE_UPDATES = "budget.live.updates";
+    public static final String INSTITUTION_LOOKUPS = "plaid.institutions.lookups";
+
+    private static final AtomicInteger WEBHOOKS_IN_FLIGHT = new AtomicInteger();
+    private static final Map<List<String>, Meter> METERS = new ConcurrentHashMap<>();
+
+    static {
+        Metrics.globalRegistry.gauge(WEBHOOK_QUEUE_DEPTH, WEBHOOKS_IN_FLIGHT);
+    }
+
+    // Private constructor to prevent instantiation
+    private BudgetMetrics() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Record one Plaid HTTP call. {@code outcome} is the HTTP status class (SUCCESS, CLIENT_ERROR, ...)
+     * or IO_ERROR when no response was received.
+     */
+    public static void recordPlaidRequest(String endpoint, String status, String outcome, long durationNanos) {
+        timer(PLAID_REQUESTS, "Plaid API calls", "endpoint", endpoint, "status", status, "outcome", outcome)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * New transactions stored, by source (plaid, mock, manual)
+     */
+    public static void transactionsIngested(String source, int count) {
+        if (count > 0) {
+            counter(TRANSACTIONS_INGESTED, "Transactions stored", "source", source).increment(count);
+        }
+    }
+
+    /**
+     * Transactions skipped because their Plaid id was already stored
+     */
+    public static void transactionsDeduped(String source, int count) {
+        if (count > 0) {
+            counter(TRANSACTIONS_DEDUPED, "Duplicate transactions skipped", "source", source).increment(count);
+        }
+    }
+
+    /**
+     * Transactions that received a budget category, by method (auto, rules, manual)
+     */
+    public static void transactionsCategorized(String method, int count) {
+        if (count > 0) {
+            categorizedCounter(method).increment(count);
+        }
+    }
+
+    /**
+     * Categorized counter for hot paths, hold on to it instead of calling {@link #transactionsCategorized} per item
+     */
+    public static Counter categorizedCounter(String method) {
+        return counter(TRANSACTIONS_CATEGORIZED, "Transactions categorized", "method", method);
+    }
+
+    public static <T> T timeRecurringDetection(Supplier<T> detection) {
+        return timer(RECURRING_DETECTION, "Recurring pattern detection over the transaction history").record(detection);
+    }
+
+    /**
+     * Webhooks currently being processed; callers must pair with {@link #webhookFinished()}
+     */
+    public static void webhookStarted() {
+        WEBHOOKS_IN_FLIGHT.incrementAndGet();
+    }
+
+    public static void webhookFinished() {
+        WEBHOOKS_IN_FLIGHT.decrementAndGet();
+    }
+
+    /**
+     * Data-load latency of a view, {@code phase} is "construct" for the initial build, "refresh", "live" for a pushed
+     * update or "open" for a dialog
+     */
+    public static void recordViewLoad(String view, String phase, long durationNanos) {
+        viewLoadTimer(view, phase).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs a view's data load and records its latency, also when it throws
+     */
+    public static void timeViewLoad(String view, String phase, Runnable load) {
+        viewLoadTimer(view, phase).record(load);
+    }
+
+    /**
+     * Messages handed to a provider, by channel and outcome (success, failure)
+     */
+    public static void notificationsSent(String channel, String outcome, int count) {
+        if (count > 0) {
+            counter(NOTIFICATIONS_SENT, "Notification messages sent", "channel", channel, "outcome", outcome)
+                .increment(count);
+        }
+    }
+
+    /**
+     * Notifications refused because the dispatch queue stayed full for the submit timeout
+     */
+    public static void notificationRejected() {
+        counter(NOTIFICATIONS_REJECTED, "Notifications rejected by backpressure", "reason", "queue_full").increment();
+    }
+
+    /**
+     * Reports the size of a dispatch queue; the gauge holds the queue weakly
+     */
+    public static <T extends Collection<?>> T gaugeNotificationQueue(String queue, T elements) {
+        return Metrics.globalRegistry.gaugeCollectionSize(NOTIFICATION_QUEUE_DEPTH,
+            Tags.of("queue", queue), elements);
+    }
+
+    /**
+     * Outbox entries settled by the poller, by result (sent, skipped, retry)
+     */
+    public static void outboxProcessed(String result, int count) {
+        if (count > 0) {
+            counter(NOTIFICATION_OUTBOX, "Notification outbox entries processed", "result", result).increment(count);
+        }
+    }
+
+    /**
+     * Live-update traffic by stage: domain changes published to the bus, coalesced flushes, pushes to UIs
+     */
+    public static void liveUpdates(String stage, int count) {
+        if (count > 0) {
+            counter(LIVE_UPDATES, "Live UI updates", "stage", stage).increment(count);
+        }
+    }
+
+    /**
+     * Institution name lookups by result (hit, miss, coalesced, failed); only misses and failures call Plaid
+     */
+    public static void institutionLookups(String result) {
+        counter(INSTITUTION_LOOKUPS, "Institution name lookups", "result", result).increment();
+    }
+
+    private static Timer viewLoadTimer(String view, String phase) {
+        return timer(VIEW_LOAD, "View data loading", "view", view, "phase", phase);
+    }
+
+    private static Timer timer(String name, String description, String... tags) {
+        return (Timer) METERS.computeIfAbsent(key(name, tags), key -> Timer.builder(name)
+            .description(description)
+            .tags(tags)
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry));
+    }
+
+    private static Counter counter(String name, String description, String... tags) {
+        return (Counter) METERS.computeIfAbsent(key(name, tags), key -> Counter.builder(name)
+            .description(description)
+            .tags(tags)
+            .register(Metrics.globalRegistry));
+    }
+
+    private static List<String> key(String name, String... tags) {
+        String[] key = new String[tags.length + 1];
+        key[0] = name;
+        System.arraycopy(tags, 0, key, 1, tags.length);
+        return List.of(key);
+    }
+}
@@ -0,0 +1,44 @@
+package com.budgetplanner.budget.metrics;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * OkHttp interceptor that times every Plaid API call. Installed on the ApiClient of each Plaid service,
+ * so all endpoints are covered without touching the individual call sites.
+ */
+public class PlaidMetricsInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        // Plaid endpoints are fixed paths (/transactions/get, /item/get, ...), safe to use as a tag
+        String endpoint = request.url().encodedPath();
+        long start = System.nanoTime();
+        try {
+            Response response = chain.proceed(request);
+            BudgetMetrics.recordPlaidRequest(endpoint, String.valueOf(response.code()),
+                                             outcome(response.code()), System.nanoTime() - start);
+            return response;
+        } catch (IOException e) {
+            BudgetMetrics.recordPlaidRequest(endpoint, "IO_ERROR", "IO_ERROR", System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private static String outcome(int code) {
+        if (code == 429) {
+            return "RATE_LIMITED";
+        }
+        if (code >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (code >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+}
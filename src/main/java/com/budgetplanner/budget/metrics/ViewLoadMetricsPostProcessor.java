@@ -0,0 +1,55 @@
+package com.budgetplanner.budget.metrics;
+
+import com.vaadin.flow.router.Route;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Times the construction of every @Route view. Vaadin creates route targets through Spring, and the views
+ * load their data in the constructor, so instantiation to initialization is the view's data-load latency.
+ */
+@Component
+public class ViewLoadMetricsPostProcessor implements InstantiationAwareBeanPostProcessor {
+
+    // Start times per bean name on the request thread, a view can build nested components that are Spring beans
+    // too. Keyed by name so a view whose constructor threw leaves no start time for another view to pick up; its
+    // entry is replaced when that view is built again.
+    private static final ThreadLocal<Map<String, Long>> START_TIMES = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+        if (beanClass.isAnnotationPresent(Route.class)) {
+            Map<String, Long> starts = START_TIMES.get();
+            if (starts == null) {
+                starts = new HashMap<>();
+                START_TIMES.set(starts);
+            }
+            starts.put(beanName, System.nanoTime());
+        }
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Class<?> viewClass = ClassUtils.getUserClass(bean);
+        Map<String, Long> starts = START_TIMES.get();
+        if (starts != null && viewClass.isAnnotationPresent(Route.class)) {
+            try {
+                Long start = starts.remove(beanName);
+                if (start != null) {
+                    BudgetMetrics.recordViewLoad(viewClass.getSimpleName(), "construct", System.nanoTime() - start);
+                }
+            } finally {
+                if (starts.isEmpty()) {
+                    START_TIMES.remove();
+                }
+            }
+        }
+        return bean;
+    }
+}
@@ -1,15 +1,32 @@
 package com.budgetplanner.budget.model;
 
+import com.budgetplanner.budget.event.NotificationChangedEvent;
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import org.springframework.data.domain.DomainEvents;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Entity
-@Table(name = "app_notifications")
+@Table(name = "app_notifications",
+       indexes = {
+           // Keyset pagination (newest first) of a user's notifications: all, one category's and the unread ones
+           @Index(name = "idx_app_notifications_user_created", columnList = "user_id, created_at DESC, id DESC"),
+           @Index(name = "idx_app_notifications_user_category_created", columnList = "user_id, category, created_at DESC, id DESC"),
+           @Index(name = "idx_app_notifications_user_read_created", columnList = "user_id, is_read, created_at DESC, id DESC")
+       })
 public class AppNotification {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // Owning user; Hibernate stamps it on insert and filters every query by it (see TenantContext)
+    @TenantId
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
     
     @Column(nullable = false)
     private String title;
@@ -57,6 +74,10 @@ public class AppNotification {
         this.id = id;
     }
 
+    public String getUserId() {
+        return userId;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -124,6 +145,14 @@ public class AppNotification {
         this.iconColor = iconColor;
     }
 
+    /**
+     * Published by Spring Data after every repository save or delete, pushes unread counts to open views
+     */
+    @DomainEvents
+    Collection<Object> domainEvents() {
+        return List.of(new NotificationChangedEvent(id));
+    }
+
     @Override
     public String toString() {
         return "AppNotification{" +
@@ -0,0 +1,71 @@
+package com.budgetplanner.budget.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One square variant of an uploaded avatar, addressed by the SHA-256 of the uploaded file and its edge length.
+ * Size {@link #ORIGINAL} holds the upload itself when it could not be decoded for resizing.
+ */
+@Entity
+@Table(name = "avatar_images",
+       uniqueConstraints = @UniqueConstraint(name = "uk_avatar_images_hash_size", columnNames = {"hash", "size"}))
+public class AvatarImage {
+
+    public static final int ORIGINAL = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private int size;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Lob
+    @Column(nullable = false, length = 1048576)
+    private byte[] data;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    protected AvatarImage() {
+    }
+
+    public AvatarImage(String hash, int size, String contentType, byte[] data) {
+        this.hash = hash;
+        this.size = size;
+        this.contentType = contentType;
+        this.data = data;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -1,14 +1,27 @@
 package com.budgetplanner.budget.model;
 
+import com.budgetplanner.budget.event.BankAccountChangedEvent;
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import org.springframework.data.domain.DomainEvents;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Entity
-@Table(name = "bank_accounts")
+@Table(name = "bank_accounts",
+       // A user's (active) accounts
+       indexes = @Index(name = "idx_bank_accounts_user_active", columnList = "user_id, is_active"))
 public class BankAccount {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // Owning user; Hibernate stamps it on insert and filters every query by it (see TenantContext)
+    @TenantId
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
     
     @Column(nullable = false, unique = true)
     private String plaidAccountId;
@@ -65,6 +78,18 @@ public class BankAccount {
         this.id = id;
     }
     
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Only for rows written outside Hibernate (bulk loaders) or by the system tenant; otherwise Hibernate
+     * stamps the current user on insert
+     */
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
     public String getPlaidAccountId() {
         return plaidAccountId;
     }
@@ -145,6 +170,14 @@ public class BankAccount {
         this.accessToken = accessToken;
     }
     
+    /**
+     * Published by Spring Data after every repository save, refreshes the account cards of open views
+     */
+    @DomainEvents
+    Collection<Object> domainEvents() {
+        return List.of(new BankAccountChangedEvent(id));
+    }
+    
     @Override
     public String toString() {
         return "BankAccount{" +
@@ -1,15 +1,32 @@
 package com.budgetplanner.budget.model;
 
+import com.budgetplanner.budget.event.TransactionChangedEvent;
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import org.springframework.data.domain.DomainEvents;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Entity
-@Table(name = "bank_transactions")
+@Table(name = "bank_transactions",
+       indexes = {
+           // A user's transactions by date range (month views, budget totals)
+           @Index(name = "idx_bank_transactions_user_date", columnList = "user_id, transaction_date"),
+           // Similar transactions of a merchant, newest first (transaction details dialog)
+           @Index(name = "idx_bank_transactions_user_merchant_date", columnList = "user_id, merchant_name, transaction_date DESC")
+       })
 public class BankTransaction {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // Owning user; Hibernate stamps it on insert and filters every query by it (see TenantContext)
+    @TenantId
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
     
     @Column(nullable = false, unique = true)
     private String plaidTransactionId;
@@ -78,7 +95,7 @@ public class BankTransaction {
                           LocalDate authorizedDate, String transactionType) {
         this();
         this.plaidTransactionId = plaidTransactionId;
-        this.bankAccount = bankAccount;
+        setBankAccount(bankAccount);
         this.amount = amount;
         this.merchantName = merchantName;
         this.description = description;
@@ -96,6 +113,10 @@ public class BankTransaction {
         this.id = id;
     }
     
+    public String getUserId() {
+        return userId;
+    }
+
     public String getPlaidTransactionId() {
         return plaidTransactionId;
     }
@@ -108,8 +129,14 @@ public class BankTransaction {
         return bankAccount;
     }
     
+    /**
+     * Also makes a new transaction the account user's, so a cross-user job (system tenant) stores it correctly
+     */
     public void setBankAccount(BankAccount bankAccount) {
         this.bankAccount = bankAccount;
+        if (bankAccount != null) {
+            this.userId = bankAccount.getUserId();
+        }
     }
     
     public Double getAmount() {
@@ -245,6 +272,16 @@ public class BankTransaction {
         this.updatedAt = LocalDateTime.now();
     }
     
+    /**
+     * Published by Spring Data after every repository save, lets precomputed data (advisory tips)
+     * refresh only the affected user
+     */
+    @DomainEvents
+    Collection<Object> domainEvents() {
+        String plaidItemId = bankAccount != null ? bankAccount.getPlaidItemId() : null;
+        return List.of(new TransactionChangedEvent(id, plaidItemId, transactionDate));
+    }
+    
     @Override
     public String toString() {
         return "BankTransaction{" +
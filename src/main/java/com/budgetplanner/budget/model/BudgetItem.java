@@ -1,9 +1,11 @@
 package com.budgetplanner.budget.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 
 @Entity
-@Table(name = "budget_items")
+@Table(name = "budget_items",
+       indexes = @Index(name = "idx_budget_items_user_month", columnList = "user_id, budget_year, budget_month"))
 public class BudgetItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,7 +29,9 @@ public class BudgetItem {
     @Column(name = "budget_month")
     private Integer month;
     
-    @Column(name = "user_id")
+    // Owning user; Hibernate stamps it on insert and filters every query by it (see TenantContext)
+    @TenantId
+    @Column(name = "user_id", nullable = false, updatable = false)
     private String userId;
 
     public BudgetItem() {
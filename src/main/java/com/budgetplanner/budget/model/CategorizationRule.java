@@ -0,0 +1,196 @@
+package com.budgetplanner.budget.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's categorization rule: transactions matching its conditions get its actions when they are ingested,
+ * and existing transactions get them in a background backfill once the rule is added. Conditions left null
+ * match anything; actions left null do nothing. When several rules match, the newest one that sets a field
+ * wins and tags add up.
+ */
+@Entity
+@Table(name = "categorization_rules",
+       indexes = @Index(name = "idx_categorization_rules_user", columnList = "user_id, enabled"))
+public class CategorizationRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Owning user; Hibernate stamps it on insert and filters every query by it (see TenantContext)
+    @TenantId
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
+
+    @Column
+    private String merchantName; // Exact merchant name
+
+    @Column
+    private String descriptionPattern; // Text the description contains, ignoring case
+
+    @Column
+    private String plaidCategory; // Exact Plaid category
+
+    @Column
+    private Double minAmount; // Inclusive, on the amount ignoring its sign
+
+    @Column
+    private Double maxAmount; // Inclusive, on the amount ignoring its sign
+
+    @Column
+    private Long bankAccountId;
+
+    @Column
+    private String budgetCategory;
+
+    @Column
+    private String budgetCategoryType; // INCOME, EXPENSES, BILLS, SAVINGS
+
+    @Column
+    private String tagName;
+
+    @Column
+    private Long savingsGoalId; // Only assigned to transactions without a goal
+
+    @Column(nullable = false)
+    private Boolean enabled = true;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime backfilledAt; // Null until existing transactions have been processed
+
+    public CategorizationRule() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public CategorizationRule(String merchantName, String descriptionPattern, String plaidCategory,
+                              String budgetCategory, String budgetCategoryType) {
+        this();
+        this.merchantName = merchantName;
+        this.descriptionPattern = descriptionPattern;
+        this.plaidCategory = plaidCategory;
+        this.budgetCategory = budgetCategory;
+        this.budgetCategoryType = budgetCategoryType;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getMerchantName() {
+        return merchantName;
+    }
+
+    public void setMerchantName(String merchantName) {
+        this.merchantName = merchantName;
+    }
+
+    public String getDescriptionPattern() {
+        return descriptionPattern;
+    }
+
+    public void setDescriptionPattern(String descriptionPattern) {
+        this.descriptionPattern = descriptionPattern;
+    }
+
+    public String getPlaidCategory() {
+        return plaidCategory;
+    }
+
+    public void setPlaidCategory(String plaidCategory) {
+        this.plaidCategory = plaidCategory;
+    }
+
+    public Double getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(Double minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public Double getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(Double maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public Long getBankAccountId() {
+        return bankAccountId;
+    }
+
+    public void setBankAccountId(Long bankAccountId) {
+        this.bankAccountId = bankAccountId;
+    }
+
+    public String getBudgetCategory() {
+        return budgetCategory;
+    }
+
+    public void setBudgetCategory(String budgetCategory) {
+        this.budgetCategory = budgetCategory;
+    }
+
+    public String getBudgetCategoryType() {
+        return budgetCategoryType;
+    }
+
+    public void setBudgetCategoryType(String budgetCategoryType) {
+        this.budgetCategoryType = budgetCategoryType;
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    public void setTagName(String tagName) {
+        this.tagName = tagName;
+    }
+
+    public Long getSavingsGoalId() {
+        return savingsGoalId;
+    }
+
+    public void setSavingsGoalId(Long savingsGoalId) {
+        this.savingsGoalId = savingsGoalId;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getBackfilledAt() {
+        return backfilledAt;
+    }
+
+    public void setBackfilledAt(LocalDateTime backfilledAt) {
+        this.backfilledAt = backfilledAt;
+    }
+}
@@ -0,0 +1,47 @@
+package com.budgetplanner.budget.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A running application node. Each node refreshes its heartbeat; nodes with a recent heartbeat share the
+ * scheduled per-account work between them.
+ */
+@Entity
+@Table(name = "cluster_nodes",
+       indexes = @Index(name = "idx_cluster_nodes_heartbeat", columnList = "heartbeat_at"))
+public class ClusterNode {
+
+    @Id
+    @Column(length = 100)
+    private String nodeId;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    public ClusterNode() {
+    }
+
+    public ClusterNode(String nodeId, LocalDateTime now) {
+        this.nodeId = nodeId;
+        this.startedAt = now;
+        this.heartbeatAt = now;
+    }
+
+    // Getters
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+}
@@ -0,0 +1,256 @@
+package com.budgetplanner.budget.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification waiting for delivery to one user, written in the same transaction as the change that
+ * triggered it. Carries a copy of the notification's content so delivery does not depend on the
+ * notification row. The idempotency key is unique: queueing the same notification twice is a no-op.
+ */
+@Entity
+@Table(name = "notification_outbox",
+       indexes = @Index(name = "idx_notification_outbox_due", columnList = "status, next_attempt_at"))
+public class NotificationOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 200)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column
+    private Long notificationId;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(length = 2000)
+    private String message;
+
+    @Column
+    private String category;
+
+    @Column
+    private String priority;
+
+    @Column
+    private LocalDateTime notificationCreatedAt;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Node holding the claim, and until when; an expired claim is picked up again
+    @Column
+    private String lockedBy;
+
+    @Column
+    private LocalDateTime lockedUntil;
+
+    // Channels that already took the notification on an earlier, partly failed attempt (e.g. "EMAIL")
+    @Column
+    private String deliveredChannels;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime sentAt;
+
+    public enum OutboxStatus {
+        PENDING,    // Waiting for its next attempt
+        IN_FLIGHT,  // Claimed by a node
+        SENT,       // Delivered on at least one channel
+        SKIPPED,    // Nothing to deliver: no preferences, category switched off or no usable channel
+        FAILED      // Gave up after the last attempt
+    }
+
+    public NotificationOutboxEntry() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public NotificationOutboxEntry(String idempotencyKey, String userId, AppNotification notification) {
+        this();
+        this.idempotencyKey = idempotencyKey;
+        this.userId = userId;
+        this.notificationId = notification.getId();
+        this.title = notification.getTitle();
+        this.message = notification.getMessage();
+        this.category = notification.getCategory();
+        this.priority = notification.getPriority();
+        this.notificationCreatedAt = notification.getCreatedAt();
+    }
+
+    /**
+     * The notification as it was queued, for rendering; not attached to the persistence context
+     */
+    public AppNotification toNotification() {
+        AppNotification notification = new AppNotification(title, message, category, priority);
+        notification.setId(notificationId);
+        if (notificationCreatedAt != null) {
+            notification.setCreatedAt(notificationCreatedAt);
+        }
+        return notification;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Long getNotificationId() {
+        return notificationId;
+    }
+
+    public void setNotificationId(Long notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public LocalDateTime getNotificationCreatedAt() {
+        return notificationCreatedAt;
+    }
+
+    public void setNotificationCreatedAt(LocalDateTime notificationCreatedAt) {
+        this.notificationCreatedAt = notificationCreatedAt;
+    }
+
+    public OutboxStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OutboxStatus status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public void setLockedBy(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public String getDeliveredChannels() {
+        return deliveredChannels;
+    }
+
+    public void setDeliveredChannels(String deliveredChannels) {
+        this.deliveredChannels = deliveredChannels;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+}
@@ -1,7 +1,12 @@
 package com.budgetplanner.budget.model;
 
+import com.budgetplanner.budget.event.NotificationPreferenceChangedEvent;
 import jakarta.persistence.*;
+import org.springframework.data.domain.DomainEvents;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Entity
 @Table(name = "notification_preferences")
@@ -164,4 +169,12 @@ public class NotificationPreference {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    /**
+     * Published by Spring Data after every repository save, invalidates the dispatcher's cached preferences
+     */
+    @DomainEvents
+    Collection<Object> domainEvents() {
+        return List.of(new NotificationPreferenceChangedEvent(userId));
+    }
 }
@@ -1,14 +1,20 @@
 package com.budgetplanner.budget.model;
 
+import com.budgetplanner.budget.event.NotificationTemplateChangedEvent;
 import jakarta.persistence.*;
+import org.springframework.data.domain.DomainEvents;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Entity
 @Table(name = "notification_templates")
 public class NotificationTemplate {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_templates_seq")
+    @SequenceGenerator(name = "notification_templates_seq", sequenceName = "notification_templates_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, unique = true)
@@ -142,4 +148,12 @@ public class NotificationTemplate {
     public void setAvailablePlaceholders(String availablePlaceholders) {
         this.availablePlaceholders = availablePlaceholders;
     }
+
+    /**
+     * Published by Spring Data after every repository save, invalidates the dispatcher's compiled templates
+     */
+    @DomainEvents
+    Collection<Object> domainEvents() {
+        return List.of(new NotificationTemplateChangedEvent(category));
+    }
 }
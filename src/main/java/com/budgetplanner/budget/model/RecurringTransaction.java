@@ -1,9 +1,14 @@
 package com.budgetplanner.budget.model;
 
+import com.budgetplanner.budget.event.RecurringPatternChangedEvent;
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import org.springframework.data.domain.DomainEvents;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -11,13 +16,20 @@ import java.util.List;
  * This includes subscriptions, bills, salary payments, and other regular transactions.
  */
 @Entity
-@Table(name = "recurring_transactions")
+@Table(name = "recurring_transactions",
+       // A user's active patterns by status and due date
+       indexes = @Index(name = "idx_recurring_transactions_user_status", columnList = "user_id, is_active, status, next_expected_date"))
 public class RecurringTransaction {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Owning user; Hibernate stamps it on insert and filters every query by it (see TenantContext)
+    @TenantId
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
+
     @Column(name = "merchant_name", nullable = false)
     private String merchantName;
 
@@ -149,6 +161,10 @@ public class RecurringTransaction {
         this.id = id;
     }
 
+    public String getUserId() {
+        return userId;
+    }
+
     public String getMerchantName() {
         return merchantName;
     }
@@ -337,12 +353,16 @@ public class RecurringTransaction {
         if (transactionAmount == null || this.amount == null) {
             return false;
         }
-        
-        double tolerance = this.amount * (this.amountTolerance / 100.0);
-        double lowerBound = this.amount - tolerance;
-        double upperBound = this.amount + tolerance;
-        
-        return transactionAmount >= lowerBound && transactionAmount <= upperBound;
+        return Math.abs(transactionAmount - this.amount) <= toleranceOf(this.amount, this.amountTolerance);
+    }
+
+    /**
+     * Allowed deviation from a pattern amount: the tolerance percentage of the amount's magnitude, so
+     * expenses (negative amounts) get the same interval as income. No tolerance means an exact match.
+     * The repository's amount queries and the in-memory pattern index use this same rule.
+     */
+    public static double toleranceOf(double amount, Double amountTolerance) {
+        return Math.abs(amount) * (amountTolerance != null ? amountTolerance : 0.0) / 100.0;
     }
 
     /**
@@ -355,6 +375,17 @@ public class RecurringTransaction {
         return lastOccurrence.plusDays(intervalDays);
     }
 
+    /**
+     * The stored next expected date, or one derived from the last occurrence when none is stored yet;
+     * null if there is nothing to derive it from
+     */
+    public LocalDate currentExpectedDate() {
+        if (nextExpectedDate != null) {
+            return nextExpectedDate;
+        }
+        return intervalDays != null ? calculateNextExpectedDate() : null;
+    }
+
     /**
      * Update the recurring transaction with a new occurrence
      */
@@ -431,6 +462,15 @@ public class RecurringTransaction {
         this.updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Published by Spring Data after every repository save, keeps the live-matching pattern index and the
+     * upcoming bills timeline in step
+     */
+    @DomainEvents
+    Collection<Object> domainEvents() {
+        return List.of(new RecurringPatternChangedEvent(this));
+    }
+
     @Override
     public String toString() {
         return "RecurringTransaction{" +
@@ -1,6 +1,7 @@
 package com.budgetplanner.budget.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -8,12 +9,20 @@ import java.time.LocalDateTime;
  * Entity representing a user's savings goal
  */
 @Entity
-@Table(name = "savings_goals")
+@Table(name = "savings_goals",
+       // A user's active goals, newest first
+       indexes = @Index(name = "idx_savings_goals_user_active", columnList = "user_id, is_active, created_at DESC"))
 public class SavingsGoal {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "savings_goals_seq")
+    @SequenceGenerator(name = "savings_goals_seq", sequenceName = "savings_goals_seq", allocationSize = 50)
     private Long id;
+
+    // Owning user; Hibernate stamps it on insert and filters every query by it (see TenantContext)
+    @TenantId
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
     
     @Column(nullable = false)
     private String goalName;
@@ -73,6 +82,10 @@ public class SavingsGoal {
         this.id = id;
     }
     
+    public String getUserId() {
+        return userId;
+    }
+
     public String getGoalName() {
         return goalName;
     }
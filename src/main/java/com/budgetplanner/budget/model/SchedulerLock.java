@@ -0,0 +1,47 @@
+package com.budgetplanner.budget.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lock of a scheduled job shared by all nodes: the node that holds it until {@code lockedUntil} runs the job,
+ * the others skip that run. Rows are only written through conditional statements (see JobLocks).
+ */
+@Entity
+@Table(name = "scheduler_locks")
+public class SchedulerLock {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(nullable = false, length = 100)
+    private String lockedBy;
+
+    public SchedulerLock() {
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+}
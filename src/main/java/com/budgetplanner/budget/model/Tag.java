@@ -0,0 +1,42 @@
+package com.budgetplanner.budget.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A tag name, stored once and referenced by every {@link TransactionTag} that uses it
+ */
+@Entity
+@Table(name = "tags",
+       uniqueConstraints = @UniqueConstraint(name = "uk_tags_name", columnNames = "name"))
+public class Tag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    public Tag() {
+    }
+
+    public Tag(String name) {
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
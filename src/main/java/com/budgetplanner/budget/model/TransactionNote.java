@@ -1,17 +1,24 @@
 package com.budgetplanner.budget.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transaction_notes")
+@Table(name = "transaction_notes",
+       indexes = @Index(name = "idx_transaction_notes_user_transaction", columnList = "user_id, bank_transaction_id"))
 public class TransactionNote {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Owning user; Hibernate stamps it on insert and filters every query by it (see TenantContext)
+    @TenantId
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "bank_transaction_id", nullable = false)
     private BankTransaction bankTransaction;
@@ -38,6 +45,10 @@ public class TransactionNote {
         this.id = id;
     }
 
+    public String getUserId() {
+        return userId;
+    }
+
     public BankTransaction getBankTransaction() {
         return bankTransaction;
     }
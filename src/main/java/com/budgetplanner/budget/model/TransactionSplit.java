@@ -1,6 +1,7 @@
 package com.budgetplanner.budget.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 
@@ -8,13 +9,19 @@ import java.time.LocalDateTime;
  * Represents a split line for a parent BankTransaction.
  */
 @Entity
-@Table(name = "transaction_splits")
+@Table(name = "transaction_splits",
+       indexes = @Index(name = "idx_transaction_splits_user_transaction", columnList = "user_id, transaction_id"))
 public class TransactionSplit {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Owning user; Hibernate stamps it on insert and filters every query by it (see TenantContext)
+    @TenantId
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "transaction_id")
     private BankTransaction parentTransaction;
@@ -46,6 +53,10 @@ public class TransactionSplit {
         this.id = id;
     }
 
+    public String getUserId() {
+        return userId;
+    }
+
     public BankTransaction getParentTransaction() {
         return parentTransaction;
     }
@@ -1,21 +1,45 @@
 package com.budgetplanner.budget.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 
+/**
+ * Links a transaction to a {@link Tag}. Ids come from a pooled sequence so new links can be inserted in
+ * JDBC batches.
+ */
 @Entity
-@Table(name = "transaction_tags")
+@Table(name = "transaction_tags",
+       uniqueConstraints = @UniqueConstraint(name = "uk_transaction_tags_transaction_tag",
+                                             columnNames = {"bank_transaction_id", "tag_id"}),
+       // A user's links per tag (tags in use, bulk tagging)
+       indexes = @Index(name = "idx_transaction_tags_user_tag", columnList = "user_id, tag_id"))
 public class TransactionTag {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_tags_seq")
+    @SequenceGenerator(name = "transaction_tags_seq", sequenceName = "transaction_tags_seq", allocationSize = 50)
     private Long id;
 
+    // Owning user; Hibernate stamps it on insert and filters every query by it (see TenantContext)
+    @TenantId
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "bank_transaction_id", nullable = false)
     private BankTransaction bankTransaction;
 
-    @Column(nullable = false)
-    private String tag;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "tag_id", nullable = false)
+    private Tag tag;
+
+    public TransactionTag() {
+    }
+
+    public TransactionTag(BankTransaction bankTransaction, Tag tag) {
+        this.bankTransaction = bankTransaction;
+        this.tag = tag;
+    }
 
     public Long getId() {
         return id;
@@ -25,6 +49,10 @@ public class TransactionTag {
         this.id = id;
     }
 
+    public String getUserId() {
+        return userId;
+    }
+
     public BankTransaction getBankTransaction() {
         return bankTransaction;
     }
@@ -33,11 +61,11 @@ public class TransactionTag {
         this.bankTransaction = bankTransaction;
     }
 
-    public String getTag() {
+    public Tag getTag() {
         return tag;
     }
 
-    public void setTag(String tag) {
+    public void setTag(Tag tag) {
         this.tag = tag;
     }
 }
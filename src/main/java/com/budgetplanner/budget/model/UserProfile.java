@@ -23,12 +23,9 @@ public class UserProfile {
     @Column
     private String phoneNumber;
     
-    @Lob
-    @Column(length = 1048576) // 1MB
-    private byte[] avatarImage;
-    
-    @Column
-    private String avatarContentType;
+    // SHA-256 of the uploaded avatar, its resized variants live in avatar_images
+    @Column(length = 64)
+    private String avatarHash;
     
     @Column(length = 10)
     private String initials; // For default avatar display
@@ -119,23 +116,15 @@ public class UserProfile {
         this.updatedAt = LocalDateTime.now();
     }
 
-    public byte[] getAvatarImage() {
-        return avatarImage;
+    public String getAvatarHash() {
+        return avatarHash;
     }
 
-    public void setAvatarImage(byte[] avatarImage) {
-        this.avatarImage = avatarImage;
+    public void setAvatarHash(String avatarHash) {
+        this.avatarHash = avatarHash;
         this.updatedAt = LocalDateTime.now();
     }
 
-    public String getAvatarContentType() {
-        return avatarContentType;
-    }
-
-    public void setAvatarContentType(String avatarContentType) {
-        this.avatarContentType = avatarContentType;
-    }
-
     public String getInitials() {
         return initials;
     }
@@ -188,6 +177,6 @@ public class UserProfile {
     }
     
     public boolean hasAvatar() {
-        return avatarImage != null && avatarImage.length > 0;
+        return avatarHash != null;
     }
 }
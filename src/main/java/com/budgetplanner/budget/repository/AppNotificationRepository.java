@@ -1,9 +1,14 @@
 package com.budgetplanner.budget.repository;
 
 import com.budgetplanner.budget.model.AppNotification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -23,4 +28,69 @@ public interface AppNotificationRepository extends JpaRepository<AppNotification
     
     // Count unread notifications
     Long countByIsReadFalse();
+
+    /**
+     * Row counts of the current user per (category, isRead)
+     */
+    @Query("SELECT n.category, n.isRead, COUNT(n) FROM AppNotification n GROUP BY n.category, n.isRead")
+    List<Object[]> countByCategoryAndRead();
+
+    /**
+     * Row counts per (user, category, isRead), for seeding the maintained counters as the system tenant
+     */
+    @Query("SELECT n.userId, n.category, n.isRead, COUNT(n) FROM AppNotification n " +
+           "GROUP BY n.userId, n.category, n.isRead")
+    List<Object[]> countByUserCategoryAndRead();
+
+    /**
+     * Keyset page: the notifications that sort after (createdAt, id), newest first. Reads only the page,
+     * however long the history is; the bound on createdAt alone keeps the predicate usable as an index range.
+     */
+    @Query("SELECT n FROM AppNotification n " +
+           "WHERE n.createdAt <= :createdAt AND (n.createdAt < :createdAt OR n.id < :id) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<AppNotification> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable page);
+
+    @Query("SELECT n FROM AppNotification n WHERE n.isRead = false " +
+           "AND n.createdAt <= :createdAt AND (n.createdAt < :createdAt OR n.id < :id) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<AppNotification> findUnreadPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable page);
+
+    @Query("SELECT n FROM AppNotification n WHERE n.category = :category " +
+           "AND n.createdAt <= :createdAt AND (n.createdAt < :createdAt OR n.id < :id) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<AppNotification> findCategoryPageAfter(@Param("category") String category,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable page);
+
+    /**
+     * Sets the read flag if it differs; returns 1 if the row changed, 0 if it already had that state
+     */
+    @Modifying
+    @Query("UPDATE AppNotification n SET n.isRead = :read, n.readAt = :readAt WHERE n.id = :id AND n.isRead <> :read")
+    int updateRead(@Param("id") Long id, @Param("read") boolean read, @Param("readAt") LocalDateTime readAt);
+
+    /**
+     * Marks every unread notification of a user read in one statement
+     */
+    @Modifying
+    @Query("UPDATE AppNotification n SET n.isRead = true, n.readAt = :readAt " +
+           "WHERE n.userId = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") String userId, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("DELETE FROM AppNotification n WHERE n.id = :id AND n.category = :category AND n.isRead = :read")
+    int deleteInState(@Param("id") Long id, @Param("category") String category, @Param("read") boolean read);
+
+    /**
+     * Deletes every notification of a user in one statement
+     */
+    @Modifying
+    @Query("DELETE FROM AppNotification n WHERE n.userId = :userId")
+    int deleteAllOfUser(@Param("userId") String userId);
 }
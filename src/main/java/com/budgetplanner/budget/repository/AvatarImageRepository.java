@@ -0,0 +1,30 @@
+package com.budgetplanner.budget.repository;
+
+import com.budgetplanner.budget.model.AvatarImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AvatarImageRepository extends JpaRepository<AvatarImage, Long> {
+
+    Optional<AvatarImage> findByHashAndSize(String hash, int size);
+
+    boolean existsByHash(String hash);
+
+    /**
+     * Row-locks the variants of {@code hash} until the caller's transaction ends, returning their ids. Waits
+     * for a concurrent store or release of the same hash to commit first.
+     */
+    @Query(value = "SELECT id FROM avatar_images WHERE hash = :hash FOR UPDATE", nativeQuery = true)
+    List<Long> lockByHash(@Param("hash") String hash);
+
+    @Modifying
+    @Query("DELETE FROM AvatarImage a WHERE a.hash = :hash")
+    int deleteByHash(@Param("hash") String hash);
+}
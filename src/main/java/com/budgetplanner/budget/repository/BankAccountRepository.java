@@ -14,6 +14,8 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, Long>
     Optional<BankAccount> findByPlaidAccountId(String plaidAccountId);
     
     Optional<BankAccount> findByPlaidItemId(String plaidItemId);
+
+    List<BankAccount> findAllByPlaidItemId(String plaidItemId);
     
     List<BankAccount> findByIsActiveTrue();
     
@@ -23,4 +25,10 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, Long>
     List<BankAccount> findActiveAccountsOrderByCreatedDesc();
     
     boolean existsByPlaidAccountId(String plaidAccountId);
+
+    /**
+     * Users with an active account; every user when run as the system tenant
+     */
+    @Query("SELECT DISTINCT ba.userId FROM BankAccount ba WHERE ba.isActive = true")
+    List<String> findActiveUserIds();
 }
@@ -2,21 +2,33 @@ package com.budgetplanner.budget.repository;
 
 import com.budgetplanner.budget.model.BankAccount;
 import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.SavingsGoal;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BankTransactionRepository extends JpaRepository<BankTransaction, Long> {
     
-    // Find recent transactions for the same merchant, excluding a specific transaction
+    // Find recent transactions for the same merchant, excluding a specific transaction; accounts in the same query
+    @EntityGraph(attributePaths = "bankAccount")
     List<BankTransaction> findTop5ByMerchantNameAndIdNotOrderByTransactionDateDesc(String merchantName, Long id);
+
+    /**
+     * The transaction's savings goal without loading the transaction itself
+     */
+    @Query("SELECT g FROM BankTransaction t JOIN t.savingsGoal g WHERE t.id = :id")
+    Optional<SavingsGoal> findSavingsGoalByTransactionId(@Param("id") Long id);
+
     Optional<BankTransaction> findByPlaidTransactionId(String plaidTransactionId);
     
     List<BankTransaction> findByBankAccount(BankAccount bankAccount);
@@ -54,4 +66,118 @@ public interface BankTransactionRepository extends JpaRepository<BankTransaction
     List<BankTransaction> findByTransactionDateBetweenOrderByTransactionDateDesc(LocalDate startDate, LocalDate endDate);
     
     List<BankTransaction> findAllByOrderByTransactionDateDesc();
+
+    // Bulk recategorization and rules: a null condition matches anything, the pattern is a lower-case LIKE with
+    // ! as escape character and the amount range applies to the amount ignoring its sign
+    String MATCHING = "(:merchant IS NULL OR t.merchantName = :merchant) " +
+                      "AND (:pattern IS NULL OR LOWER(t.description) LIKE :pattern ESCAPE '!') " +
+                      "AND (:plaidCategory IS NULL OR t.plaidCategory = :plaidCategory) " +
+                      "AND (:minAmount IS NULL OR ABS(t.amount) >= :minAmount) " +
+                      "AND (:maxAmount IS NULL OR ABS(t.amount) <= :maxAmount) " +
+                      "AND (:accountId IS NULL OR t.bankAccount.id = :accountId)";
+    // Only rows whose category or type actually differ, so the row count is the number changed
+    String CHANGES = "(t.budgetCategory IS NULL OR t.budgetCategory <> :category " +
+                     "OR t.budgetCategoryType IS NULL OR t.budgetCategoryType <> :type)";
+    // As CHANGES for a rule, which may set only one of the two and leaves manually reviewed rows alone
+    String RULE_CHANGES = "(t.isManuallyReviewed IS NULL OR t.isManuallyReviewed = false) " +
+                          "AND ((:category IS NOT NULL AND (t.budgetCategory IS NULL OR t.budgetCategory <> :category)) " +
+                          "OR (:type IS NOT NULL AND (t.budgetCategoryType IS NULL OR t.budgetCategoryType <> :type)))";
+
+    @Modifying
+    @Query("UPDATE BankTransaction t SET t.budgetCategory = :category, t.budgetCategoryType = :type, " +
+           "t.isManuallyReviewed = true, t.updatedAt = :now WHERE t.id IN :ids AND " + CHANGES)
+    int recategorizeByIds(@Param("ids") Collection<Long> ids,
+                          @Param("category") String category,
+                          @Param("type") String type,
+                          @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE BankTransaction t SET t.budgetCategory = :category, t.budgetCategoryType = :type, " +
+           "t.isManuallyReviewed = true, t.updatedAt = :now WHERE " + MATCHING + " AND " + CHANGES)
+    int recategorizeMatching(@Param("merchant") String merchant,
+                             @Param("pattern") String pattern,
+                             @Param("plaidCategory") String plaidCategory,
+                             @Param("minAmount") Double minAmount,
+                             @Param("maxAmount") Double maxAmount,
+                             @Param("accountId") Long accountId,
+                             @Param("category") String category,
+                             @Param("type") String type,
+                             @Param("now") LocalDateTime now);
+
+    /**
+     * (plaid item id, transaction date) pairs a {@link #recategorizeByIds} call would change
+     */
+    @Query("SELECT DISTINCT a.plaidItemId, t.transactionDate FROM BankTransaction t JOIN t.bankAccount a " +
+           "WHERE t.id IN :ids AND " + CHANGES)
+    List<Object[]> findItemDatesToRecategorizeByIds(@Param("ids") Collection<Long> ids,
+                                                    @Param("category") String category,
+                                                    @Param("type") String type);
+
+    /**
+     * (plaid item id, transaction date) pairs a {@link #recategorizeMatching} call would change
+     */
+    @Query("SELECT DISTINCT a.plaidItemId, t.transactionDate FROM BankTransaction t JOIN t.bankAccount a " +
+           "WHERE " + MATCHING + " AND " + CHANGES)
+    List<Object[]> findItemDatesToRecategorizeMatching(@Param("merchant") String merchant,
+                                                       @Param("pattern") String pattern,
+                                                       @Param("plaidCategory") String plaidCategory,
+                                                       @Param("minAmount") Double minAmount,
+                                                       @Param("maxAmount") Double maxAmount,
+                                                       @Param("accountId") Long accountId,
+                                                       @Param("category") String category,
+                                                       @Param("type") String type);
+
+    /**
+     * Applies a rule's category and type (either may be null to keep it) to matching rows not reviewed by hand
+     */
+    @Modifying
+    @Query("UPDATE BankTransaction t SET t.budgetCategory = COALESCE(:category, t.budgetCategory), " +
+           "t.budgetCategoryType = COALESCE(:type, t.budgetCategoryType), t.updatedAt = :now " +
+           "WHERE " + MATCHING + " AND " + RULE_CHANGES)
+    int applyRuleCategory(@Param("merchant") String merchant,
+                          @Param("pattern") String pattern,
+                          @Param("plaidCategory") String plaidCategory,
+                          @Param("minAmount") Double minAmount,
+                          @Param("maxAmount") Double maxAmount,
+                          @Param("accountId") Long accountId,
+                          @Param("category") String category,
+                          @Param("type") String type,
+                          @Param("now") LocalDateTime now);
+
+    /**
+     * (plaid item id, transaction date) pairs an {@link #applyRuleCategory} call would change
+     */
+    @Query("SELECT DISTINCT a.plaidItemId, t.transactionDate FROM BankTransaction t JOIN t.bankAccount a " +
+           "WHERE " + MATCHING + " AND " + RULE_CHANGES)
+    List<Object[]> findItemDatesForRuleCategory(@Param("merchant") String merchant,
+                                                @Param("pattern") String pattern,
+                                                @Param("plaidCategory") String plaidCategory,
+                                                @Param("minAmount") Double minAmount,
+                                                @Param("maxAmount") Double maxAmount,
+                                                @Param("accountId") Long accountId,
+                                                @Param("category") String category,
+                                                @Param("type") String type);
+
+    /**
+     * Assigns the goal to matching rows that have none yet
+     */
+    @Modifying
+    @Query("UPDATE BankTransaction t SET t.savingsGoal = :goal, t.updatedAt = :now " +
+           "WHERE " + MATCHING + " AND t.savingsGoal IS NULL")
+    int assignGoalMatching(@Param("merchant") String merchant,
+                           @Param("pattern") String pattern,
+                           @Param("plaidCategory") String plaidCategory,
+                           @Param("minAmount") Double minAmount,
+                           @Param("maxAmount") Double maxAmount,
+                           @Param("accountId") Long accountId,
+                           @Param("goal") SavingsGoal goal,
+                           @Param("now") LocalDateTime now);
+
+    @Query("SELECT t.id FROM BankTransaction t WHERE " + MATCHING + " ORDER BY t.id")
+    List<Long> findIdsMatching(@Param("merchant") String merchant,
+                               @Param("pattern") String pattern,
+                               @Param("plaidCategory") String plaidCategory,
+                               @Param("minAmount") Double minAmount,
+                               @Param("maxAmount") Double maxAmount,
+                               @Param("accountId") Long accountId);
 }
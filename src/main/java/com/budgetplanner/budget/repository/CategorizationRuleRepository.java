@@ -0,0 +1,13 @@
+package com.budgetplanner.budget.repository;
+
+import com.budgetplanner.budget.model.CategorizationRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CategorizationRuleRepository extends JpaRepository<CategorizationRule, Long> {
+
+    List<CategorizationRule> findByEnabledTrueOrderByIdAsc();
+}
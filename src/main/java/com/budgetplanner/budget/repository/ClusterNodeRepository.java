@@ -0,0 +1,26 @@
+package com.budgetplanner.budget.repository;
+
+import com.budgetplanner.budget.model.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+
+    @Modifying
+    @Query("UPDATE ClusterNode n SET n.heartbeatAt = :now WHERE n.nodeId = :nodeId")
+    int heartbeat(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT n.nodeId FROM ClusterNode n WHERE n.heartbeatAt >= :since")
+    List<String> findLiveNodeIds(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM ClusterNode n WHERE n.heartbeatAt < :before")
+    int deleteSilentSince(@Param("before") LocalDateTime before);
+}
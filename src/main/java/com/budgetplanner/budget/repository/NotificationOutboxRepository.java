@@ -0,0 +1,87 @@
+package com.budgetplanner.budget.repository;
+
+import com.budgetplanner.budget.model.NotificationOutboxEntry;
+import com.budgetplanner.budget.model.NotificationOutboxEntry.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, Long> {
+
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    @Query("SELECT e.idempotencyKey FROM NotificationOutboxEntry e WHERE e.idempotencyKey IN :keys")
+    List<String> findExistingKeys(@Param("keys") Collection<String> keys);
+
+    long countByStatus(OutboxStatus status);
+
+    /**
+     * Row-locks up to {@code limit} entries that are due (pending, or claimed by a node whose lease ran out),
+     * oldest first. Rows locked by another node's claim are skipped rather than waited for, so concurrent
+     * pollers take disjoint batches. Must run inside the claiming transaction.
+     */
+    @Query(value = "SELECT id FROM notification_outbox " +
+                   "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+                   "OR (status = 'IN_FLIGHT' AND locked_until < :now) " +
+                   "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntry e SET e.status = :inFlight, e.lockedBy = :node, " +
+           "e.lockedUntil = :leaseUntil, e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int markClaimed(@Param("ids") Collection<Long> ids,
+                    @Param("node") String node,
+                    @Param("leaseUntil") LocalDateTime leaseUntil,
+                    @Param("inFlight") OutboxStatus inFlight);
+
+    /**
+     * Completes entries this node still holds; an entry whose lease expired and was re-claimed elsewhere
+     * is left to the new holder
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntry e SET e.status = :sent, e.sentAt = :now, e.lockedBy = null, " +
+           "e.lockedUntil = null, e.lastError = null " +
+           "WHERE e.id IN :ids AND e.lockedBy = :node AND e.status = :inFlight")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("node") String node,
+                 @Param("now") LocalDateTime now,
+                 @Param("inFlight") OutboxStatus inFlight,
+                 @Param("sent") OutboxStatus sent);
+
+    /**
+     * Moves the lease of entries this node still holds to {@code leaseUntil}
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntry e SET e.lockedUntil = :leaseUntil " +
+           "WHERE e.id IN :ids AND e.lockedBy = :node AND e.status = :inFlight")
+    int extendLease(@Param("ids") Collection<Long> ids,
+                    @Param("node") String node,
+                    @Param("leaseUntil") LocalDateTime leaseUntil,
+                    @Param("inFlight") OutboxStatus inFlight);
+
+    /**
+     * Releases an entry this node holds: back to PENDING for a later attempt, or to SKIPPED or FAILED
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntry e SET e.status = :next, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lockedBy = null, e.lockedUntil = null, e.lastError = :error, e.deliveredChannels = :deliveredChannels " +
+           "WHERE e.id = :id AND e.lockedBy = :node AND e.status = :inFlight")
+    int release(@Param("id") Long id,
+                @Param("node") String node,
+                @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                @Param("error") String error,
+                @Param("deliveredChannels") String deliveredChannels,
+                @Param("inFlight") OutboxStatus inFlight,
+                @Param("next") OutboxStatus next);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxEntry e WHERE e.status = :sent AND e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff, @Param("sent") OutboxStatus sent);
+}
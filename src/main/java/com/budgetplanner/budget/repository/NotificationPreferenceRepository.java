@@ -4,6 +4,8 @@ import com.budgetplanner.budget.model.NotificationPreference;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,6 +14,9 @@ public interface NotificationPreferenceRepository extends JpaRepository<Notifica
     // Find preferences by user ID
     Optional<NotificationPreference> findByUserId(String userId);
     
+    // Preferences of many users in one query (notification waves)
+    List<NotificationPreference> findByUserIdIn(Collection<String> userIds);
+    
     // Check if email is enabled for user
     boolean existsByUserIdAndEmailEnabledTrue(String userId);
     
@@ -2,11 +2,14 @@ package com.budgetplanner.budget.repository;
 
 import com.budgetplanner.budget.model.RecurringTransaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,23 +50,6 @@ public interface RecurringTransactionRepository extends JpaRepository<RecurringT
     List<RecurringTransaction> findByBudgetCategoryTypeAndBudgetCategoryAndIsActiveTrueOrderByAmountDesc(
             String categoryType, String category);
 
-    /**
-     * Find overdue recurring transactions
-     */
-    @Query("SELECT rt FROM RecurringTransaction rt WHERE rt.isActive = true " +
-           "AND rt.status = 'ACTIVE' AND rt.nextExpectedDate < :currentDate")
-    List<RecurringTransaction> findOverdueTransactions(@Param("currentDate") LocalDate currentDate);
-
-    /**
-     * Find recurring transactions due soon (within specified days)
-     */
-    @Query("SELECT rt FROM RecurringTransaction rt WHERE rt.isActive = true " +
-           "AND rt.status = 'ACTIVE' AND rt.nextExpectedDate BETWEEN :startDate AND :endDate " +
-           "ORDER BY rt.nextExpectedDate ASC")
-    List<RecurringTransaction> findTransactionsDueSoon(
-            @Param("startDate") LocalDate startDate, 
-            @Param("endDate") LocalDate endDate);
-
     /**
      * Find recurring transactions by frequency
      */
@@ -89,22 +75,12 @@ public interface RecurringTransactionRepository extends JpaRepository<RecurringT
             RecurringTransaction.DetectionMethod detectionMethod);
 
     /**
-     * Find potential matches for a new transaction based on merchant and amount
-     */
-    @Query("SELECT rt FROM RecurringTransaction rt WHERE rt.isActive = true " +
-           "AND rt.status = 'ACTIVE' " +
-           "AND LOWER(rt.merchantName) LIKE LOWER(CONCAT('%', :merchantName, '%')) " +
-           "AND ABS(rt.amount - :amount) <= (rt.amount * rt.amountTolerance / 100.0)")
-    List<RecurringTransaction> findPotentialMatches(
-            @Param("merchantName") String merchantName, 
-            @Param("amount") Double amount);
-
-    /**
-     * Find exact match for merchant name and amount (within tolerance)
+     * Find exact match for merchant name and amount (within tolerance, see
+     * {@link RecurringTransaction#toleranceOf})
      */
     @Query("SELECT rt FROM RecurringTransaction rt WHERE rt.isActive = true " +
            "AND LOWER(rt.merchantName) = LOWER(:merchantName) " +
-           "AND ABS(rt.amount - :amount) <= (rt.amount * rt.amountTolerance / 100.0)")
+           "AND ABS(rt.amount - :amount) <= (ABS(rt.amount) * COALESCE(rt.amountTolerance, 0.0) / 100.0)")
     Optional<RecurringTransaction> findExactMatch(
             @Param("merchantName") String merchantName, 
             @Param("amount") Double amount);
@@ -126,23 +102,6 @@ public interface RecurringTransactionRepository extends JpaRepository<RecurringT
            "GROUP BY rt.budgetCategoryType ORDER BY SUM(rt.amount) DESC")
     List<Object[]> getStatisticsByCategory();
 
-    /**
-     * Get monthly recurring transaction totals by category
-     */
-    @Query("SELECT rt.budgetCategoryType, SUM(CASE " +
-           "WHEN rt.frequency = 'WEEKLY' THEN rt.amount * 4.33 " +
-           "WHEN rt.frequency = 'BI_WEEKLY' THEN rt.amount * 2.17 " +
-           "WHEN rt.frequency = 'MONTHLY' THEN rt.amount " +
-           "WHEN rt.frequency = 'BI_MONTHLY' THEN rt.amount * 0.5 " +
-           "WHEN rt.frequency = 'QUARTERLY' THEN rt.amount * 0.33 " +
-           "WHEN rt.frequency = 'SEMI_ANNUALLY' THEN rt.amount * 0.17 " +
-           "WHEN rt.frequency = 'ANNUALLY' THEN rt.amount * 0.083 " +
-           "ELSE rt.amount * (30.0 / rt.intervalDays) END) " +
-           "FROM RecurringTransaction rt " +
-           "WHERE rt.isActive = true AND rt.status = 'ACTIVE' " +
-           "GROUP BY rt.budgetCategoryType")
-    List<Object[]> getMonthlyTotalsByCategory();
-
     /**
      * Find similar recurring transactions (for duplicate detection)
      */
@@ -196,4 +155,45 @@ public interface RecurringTransactionRepository extends JpaRepository<RecurringT
             @Param("categoryType") String categoryType,
             @Param("status") RecurringTransaction.RecurringStatus status,
             @Param("frequency") RecurringTransaction.RecurrenceFrequency frequency);
+
+    /**
+     * Smallest and largest id of the active ACTIVE patterns, for splitting the status sweep into id-range chunks
+     */
+    @Query("SELECT MIN(rt.id), MAX(rt.id) FROM RecurringTransaction rt " +
+           "WHERE rt.isActive = true AND rt.status = 'ACTIVE'")
+    List<Object[]> findActiveIdRange();
+
+    /**
+     * Status sweep, first step: ACTIVE patterns whose last occurrence is more than three intervals ago
+     * have ended. Runs in its own transaction.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RecurringTransaction rt SET rt.status = :ended, rt.updatedAt = :now " +
+           "WHERE rt.id BETWEEN :fromId AND :toId AND rt.isActive = true AND rt.status = :active " +
+           "AND rt.lastOccurrence + (rt.intervalDays * 3) day < :today")
+    int markEndedInIdRange(@Param("fromId") Long fromId,
+                           @Param("toId") Long toId,
+                           @Param("today") LocalDate today,
+                           @Param("now") LocalDateTime now,
+                           @Param("active") RecurringTransaction.RecurringStatus active,
+                           @Param("ended") RecurringTransaction.RecurringStatus ended);
+
+    /**
+     * Status sweep, second step: still-ACTIVE patterns overdue (past the grace cutoff) by more than two
+     * intervals became irregular. Runs in its own transaction.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RecurringTransaction rt SET rt.status = :irregular, rt.updatedAt = :now " +
+           "WHERE rt.id BETWEEN :fromId AND :toId AND rt.isActive = true AND rt.status = :active " +
+           "AND rt.nextExpectedDate < :graceCutoff " +
+           "AND rt.nextExpectedDate + (rt.intervalDays * 2) day < :today")
+    int markIrregularInIdRange(@Param("fromId") Long fromId,
+                               @Param("toId") Long toId,
+                               @Param("today") LocalDate today,
+                               @Param("graceCutoff") LocalDate graceCutoff,
+                               @Param("now") LocalDateTime now,
+                               @Param("active") RecurringTransaction.RecurringStatus active,
+                               @Param("irregular") RecurringTransaction.RecurringStatus irregular);
 }
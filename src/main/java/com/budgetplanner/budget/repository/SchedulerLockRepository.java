@@ -0,0 +1,47 @@
+package com.budgetplanner.budget.repository;
+
+import com.budgetplanner.budget.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Takes the lock if its last holder's time is up; 1 if taken
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until, l.lockedAt = :now, l.lockedBy = :node " +
+           "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int takeIfFree(@Param("name") String name,
+                   @Param("node") String node,
+                   @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until);
+
+    /**
+     * First use of a lock; fails on the primary key when another node created it first
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_locks (name, locked_until, locked_at, locked_by) " +
+                   "VALUES (:name, :until, :now, :node)", nativeQuery = true)
+    int create(@Param("name") String name,
+               @Param("node") String node,
+               @Param("now") LocalDateTime now,
+               @Param("until") LocalDateTime until);
+
+    /**
+     * Ends this node's hold: the lock stays taken until {@code until} (the minimum hold) and is free after it
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until " +
+           "WHERE l.name = :name AND l.lockedBy = :node AND l.lockedAt = :lockedAt")
+    int release(@Param("name") String name,
+                @Param("node") String node,
+                @Param("lockedAt") LocalDateTime lockedAt,
+                @Param("until") LocalDateTime until);
+}
@@ -1,20 +1,50 @@
 package com.budgetplanner.budget.repository;
 
 import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.Tag;
 import com.budgetplanner.budget.model.TransactionTag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TransactionTagRepository extends JpaRepository<TransactionTag, Long> {
 
-    List<TransactionTag> findByBankTransaction(BankTransaction bankTransaction);
+    /**
+     * Names of the transaction's tags in the order they were added
+     */
+    @Query("SELECT t.name FROM TransactionTag tt JOIN tt.tag t WHERE tt.bankTransaction = :transaction ORDER BY tt.id")
+    List<String> findTagNamesByBankTransaction(@Param("transaction") BankTransaction transaction);
 
-    void deleteByBankTransaction(BankTransaction bankTransaction);
+    /**
+     * Removes the named tags from the transaction in one statement; returns how many links went
+     */
+    @Modifying
+    @Query("DELETE FROM TransactionTag tt WHERE tt.bankTransaction = :transaction " +
+           "AND tt.tag IN (SELECT t FROM Tag t WHERE t.name IN :names)")
+    int deleteByBankTransactionAndTagNames(@Param("transaction") BankTransaction transaction,
+                                           @Param("names") Collection<String> names);
 
-    @Query("select distinct t.tag from TransactionTag t order by t.tag asc")
-    List<String> findDistinctTagNames();
+    /**
+     * Which of the given transactions already carry the tag
+     */
+    @Query("SELECT tt.bankTransaction.id FROM TransactionTag tt WHERE tt.tag = :tag AND tt.bankTransaction.id IN :ids")
+    List<Long> findTaggedTransactionIds(@Param("tag") Tag tag, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Rows of (tag name, transactions using it) of the current user
+     */
+    @Query("SELECT t.name, COUNT(tt) FROM TransactionTag tt JOIN tt.tag t GROUP BY t.name")
+    List<Object[]> countByTagName();
+
+    /**
+     * Rows of (user, tag name, transactions using it), for seeding the in-memory tag counts as the system tenant
+     */
+    @Query("SELECT tt.userId, t.name, COUNT(tt) FROM TransactionTag tt JOIN tt.tag t GROUP BY tt.userId, t.name")
+    List<Object[]> countByUserAndTagName();
 }
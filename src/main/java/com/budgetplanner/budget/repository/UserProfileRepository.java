@@ -20,4 +20,7 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
     
     // Check if user ID exists
     boolean existsByUserId(String userId);
+
+    // Check if any profile still uses an avatar
+    boolean existsByAvatarHash(String avatarHash);
 }
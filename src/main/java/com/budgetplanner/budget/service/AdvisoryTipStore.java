@@ -0,0 +1,157 @@
+package com.budgetplanner.budget.service;
+
+import com.budgetplanner.budget.event.TransactionChangedEvent;
+import com.budgetplanner.budget.repository.BankAccountRepository;
+import com.budgetplanner.budget.service.AIAdvisoryService.AdvisoryTip;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed advisory tips, so views read them in O(1) instead of analyzing transactions on every render.
+ *
+ * A nightly job recomputes each user's dashboard (all of their accounts) tips for the current month.
+ * In between, committed transaction changes mark their user dirty and a short-delay refresher recomputes
+ * only those; dashboard tips of the months whose advisory window covers the change are dropped and rebuilt
+ * on the next read.
+ */
+@Service
+public class AdvisoryTipStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AdvisoryTipStore.class);
+
+    private final AIAdvisoryService advisoryService;
+    private final BankAccountRepository bankAccountRepository;
+
+    // Dashboard tips (all of the user's accounts) per user and month, the current month is kept warm by the refresher
+    private final Map<String, Map<YearMonth, TipSnapshot>> dashboardSnapshots = new ConcurrentHashMap<>();
+    private final Set<String> dirtyDashboards = ConcurrentHashMap.newKeySet();
+
+    public AdvisoryTipStore(AIAdvisoryService advisoryService, BankAccountRepository bankAccountRepository) {
+        this.advisoryService = advisoryService;
+        this.bankAccountRepository = bankAccountRepository;
+    }
+
+    /**
+     * The current user's dashboard tips for a month; computed and kept on first read if nothing is precomputed yet
+     */
+    public TipSnapshot getDashboardTips(YearMonth month) {
+        Map<YearMonth, TipSnapshot> dashboard = dashboard(TenantContext.current());
+        TipSnapshot snapshot = dashboard.get(month);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        // Computed outside the map: the analysis queries the database and must not hold the map's bin lock
+        TipSnapshot computed = new TipSnapshot(month, advisoryService.generatePersonalizedTips(month), LocalDateTime.now());
+        TipSnapshot existing = dashboard.putIfAbsent(month, computed);
+        return existing != null ? existing : computed;
+    }
+
+    /**
+     * Recomputes a month's dashboard tips of the current user now, for an explicit refresh from the UI
+     */
+    public TipSnapshot recomputeDashboardTips(YearMonth month) {
+        TipSnapshot snapshot = new TipSnapshot(month, advisoryService.generatePersonalizedTips(month), LocalDateTime.now());
+        dashboard(TenantContext.current()).put(month, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Nightly batch: each active user's dashboard for the current month
+     */
+    @Scheduled(cron = "${advisory.precompute.cron:0 30 2 * * *}")
+    public void precomputeAll() {
+        long startTime = System.currentTimeMillis();
+        YearMonth month = YearMonth.now();
+
+        List<String> tenants = TenantContext.callAsSystem(bankAccountRepository::findActiveUserIds);
+        // Older months and users without active accounts are dropped, they recompute on their next read
+        dashboardSnapshots.keySet().retainAll(tenants);
+        dashboardSnapshots.values().forEach(dashboard -> dashboard.keySet().retainAll(List.of(month)));
+        tenants.forEach(tenant -> TenantContext.runAs(tenant, () -> recomputeDashboardTips(month)));
+        dirtyDashboards.removeAll(tenants);
+
+        log.atInfo()
+            .addKeyValue("dashboards", tenants.size())
+            .addKeyValue("durationMs", System.currentTimeMillis() - startTime)
+            .log("Precomputed advisory tips");
+    }
+
+    /**
+     * Runs after the writing transaction commits, so the refresh sees the new data
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.getTransactionDate() == null) {
+            return;
+        }
+        // A month's advisory window is that month and the three before it. Listeners run on the committing
+        // thread, so its tenant is the user whose transactions changed (the system tenant: possibly anyone's)
+        YearMonth changedMonth = YearMonth.from(event.getTransactionDate());
+        String tenant = TenantContext.current();
+        Collection<Map<YearMonth, TipSnapshot>> affected = TenantContext.isSystem(tenant)
+            ? dashboardSnapshots.values()
+            : List.of(dashboard(tenant));
+        for (Map<YearMonth, TipSnapshot> dashboard : affected) {
+            for (int i = 0; i <= 3; i++) {
+                dashboard.remove(changedMonth.plusMonths(i));
+            }
+        }
+        if (!TenantContext.isSystem(tenant)) {
+            dirtyDashboards.add(tenant);
+        }
+    }
+
+    /**
+     * Recomputes users whose transactions changed. Runs on a delay so a sync of many transactions
+     * costs one recompute per user rather than one per transaction.
+     */
+    @Scheduled(fixedDelayString = "${advisory.refresh.delay-ms:5000}")
+    public void refreshDirtyUsers() {
+        if (dirtyDashboards.isEmpty()) {
+            return;
+        }
+        Set<String> tenants = new HashSet<>(dirtyDashboards);
+        dirtyDashboards.removeAll(tenants);
+
+        YearMonth month = YearMonth.now();
+        tenants.forEach(tenant -> TenantContext.runAs(tenant, () -> getDashboardTips(month)));
+
+        log.atDebug().addKeyValue("dashboards", tenants.size()).log("Refreshed advisory tips");
+    }
+
+    private Map<YearMonth, TipSnapshot> dashboard(String tenant) {
+        return dashboardSnapshots.computeIfAbsent(tenant, key -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Tips as computed at a point in time
+     */
+    public static class TipSnapshot {
+        private final YearMonth month;
+        private final List<AdvisoryTip> tips;
+        private final LocalDateTime computedAt;
+
+        public TipSnapshot(YearMonth month, List<AdvisoryTip> tips, LocalDateTime computedAt) {
+            this.month = month;
+            this.tips = List.copyOf(tips);
+            this.computedAt = computedAt;
+        }
+
+        public YearMonth getMonth() { return month; }
+        public List<AdvisoryTip> getTips() { return tips; }
+        public LocalDateTime getComputedAt() { return computedAt; }
+    }
+}
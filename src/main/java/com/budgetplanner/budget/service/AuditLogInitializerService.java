@@ -2,25 +2,43 @@ package com.budgetplanner.budget.service;
 
 import com.budgetplanner.budget.model.AuditLog;
 import com.budgetplanner.budget.repository.AuditLogRepository;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.context.annotation.Bean;
+import com.budgetplanner.budget.startup.StartupInitializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
- * Service to initialize sample audit log data
+ * Service to initialize sample audit log data, deferred until the application is ready
  */
 @Service
-public class AuditLogInitializerService {
-    
-    @Bean
-    public CommandLineRunner initializeAuditLogs(AuditLogRepository auditLogRepository) {
-        return args -> {
-            if (auditLogRepository.count() == 0) {
-                createSampleAuditLogs(auditLogRepository);
-            }
-        };
+public class AuditLogInitializerService implements StartupInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogInitializerService.class);
+
+    private final AuditLogRepository auditLogRepository;
+
+    public AuditLogInitializerService(AuditLogRepository auditLogRepository) {
+        this.auditLogRepository = auditLogRepository;
+    }
+
+    @Override
+    public String name() {
+        return "audit-log-samples";
+    }
+
+    @Override
+    public Phase phase() {
+        return Phase.DEFERRED;
+    }
+
+    @Override
+    public void initialize() {
+        if (auditLogRepository.count() == 0) {
+            createSampleAuditLogs(auditLogRepository);
+        }
     }
     
     private void createSampleAuditLogs(AuditLogRepository repository) {
@@ -32,7 +50,6 @@ public class AuditLogInitializerService {
         log1.setCategory("FINANCIAL");
         log1.setSeverity("INFO");
         log1.setTimestamp(LocalDateTime.now().minusHours(2));
-        repository.save(log1);
         
         AuditLog log2 = new AuditLog("TRANSACTION", "TXN-002", "UPDATE", "default_user");
         log2.setUserName("Budget Planner User");
@@ -42,7 +59,6 @@ public class AuditLogInitializerService {
         log2.setCategory("FINANCIAL");
         log2.setSeverity("INFO");
         log2.setTimestamp(LocalDateTime.now().minusHours(5));
-        repository.save(log2);
         
         AuditLog log3 = new AuditLog("TRANSACTION", "TXN-003", "DELETE", "default_user");
         log3.setUserName("Budget Planner User");
@@ -51,7 +67,6 @@ public class AuditLogInitializerService {
         log3.setCategory("FINANCIAL");
         log3.setSeverity("WARNING");
         log3.setTimestamp(LocalDateTime.now().minusHours(8));
-        repository.save(log3);
         
         // Budget-related logs
         AuditLog log4 = new AuditLog("BUDGET_ITEM", "BUDGET-001", "CREATE", "default_user");
@@ -61,7 +76,6 @@ public class AuditLogInitializerService {
         log4.setCategory("FINANCIAL");
         log4.setSeverity("INFO");
         log4.setTimestamp(LocalDateTime.now().minusDays(1));
-        repository.save(log4);
         
         AuditLog log5 = new AuditLog("BUDGET_ITEM", "BUDGET-002", "UPDATE", "default_user");
         log5.setUserName("Budget Planner User");
@@ -71,7 +85,6 @@ public class AuditLogInitializerService {
         log5.setCategory("FINANCIAL");
         log5.setSeverity("INFO");
         log5.setTimestamp(LocalDateTime.now().minusDays(2));
-        repository.save(log5);
         
         // User profile logs
         AuditLog log6 = new AuditLog("USER_PROFILE", "default_user", "UPDATE", "default_user");
@@ -82,7 +95,6 @@ public class AuditLogInitializerService {
         log6.setCategory("USER_ACTION");
         log6.setSeverity("INFO");
         log6.setTimestamp(LocalDateTime.now().minusDays(3));
-        repository.save(log6);
         
         AuditLog log7 = new AuditLog("USER_PROFILE", "default_user", "UPDATE", "default_user");
         log7.setUserName("Budget Planner User");
@@ -90,7 +102,6 @@ public class AuditLogInitializerService {
         log7.setCategory("USER_ACTION");
         log7.setSeverity("INFO");
         log7.setTimestamp(LocalDateTime.now().minusDays(4));
-        repository.save(log7);
         
         // Security logs
         AuditLog log8 = new AuditLog("SECURITY", "N/A", "PASSWORD_CHANGE", "default_user");
@@ -99,7 +110,6 @@ public class AuditLogInitializerService {
         log8.setCategory("SECURITY");
         log8.setSeverity("INFO");
         log8.setTimestamp(LocalDateTime.now().minusDays(5));
-        repository.save(log8);
         
         AuditLog log9 = new AuditLog("SECURITY", "N/A", "LOGIN", "default_user");
         log9.setUserName("Budget Planner User");
@@ -108,7 +118,6 @@ public class AuditLogInitializerService {
         log9.setCategory("SECURITY");
         log9.setSeverity("INFO");
         log9.setTimestamp(LocalDateTime.now().minusHours(1));
-        repository.save(log9);
         
         // Bank account logs
         AuditLog log10 = new AuditLog("BANK_ACCOUNT", "BANK-001", "SYNC", "default_user");
@@ -118,7 +127,6 @@ public class AuditLogInitializerService {
         log10.setCategory("FINANCIAL");
         log10.setSeverity("INFO");
         log10.setTimestamp(LocalDateTime.now().minusHours(3));
-        repository.save(log10);
         
         // System logs
         AuditLog log11 = new AuditLog("SYSTEM", "N/A", "DATA_IMPORT", "SYSTEM");
@@ -128,7 +136,6 @@ public class AuditLogInitializerService {
         log11.setCategory("SYSTEM");
         log11.setSeverity("INFO");
         log11.setTimestamp(LocalDateTime.now().minusDays(1).minusHours(6));
-        repository.save(log11);
         
         AuditLog log12 = new AuditLog("SYSTEM", "N/A", "BACKUP", "SYSTEM");
         log12.setUserName("System");
@@ -136,8 +143,8 @@ public class AuditLogInitializerService {
         log12.setCategory("SYSTEM");
         log12.setSeverity("INFO");
         log12.setTimestamp(LocalDateTime.now().minusDays(7));
-        repository.save(log12);
-        
-        System.out.println("✅ Sample audit logs created successfully!");
+
+        repository.saveAll(List.of(log1, log2, log3, log4, log5, log6, log7, log8, log9, log10, log11, log12));
+        log.info("Sample audit logs created");
     }
 }
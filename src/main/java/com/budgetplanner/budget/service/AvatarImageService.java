@@ -0,0 +1,225 @@
+package com.budgetplanner.budget.service;
+
+import com.budgetplanner.budget.model.AvatarImage;
+import com.budgetplanner.budget.repository.AvatarImageRepository;
+import com.budgetplanner.budget.repository.UserProfileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Content-addressed store of avatar images.
+ *
+ * An upload is cropped to a square and downscaled once to each of {@link #SIZES}, stored as PNG under the
+ * SHA-256 of the uploaded file. The same file uploaded twice is stored once, and because a hash never
+ * names different bytes, the variants can be cached by browsers forever. Files ImageIO cannot decode
+ * (WebP on a stock JDK) are kept as uploaded and served for every size.
+ *
+ * Store row-locks the variants of a hash in the caller's transaction, and release deletes them under the
+ * same lock once the caller commits, so variants a concurrent upload has just reused are not deleted before
+ * that upload's profile is saved.
+ */
+@Service
+@Transactional
+public class AvatarImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvatarImageService.class);
+
+    /**
+     * Edge lengths in pixels of the stored variants, twice the largest CSS size each one is shown at
+     */
+    public static final int[] SIZES = {64, 96, 160};
+
+    // A release may delete freshly inserted variants before they are locked, insert them again
+    private static final int STORE_ATTEMPTS = 3;
+
+    private final AvatarImageRepository avatarImageRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final TransactionTemplate newTransaction;
+
+    public AvatarImageService(AvatarImageRepository avatarImageRepository,
+                              UserProfileRepository userProfileRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.avatarImageRepository = avatarImageRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Stores the variants of an uploaded image unless they exist already, returning its hash. The variants
+     * stay locked until the caller's transaction ends, which should save the profile referencing them.
+     */
+    public String store(byte[] upload, String contentType) throws IOException {
+        String hash = hash(upload);
+        if (!avatarImageRepository.lockByHash(hash).isEmpty()) {
+            return hash;
+        }
+
+        String storedType = contentType;
+        Map<Integer, byte[]> variants = new LinkedHashMap<>();
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(upload));
+        if (source == null) {
+            variants.put(AvatarImage.ORIGINAL, upload);
+        } else {
+            storedType = "image/png";
+            BufferedImage square = cropToSquare(source);
+            for (int size : SIZES) {
+                variants.put(size, encodePng(resize(square, size)));
+            }
+        }
+
+        for (int attempt = 1; attempt <= STORE_ATTEMPTS; attempt++) {
+            insert(hash, storedType, variants);
+            if (!avatarImageRepository.lockByHash(hash).isEmpty()) {
+                log.atInfo().addKeyValue("hash", hash).addKeyValue("uploadBytes", upload.length)
+                    .addKeyValue("contentType", storedType).addKeyValue("variants", variants.size())
+                    .log("Stored avatar variants");
+                return hash;
+            }
+        }
+        throw new IllegalStateException("Avatar " + hash + " deleted while being stored " + STORE_ATTEMPTS + " times");
+    }
+
+    /**
+     * The variant of {@code size}, or the upload itself when it was stored without resizing
+     */
+    @Transactional(readOnly = true)
+    public Optional<AvatarImage> find(String hash, int size) {
+        Optional<AvatarImage> variant = avatarImageRepository.findByHashAndSize(hash, size);
+        return variant.isPresent() ? variant : avatarImageRepository.findByHashAndSize(hash, AvatarImage.ORIGINAL);
+    }
+
+    /**
+     * Deletes the variants of {@code hash} once no profile uses them any more, after the caller's transaction
+     * commits
+     */
+    public void release(String hash) {
+        if (hash == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteIfUnused(hash);
+                }
+            });
+        } else {
+            deleteIfUnused(hash);
+        }
+    }
+
+    /**
+     * The smallest stored size that stays sharp at {@code cssPixels} on a 2x display
+     */
+    public static int sizeFor(int cssPixels) {
+        for (int size : SIZES) {
+            if (size >= cssPixels * 2) {
+                return size;
+            }
+        }
+        return SIZES[SIZES.length - 1];
+    }
+
+    public static boolean isStoredSize(int size) {
+        for (int stored : SIZES) {
+            if (stored == size) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void deleteIfUnused(String hash) {
+        try {
+            // In a transaction of its own, holding no other hash's lock: a user swapping avatars with another
+            // would otherwise wait on them while they wait on this
+            newTransaction.executeWithoutResult(status -> {
+                // Checked under the lock: a store that reused the variants has saved its profile by now
+                if (!avatarImageRepository.lockByHash(hash).isEmpty()
+                        && !userProfileRepository.existsByAvatarHash(hash)) {
+                    avatarImageRepository.deleteByHash(hash);
+                }
+            });
+        } catch (RuntimeException e) {
+            // The variants stay until the next release of the hash
+            log.atWarn().addKeyValue("hash", hash).setCause(e).log("Failed to delete unused avatar");
+        }
+    }
+
+    private void insert(String hash, String contentType, Map<Integer, byte[]> variants) {
+        try {
+            // In a transaction of its own, a duplicate would otherwise roll back the caller's
+            newTransaction.executeWithoutResult(status -> variants.forEach((size, data) ->
+                avatarImageRepository.save(new AvatarImage(hash, size, contentType, data))));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent upload of the same file stored it first
+            log.atDebug().addKeyValue("hash", hash).log("Avatar already stored");
+        }
+    }
+
+    private static BufferedImage cropToSquare(BufferedImage source) {
+        int edge = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - edge) / 2;
+        int y = (source.getHeight() - edge) / 2;
+        return source.getSubimage(x, y, edge, edge);
+    }
+
+    private static BufferedImage resize(BufferedImage square, int size) {
+        // Halve in steps before the last bilinear pass, a single pass from a large photo aliases badly
+        BufferedImage current = square;
+        while (current.getWidth() / 2 >= size) {
+            current = draw(current, current.getWidth() / 2);
+        }
+        return current.getWidth() == size ? current : draw(current, size);
+    }
+
+    private static BufferedImage draw(BufferedImage image, int size) {
+        BufferedImage scaled = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, size, size, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.budgetplanner.budget.service;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
 import com.budgetplanner.budget.model.BankAccount;
 import com.budgetplanner.budget.model.BankTransaction;
 import com.budgetplanner.budget.model.BudgetItem;
@@ -118,6 +119,7 @@ public class BankAccountService {
         transaction.setIsManuallyReviewed(true);
         
         bankTransactionRepository.save(transaction);
+        BudgetMetrics.transactionsCategorized("manual", 1);
     }
     
     /**
@@ -177,6 +179,14 @@ public class BankAccountService {
         List<BankTransaction> transactions = bankTransactionRepository
                 .findByTransactionDateBetween(startDate, endDate);
         
+        return generateBudgetItemsFromTransactions(yearMonth, transactions);
+    }
+
+    /**
+     * Same as {@link #generateBudgetItemsFromTransactions(YearMonth)} for transactions the caller already
+     * loaded, they must all fall within the given month.
+     */
+    public List<BudgetItem> generateBudgetItemsFromTransactions(YearMonth yearMonth, List<BankTransaction> transactions) {
         // Group transactions by resolved budget category type and category
         Map<String, Map<String, Double>> categoryTotals = transactions.stream()
                 .collect(Collectors.groupingBy(
@@ -1,14 +1,20 @@
 package com.budgetplanner.budget.service;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
+import com.budgetplanner.budget.metrics.PlaidMetricsInterceptor;
 import com.budgetplanner.budget.model.BankAccount;
 import com.budgetplanner.budget.model.BankTransaction;
 import com.budgetplanner.budget.repository.BankAccountRepository;
 import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.service.categorization.CategorizationRuleBook;
+import com.budgetplanner.budget.tenant.TenantContext;
 import com.plaid.client.ApiClient;
 import com.plaid.client.model.*;
 import com.plaid.client.request.PlaidApi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 // Retry functionality will be implemented manually without Spring Retry dependency
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -21,6 +27,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -31,12 +38,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class EnhancedPlaidService {
 
+    private static final Logger log = LoggerFactory.getLogger(EnhancedPlaidService.class);
+
     private final BankAccountRepository bankAccountRepository;
     private final BankTransactionRepository bankTransactionRepository;
+    private final CategorizationRuleBook categorizationRuleBook;
+    private final InstitutionDirectory institutionDirectory;
+    private final Executor plaidTaskExecutor;
     private final PlaidApi plaidClient;
     private final String clientId;
     private final String secret;
     private final String environment;
+    private final String baseUrl;
     
     // Enhanced error tracking
     private final Map<String, Integer> errorCounts = new HashMap<>();
@@ -66,14 +79,22 @@ public class EnhancedPlaidService {
 
     public EnhancedPlaidService(BankAccountRepository bankAccountRepository,
                                BankTransactionRepository bankTransactionRepository,
+                               CategorizationRuleBook categorizationRuleBook,
+                               InstitutionDirectory institutionDirectory,
+                               @Qualifier("plaidTaskExecutor") Executor plaidTaskExecutor,
                                @Value("${plaid.client-id}") String clientId,
                                @Value("${plaid.secret}") String secret,
-                               @Value("${plaid.environment:sandbox}") String environment) {
+                               @Value("${plaid.environment:sandbox}") String environment,
+                               @Value("${plaid.base-url:}") String baseUrl) {
         this.bankAccountRepository = bankAccountRepository;
         this.bankTransactionRepository = bankTransactionRepository;
+        this.categorizationRuleBook = categorizationRuleBook;
         this.clientId = clientId;
         this.secret = secret;
         this.environment = environment;
+        this.baseUrl = baseUrl;
+        this.institutionDirectory = institutionDirectory;
+        this.plaidTaskExecutor = plaidTaskExecutor;
         
         // Initialize enhanced Plaid client with retry configuration
         this.plaidClient = initializePlaidClient();
@@ -88,7 +109,14 @@ public class EnhancedPlaidService {
         apiKeys.put("secret", secret);
         
         ApiClient apiClient = new ApiClient(apiKeys);
+        apiClient.getOkBuilder().addInterceptor(new PlaidMetricsInterceptor());
         
+        // An explicit base URL (e.g. the local stub server) overrides the environment
+        if (baseUrl != null && !baseUrl.isBlank()) {
+            apiClient.setPlaidAdapter(baseUrl);
+            return apiClient.createService(PlaidApi.class);
+        }
+
         // Set environment with validation
         switch (environment.toLowerCase()) {
             case "sandbox":
@@ -160,8 +188,10 @@ public class EnhancedPlaidService {
             // Step 2: Get account information with retry
             AccountsGetResponse accountsResponse = getAccountsWithRetry(accessToken);
             
-            // Step 3: Get institution information
-            String institutionName = getInstitutionName(accessToken);
+            // Step 3: Resolve the institution named in the accounts response
+            Item item = accountsResponse.getItem();
+            String institutionName = institutionDirectory.name(
+                item != null ? item.getInstitutionId() : null, this::fetchInstitutionName);
             
             // Step 4: Create and save bank accounts
             List<BankAccount> bankAccounts = createBankAccounts(
@@ -181,7 +211,7 @@ public class EnhancedPlaidService {
      */
     @Async
     public CompletableFuture<Integer> syncTransactionsForAccountAsync(BankAccount bankAccount) {
-        return CompletableFuture.supplyAsync(() -> syncTransactionsForAccount(bankAccount));
+        return CompletableFuture.completedFuture(syncTransactionsForAccount(bankAccount));
     }
     
     /**
@@ -336,7 +366,7 @@ public class EnhancedPlaidService {
                 handleAuthWebhook(itemId);
                 break;
             default:
-                System.out.println("Unknown webhook type: " + webhookType);
+                log.atWarn().addKeyValue("webhookType", webhookType).log("Unknown webhook type");
         }
     }
     
@@ -371,8 +401,11 @@ public class EnhancedPlaidService {
     
     private void handleApiError(String operation, Response<?> response) {
         recordError(operation);
-        System.err.printf("Plaid API error for %s: %d - %s%n", 
-                         operation, response.code(), response.message());
+        log.atWarn()
+            .addKeyValue("operation", operation)
+            .addKeyValue("status", response.code())
+            .addKeyValue("message", response.message())
+            .log("Plaid API error");
     }
     
     private ItemPublicTokenExchangeResponse executeTokenExchange(String publicToken) throws IOException {
@@ -408,33 +441,22 @@ public class EnhancedPlaidService {
         return response.body();
     }
     
-    @Cacheable(value = "institutionNames", key = "#accessToken")
-    private String getInstitutionName(String accessToken) {
+    /**
+     * Name of the institution from Plaid, null if it cannot be looked up
+     */
+    private String fetchInstitutionName(String institutionId) {
         try {
-            ItemGetRequest itemRequest = new ItemGetRequest().accessToken(accessToken);
-            Response<ItemGetResponse> itemResponse = plaidClient.itemGet(itemRequest).execute();
-            
-            if (itemResponse.isSuccessful() && itemResponse.body() != null) {
-                String institutionId = itemResponse.body().getItem().getInstitutionId();
-                
-                if (institutionId != null) {
-                    InstitutionsGetByIdRequest instRequest = new InstitutionsGetByIdRequest()
-                        .institutionId(institutionId)
-                        .countryCodes(Arrays.asList(CountryCode.US));
-                    
-                    Response<InstitutionsGetByIdResponse> instResponse = 
-                        plaidClient.institutionsGetById(instRequest).execute();
-                    
-                    if (instResponse.isSuccessful() && instResponse.body() != null) {
-                        return instResponse.body().getInstitution().getName();
-                    }
-                }
+            InstitutionsGetByIdRequest request = new InstitutionsGetByIdRequest()
+                .institutionId(institutionId)
+                .countryCodes(Arrays.asList(CountryCode.US));
+            Response<InstitutionsGetByIdResponse> response = plaidClient.institutionsGetById(request).execute();
+            if (response.isSuccessful() && response.body() != null && response.body().getInstitution() != null) {
+                return response.body().getInstitution().getName();
             }
         } catch (IOException e) {
-            System.err.println("Error getting institution name: " + e.getMessage());
+            log.atWarn().addKeyValue("institutionId", institutionId).setCause(e).log("Error getting institution name");
         }
-        
-        return "Unknown Bank";
+        return null;
     }
     
     private List<BankAccount> createBankAccounts(List<AccountBase> accounts, String accessToken, 
@@ -463,16 +485,21 @@ public class EnhancedPlaidService {
     
     private int processTransactions(BankAccount bankAccount, List<Transaction> transactions) {
         int syncedCount = 0;
+        List<BankTransaction> stored = new ArrayList<>();
         
         for (Transaction transaction : transactions) {
             // Check if transaction already exists
             if (bankTransactionRepository.findByPlaidTransactionId(transaction.getTransactionId()).isEmpty()) {
                 BankTransaction bankTransaction = createBankTransaction(bankAccount, transaction);
-                bankTransactionRepository.save(bankTransaction);
+                stored.add(bankTransactionRepository.save(bankTransaction));
                 syncedCount++;
             }
         }
+        categorizationRuleBook.applyTags(stored);
         
+        BudgetMetrics.transactionsIngested("plaid", syncedCount);
+        BudgetMetrics.transactionsCategorized("auto", syncedCount);
+        BudgetMetrics.transactionsDeduped("plaid", transactions.size() - syncedCount);
         return syncedCount;
     }
     
@@ -502,6 +529,7 @@ public class EnhancedPlaidService {
         
         bankTransaction.setBudgetCategoryType(categorization[0]);
         bankTransaction.setBudgetCategory(categorization[1]);
+        categorizationRuleBook.apply(bankTransaction);
         bankTransaction.setCreatedAt(LocalDateTime.now());
         
         return bankTransaction;
@@ -596,43 +624,39 @@ public class EnhancedPlaidService {
     
     // Webhook handlers
     private void handleTransactionWebhook(String itemId) {
-        // Find accounts with this item ID and trigger sync
-        // Note: Assuming findByPlaidItemId returns a List, adjust if it returns Optional
+        // Find accounts with this item ID (of any user) and sync each as its user
         try {
-            List<BankAccount> accounts = bankAccountRepository.findAll().stream()
-                .filter(account -> itemId.equals(account.getPlaidItemId()))
-                .toList();
+            List<BankAccount> accounts = TenantContext.callAsSystem(() -> bankAccountRepository.findAllByPlaidItemId(itemId));
             
             for (BankAccount account : accounts) {
-                syncTransactionsForAccountAsync(account);
+                TenantContext.runAs(account.getUserId(),
+                    () -> plaidTaskExecutor.execute(() -> syncTransactionsForAccount(account)));
             }
         } catch (Exception e) {
-            System.err.println("Error handling transaction webhook: " + e.getMessage());
+            log.atError().addKeyValue("itemId", itemId).setCause(e).log("Error handling transaction webhook");
         }
     }
     
     private void handleItemWebhook(String itemId, String error) {
         // Handle item-level errors (expired tokens, etc.)
         try {
-            List<BankAccount> accounts = bankAccountRepository.findAll().stream()
-                .filter(account -> itemId.equals(account.getPlaidItemId()))
-                .toList();
-                
-            for (BankAccount account : accounts) {
-                // Update account status based on error
-                if (error != null && error.contains("ITEM_LOGIN_REQUIRED")) {
-                    // Mark account as requiring re-authentication
-                    account.setIsActive(false);
-                    bankAccountRepository.save(account);
+            TenantContext.runAsSystem(() -> {
+                for (BankAccount account : bankAccountRepository.findAllByPlaidItemId(itemId)) {
+                    // Update account status based on error
+                    if (error != null && error.contains("ITEM_LOGIN_REQUIRED")) {
+                        // Mark account as requiring re-authentication
+                        account.setIsActive(false);
+                        bankAccountRepository.save(account);
+                    }
                 }
-            }
+            });
         } catch (Exception e) {
-            System.err.println("Error handling item webhook: " + e.getMessage());
+            log.atError().addKeyValue("itemId", itemId).setCause(e).log("Error handling item webhook");
         }
     }
     
     private void handleAuthWebhook(String itemId) {
         // Handle authentication-related webhooks
-        System.out.println("Auth webhook received for item: " + itemId);
+        log.atInfo().addKeyValue("itemId", itemId).log("Auth webhook received");
     }
 }
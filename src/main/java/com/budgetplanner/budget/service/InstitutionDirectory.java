@@ -0,0 +1,143 @@
+package com.budgetplanner.budget.service;
+
+import com.budgetplanner.budget.metrics.BudgetMetrics;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Institution names by Plaid institution id, shared by the Plaid services.
+ *
+ * Names are kept for a TTL in a size-bounded Caffeine cache of futures, so concurrent misses for the same
+ * institution wait on one lookup instead of each calling Plaid. Failed lookups answer {@link #UNKNOWN} and
+ * are not kept (a future completed with null leaves the cache), so the next request tries again. With {@code plaid.institutions.snapshot-file} set, the directory starts
+ * warm from that file and writes its current names back on shutdown.
+ */
+@Component
+public class InstitutionDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(InstitutionDirectory.class);
+
+    public static final String UNKNOWN = "Unknown Bank";
+
+    private final String snapshotFile;
+    private final AsyncCache<String, String> names;
+
+    public InstitutionDirectory(@Value("${plaid.institutions.ttl-minutes:1440}") long ttlMinutes,
+                                @Value("${plaid.institutions.max-entries:1000}") int maxEntries,
+                                @Value("${plaid.institutions.snapshot-file:}") String snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        this.names = Caffeine.newBuilder()
+            .maximumSize(Math.max(1, maxEntries))
+            .expireAfterWrite(Duration.ofMinutes(Math.max(1, ttlMinutes)))
+            .buildAsync();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (snapshotFile == null || snapshotFile.isBlank()) {
+            return;
+        }
+        Path path = Path.of(snapshotFile);
+        if (!Files.isRegularFile(path)) {
+            log.atInfo().addKeyValue("file", path).log("No institution snapshot to preload");
+            return;
+        }
+        Properties snapshot = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            snapshot.load(reader);
+        } catch (IOException e) {
+            log.atWarn().addKeyValue("file", path).setCause(e).log("Could not read institution snapshot");
+            return;
+        }
+        Map<String, String> preloaded = new HashMap<>();
+        snapshot.stringPropertyNames().forEach(id -> preloaded.put(id, snapshot.getProperty(id)));
+        names.synchronous().putAll(preloaded);
+        log.atInfo().addKeyValue("file", path).addKeyValue("institutions", snapshot.size())
+            .log("Institution names preloaded");
+    }
+
+    /**
+     * Name of the institution, from the directory or else from {@code lookup}, which returns null when Plaid
+     * has no answer. A miss runs {@code lookup} on the cache's executor (the common pool); callers asking for
+     * the same id meanwhile share its result.
+     */
+    public String name(String institutionId, Function<String, String> lookup) {
+        if (institutionId == null || institutionId.isBlank()) {
+            return UNKNOWN;
+        }
+        CompletableFuture<String> name = names.getIfPresent(institutionId);
+        if (name != null) {
+            BudgetMetrics.institutionLookups(name.isDone() ? "hit" : "coalesced");
+        } else {
+            // Misses racing past getIfPresent still share the one future the cache installs
+            name = names.get(institutionId, id -> fetch(id, lookup));
+        }
+        return Objects.requireNonNullElse(name.join(), UNKNOWN);
+    }
+
+    public int size() {
+        names.synchronous().cleanUp();
+        return (int) names.synchronous().estimatedSize();
+    }
+
+    /**
+     * Writes the names currently held to the snapshot file, if one is configured
+     */
+    @PreDestroy
+    public void saveSnapshot() {
+        if (snapshotFile == null || snapshotFile.isBlank()) {
+            return;
+        }
+        Properties snapshot = new Properties();
+        names.synchronous().asMap().forEach(snapshot::setProperty);
+        Path path = Path.of(snapshotFile);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                snapshot.store(writer, "Plaid institution names by institution id");
+            }
+        } catch (IOException e) {
+            log.atWarn().addKeyValue("file", path).setCause(e).log("Could not write institution snapshot");
+        }
+    }
+
+    private String fetch(String institutionId, Function<String, String> lookup) {
+        String name;
+        try {
+            name = lookup.apply(institutionId);
+        } catch (RuntimeException e) {
+            log.atWarn().addKeyValue("institutionId", institutionId).setCause(e).log("Institution lookup failed");
+            name = null;
+        }
+        if (name == null || name.isBlank()) {
+            BudgetMetrics.institutionLookups("failed");
+            return null;
+        }
+        BudgetMetrics.institutionLookups("miss");
+        return name;
+    }
+}
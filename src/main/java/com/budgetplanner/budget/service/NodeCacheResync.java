@@ -0,0 +1,78 @@
+package com.budgetplanner.budget.service;
+
+import com.budgetplanner.budget.service.categorization.CategorizationRuleBook;
+import com.budgetplanner.budget.service.cluster.ClusterMembership;
+import com.budgetplanner.budget.service.notification.NotificationInbox;
+import com.budgetplanner.budget.service.notification.NotificationSettingsCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Periodic resync of the node-local caches that follow writes made on their own node.
+ *
+ * The pattern index, the bills timeline, the notification counts, the tag usage counts, the categorization
+ * rules and the notification settings are kept current by the writes and events of this node; bulk updates
+ * and the writes of other nodes sharing the database pass them by. Every node therefore reloads them on its
+ * own schedule, outside any job lock. A node alone in the cluster sees every write and skips the resync.
+ */
+@Service
+public class NodeCacheResync {
+
+    private static final Logger log = LoggerFactory.getLogger(NodeCacheResync.class);
+
+    private final ClusterMembership membership;
+    private final RecurringPatternIndex patternIndex;
+    private final UpcomingBillsTimeline upcomingBillsTimeline;
+    private final NotificationInbox notificationInbox;
+    private final TagDictionary tagDictionary;
+    private final CategorizationRuleBook ruleBook;
+    private final NotificationSettingsCache notificationSettings;
+
+    public NodeCacheResync(ClusterMembership membership,
+                           RecurringPatternIndex patternIndex,
+                           UpcomingBillsTimeline upcomingBillsTimeline,
+                           NotificationInbox notificationInbox,
+                           TagDictionary tagDictionary,
+                           CategorizationRuleBook ruleBook,
+                           NotificationSettingsCache notificationSettings) {
+        this.membership = membership;
+        this.patternIndex = patternIndex;
+        this.upcomingBillsTimeline = upcomingBillsTimeline;
+        this.notificationInbox = notificationInbox;
+        this.tagDictionary = tagDictionary;
+        this.ruleBook = ruleBook;
+        this.notificationSettings = notificationSettings;
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.local-resync-ms:900000}", initialDelayString = "${cluster.local-resync-ms:900000}")
+    public void resyncIfClustered() {
+        if (membership.getNodes().size() <= 1) {
+            return;
+        }
+        try {
+            resync();
+        } catch (Exception e) {
+            // The caches keep their current state until the next run
+            log.atError().addKeyValue("nodeId", membership.getNodeId()).setCause(e).log("Node cache resync failed");
+        }
+    }
+
+    /**
+     * Reloads every node-local cache from the database
+     */
+    public void resync() {
+        long startTime = System.currentTimeMillis();
+        patternIndex.rebuild();
+        upcomingBillsTimeline.rebuild();
+        notificationInbox.resync();
+        tagDictionary.resync();
+        ruleBook.resync();
+        notificationSettings.clear();
+        log.atInfo()
+            .addKeyValue("nodeId", membership.getNodeId())
+            .addKeyValue("durationMs", System.currentTimeMillis() - startTime)
+            .log("Node-local caches resynced");
+    }
+}
@@ -4,32 +4,48 @@ import com.budgetplanner.budget.model.NotificationPreference;
 import com.budgetplanner.budget.model.NotificationTemplate;
 import com.budgetplanner.budget.repository.NotificationPreferenceRepository;
 import com.budgetplanner.budget.repository.NotificationTemplateRepository;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.context.annotation.Bean;
+import com.budgetplanner.budget.startup.StartupInitializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Service to initialize default notification templates and preferences
  */
 @Service
-public class NotificationInitializerService {
-    
-    @Bean
-    public CommandLineRunner initializeNotificationData(
-            NotificationTemplateRepository templateRepository,
-            NotificationPreferenceRepository preferenceRepository) {
+public class NotificationInitializerService implements StartupInitializer {
+
+    public static final String NAME = "notification-defaults";
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationInitializerService.class);
+
+    private final NotificationTemplateRepository templateRepository;
+    private final NotificationPreferenceRepository preferenceRepository;
+
+    public NotificationInitializerService(NotificationTemplateRepository templateRepository,
+                                          NotificationPreferenceRepository preferenceRepository) {
+        this.templateRepository = templateRepository;
+        this.preferenceRepository = preferenceRepository;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize() {
+        // Create default templates if none exist
+        if (templateRepository.count() == 0) {
+            createDefaultTemplates(templateRepository);
+        }
         
-        return args -> {
-            // Create default templates if none exist
-            if (templateRepository.count() == 0) {
-                createDefaultTemplates(templateRepository);
-            }
-            
-            // Create default preferences for default user if none exist
-            if (preferenceRepository.count() == 0) {
-                createDefaultPreferences(preferenceRepository);
-            }
-        };
+        // Create default preferences for default user if none exist
+        if (preferenceRepository.count() == 0) {
+            createDefaultPreferences(preferenceRepository);
+        }
     }
     
     private void createDefaultTemplates(NotificationTemplateRepository repository) {
@@ -51,7 +67,6 @@ public class NotificationInitializerService {
         );
         aiInsight.setSmsBody("💡 AI Insight: {title}. {message}");
         aiInsight.setAvailablePlaceholders("{title}, {message}, {date}");
-        repository.save(aiInsight);
         
         // Budget Alert Template
         NotificationTemplate budgetAlert = new NotificationTemplate(
@@ -73,7 +88,6 @@ public class NotificationInitializerService {
         );
         budgetAlert.setSmsBody("⚠️ Budget Alert: {title}. {message}");
         budgetAlert.setAvailablePlaceholders("{title}, {message}, {date}");
-        repository.save(budgetAlert);
         
         // Savings Tip Template
         NotificationTemplate savingsTip = new NotificationTemplate(
@@ -95,7 +109,6 @@ public class NotificationInitializerService {
         );
         savingsTip.setSmsBody("💰 Savings Tip: {title}. {message}");
         savingsTip.setAvailablePlaceholders("{title}, {message}, {date}");
-        repository.save(savingsTip);
         
         // Recurring Reminder Template
         NotificationTemplate recurringReminder = new NotificationTemplate(
@@ -117,9 +130,9 @@ public class NotificationInitializerService {
         );
         recurringReminder.setSmsBody("🔔 Reminder: {title}. {message}");
         recurringReminder.setAvailablePlaceholders("{title}, {message}, {date}");
-        repository.save(recurringReminder);
-        
-        System.out.println("✅ Default notification templates created successfully!");
+
+        repository.saveAll(List.of(aiInsight, budgetAlert, savingsTip, recurringReminder));
+        log.info("Default notification templates created");
     }
     
     private void createDefaultPreferences(NotificationPreferenceRepository repository) {
@@ -135,6 +148,6 @@ public class NotificationInitializerService {
         
         repository.save(defaultPrefs);
         
-        System.out.println("✅ Default notification preferences created successfully!");
+        log.info("Default notification preferences created");
     }
 }
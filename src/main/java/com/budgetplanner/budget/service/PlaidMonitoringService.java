@@ -2,29 +2,50 @@ package com.budgetplanner.budget.service;
 
 import com.budgetplanner.budget.model.BankAccount;
 import com.budgetplanner.budget.repository.BankAccountRepository;
+import com.budgetplanner.budget.service.cluster.ClusterMembership;
+import com.budgetplanner.budget.service.cluster.JobLocks;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.budgetplanner.budget.service.SimplifiedEnhancedPlaidService;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * Service for monitoring Plaid connections and performing scheduled maintenance tasks
+ * Service for monitoring Plaid connections and performing scheduled maintenance tasks.
+ * The scheduled jobs cover every user's accounts (system tenant); each account's sync runs as its user.
+ * With several nodes, every node checks and syncs only its share of the accounts (see ClusterMembership)
+ * and the maintenance runs on one node (see JobLocks).
  */
 @Service
 public class PlaidMonitoringService {
 
+    private static final Logger log = LoggerFactory.getLogger(PlaidMonitoringService.class);
+
+    private static final String MAINTENANCE_LOCK = "plaid-maintenance";
+    private static final Duration MAINTENANCE_LOCK_AT_MOST = Duration.ofHours(1);
+
     private final SimplifiedEnhancedPlaidService enhancedPlaidService;
     private final BankAccountRepository bankAccountRepository;
+    private final ClusterMembership membership;
+    private final JobLocks jobLocks;
 
     public PlaidMonitoringService(SimplifiedEnhancedPlaidService enhancedPlaidService,
-                                 BankAccountRepository bankAccountRepository) {
+                                 BankAccountRepository bankAccountRepository,
+                                 ClusterMembership membership,
+                                 JobLocks jobLocks) {
         this.enhancedPlaidService = enhancedPlaidService;
         this.bankAccountRepository = bankAccountRepository;
+        this.membership = membership;
+        this.jobLocks = jobLocks;
     }
 
     /**
@@ -33,11 +54,20 @@ public class PlaidMonitoringService {
      */
     @Scheduled(fixedRate = 3600000) // Every hour
     public void monitorConnectionStatus() {
-        System.out.println("=== STARTING SCHEDULED CONNECTION MONITORING ===");
+        TenantContext.runAsSystem(this::monitorAllConnections);
+    }
+
+    private void monitorAllConnections() {
+        log.info("Starting scheduled connection monitoring");
+        long startTime = System.currentTimeMillis();
         
         try {
-            Map<Long, SimplifiedEnhancedPlaidService.ConnectionStatus> statuses = 
-                enhancedPlaidService.checkAllConnectionStatuses();
+            List<BankAccount> accounts = membership.ownShare(bankAccountRepository.findByIsActiveTrue(),
+                PlaidMonitoringService::shardKey);
+            Map<Long, SimplifiedEnhancedPlaidService.ConnectionStatus> statuses = new HashMap<>();
+            for (BankAccount account : accounts) {
+                statuses.put(account.getId(), enhancedPlaidService.checkConnectionStatus(account));
+            }
             
             int activeConnections = 0;
             int expiredConnections = 0;
@@ -66,15 +96,17 @@ public class PlaidMonitoringService {
                 }
             }
             
-            System.out.printf("Connection Status Summary: %d active, %d expired, %d errors%n",
-                             activeConnections, expiredConnections, errorConnections);
+            log.atInfo()
+                .addKeyValue("active", activeConnections)
+                .addKeyValue("expired", expiredConnections)
+                .addKeyValue("errors", errorConnections)
+                .addKeyValue("nodes", membership.getNodes().size())
+                .addKeyValue("durationMs", System.currentTimeMillis() - startTime)
+                .log("Connection monitoring complete");
             
         } catch (Exception e) {
-            System.err.println("Error during connection monitoring: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error during connection monitoring", e);
         }
-        
-        System.out.println("=== CONNECTION MONITORING COMPLETE ===\n");
     }
 
     /**
@@ -83,15 +115,21 @@ public class PlaidMonitoringService {
      */
     @Scheduled(fixedRate = 21600000) // Every 6 hours
     public void scheduledTransactionSync() {
-        System.out.println("=== STARTING SCHEDULED TRANSACTION SYNC ===");
+        long startTime = System.currentTimeMillis();
         
         try {
-            List<BankAccount> activeAccounts = bankAccountRepository.findByIsActiveTrue();
-            System.out.printf("Found %d active accounts for scheduled sync%n", activeAccounts.size());
+            // This node's share of the active accounts
+            List<BankAccount> activeAccounts = membership.ownShare(
+                TenantContext.callAsSystem(bankAccountRepository::findByIsActiveTrue), PlaidMonitoringService::shardKey);
+            log.atInfo()
+                .addKeyValue("accounts", activeAccounts.size())
+                .addKeyValue("nodes", membership.getNodes().size())
+                .log("Starting scheduled transaction sync");
             
-            // Process accounts in parallel for better performance
+            // Process accounts in parallel for better performance, each as the account's user
             List<CompletableFuture<Integer>> syncTasks = activeAccounts.stream()
-                .map(account -> enhancedPlaidService.syncTransactionsForAccountAsync(account))
+                .map(account -> TenantContext.callAs(account.getUserId(),
+                    () -> enhancedPlaidService.syncTransactionsForAccountAsync(account)))
                 .toList();
             
             // Wait for all sync tasks to complete
@@ -111,15 +149,15 @@ public class PlaidMonitoringService {
                 })
                 .sum();
             
-            System.out.printf("Scheduled sync complete: %d transactions synced across %d accounts%n",
-                             totalSynced, activeAccounts.size());
+            log.atInfo()
+                .addKeyValue("transactions", totalSynced)
+                .addKeyValue("accounts", activeAccounts.size())
+                .addKeyValue("durationMs", System.currentTimeMillis() - startTime)
+                .log("Scheduled transaction sync complete");
             
         } catch (Exception e) {
-            System.err.println("Error during scheduled transaction sync: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error during scheduled transaction sync", e);
         }
-        
-        System.out.println("=== SCHEDULED TRANSACTION SYNC COMPLETE ===\n");
     }
 
     /**
@@ -128,33 +166,37 @@ public class PlaidMonitoringService {
      */
     @Scheduled(cron = "0 0 2 * * ?") // Daily at 2 AM
     public void performMaintenance() {
-        System.out.println("=== STARTING SCHEDULED MAINTENANCE ===");
+        // One node does the housekeeping for all
+        if (!jobLocks.runLocked(MAINTENANCE_LOCK, MAINTENANCE_LOCK_AT_MOST, this::maintain)) {
+            log.debug("Scheduled maintenance runs on another node");
+        }
+    }
+
+    private void maintain() {
+        log.info("Starting scheduled maintenance");
         
         try {
             // Clean up old error logs
             cleanupErrorLogs();
             
             // Update account statistics
-            updateAccountStatistics();
+            TenantContext.runAsSystem(this::updateAccountStatistics);
             
             // Perform database maintenance
             performDatabaseMaintenance();
             
-            System.out.println("Scheduled maintenance completed successfully");
+            log.info("Scheduled maintenance completed successfully");
             
         } catch (Exception e) {
-            System.err.println("Error during scheduled maintenance: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error during scheduled maintenance", e);
         }
-        
-        System.out.println("=== SCHEDULED MAINTENANCE COMPLETE ===\n");
     }
 
     /**
      * On-demand health check for all bank connections
      */
     public Map<String, Object> performHealthCheck() {
-        System.out.println("Performing on-demand health check...");
+        log.info("Performing on-demand health check");
         
         List<BankAccount> allAccounts = bankAccountRepository.findAll();
         Map<Long, SimplifiedEnhancedPlaidService.ConnectionStatus> statuses = 
@@ -179,12 +221,15 @@ public class PlaidMonitoringService {
 
     // Private helper methods
 
+    private static String shardKey(BankAccount account) {
+        return String.valueOf(account.getId());
+    }
+
     private void handleExpiredConnection(Long accountId) {
         try {
             BankAccount account = bankAccountRepository.findById(accountId).orElse(null);
             if (account != null) {
-                System.out.printf("Handling expired connection for account: %s%n", 
-                                 account.getAccountName());
+                log.atInfo().addKeyValue("accountId", accountId).log("Handling expired connection");
                 
                 // Mark account as requiring re-authentication
                 account.setIsActive(false);
@@ -195,8 +240,7 @@ public class PlaidMonitoringService {
                 // notificationService.sendConnectionExpiredNotification(account);
             }
         } catch (Exception e) {
-            System.err.printf("Error handling expired connection for account %d: %s%n", 
-                             accountId, e.getMessage());
+            log.atError().addKeyValue("accountId", accountId).setCause(e).log("Error handling expired connection");
         }
     }
 
@@ -204,8 +248,7 @@ public class PlaidMonitoringService {
         try {
             BankAccount account = bankAccountRepository.findById(accountId).orElse(null);
             if (account != null) {
-                System.out.printf("Handling error connection for account: %s%n", 
-                                 account.getAccountName());
+                log.atInfo().addKeyValue("accountId", accountId).log("Handling error connection");
                 
                 // Temporarily deactivate account with error status
                 account.setIsActive(false);
@@ -215,8 +258,7 @@ public class PlaidMonitoringService {
                 // notificationService.sendConnectionErrorNotification(account, status);
             }
         } catch (Exception e) {
-            System.err.printf("Error handling error connection for account %d: %s%n", 
-                             accountId, e.getMessage());
+            log.atError().addKeyValue("accountId", accountId).setCause(e).log("Error handling error connection");
         }
     }
 
@@ -224,26 +266,25 @@ public class PlaidMonitoringService {
         try {
             BankAccount account = bankAccountRepository.findById(accountId).orElse(null);
             if (account != null) {
-                System.out.printf("Maintenance required for account: %s%n", account.getAccountName());
+                log.atInfo().addKeyValue("accountId", accountId).log("Maintenance required for account");
                 
                 // TODO: Send maintenance notification to user
                 // notificationService.sendMaintenanceRequiredNotification(account);
             }
         } catch (Exception e) {
-            System.err.printf("Error handling maintenance required for account %d: %s%n", 
-                             accountId, e.getMessage());
+            log.atError().addKeyValue("accountId", accountId).setCause(e).log("Error handling maintenance required");
         }
     }
 
     private void cleanupErrorLogs() {
         // Clean up old error logs and reset error counters
-        System.out.println("Cleaning up old error logs...");
+        log.debug("Cleaning up old error logs");
         // Implementation would depend on how error logs are stored
     }
 
     private void updateAccountStatistics() {
         // Update statistics for each account (transaction counts, last sync times, etc.)
-        System.out.println("Updating account statistics...");
+        log.debug("Updating account statistics");
         
         List<BankAccount> accounts = bankAccountRepository.findAll();
         for (BankAccount account : accounts) {
@@ -254,15 +295,14 @@ public class PlaidMonitoringService {
                     bankAccountRepository.save(account);
                 }
             } catch (Exception e) {
-                System.err.printf("Error updating statistics for account %d: %s%n", 
-                                 account.getId(), e.getMessage());
+                log.atError().addKeyValue("accountId", account.getId()).setCause(e).log("Error updating account statistics");
             }
         }
     }
 
     private void performDatabaseMaintenance() {
         // Perform database maintenance tasks like cleaning up old data
-        System.out.println("Performing database maintenance...");
+        log.debug("Performing database maintenance");
         
         // Example: Clean up transactions older than 2 years
         LocalDateTime cutoffDate = LocalDateTime.now().minusYears(2);
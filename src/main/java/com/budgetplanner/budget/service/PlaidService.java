@@ -1,13 +1,20 @@
 package com.budgetplanner.budget.service;
 
+import com.budgetplanner.budget.event.SyncCompletedEvent;
+import com.budgetplanner.budget.metrics.BudgetMetrics;
+import com.budgetplanner.budget.metrics.PlaidMetricsInterceptor;
 import com.budgetplanner.budget.model.BankAccount;
 import com.budgetplanner.budget.model.BankTransaction;
 import com.budgetplanner.budget.repository.BankAccountRepository;
 import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.service.categorization.CategorizationRuleBook;
 import com.plaid.client.ApiClient;
 import com.plaid.client.model.*;
 import com.plaid.client.request.PlaidApi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,12 +35,17 @@ import java.util.Arrays;
 @Transactional
 public class PlaidService {
 
+    private static final Logger log = LoggerFactory.getLogger(PlaidService.class);
+
     private final BankAccountRepository bankAccountRepository;
     private final BankTransactionRepository bankTransactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategorizationRuleBook categorizationRuleBook;
     private final PlaidApi plaidClient;
     private final String clientId;
     private final String secret;
     private final String environment;
+    private final String baseUrl;
     
     // Inner class for transaction templates
     private static class TransactionTemplate {
@@ -57,14 +69,20 @@ public class PlaidService {
 
     public PlaidService(BankAccountRepository bankAccountRepository,
                        BankTransactionRepository bankTransactionRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       CategorizationRuleBook categorizationRuleBook,
                        @Value("${plaid.client-id}") String clientId,
                        @Value("${plaid.secret}") String secret,
-                       @Value("${plaid.environment:sandbox}") String environment) {
+                       @Value("${plaid.environment:sandbox}") String environment,
+                       @Value("${plaid.base-url:}") String baseUrl) {
         this.bankAccountRepository = bankAccountRepository;
         this.bankTransactionRepository = bankTransactionRepository;
+        this.eventPublisher = eventPublisher;
+        this.categorizationRuleBook = categorizationRuleBook;
         this.clientId = clientId;
         this.secret = secret;
         this.environment = environment;
+        this.baseUrl = baseUrl;
         
         // Initialize Plaid client
         HashMap<String, String> apiKeys = new HashMap<>();
@@ -72,8 +90,11 @@ public class PlaidService {
         apiKeys.put("secret", secret);
         
         ApiClient apiClient = new ApiClient(apiKeys);
-        // Set environment - sandbox, development, or production
-        if ("sandbox".equalsIgnoreCase(environment)) {
+        apiClient.getOkBuilder().addInterceptor(new PlaidMetricsInterceptor());
+        // Set environment - sandbox, development, or production (or an explicit base URL, e.g. the stub server)
+        if (baseUrl != null && !baseUrl.isBlank()) {
+            apiClient.setPlaidAdapter(baseUrl);
+        } else if ("sandbox".equalsIgnoreCase(environment)) {
             apiClient.setPlaidAdapter(ApiClient.Sandbox);
         } else if ("development".equalsIgnoreCase(environment)) {
             apiClient.setPlaidAdapter(ApiClient.Development);
@@ -212,9 +233,8 @@ public class PlaidService {
      * Mock implementation - creates sample transactions
      */
     public void syncAllTransactions() {
-        System.out.println("=== STARTING TRANSACTION SYNC FOR ALL ACCOUNTS ===");
         List<BankAccount> activeAccounts = bankAccountRepository.findByIsActiveTrue();
-        System.out.println("Found " + activeAccounts.size() + " active bank accounts to sync");
+        log.atInfo().addKeyValue("accounts", activeAccounts.size()).log("Starting transaction sync for all accounts");
         
         int totalSyncedTransactions = 0;
         for (BankAccount account : activeAccounts) {
@@ -222,9 +242,10 @@ public class PlaidService {
             totalSyncedTransactions += accountTransactions;
         }
         
-        System.out.println("=== SYNC COMPLETE ===");
-        System.out.println("Total transactions synced across all accounts: " + totalSyncedTransactions);
-        System.out.println("======================");
+        log.atInfo()
+            .addKeyValue("accounts", activeAccounts.size())
+            .addKeyValue("transactions", totalSyncedTransactions)
+            .log("Transaction sync complete for all accounts");
     }
     
     /**
@@ -232,15 +253,12 @@ public class PlaidService {
      * @return number of transactions synced
      */
     public int syncTransactionsForAccount(BankAccount bankAccount) {
-        System.out.println("\n--- SYNCING TRANSACTIONS FOR ACCOUNT ---");
-        System.out.println("Account: " + bankAccount.getAccountName() + " (" + bankAccount.getAccountType() + ")");
-        System.out.println("Account ID: " + bankAccount.getId());
+        long startTime = System.currentTimeMillis();
         
         try {
             // Generate mock transactions for the last 30 days
             LocalDate endDate = LocalDate.now();
             LocalDate startDate = endDate.minusDays(30);
-            System.out.println("Generating transactions for date range: " + startDate + " to " + endDate);
             
             // Create realistic transaction data with proper categorization
             TransactionTemplate[] transactionTemplates = {
@@ -284,9 +302,15 @@ public class PlaidService {
             
             // Generate 15-25 transactions per account
             int numTransactions = 15 + random.nextInt(11); // 15-25 transactions
-            System.out.println("Generating " + numTransactions + " mock transactions...");
+            log.atDebug()
+                .addKeyValue("accountId", bankAccount.getId())
+                .addKeyValue("from", startDate)
+                .addKeyValue("to", endDate)
+                .addKeyValue("count", numTransactions)
+                .log("Generating mock transactions");
             
             int syncedCount = 0;
+            List<BankTransaction> stored = new ArrayList<>();
             for (int i = 0; i < numTransactions; i++) {
                 String transactionId = "mock_txn_" + bankAccount.getId() + "_" + i + "_" + System.currentTimeMillis();
                 
@@ -321,36 +345,46 @@ public class PlaidService {
                     );
                     bankTransaction.setBudgetCategoryType(categorization[0]);
                     bankTransaction.setBudgetCategory(categorization[1]);
+                    categorizationRuleBook.apply(bankTransaction);
                     
                     bankTransaction.setCreatedAt(LocalDateTime.now());
-                    bankTransactionRepository.save(bankTransaction);
+                    stored.add(bankTransactionRepository.save(bankTransaction));
                     
-                    // Log transaction details
-                    System.out.printf("  [%d/%d] %s: $%.2f - %s > %s (Date: %s)%n", 
-                        i + 1, numTransactions, 
-                        template.merchantName, 
-                        amount, 
-                        categorization[0], 
-                        categorization[1], 
-                        transactionDate);
+                    // Per-transaction detail only at TRACE, this loop is the sync hot path
+                    if (log.isTraceEnabled()) {
+                        log.atTrace()
+                            .addKeyValue("accountId", bankAccount.getId())
+                            .addKeyValue("merchant", template.merchantName)
+                            .addKeyValue("amount", amount)
+                            .addKeyValue("categoryType", categorization[0])
+                            .addKeyValue("category", categorization[1])
+                            .addKeyValue("date", transactionDate)
+                            .log("Stored mock transaction");
+                    }
                     
                     syncedCount++;
                 }
             }
+            categorizationRuleBook.applyTags(stored);
             
             // Update last sync time
             bankAccount.setLastSyncAt(LocalDateTime.now());
             bankAccountRepository.save(bankAccount);
             
-            System.out.println("Successfully synced " + syncedCount + " transactions for " + bankAccount.getAccountName());
-            System.out.println("Account last sync updated to: " + LocalDateTime.now());
-            System.out.println("--- SYNC COMPLETE FOR ACCOUNT ---\n");
+            log.atInfo()
+                .addKeyValue("accountId", bankAccount.getId())
+                .addKeyValue("transactions", syncedCount)
+                .addKeyValue("durationMs", System.currentTimeMillis() - startTime)
+                .log("Synced transactions for account");
             
+            BudgetMetrics.transactionsIngested("mock", syncedCount);
+            BudgetMetrics.transactionsCategorized("auto", syncedCount);
+            BudgetMetrics.transactionsDeduped("mock", numTransactions - syncedCount);
+            eventPublisher.publishEvent(new SyncCompletedEvent(bankAccount.getId(), syncedCount));
             return syncedCount;
             
         } catch (Exception e) {
-            System.err.println("ERROR syncing transactions for account: " + bankAccount.getAccountName() + ". Error: " + e.getMessage());
-            e.printStackTrace();
+            log.atError().addKeyValue("accountId", bankAccount.getId()).setCause(e).log("Error syncing transactions for account");
             return 0;
         }
     }
@@ -463,12 +497,15 @@ public class PlaidService {
             
             if (!response.isSuccessful()) {
                 // Log the error but still deactivate locally
-                System.err.println("Failed to remove item from Plaid: " + response.message());
+                log.atWarn()
+                    .addKeyValue("accountId", accountId)
+                    .addKeyValue("status", response.code())
+                    .log("Failed to remove item from Plaid: {}", response.message());
             }
             
         } catch (IOException e) {
             // Log the error but still deactivate locally
-            System.err.println("Error removing item from Plaid: " + e.getMessage());
+            log.atWarn().addKeyValue("accountId", accountId).setCause(e).log("Error removing item from Plaid");
         }
         
         // Deactivate the account locally
@@ -0,0 +1,204 @@
+package com.budgetplanner.budget.service;
+
+import com.budgetplanner.budget.event.RecurringPatternChangedEvent;
+import com.budgetplanner.budget.model.RecurringTransaction;
+import com.budgetplanner.budget.repository.RecurringTransactionRepository;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the active recurring patterns for matching incoming transactions.
+ *
+ * Patterns are bucketed by user and normalized merchant name, so a lookup only sees the patterns of the
+ * transaction's user however many users share a merchant. Within a bucket the amount intervals
+ * (amount +/- tolerance) are kept sorted by lower bound, so a match is one hash lookup plus a range
+ * probe over the intervals that can still contain the amount.
+ *
+ * Built from the database (every user's patterns) when the application is ready. After that every committed save of a pattern
+ * (create, update, pause, resume, deactivate) updates its entry through {@link RecurringPatternChangedEvent}.
+ * Writes are serialized; a lookup only locks its merchant's bucket. A rebuild fills fresh maps and
+ * publishes them in one swap, so a concurrent lookup sees the old index or the new one, never a partial one.
+ */
+@Component
+public class RecurringPatternIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringPatternIndex.class);
+
+    private final RecurringTransactionRepository recurringTransactionRepository;
+
+    private volatile Map<String, MerchantBucket> buckets = new ConcurrentHashMap<>();
+    // Current entry of each indexed pattern, to find its old bucket when the pattern changes; guarded by this
+    private Map<Long, Entry> entriesById = new HashMap<>();
+
+    public RecurringPatternIndex(RecurringTransactionRepository recurringTransactionRepository) {
+        this.recurringTransactionRepository = recurringTransactionRepository;
+    }
+
+    /**
+     * Normalize merchant name for grouping and matching
+     */
+    public static String merchantKey(String merchantName) {
+        if (merchantName == null) {
+            return "Unknown";
+        }
+
+        return merchantName.trim()
+            .replaceAll("\\s+", " ")
+            .replaceAll("[^a-zA-Z0-9\\s]", "")
+            .toLowerCase();
+    }
+
+    /**
+     * Reloads every active pattern from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<RecurringTransaction> patterns = TenantContext.callAsSystem(() -> recurringTransactionRepository
+            .findByIsActiveTrueAndStatusOrderByNextExpectedDateAsc(RecurringTransaction.RecurringStatus.ACTIVE));
+        Map<String, MerchantBucket> freshBuckets = new ConcurrentHashMap<>();
+        Map<Long, Entry> freshEntries = new HashMap<>();
+        for (RecurringTransaction pattern : patterns) {
+            add(freshBuckets, freshEntries, pattern.getId(), pattern.getUserId(), pattern.getMerchantName(),
+                pattern.getAmount(), pattern.getAmountTolerance());
+        }
+        entriesById = freshEntries;
+        buckets = freshBuckets;
+        log.atInfo().addKeyValue("patterns", freshEntries.size()).log("Built recurring pattern index");
+    }
+
+    /**
+     * Runs after the writing transaction commits, so rolled-back changes never reach the index
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPatternChanged(RecurringPatternChangedEvent event) {
+        if (event.getPatternId() == null) {
+            return;
+        }
+        remove(event.getPatternId());
+        if (event.isActive() && event.getStatus() == RecurringTransaction.RecurringStatus.ACTIVE) {
+            add(buckets, entriesById, event.getPatternId(), event.getUserId(), event.getMerchantName(),
+                event.getAmount(), event.getAmountTolerance());
+        }
+    }
+
+    /**
+     * Ids of the user's active patterns of this merchant whose amount interval contains {@code amount}
+     */
+    public List<Long> findMatches(String userId, String merchantName, Double amount) {
+        if (amount == null) {
+            return List.of();
+        }
+        MerchantBucket bucket = buckets.get(bucketKey(userId, merchantKey(merchantName)));
+        return bucket != null ? bucket.matches(amount) : List.of();
+    }
+
+    public int size() {
+        return buckets.values().stream().mapToInt(MerchantBucket::size).sum();
+    }
+
+    private static String bucketKey(String userId, String merchantKey) {
+        return userId + '\u0000' + merchantKey;
+    }
+
+    private static void add(Map<String, MerchantBucket> buckets, Map<Long, Entry> entriesById, Long id,
+                            String userId, String merchantName, Double amount, Double amountTolerance) {
+        if (id == null || amount == null) {
+            return;
+        }
+        double tolerance = RecurringTransaction.toleranceOf(amount, amountTolerance);
+        Entry entry = new Entry(id, bucketKey(userId, merchantKey(merchantName)), amount - tolerance, amount + tolerance);
+        entriesById.put(id, entry);
+        buckets.computeIfAbsent(entry.bucketKey, key -> new MerchantBucket()).add(entry);
+    }
+
+    private void remove(Long id) {
+        Entry entry = entriesById.remove(id);
+        if (entry == null) {
+            return;
+        }
+        Map<String, MerchantBucket> current = buckets;
+        MerchantBucket bucket = current.get(entry.bucketKey);
+        if (bucket != null && bucket.remove(entry)) {
+            current.remove(entry.bucketKey, bucket);
+        }
+    }
+
+    private static class Entry {
+        final Long id;
+        final String bucketKey;
+        final double lowerBound;
+        final double upperBound;
+
+        Entry(Long id, String bucketKey, double lowerBound, double upperBound) {
+            this.id = id;
+            this.bucketKey = bucketKey;
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+        }
+    }
+
+    /**
+     * Amount intervals of one merchant, keyed by lower bound. Tracking the widest interval bounds the
+     * probe: only intervals starting in [amount - maxWidth, amount] can contain the amount.
+     */
+    private static class MerchantBucket {
+        private final NavigableMap<Double, List<Entry>> byLowerBound = new TreeMap<>();
+        private double maxWidth;
+        private int size;
+
+        synchronized void add(Entry entry) {
+            byLowerBound.computeIfAbsent(entry.lowerBound, bound -> new ArrayList<>(1)).add(entry);
+            maxWidth = Math.max(maxWidth, entry.upperBound - entry.lowerBound);
+            size++;
+        }
+
+        /**
+         * Returns true when the bucket is empty afterwards
+         */
+        synchronized boolean remove(Entry entry) {
+            List<Entry> entries = byLowerBound.get(entry.lowerBound);
+            if (entries != null && entries.remove(entry)) {
+                if (entries.isEmpty()) {
+                    byLowerBound.remove(entry.lowerBound);
+                }
+                size--;
+                maxWidth = 0;
+                for (List<Entry> remaining : byLowerBound.values()) {
+                    for (Entry e : remaining) {
+                        maxWidth = Math.max(maxWidth, e.upperBound - e.lowerBound);
+                    }
+                }
+            }
+            return size == 0;
+        }
+
+        synchronized List<Long> matches(double amount) {
+            List<Long> ids = new ArrayList<>(1);
+            for (List<Entry> entries : byLowerBound.subMap(amount - maxWidth, true, amount, true).values()) {
+                for (Entry entry : entries) {
+                    if (amount <= entry.upperBound) {
+                        ids.add(entry.id);
+                    }
+                }
+            }
+            return ids;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+    }
+}
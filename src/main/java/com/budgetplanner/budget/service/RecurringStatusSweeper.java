@@ -0,0 +1,147 @@
+package com.budgetplanner.budget.service;
+
+import com.budgetplanner.budget.model.RecurringTransaction.RecurringStatus;
+import com.budgetplanner.budget.repository.RecurringTransactionRepository;
+import com.budgetplanner.budget.service.cluster.JobLocks;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Daily status sweep of the recurring patterns, done in the database with set-based UPDATEs.
+ *
+ * Rules (per pattern, with its own interval): an ACTIVE pattern whose last occurrence is more than three
+ * intervals ago is ENDED; otherwise, one whose expected date is past the 3-day grace period and more than
+ * two intervals ago is IRREGULAR. Patterns without an interval are left alone.
+ *
+ * The id range of the active patterns is swept in chunks, each statement in its own short transaction.
+ * Bulk updates skip the entity events, so the pattern index and the bills timeline are rebuilt afterwards.
+ * With several nodes the scheduled sweep runs on one of them (see JobLocks). That node rebuilds its caches
+ * once the lock is released; the other nodes pick the changes up with their {@link NodeCacheResync}.
+ */
+@Service
+public class RecurringStatusSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringStatusSweeper.class);
+
+    // Same grace period as RecurringTransaction.isOverdue
+    private static final int OVERDUE_GRACE_DAYS = 3;
+
+    private static final String SWEEP_LOCK = "recurring-status-sweep";
+    private static final Duration SWEEP_LOCK_AT_MOST = Duration.ofMinutes(30);
+
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final RecurringPatternIndex patternIndex;
+    private final UpcomingBillsTimeline upcomingBillsTimeline;
+    private final JobLocks jobLocks;
+    private final int chunkSize;
+
+    public RecurringStatusSweeper(RecurringTransactionRepository recurringTransactionRepository,
+                                  RecurringPatternIndex patternIndex,
+                                  UpcomingBillsTimeline upcomingBillsTimeline,
+                                  JobLocks jobLocks,
+                                  @Value("${recurring.status-sweep.chunk-size:5000}") int chunkSize) {
+        this.recurringTransactionRepository = recurringTransactionRepository;
+        this.patternIndex = patternIndex;
+        this.upcomingBillsTimeline = upcomingBillsTimeline;
+        this.jobLocks = jobLocks;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Scheduled task to update recurring transaction statuses
+     */
+    @Scheduled(cron = "${recurring.status-sweep.cron:0 0 6 * * ?}") // Daily at 6 AM
+    public void updateRecurringTransactionStatuses() {
+        try {
+            AtomicReference<SweepResult> result = new AtomicReference<>();
+            jobLocks.runLocked(SWEEP_LOCK, SWEEP_LOCK_AT_MOST,
+                () -> result.set(TenantContext.callAsSystem(() -> sweepAllUsers(LocalDate.now()))));
+            // Node-local caches, rebuilt without holding the cluster-wide lock
+            if (result.get() != null && result.get().getUpdated() > 0) {
+                rebuildLocalCaches();
+            }
+        } catch (Exception e) {
+            log.atError().setCause(e).log("Error updating recurring transaction statuses");
+        }
+    }
+
+    /**
+     * Applies the status rules as of {@code today} to every user's patterns
+     */
+    public SweepResult sweep(LocalDate today) {
+        SweepResult result = TenantContext.callAsSystem(() -> sweepAllUsers(today));
+        if (result.getUpdated() > 0) {
+            rebuildLocalCaches();
+        }
+        return result;
+    }
+
+    private void rebuildLocalCaches() {
+        patternIndex.rebuild();
+        upcomingBillsTimeline.rebuild();
+    }
+
+    private SweepResult sweepAllUsers(LocalDate today) {
+        long startTime = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate graceCutoff = today.minusDays(OVERDUE_GRACE_DAYS);
+
+        int ended = 0;
+        int irregular = 0;
+        int chunks = 0;
+        List<Object[]> range = recurringTransactionRepository.findActiveIdRange();
+        if (!range.isEmpty() && range.get(0)[0] != null) {
+            long minId = ((Number) range.get(0)[0]).longValue();
+            long maxId = ((Number) range.get(0)[1]).longValue();
+
+            for (long fromId = minId; fromId <= maxId; fromId += chunkSize) {
+                long toId = Math.min(maxId, fromId + chunkSize - 1);
+                // ENDED first: a pattern meeting both rules ends up ENDED, as in the per-row rules
+                ended += recurringTransactionRepository.markEndedInIdRange(
+                    fromId, toId, today, now, RecurringStatus.ACTIVE, RecurringStatus.ENDED);
+                irregular += recurringTransactionRepository.markIrregularInIdRange(
+                    fromId, toId, today, graceCutoff, now, RecurringStatus.ACTIVE, RecurringStatus.IRREGULAR);
+                chunks++;
+            }
+        }
+
+        SweepResult result = new SweepResult(ended, irregular, System.currentTimeMillis() - startTime);
+        log.atInfo()
+            .addKeyValue("ended", ended)
+            .addKeyValue("irregular", irregular)
+            .addKeyValue("chunks", chunks)
+            .addKeyValue("durationMs", result.getDurationMs())
+            .log("Updated recurring transaction statuses");
+        return result;
+    }
+
+    /**
+     * Rows changed by one sweep and how long it took
+     */
+    public static class SweepResult {
+        private final int ended;
+        private final int irregular;
+        private final long durationMs;
+
+        public SweepResult(int ended, int irregular, long durationMs) {
+            this.ended = ended;
+            this.irregular = irregular;
+            this.durationMs = durationMs;
+        }
+
+        public int getEnded() { return ended; }
+        public int getIrregular() { return irregular; }
+        public int getUpdated() { return ended + irregular; }
+        public long getDurationMs() { return durationMs; }
+    }
+}
@@ -1,27 +1,42 @@
 package com.budgetplanner.budget.service;
 
+import com.budgetplanner.budget.StartupTransactionResetRunner;
 import com.budgetplanner.budget.model.RecurringTransaction;
 import com.budgetplanner.budget.repository.RecurringTransactionRepository;
+import com.budgetplanner.budget.startup.StartupInitializer;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Initializes sample recurring transaction data for demonstration
  */
 @Component
-public class RecurringTransactionDataInitializer implements CommandLineRunner {
+public class RecurringTransactionDataInitializer implements StartupInitializer {
 
     @Autowired
     private RecurringTransactionRepository recurringTransactionRepository;
 
     @Override
-    public void run(String... args) throws Exception {
+    public String name() {
+        return "recurring-samples";
+    }
+
+    /**
+     * The reset empties the recurring patterns, so sample patterns go in after it
+     */
+    @Override
+    public Set<String> dependsOn() {
+        return Set.of(StartupTransactionResetRunner.NAME);
+    }
+
+    @Override
+    public void initialize() {
         // Demo seeding disabled: keep recurring-transactions empty on startup
         // If you want demo data again, re-enable the call below.
         // if (recurringTransactionRepository.count() == 0) {
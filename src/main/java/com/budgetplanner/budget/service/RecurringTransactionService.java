@@ -1,13 +1,18 @@
 package com.budgetplanner.budget.service;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
 import com.budgetplanner.budget.model.BankTransaction;
 import com.budgetplanner.budget.model.RecurringTransaction;
 import com.budgetplanner.budget.repository.BankTransactionRepository;
 import com.budgetplanner.budget.repository.RecurringTransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -15,6 +20,8 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 /**
@@ -24,8 +31,14 @@ import java.util.stream.Collectors;
 @Transactional
 public class RecurringTransactionService {
 
+    private static final Logger log = LoggerFactory.getLogger(RecurringTransactionService.class);
+
     private final RecurringTransactionRepository recurringTransactionRepository;
     private final BankTransactionRepository bankTransactionRepository;
+    private final RecurringPatternIndex patternIndex;
+    private final UpcomingBillsTimeline upcomingBillsTimeline;
+    // Bounded pool for the detection compute phase, separate from the common pool
+    private final ForkJoinPool detectionPool;
 
     // Configuration constants
     private static final int MIN_OCCURRENCES_FOR_DETECTION = 2;
@@ -35,17 +48,31 @@ public class RecurringTransactionService {
 
     @Autowired
     public RecurringTransactionService(RecurringTransactionRepository recurringTransactionRepository,
-                                     BankTransactionRepository bankTransactionRepository) {
+                                     BankTransactionRepository bankTransactionRepository,
+                                     RecurringPatternIndex patternIndex,
+                                     UpcomingBillsTimeline upcomingBillsTimeline,
+                                     @Value("${recurring.detection.parallelism:0}") int parallelism) {
         this.recurringTransactionRepository = recurringTransactionRepository;
         this.bankTransactionRepository = bankTransactionRepository;
+        this.patternIndex = patternIndex;
+        this.upcomingBillsTimeline = upcomingBillsTimeline;
+        this.detectionPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdownDetectionPool() {
+        detectionPool.shutdown();
     }
 
     /**
-     * Analyze all transactions to detect recurring patterns
+     * Analyze all transactions to detect recurring patterns.
+     * Detection runs without a transaction in parallel across merchants, the results are then stored
+     * in one batched write.
      */
     @Async
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CompletableFuture<Integer> analyzeAllTransactionsForRecurringPatterns() {
-        System.out.println("=== STARTING RECURRING TRANSACTION ANALYSIS ===");
+        long startTime = System.currentTimeMillis();
         
         try {
             // Get all transactions from the last 12 months
@@ -53,40 +80,94 @@ public class RecurringTransactionService {
             List<BankTransaction> transactions = bankTransactionRepository
                 .findByCreatedAtAfterOrderByTransactionDateAsc(twelveMonthsAgo);
             
-            System.out.printf("Analyzing %d transactions for recurring patterns...%n", transactions.size());
+            log.atInfo().addKeyValue("transactions", transactions.size()).log("Starting recurring transaction analysis");
             
-            int detectedPatterns = 0;
+            List<RecurringTransaction> detected = BudgetMetrics.timeRecurringDetection(
+                () -> detectAllRecurringPatterns(transactions));
+            int detectedPatterns = detected.size();
             
-            // Group transactions by merchant name for initial analysis
-            Map<String, List<BankTransaction>> transactionsByMerchant = transactions.stream()
-                .collect(Collectors.groupingBy(
-                    transaction -> normalizedMerchantName(transaction.getMerchantName())
-                ));
+            int stored = saveDetectedPatterns(detected).size();
             
-            for (Map.Entry<String, List<BankTransaction>> entry : transactionsByMerchant.entrySet()) {
-                String merchantName = entry.getKey();
-                List<BankTransaction> merchantTransactions = entry.getValue();
-                
-                if (merchantTransactions.size() >= MIN_OCCURRENCES_FOR_DETECTION) {
-                    List<RecurringTransaction> patterns = detectRecurringPatterns(merchantName, merchantTransactions);
-                    detectedPatterns += patterns.size();
-                    
-                    for (RecurringTransaction pattern : patterns) {
-                        saveOrUpdateRecurringTransaction(pattern);
-                    }
-                }
-            }
-            
-            System.out.printf("Recurring transaction analysis complete: %d patterns detected%n", detectedPatterns);
+            log.atInfo()
+                .addKeyValue("patterns", detectedPatterns)
+                .addKeyValue("stored", stored)
+                .addKeyValue("parallelism", detectionPool.getParallelism())
+                .addKeyValue("durationMs", System.currentTimeMillis() - startTime)
+                .log("Recurring transaction analysis complete");
             return CompletableFuture.completedFuture(detectedPatterns);
             
         } catch (Exception e) {
-            System.err.println("Error during recurring transaction analysis: " + e.getMessage());
-            e.printStackTrace();
+            log.atError().setCause(e).log("Error during recurring transaction analysis");
             return CompletableFuture.completedFuture(0);
         }
     }
 
+    /**
+     * Compute phase of the full analysis: groups by merchant and detects each group's patterns in parallel
+     * on the detection pool. Pure computation, nothing is read from or written to the database.
+     */
+    public List<RecurringTransaction> detectAllRecurringPatterns(List<BankTransaction> transactions) {
+        // Group transactions by merchant name for initial analysis
+        Map<String, List<BankTransaction>> transactionsByMerchant = transactions.stream()
+            .collect(Collectors.groupingBy(
+                transaction -> RecurringPatternIndex.merchantKey(transaction.getMerchantName())
+            ));
+
+        List<ForkJoinTask<List<RecurringTransaction>>> tasks = new ArrayList<>();
+        for (Map.Entry<String, List<BankTransaction>> entry : transactionsByMerchant.entrySet()) {
+            if (entry.getValue().size() >= MIN_OCCURRENCES_FOR_DETECTION) {
+                // Merchant groups are independent, each task sorts and analyzes only its own list
+                tasks.add(detectionPool.submit(() -> detectRecurringPatterns(entry.getKey(), entry.getValue())));
+            }
+        }
+
+        List<RecurringTransaction> patterns = new ArrayList<>();
+        for (ForkJoinTask<List<RecurringTransaction>> task : tasks) {
+            patterns.addAll(task.join());
+        }
+        return patterns;
+    }
+
+    /**
+     * Persistence phase of the full analysis: merges detected patterns into the existing ones
+     * (same rules as {@link #saveOrUpdateRecurringTransaction}) with one read and one batched save.
+     */
+    public List<RecurringTransaction> saveDetectedPatterns(List<RecurringTransaction> detected) {
+        if (detected.isEmpty()) {
+            return detected;
+        }
+
+        Map<String, List<RecurringTransaction>> activeByMerchant = new HashMap<>();
+        for (RecurringTransaction pattern : recurringTransactionRepository.findByIsActiveTrueOrderByMerchantNameAsc()) {
+            activeByMerchant.computeIfAbsent(lowerCase(pattern.getMerchantName()), merchant -> new ArrayList<>()).add(pattern);
+        }
+
+        // Identity-based so a pattern updated twice in one run is saved once
+        Set<RecurringTransaction> toSave = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (RecurringTransaction pattern : detected) {
+            List<RecurringTransaction> candidates = activeByMerchant
+                .computeIfAbsent(lowerCase(pattern.getMerchantName()), merchant -> new ArrayList<>());
+            RecurringTransaction existing = null;
+            for (RecurringTransaction candidate : candidates) {
+                if (candidate.isAmountWithinTolerance(pattern.getAmount())) {
+                    existing = candidate;
+                    break;
+                }
+            }
+
+            if (existing != null) {
+                updateExistingPattern(existing, pattern);
+                toSave.add(existing);
+            } else {
+                // Later patterns of this run may match it, like the per-pattern save did
+                candidates.add(pattern);
+                toSave.add(pattern);
+            }
+        }
+
+        return recurringTransactionRepository.saveAll(toSave);
+    }
+
     /**
      * Detect recurring patterns for a specific merchant
      */
@@ -293,22 +374,11 @@ public class RecurringTransactionService {
             return false;
         }
         
-        double tolerance = Math.abs(amount1) * (tolerancePercent / 100.0);
-        return Math.abs(amount1 - amount2) <= tolerance;
+        return Math.abs(amount1 - amount2) <= RecurringTransaction.toleranceOf(amount1, tolerancePercent);
     }
 
-    /**
-     * Normalize merchant name for grouping
-     */
-    private String normalizedMerchantName(String merchantName) {
-        if (merchantName == null) {
-            return "Unknown";
-        }
-        
-        return merchantName.trim()
-            .replaceAll("\\s+", " ")
-            .replaceAll("[^a-zA-Z0-9\\s]", "")
-            .toLowerCase();
+    private String lowerCase(String merchantName) {
+        return merchantName != null ? merchantName.toLowerCase() : "";
     }
 
     /**
@@ -360,13 +430,17 @@ public class RecurringTransactionService {
     }
 
     /**
-     * Check if a new transaction matches any existing recurring patterns
+     * Check if a new transaction matches any existing recurring patterns.
+     * Probes the in-memory pattern index and only reads the matched patterns by id.
      */
     public List<RecurringTransaction> findMatchingRecurringPatterns(BankTransaction transaction) {
-        String merchantName = normalizedMerchantName(transaction.getMerchantName());
-        Double amount = transaction.getAmount();
+        List<Long> matchIds = patternIndex.findMatches(transaction.getUserId(), transaction.getMerchantName(),
+            transaction.getAmount());
+        if (matchIds.isEmpty()) {
+            return List.of();
+        }
         
-        return recurringTransactionRepository.findPotentialMatches(merchantName, amount);
+        return recurringTransactionRepository.findAllById(matchIds);
     }
 
     /**
@@ -399,19 +473,41 @@ public class RecurringTransactionService {
     }
 
     /**
-     * Get recurring transactions due soon
+     * Get recurring transactions with an occurrence due within the given number of days
+     * (business-day adjusted, from the upcoming bills timeline)
      */
     public List<RecurringTransaction> getTransactionsDueSoon(int days) {
         LocalDate today = LocalDate.now();
         LocalDate endDate = today.plusDays(days);
-        return recurringTransactionRepository.findTransactionsDueSoon(today, endDate);
+        return findAllInOrder(upcomingBillsTimeline.patternsDueBetween(today, endDate));
     }
 
     /**
-     * Get overdue recurring transactions
+     * Get overdue recurring transactions (business-day adjusted, from the upcoming bills timeline)
      */
     public List<RecurringTransaction> getOverdueTransactions() {
-        return recurringTransactionRepository.findOverdueTransactions(LocalDate.now());
+        return findAllInOrder(upcomingBillsTimeline.patternsOverdueAsOf(LocalDate.now()));
+    }
+
+    /**
+     * Loads patterns by id, keeping the order of the ids
+     */
+    private List<RecurringTransaction> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, RecurringTransaction> byId = new HashMap<>();
+        for (RecurringTransaction transaction : recurringTransactionRepository.findAllById(ids)) {
+            byId.put(transaction.getId(), transaction);
+        }
+        List<RecurringTransaction> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            RecurringTransaction transaction = byId.get(id);
+            if (transaction != null) {
+                ordered.add(transaction);
+            }
+        }
+        return ordered;
     }
 
     /**
@@ -422,19 +518,11 @@ public class RecurringTransactionService {
     }
 
     /**
-     * Get monthly totals by category
+     * Get monthly totals by category: the occurrences actually forecast for the coming month
      */
     public Map<String, Double> getMonthlyTotalsByCategory() {
-        List<Object[]> results = recurringTransactionRepository.getMonthlyTotalsByCategory();
-        Map<String, Double> totals = new HashMap<>();
-        
-        for (Object[] result : results) {
-            String category = (String) result[0];
-            Double total = (Double) result[1];
-            totals.put(category, total);
-        }
-        
-        return totals;
+        LocalDate today = LocalDate.now();
+        return upcomingBillsTimeline.projectedTotalsByCategory(today, today.plusMonths(1));
     }
 
     /**
@@ -467,57 +555,42 @@ public class RecurringTransactionService {
     }
 
     /**
-     * Scheduled task to update recurring transaction statuses
+     * Change the status of a recurring transaction, e.g. pause or resume it
      */
-    @Scheduled(cron = "0 0 6 * * ?") // Daily at 6 AM
-    public void updateRecurringTransactionStatuses() {
-        System.out.println("=== UPDATING RECURRING TRANSACTION STATUSES ===");
+    public RecurringTransaction updateRecurringTransactionStatus(Long id, RecurringTransaction.RecurringStatus status) {
+        RecurringTransaction transaction = recurringTransactionRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Recurring transaction not found with id: " + id));
         
-        try {
-            List<RecurringTransaction> activeTransactions = recurringTransactionRepository
-                .findByIsActiveTrueAndStatusOrderByNextExpectedDateAsc(RecurringTransaction.RecurringStatus.ACTIVE);
-            
-            int updatedCount = 0;
-            LocalDate today = LocalDate.now();
-            
-            for (RecurringTransaction transaction : activeTransactions) {
-                boolean updated = false;
-                
-                // Check if transaction is overdue
-                if (transaction.isOverdue()) {
-                    // Mark as irregular if significantly overdue
-                    LocalDate expectedDate = transaction.getNextExpectedDate();
-                    long daysOverdue = ChronoUnit.DAYS.between(expectedDate, today);
-                    
-                    if (daysOverdue > transaction.getIntervalDays() * 2) {
-                        transaction.setStatus(RecurringTransaction.RecurringStatus.IRREGULAR);
-                        updated = true;
-                    }
-                }
-                
-                // Check if transaction hasn't occurred in a very long time (potentially ended)
-                if (transaction.getLastOccurrence() != null) {
-                    long daysSinceLastOccurrence = ChronoUnit.DAYS.between(
-                        transaction.getLastOccurrence(), today);
-                    
-                    if (daysSinceLastOccurrence > transaction.getIntervalDays() * 3) {
-                        transaction.setStatus(RecurringTransaction.RecurringStatus.ENDED);
-                        updated = true;
-                    }
-                }
-                
-                if (updated) {
-                    recurringTransactionRepository.save(transaction);
-                    updatedCount++;
-                }
-            }
-            
-            System.out.printf("Updated status for %d recurring transactions%n", updatedCount);
-            
-        } catch (Exception e) {
-            System.err.println("Error updating recurring transaction statuses: " + e.getMessage());
-            e.printStackTrace();
+        transaction.setStatus(status);
+        transaction.setUpdatedAt(LocalDateTime.now());
+        return recurringTransactionRepository.save(transaction);
+    }
+
+    /**
+     * Mark a recurring transaction as confirmed by the user
+     */
+    public RecurringTransaction confirmRecurringTransaction(Long id) {
+        RecurringTransaction transaction = recurringTransactionRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Recurring transaction not found with id: " + id));
+        
+        transaction.setUserConfirmed(true);
+        if (transaction.getStatus() == RecurringTransaction.RecurringStatus.PENDING_CONFIRMATION) {
+            transaction.setStatus(RecurringTransaction.RecurringStatus.ACTIVE);
         }
+        transaction.setUpdatedAt(LocalDateTime.now());
+        return recurringTransactionRepository.save(transaction);
+    }
+
+    /**
+     * Deactivate a recurring transaction; the row stays for history but no longer matches or shows
+     */
+    public RecurringTransaction deactivateRecurringTransaction(Long id) {
+        RecurringTransaction transaction = recurringTransactionRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Recurring transaction not found with id: " + id));
+        
+        transaction.setIsActive(false);
+        transaction.setUpdatedAt(LocalDateTime.now());
+        return recurringTransactionRepository.save(transaction);
     }
 
     // Helper classes
@@ -1,7 +1,9 @@
 package com.budgetplanner.budget.service;
 
+import com.budgetplanner.budget.config.EnhancedPlaidConfig;
 import com.budgetplanner.budget.model.SavingsGoal;
 import com.budgetplanner.budget.repository.SavingsGoalRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -46,6 +48,7 @@ public class SavingsGoalService {
     /**
      * Create a new savings goal
      */
+    @CacheEvict(cacheNames = EnhancedPlaidConfig.ACTIVE_SAVINGS_GOALS, allEntries = true)
     public SavingsGoal createGoal(SavingsGoal goal) {
         return savingsGoalRepository.save(goal);
     }
@@ -53,6 +56,7 @@ public class SavingsGoalService {
     /**
      * Update an existing savings goal
      */
+    @CacheEvict(cacheNames = EnhancedPlaidConfig.ACTIVE_SAVINGS_GOALS, allEntries = true)
     public SavingsGoal updateGoal(SavingsGoal goal) {
         return savingsGoalRepository.save(goal);
     }
@@ -60,6 +64,7 @@ public class SavingsGoalService {
     /**
      * Add amount to a savings goal
      */
+    @CacheEvict(cacheNames = EnhancedPlaidConfig.ACTIVE_SAVINGS_GOALS, allEntries = true)
     public SavingsGoal addToGoal(Long goalId, Double amount) {
         Optional<SavingsGoal> goalOpt = savingsGoalRepository.findById(goalId);
         if (goalOpt.isPresent()) {
@@ -73,6 +78,7 @@ public class SavingsGoalService {
     /**
      * Withdraw amount from a savings goal
      */
+    @CacheEvict(cacheNames = EnhancedPlaidConfig.ACTIVE_SAVINGS_GOALS, allEntries = true)
     public SavingsGoal withdrawFromGoal(Long goalId, Double amount) {
         Optional<SavingsGoal> goalOpt = savingsGoalRepository.findById(goalId);
         if (goalOpt.isPresent()) {
@@ -87,6 +93,7 @@ public class SavingsGoalService {
     /**
      * Delete/deactivate a savings goal
      */
+    @CacheEvict(cacheNames = EnhancedPlaidConfig.ACTIVE_SAVINGS_GOALS, allEntries = true)
     public void deleteGoal(Long goalId) {
         Optional<SavingsGoal> goalOpt = savingsGoalRepository.findById(goalId);
         if (goalOpt.isPresent()) {
@@ -127,6 +134,7 @@ public class SavingsGoalService {
     /**
      * Initialize sample savings goals if none exist
      */
+    @CacheEvict(cacheNames = EnhancedPlaidConfig.ACTIVE_SAVINGS_GOALS, allEntries = true)
     public void initializeSampleGoals() {
         if (savingsGoalRepository.count() == 0) {
             // New House goal
@@ -138,7 +146,6 @@ public class SavingsGoalService {
             house.setCurrentAmount(250000000.0); // 250M IDR (83%)
             house.setTargetDate(LocalDate.now().plusYears(2));
             house.setDescription("Down payment for dream house");
-            savingsGoalRepository.save(house);
             
             // PC Gaming goal
             SavingsGoal gaming = new SavingsGoal();
@@ -149,7 +156,6 @@ public class SavingsGoalService {
             gaming.setCurrentAmount(10000000.0); // 10M IDR (50%)
             gaming.setTargetDate(LocalDate.now().plusMonths(6));
             gaming.setDescription("New gaming setup");
-            savingsGoalRepository.save(gaming);
             
             // Summer Trip goal
             SavingsGoal trip = new SavingsGoal();
@@ -160,7 +166,6 @@ public class SavingsGoalService {
             trip.setCurrentAmount(140000.0); // 140K IDR (14%)
             trip.setTargetDate(LocalDate.now().plusMonths(3));
             trip.setDescription("Vacation to Bali");
-            savingsGoalRepository.save(trip);
             
             // Emergency Fund
             SavingsGoal emergency = new SavingsGoal();
@@ -170,7 +175,8 @@ public class SavingsGoalService {
             emergency.setTargetAmount(50000000.0); // 50M IDR
             emergency.setCurrentAmount(35000000.0); // 35M IDR (70%)
             emergency.setDescription("6 months expenses");
-            savingsGoalRepository.save(emergency);
+
+            savingsGoalRepository.saveAll(List.of(house, gaming, trip, emergency));
         }
     }
 }
@@ -1,17 +1,29 @@
 package com.budgetplanner.budget.service;
 
+import com.budgetplanner.budget.config.EnhancedPlaidConfig;
+import com.budgetplanner.budget.event.SyncCompletedEvent;
+import com.budgetplanner.budget.metrics.BudgetMetrics;
+import com.budgetplanner.budget.metrics.PlaidMetricsInterceptor;
 import com.budgetplanner.budget.model.BankAccount;
 import com.budgetplanner.budget.model.BankTransaction;
 import com.budgetplanner.budget.repository.BankAccountRepository;
 import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.service.categorization.CategorizationRuleBook;
+import com.budgetplanner.budget.tenant.TenantContext;
 import com.plaid.client.ApiClient;
 import com.plaid.client.model.*;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.plaid.client.request.PlaidApi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import retrofit2.Response;
 
 import java.io.IOException;
@@ -19,6 +31,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Enhanced Plaid Service with improved error handling, async operations,
@@ -28,13 +41,21 @@ import java.util.concurrent.CompletableFuture;
 @Transactional
 public class SimplifiedEnhancedPlaidService {
 
+    private static final Logger log = LoggerFactory.getLogger(SimplifiedEnhancedPlaidService.class);
+
     private final BankAccountRepository bankAccountRepository;
     private final BankTransactionRepository bankTransactionRepository;
+    private final CategorizationRuleBook categorizationRuleBook;
     private final RecurringTransactionService recurringTransactionService;
+    private final InstitutionDirectory institutionDirectory;
+    private final Executor plaidTaskExecutor;
+    private final AsyncLoadingCache<Object, Object> accountBalances;
+    private final ApplicationEventPublisher eventPublisher;
     private final PlaidApi plaidClient;
     private final String clientId;
     private final String secret;
     private final String environment;
+    private final String baseUrl;
     
     // Enhanced error tracking
     private final Map<String, Integer> errorCounts = new HashMap<>();
@@ -69,15 +90,27 @@ public class SimplifiedEnhancedPlaidService {
     public SimplifiedEnhancedPlaidService(BankAccountRepository bankAccountRepository,
                                          BankTransactionRepository bankTransactionRepository,
                                          RecurringTransactionService recurringTransactionService,
+                                         CategorizationRuleBook categorizationRuleBook,
+                                         InstitutionDirectory institutionDirectory,
+                                         @Qualifier("plaidTaskExecutor") Executor plaidTaskExecutor,
+                                         CacheManager cacheManager,
+                                         ApplicationEventPublisher eventPublisher,
                                          @Value("${plaid.client-id}") String clientId,
                                          @Value("${plaid.secret}") String secret,
-                                         @Value("${plaid.environment:sandbox}") String environment) {
+                                         @Value("${plaid.environment:sandbox}") String environment,
+                                         @Value("${plaid.base-url:}") String baseUrl) {
         this.bankAccountRepository = bankAccountRepository;
         this.bankTransactionRepository = bankTransactionRepository;
+        this.categorizationRuleBook = categorizationRuleBook;
         this.recurringTransactionService = recurringTransactionService;
         this.clientId = clientId;
         this.secret = secret;
         this.environment = environment;
+        this.baseUrl = baseUrl;
+        this.institutionDirectory = institutionDirectory;
+        this.plaidTaskExecutor = plaidTaskExecutor;
+        this.accountBalances = EnhancedPlaidConfig.accountBalances(cacheManager);
+        this.eventPublisher = eventPublisher;
         
         // Initialize enhanced Plaid client
         this.plaidClient = initializePlaidClient();
@@ -92,7 +125,14 @@ public class SimplifiedEnhancedPlaidService {
         apiKeys.put("secret", secret);
         
         ApiClient apiClient = new ApiClient(apiKeys);
+        apiClient.getOkBuilder().addInterceptor(new PlaidMetricsInterceptor());
         
+        // An explicit base URL (e.g. the local stub server) overrides the environment
+        if (baseUrl != null && !baseUrl.isBlank()) {
+            apiClient.setPlaidAdapter(baseUrl);
+            return apiClient.createService(PlaidApi.class);
+        }
+
         // Set environment with validation
         switch (environment.toLowerCase()) {
             case "sandbox":
@@ -163,8 +203,10 @@ public class SimplifiedEnhancedPlaidService {
             // Step 2: Get account information
             AccountsGetResponse accountsResponse = getAccountsWithRetry(accessToken);
             
-            // Step 3: Get institution information
-            String institutionName = getInstitutionNameSafely(accessToken);
+            // Step 3: Resolve the institution named in the accounts response
+            Item item = accountsResponse.getItem();
+            String institutionName = institutionDirectory.name(
+                item != null ? item.getInstitutionId() : null, this::fetchInstitutionName);
             
             // Step 4: Create and save bank accounts
             List<BankAccount> bankAccounts = createBankAccounts(
@@ -184,7 +226,7 @@ public class SimplifiedEnhancedPlaidService {
      */
     @Async
     public CompletableFuture<Integer> syncTransactionsForAccountAsync(BankAccount bankAccount) {
-        return CompletableFuture.supplyAsync(() -> syncTransactionsForAccount(bankAccount));
+        return CompletableFuture.completedFuture(syncTransactionsForAccount(bankAccount));
     }
     
     /**
@@ -221,6 +263,7 @@ public class SimplifiedEnhancedPlaidService {
             // Update last sync time
             bankAccount.setLastSyncAt(LocalDateTime.now());
             bankAccountRepository.save(bankAccount);
+            eventPublisher.publishEvent(new SyncCompletedEvent(bankAccount.getId(), syncedCount));
             
             resetErrorCount(OP_SYNC_TRANSACTIONS);
             return syncedCount;
@@ -231,6 +274,59 @@ public class SimplifiedEnhancedPlaidService {
         }
     }
     
+    /**
+     * Current balance of the account, completing with null if Plaid cannot provide one. Never waits on Plaid:
+     * a cached balance is returned complete (entries past their refresh age are reloaded in the background),
+     * a missing one completes once its load on the Plaid executor finishes.
+     */
+    public CompletableFuture<Double> getAccountBalance(BankAccount bankAccount) {
+        Long accountId = bankAccount.getId();
+        return accountBalances.get(accountId)
+            .thenApply(balance -> (Double) balance)
+            .exceptionally(e -> {
+                log.atWarn().addKeyValue("accountId", accountId).setCause(e).log("Balance not available");
+                return null;
+            });
+    }
+
+    /**
+     * New transactions move the balance; drop it so the next read fetches it again. The one eviction for
+     * every sync path, run after the sync commits.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSyncCompleted(SyncCompletedEvent event) {
+        accountBalances.synchronous().invalidate(event.getAccountId());
+    }
+
+    /**
+     * Loads the current balance from Plaid for the accountBalances cache. Throws on failure so that a
+     * background refresh keeps the previous balance.
+     */
+    public Double fetchAccountBalance(Long accountId) {
+        BankAccount bankAccount = bankAccountRepository.findById(accountId)
+            .orElseThrow(() -> new PlaidServiceException("Bank account not found: " + accountId, "NOT_FOUND", "VALIDATION_ERROR"));
+        try {
+            AccountsBalanceGetRequest request = new AccountsBalanceGetRequest()
+                .accessToken(bankAccount.getAccessToken())
+                .options(new AccountsBalanceGetRequestOptions().accountIds(List.of(bankAccount.getPlaidAccountId())));
+            Response<AccountsGetResponse> response = plaidClient.accountsBalanceGet(request).execute();
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new PlaidServiceException("Failed to get balance: " + response.message(),
+                    String.valueOf(response.code()), "BALANCE_GET_ERROR");
+            }
+            return response.body().getAccounts().stream()
+                .filter(account -> bankAccount.getPlaidAccountId().equals(account.getAccountId()))
+                .map(AccountBase::getBalances)
+                .filter(Objects::nonNull)
+                .map(AccountBalance::getCurrent)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElseThrow(() -> new PlaidServiceException("No balance for account " + accountId, "NOT_FOUND", "BALANCE_GET_ERROR"));
+        } catch (IOException e) {
+            throw new PlaidServiceException("Network error during balance fetch", "NETWORK_ERROR", "IO_EXCEPTION");
+        }
+    }
+
     /**
      * Check connection status for all bank accounts
      */
@@ -333,7 +429,7 @@ public class SimplifiedEnhancedPlaidService {
                 handleAuthWebhook(itemId);
                 break;
             default:
-                System.out.println("Unknown webhook type: " + webhookType);
+                log.atWarn().addKeyValue("webhookType", webhookType).log("Unknown webhook type");
         }
     }
     
@@ -368,8 +464,11 @@ public class SimplifiedEnhancedPlaidService {
     
     private void handleApiError(String operation, Response<?> response) {
         recordError(operation);
-        System.err.printf("Plaid API error for %s: %d - %s%n", 
-                         operation, response.code(), response.message());
+        log.atWarn()
+            .addKeyValue("operation", operation)
+            .addKeyValue("status", response.code())
+            .addKeyValue("message", response.message())
+            .log("Plaid API error");
     }
     
     private ItemPublicTokenExchangeResponse executeTokenExchange(String publicToken) throws IOException {
@@ -405,33 +504,22 @@ public class SimplifiedEnhancedPlaidService {
         return response.body();
     }
     
-    @Cacheable(value = "institutionNames", key = "#accessToken")
-    private String getInstitutionNameSafely(String accessToken) {
+    /**
+     * Name of the institution from Plaid, null if it cannot be looked up
+     */
+    private String fetchInstitutionName(String institutionId) {
         try {
-            ItemGetRequest itemRequest = new ItemGetRequest().accessToken(accessToken);
-            Response<ItemGetResponse> itemResponse = plaidClient.itemGet(itemRequest).execute();
-            
-            if (itemResponse.isSuccessful() && itemResponse.body() != null) {
-                String institutionId = itemResponse.body().getItem().getInstitutionId();
-                
-                if (institutionId != null) {
-                    InstitutionsGetByIdRequest instRequest = new InstitutionsGetByIdRequest()
-                        .institutionId(institutionId)
-                        .countryCodes(Arrays.asList(CountryCode.US));
-                    
-                    Response<InstitutionsGetByIdResponse> instResponse = 
-                        plaidClient.institutionsGetById(instRequest).execute();
-                    
-                    if (instResponse.isSuccessful() && instResponse.body() != null) {
-                        return instResponse.body().getInstitution().getName();
-                    }
-                }
+            InstitutionsGetByIdRequest request = new InstitutionsGetByIdRequest()
+                .institutionId(institutionId)
+                .countryCodes(Arrays.asList(CountryCode.US));
+            Response<InstitutionsGetByIdResponse> response = plaidClient.institutionsGetById(request).execute();
+            if (response.isSuccessful() && response.body() != null && response.body().getInstitution() != null) {
+                return response.body().getInstitution().getName();
             }
         } catch (IOException e) {
-            System.err.println("Error getting institution name: " + e.getMessage());
+            log.atWarn().addKeyValue("institutionId", institutionId).setCause(e).log("Error getting institution name");
         }
-        
-        return "Unknown Bank";
+        return null;
     }
     
     private String extractErrorInfo(Object error) {
@@ -470,24 +558,33 @@ public class SimplifiedEnhancedPlaidService {
     
     private int processTransactions(BankAccount bankAccount, List<Transaction> transactions) {
         int syncedCount = 0;
+        List<BankTransaction> stored = new ArrayList<>();
         
         for (Transaction transaction : transactions) {
             // Check if transaction already exists
             if (bankTransactionRepository.findByPlaidTransactionId(transaction.getTransactionId()).isEmpty()) {
                 BankTransaction bankTransaction = createBankTransaction(bankAccount, transaction);
                 BankTransaction savedTransaction = bankTransactionRepository.save(bankTransaction);
+                stored.add(savedTransaction);
                 
                 // Process for recurring transaction detection
                 try {
                     recurringTransactionService.processNewTransaction(savedTransaction);
                 } catch (Exception e) {
-                    System.err.println("Error processing transaction for recurring patterns: " + e.getMessage());
+                    log.atWarn()
+                        .addKeyValue("transactionId", savedTransaction.getId())
+                        .setCause(e)
+                        .log("Error processing transaction for recurring patterns");
                 }
                 
                 syncedCount++;
             }
         }
+        categorizationRuleBook.applyTags(stored);
         
+        BudgetMetrics.transactionsIngested("plaid", syncedCount);
+        BudgetMetrics.transactionsCategorized("auto", syncedCount);
+        BudgetMetrics.transactionsDeduped("plaid", transactions.size() - syncedCount);
         return syncedCount;
     }
     
@@ -518,6 +615,7 @@ public class SimplifiedEnhancedPlaidService {
         
         bankTransaction.setBudgetCategoryType(categorization[0]);
         bankTransaction.setBudgetCategory(categorization[1]);
+        categorizationRuleBook.apply(bankTransaction);
         bankTransaction.setCreatedAt(LocalDateTime.now());
         
         return bankTransaction;
@@ -612,36 +710,34 @@ public class SimplifiedEnhancedPlaidService {
     // Webhook handlers
     private void handleTransactionWebhook(String itemId) {
         try {
-            List<BankAccount> accounts = bankAccountRepository.findAll().stream()
-                .filter(account -> itemId.equals(account.getPlaidItemId()))
-                .toList();
+            // Plaid calls for any user's item; each account syncs as its user
+            List<BankAccount> accounts = TenantContext.callAsSystem(() -> bankAccountRepository.findAllByPlaidItemId(itemId));
             
             for (BankAccount account : accounts) {
-                syncTransactionsForAccountAsync(account);
+                TenantContext.runAs(account.getUserId(),
+                    () -> plaidTaskExecutor.execute(() -> syncTransactionsForAccount(account)));
             }
         } catch (Exception e) {
-            System.err.println("Error handling transaction webhook: " + e.getMessage());
+            log.atError().addKeyValue("itemId", itemId).setCause(e).log("Error handling transaction webhook");
         }
     }
     
     private void handleItemWebhook(String itemId, String error) {
         try {
-            List<BankAccount> accounts = bankAccountRepository.findAll().stream()
-                .filter(account -> itemId.equals(account.getPlaidItemId()))
-                .toList();
-                
-            for (BankAccount account : accounts) {
-                if (error != null && error.contains("ITEM_LOGIN_REQUIRED")) {
-                    account.setIsActive(false);
-                    bankAccountRepository.save(account);
+            TenantContext.runAsSystem(() -> {
+                for (BankAccount account : bankAccountRepository.findAllByPlaidItemId(itemId)) {
+                    if (error != null && error.contains("ITEM_LOGIN_REQUIRED")) {
+                        account.setIsActive(false);
+                        bankAccountRepository.save(account);
+                    }
                 }
-            }
+            });
         } catch (Exception e) {
-            System.err.println("Error handling item webhook: " + e.getMessage());
+            log.atError().addKeyValue("itemId", itemId).setCause(e).log("Error handling item webhook");
         }
     }
     
     private void handleAuthWebhook(String itemId) {
-        System.out.println("Auth webhook received for item: " + itemId);
+        log.atInfo().addKeyValue("itemId", itemId).log("Auth webhook received");
     }
 }
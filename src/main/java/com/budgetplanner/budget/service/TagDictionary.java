@@ -0,0 +1,185 @@
+package com.budgetplanner.budget.service;
+
+import com.budgetplanner.budget.model.Tag;
+import com.budgetplanner.budget.repository.TagRepository;
+import com.budgetplanner.budget.repository.TransactionTagRepository;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The tag dictionary: ids by tag name and how many of each user's transactions use each tag.
+ *
+ * Tags themselves are shared names, so tag ids are cached once read or created and tagging a transaction
+ * needs no lookup. New tags are written in their own transaction, so a tag created by a save that rolls back
+ * simply stays unused. Usage counts are kept per user, seeded with one GROUP BY at startup and then follow the
+ * changes {@link TransactionMetaService} reports, applied after commit; {@link #usedNames()} is served from
+ * the current user's counts without touching the database.
+ */
+@Service
+public class TagDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(TagDictionary.class);
+    private static final int RESYNC_ATTEMPTS = 3;
+
+    private final TagRepository tagRepository;
+    private final TransactionTagRepository transactionTagRepository;
+    private final TransactionTemplate newTransaction;
+
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+    // Serializes tag creation without blocking readers of the counts
+    private final Object createLock = new Object();
+
+    // Guarded by this
+    private final Map<String, UserTags> usageByUser = new HashMap<>();
+    private boolean loaded;
+    private long changes;
+
+    public TagDictionary(TagRepository tagRepository,
+                         TransactionTagRepository transactionTagRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.tagRepository = tagRepository;
+        this.transactionTagRepository = transactionTagRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        resync();
+    }
+
+    /**
+     * Re-reads the tag ids and usage counts from the database
+     */
+    public void resync() {
+        tagRepository.findAll().forEach(tag -> ids.put(tag.getName(), tag.getId()));
+        for (int attempt = 0; attempt < RESYNC_ATTEMPTS; attempt++) {
+            long version;
+            synchronized (this) {
+                version = changes;
+            }
+            Map<String, UserTags> seeded = new HashMap<>();
+            // In a transaction of its own: a caller's transaction would only see the caller's rows
+            for (Object[] row : TenantContext.callAsSystem(() ->
+                    newTransaction.execute(status -> transactionTagRepository.countByUserAndTagName()))) {
+                seeded.computeIfAbsent((String) row[0], user -> new UserTags())
+                    .usage.put((String) row[1], ((Number) row[2]).longValue());
+            }
+            seeded.values().forEach(UserTags::namesChanged);
+            synchronized (this) {
+                // A save committed while counting may or may not be in the result, count again
+                if (version == changes || attempt == RESYNC_ATTEMPTS - 1) {
+                    usageByUser.clear();
+                    usageByUser.putAll(seeded);
+                    loaded = true;
+                    log.atInfo().addKeyValue("tags", ids.size()).addKeyValue("users", seeded.size())
+                        .log("Tag dictionary loaded");
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reference to the tag with this name, created if it does not exist yet. Only valid inside the caller's
+     * transaction.
+     */
+    public Tag reference(String name) {
+        Long id = ids.get(name);
+        if (id == null) {
+            id = create(name);
+        }
+        return tagRepository.getReferenceById(id);
+    }
+
+    /**
+     * Names of the tags at least one of the current user's transactions uses, sorted
+     */
+    public synchronized List<String> usedNames() {
+        ensureLoaded();
+        UserTags tags = usageByUser.get(TenantContext.current());
+        return tags != null ? tags.usedNames : List.of();
+    }
+
+    /**
+     * Applies changes in the number of the current user's transactions using each tag once the caller's
+     * transaction commits
+     */
+    public void adjustAfterCommit(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        String user = TenantContext.current();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust(user, deltas);
+                }
+            });
+        } else {
+            adjust(user, deltas);
+        }
+    }
+
+    private Long create(String name) {
+        synchronized (createLock) {
+            Long id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            Long created = newTransaction.execute(status -> tagRepository.findByName(name)
+                .orElseGet(() -> tagRepository.save(new Tag(name)))
+                .getId());
+            ids.put(name, created);
+            return created;
+        }
+    }
+
+    private synchronized void adjust(String user, Map<String, Long> deltas) {
+        changes++;
+        UserTags tags = usageByUser.computeIfAbsent(user, key -> new UserTags());
+        boolean namesChanged = false;
+        for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+            long count = tags.usage.getOrDefault(delta.getKey(), 0L) + delta.getValue();
+            if (count > 0) {
+                namesChanged |= tags.usage.put(delta.getKey(), count) == null;
+            } else {
+                namesChanged |= tags.usage.remove(delta.getKey()) != null;
+            }
+        }
+        if (namesChanged) {
+            tags.namesChanged();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            resync();
+        }
+    }
+
+    private static final class UserTags {
+        private final TreeMap<String, Long> usage = new TreeMap<>();
+        private List<String> usedNames = List.of();
+
+        void namesChanged() {
+            usedNames = List.copyOf(usage.keySet());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.budgetplanner.budget.service;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
 import com.budgetplanner.budget.model.BankTransaction;
+import io.micrometer.core.instrument.Counter;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -15,6 +17,8 @@ public class TransactionCategorizationService {
     private static final String CATEGORY_EXPENSES = "EXPENSES";
     private static final String CATEGORY_BILLS = "BILLS";
     private static final String CATEGORY_SAVINGS = "SAVINGS";
+
+    private static final Counter RULES_CATEGORIZED = BudgetMetrics.categorizedCounter("rules");
     
     // Plaid category to budget category mapping
     private final Map<String, CategoryMapping> plaidCategoryMappings;
@@ -68,6 +72,7 @@ public class TransactionCategorizationService {
         // Apply the categorization
         transaction.setBudgetCategory(mapping.category);
         transaction.setBudgetCategoryType(mapping.categoryType);
+        RULES_CATEGORIZED.increment();
     }
     
     /**
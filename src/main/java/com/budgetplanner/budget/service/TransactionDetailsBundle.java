@@ -0,0 +1,165 @@
+package com.budgetplanner.budget.service;
+
+import com.budgetplanner.budget.config.EnhancedPlaidConfig;
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.RecurringTransaction;
+import com.budgetplanner.budget.model.SavingsGoal;
+import com.budgetplanner.budget.model.TransactionNote;
+import com.budgetplanner.budget.model.TransactionSplit;
+import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.repository.TransactionNoteRepository;
+import com.budgetplanner.budget.repository.TransactionSplitRepository;
+import com.budgetplanner.budget.repository.TransactionTagRepository;
+import com.budgetplanner.budget.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Everything the transaction details dialog shows, loaded in one go.
+ *
+ * The per-transaction queries (goal, note, tags, splits, similar transactions, recurring matches) are
+ * independent, so they run side by side on a small bounded pool and the dialog waits for the slowest one
+ * instead of the sum. Tag names come from the in-memory {@link TagDictionary} and active goals from a cache
+ * keyed by user that goal writes evict.
+ * The pool also bounds the connections the dialog takes from the database pool under load; when it is
+ * saturated the caller runs the query itself.
+ */
+@Service
+public class TransactionDetailsBundle {
+
+    private final BankTransactionRepository transactionRepository;
+    private final TransactionNoteRepository noteRepository;
+    private final TransactionTagRepository tagRepository;
+    private final TransactionSplitRepository splitRepository;
+    private final RecurringTransactionService recurringTransactionService;
+    private final SavingsGoalService savingsGoalService;
+    private final TagDictionary tagDictionary;
+    private final Cache activeGoals;
+    private final ThreadPoolExecutor executor;
+
+    public TransactionDetailsBundle(BankTransactionRepository transactionRepository,
+                                    TransactionNoteRepository noteRepository,
+                                    TransactionTagRepository tagRepository,
+                                    TransactionSplitRepository splitRepository,
+                                    RecurringTransactionService recurringTransactionService,
+                                    SavingsGoalService savingsGoalService,
+                                    TagDictionary tagDictionary,
+                                    CacheManager cacheManager,
+                                    @Value("${transaction-details.threads:4}") int threads) {
+        this.transactionRepository = transactionRepository;
+        this.noteRepository = noteRepository;
+        this.tagRepository = tagRepository;
+        this.splitRepository = splitRepository;
+        this.recurringTransactionService = recurringTransactionService;
+        this.savingsGoalService = savingsGoalService;
+        this.tagDictionary = tagDictionary;
+        this.activeGoals = cacheManager.getCache(EnhancedPlaidConfig.ACTIVE_SAVINGS_GOALS);
+
+        AtomicInteger count = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(poolSize * 16), runnable -> {
+                Thread thread = new Thread(runnable, "transaction-details-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Loads the dialog's data for a stored transaction
+     */
+    public Details load(BankTransaction transaction) {
+        if (transaction == null || transaction.getId() == null) {
+            return new Details(null, "", List.of(), List.of(), List.of(), List.of(), tagDictionary.usedNames(), activeGoals());
+        }
+        Long id = transaction.getId();
+        CompletableFuture<SavingsGoal> goal = async(() ->
+            transactionRepository.findSavingsGoalByTransactionId(id).orElse(null));
+        CompletableFuture<String> note = async(() -> noteRepository.findByBankTransaction(transaction)
+            .map(TransactionNote::getNoteText)
+            .orElse(""));
+        CompletableFuture<List<String>> tags = async(() -> tagRepository.findTagNamesByBankTransaction(transaction));
+        CompletableFuture<List<TransactionSplit>> splits = async(() -> splitRepository.findByParentTransaction(transaction));
+        CompletableFuture<List<BankTransaction>> similar = async(() -> transaction.getMerchantName() == null
+            ? List.of()
+            : transactionRepository.findTop5ByMerchantNameAndIdNotOrderByTransactionDateDesc(transaction.getMerchantName(), id));
+        CompletableFuture<List<RecurringTransaction>> recurring = async(() ->
+            recurringTransactionService.findMatchingRecurringPatterns(transaction));
+        CompletableFuture<List<SavingsGoal>> goals = async(this::activeGoals);
+
+        try {
+            return new Details(goal.join(), note.join(), tags.join(), splits.join(), similar.join(), recurring.join(),
+                tagDictionary.usedNames(), goals.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Cached per user, since each user has their own goals
+    private List<SavingsGoal> activeGoals() {
+        return activeGoals.get(TenantContext.current(), () -> List.copyOf(savingsGoalService.getAllActiveGoals()));
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> query) {
+        // The worker must query as the dialog's user
+        return CompletableFuture.supplyAsync(TenantContext.propagate(query), executor);
+    }
+
+    /**
+     * The dialog's data; lists are read-only
+     */
+    public static final class Details {
+
+        private final SavingsGoal savingsGoal;
+        private final String note;
+        private final List<String> tags;
+        private final List<TransactionSplit> splits;
+        private final List<BankTransaction> similarTransactions;
+        private final List<RecurringTransaction> recurringMatches;
+        private final List<String> allTagNames;
+        private final List<SavingsGoal> activeSavingsGoals;
+
+        private Details(SavingsGoal savingsGoal, String note, List<String> tags, List<TransactionSplit> splits,
+                        List<BankTransaction> similarTransactions, List<RecurringTransaction> recurringMatches,
+                        List<String> allTagNames, List<SavingsGoal> activeSavingsGoals) {
+            this.savingsGoal = savingsGoal;
+            this.note = note;
+            this.tags = List.copyOf(tags);
+            this.splits = List.copyOf(splits);
+            this.similarTransactions = List.copyOf(similarTransactions);
+            this.recurringMatches = List.copyOf(recurringMatches);
+            this.allTagNames = allTagNames;
+            this.activeSavingsGoals = activeSavingsGoals;
+        }
+
+        public SavingsGoal getSavingsGoal() { return savingsGoal; }
+        public String getNote() { return note; }
+        public List<String> getTags() { return tags; }
+        public List<TransactionSplit> getSplits() { return splits; }
+        public List<BankTransaction> getSimilarTransactions() { return similarTransactions; }
+        public List<RecurringTransaction> getRecurringMatches() { return recurringMatches; }
+        public List<String> getAllTagNames() { return allTagNames; }
+        public List<SavingsGoal> getActiveSavingsGoals() { return activeSavingsGoals; }
+    }
+}
@@ -1,6 +1,7 @@
 package com.budgetplanner.budget.service;
 
 import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.Tag;
 import com.budgetplanner.budget.model.TransactionNote;
 import com.budgetplanner.budget.model.TransactionTag;
 import com.budgetplanner.budget.repository.TransactionNoteRepository;
@@ -9,20 +10,33 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TransactionMetaService {
 
+    // Transactions per IN list when looking up existing tags in bulk
+    private static final int ID_CHUNK = 1_000;
+
     private final TransactionNoteRepository noteRepository;
     private final TransactionTagRepository tagRepository;
+    private final TagDictionary tagDictionary;
 
     public TransactionMetaService(TransactionNoteRepository noteRepository,
-                                  TransactionTagRepository tagRepository) {
+                                  TransactionTagRepository tagRepository,
+                                  TagDictionary tagDictionary) {
         this.noteRepository = noteRepository;
         this.tagRepository = tagRepository;
+        this.tagDictionary = tagDictionary;
     }
 
     public String getNoteForTransaction(BankTransaction transaction) {
@@ -32,16 +46,14 @@ public class TransactionMetaService {
     }
 
     public List<String> getTagsForTransaction(BankTransaction transaction) {
-        return tagRepository.findByBankTransaction(transaction).stream()
-                .map(TransactionTag::getTag)
-                .collect(Collectors.toList());
+        return tagRepository.findTagNamesByBankTransaction(transaction);
     }
 
     /**
      * Get all distinct tag names used across any transaction.
      */
     public List<String> getAllTagNames() {
-        return tagRepository.findDistinctTagNames();
+        return tagDictionary.usedNames();
     }
 
     public void saveNoteAndTags(BankTransaction transaction, String noteText, String tagsCsv) {
@@ -56,19 +68,65 @@ public class TransactionMetaService {
             noteRepository.save(note);
         }
 
-        // Tags
-        tagRepository.deleteByBankTransaction(transaction);
-        if (tagsCsv != null && !tagsCsv.trim().isEmpty()) {
-            List<String> tags = Arrays.stream(tagsCsv.split(","))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
+        // Tags: only the difference to what is stored is written
+        Set<String> wanted = parseTags(tagsCsv);
+        List<String> current = tagRepository.findTagNamesByBankTransaction(transaction);
+        List<String> removed = current.stream().filter(tag -> !wanted.contains(tag)).toList();
+        List<String> added = wanted.stream().filter(tag -> !current.contains(tag)).toList();
+
+        if (!removed.isEmpty()) {
+            tagRepository.deleteByBankTransactionAndTagNames(transaction, removed);
+        }
+        tagRepository.saveAll(added.stream()
+                .map(tag -> new TransactionTag(transaction, tagDictionary.reference(tag)))
+                .toList());
+
+        Map<String, Long> deltas = new HashMap<>();
+        removed.forEach(tag -> deltas.put(tag, -1L));
+        added.forEach(tag -> deltas.put(tag, 1L));
+        tagDictionary.adjustAfterCommit(deltas);
+    }
+
+    /**
+     * Adds one tag to many transactions, skipping those that already have it; returns how many were tagged
+     */
+    public int tagAll(Collection<BankTransaction> transactions, String tagName) {
+        String name = tagName != null ? tagName.trim() : "";
+        if (name.isEmpty() || transactions.isEmpty()) {
+            return 0;
+        }
+        Tag tag = tagDictionary.reference(name);
+        List<BankTransaction> distinct = List.copyOf(transactions.stream()
+                .collect(Collectors.toMap(BankTransaction::getId, t -> t, (a, b) -> a, LinkedHashMap::new))
+                .values());
+
+        Set<Long> tagged = new HashSet<>();
+        for (int from = 0; from < distinct.size(); from += ID_CHUNK) {
+            List<Long> ids = distinct.subList(from, Math.min(distinct.size(), from + ID_CHUNK)).stream()
+                    .map(BankTransaction::getId)
                     .toList();
-            for (String tag : tags) {
-                TransactionTag txTag = new TransactionTag();
-                txTag.setBankTransaction(transaction);
-                txTag.setTag(tag);
-                tagRepository.save(txTag);
-            }
+            tagged.addAll(tagRepository.findTaggedTransactionIds(tag, ids));
+        }
+        List<TransactionTag> added = distinct.stream()
+                .filter(transaction -> !tagged.contains(transaction.getId()))
+                .map(transaction -> new TransactionTag(transaction, tag))
+                .toList();
+        tagRepository.saveAll(added);
+
+        tagDictionary.adjustAfterCommit(Map.of(name, (long) added.size()));
+        return added.size();
+    }
+
+    /**
+     * Trimmed, non-empty tags of a comma separated list, without duplicates, in their order
+     */
+    private static Set<String> parseTags(String tagsCsv) {
+        if (tagsCsv == null || tagsCsv.trim().isEmpty()) {
+            return Set.of();
         }
+        return Arrays.stream(tagsCsv.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 }
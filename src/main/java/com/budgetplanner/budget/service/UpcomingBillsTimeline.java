@@ -0,0 +1,187 @@
+package com.budgetplanner.budget.service;
+
+import com.budgetplanner.budget.event.RecurringPatternChangedEvent;
+import com.budgetplanner.budget.model.RecurringTransaction;
+import com.budgetplanner.budget.repository.RecurringTransactionRepository;
+import com.budgetplanner.budget.service.forecast.BusinessCalendar;
+import com.budgetplanner.budget.service.forecast.ForecastOccurrence;
+import com.budgetplanner.budget.service.forecast.RecurrenceForecaster;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Materialized forecast of the active recurring patterns: the next occurrences of every pattern,
+ * indexed by user and due date. Due-soon, overdue and projected cash-out are range scans over the current
+ * user's part instead of table queries on every render.
+ *
+ * Built when the application is ready and rebuilt nightly so the window moves with the date. In between,
+ * every committed save of a pattern replaces just that pattern's occurrences, forecast from the fields its
+ * change event carries. A rebuild fills a fresh index and publishes it in one swap, so readers never see it
+ * half built.
+ */
+@Service
+public class UpcomingBillsTimeline {
+
+    private static final Logger log = LoggerFactory.getLogger(UpcomingBillsTimeline.class);
+
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final RecurrenceForecaster forecaster;
+    private final int occurrencesPerPattern;
+
+    // Per user; readers scan these without locking, each day's list is replaced rather than modified
+    private volatile Map<String, NavigableMap<LocalDate, List<ForecastOccurrence>>> byUser = new ConcurrentHashMap<>();
+    // Writer-side bookkeeping to find a pattern's occurrences again; guarded by this
+    private Map<Long, List<ForecastOccurrence>> byPattern = new HashMap<>();
+    private Map<Long, String> userByPattern = new HashMap<>();
+
+    public UpcomingBillsTimeline(RecurringTransactionRepository recurringTransactionRepository,
+                                 @Value("${recurring.forecast.occurrences:12}") int occurrencesPerPattern,
+                                 @Value("${recurring.forecast.holidays:US}") String holidayRegion) {
+        this.recurringTransactionRepository = recurringTransactionRepository;
+        this.occurrencesPerPattern = occurrencesPerPattern;
+        this.forecaster = new RecurrenceForecaster(BusinessCalendar.forRegion(holidayRegion));
+    }
+
+    /**
+     * Re-forecasts every active pattern
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${recurring.forecast.rebuild-cron:0 5 0 * * *}")
+    public synchronized void rebuild() {
+        List<RecurringTransaction> patterns = TenantContext.callAsSystem(() -> recurringTransactionRepository
+            .findByIsActiveTrueAndStatusOrderByNextExpectedDateAsc(RecurringTransaction.RecurringStatus.ACTIVE));
+        Map<String, NavigableMap<LocalDate, List<ForecastOccurrence>>> freshByUser = new ConcurrentHashMap<>();
+        byPattern = new HashMap<>();
+        userByPattern = new HashMap<>();
+        for (RecurringTransaction pattern : patterns) {
+            add(freshByUser, pattern.getUserId(), forecaster.forecast(pattern, occurrencesPerPattern));
+        }
+        byUser = freshByUser;
+        log.atInfo()
+            .addKeyValue("patterns", byPattern.size())
+            .addKeyValue("occurrences", byPattern.values().stream().mapToInt(List::size).sum())
+            .log("Built upcoming bills timeline");
+    }
+
+    /**
+     * Runs after the writing transaction commits and re-forecasts only the changed pattern
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPatternChanged(RecurringPatternChangedEvent event) {
+        if (event.getPatternId() == null) {
+            return;
+        }
+        remove(event.getPatternId());
+        if (event.isActive() && event.getStatus() == RecurringTransaction.RecurringStatus.ACTIVE) {
+            add(byUser, event.getUserId(), forecaster.forecast(event, occurrencesPerPattern));
+        }
+    }
+
+    /**
+     * The current user's patterns with an occurrence due in [from, to], in order of their first due date there
+     */
+    public List<Long> patternsDueBetween(LocalDate from, LocalDate to) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (List<ForecastOccurrence> day : currentUser().subMap(from, true, to, true).values()) {
+            for (ForecastOccurrence occurrence : day) {
+                ids.add(occurrence.getPatternId());
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * The current user's patterns whose currently expected occurrence was due before {@code today}, most
+     * overdue first
+     */
+    public List<Long> patternsOverdueAsOf(LocalDate today) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (List<ForecastOccurrence> day : currentUser().headMap(today, false).values()) {
+            for (ForecastOccurrence occurrence : day) {
+                ids.add(occurrence.getPatternId());
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Every occurrence of the current user due in [from, toExclusive), by due date
+     */
+    public List<ForecastOccurrence> occurrencesBetween(LocalDate from, LocalDate toExclusive) {
+        List<ForecastOccurrence> occurrences = new ArrayList<>();
+        for (List<ForecastOccurrence> day : currentUser().subMap(from, true, toExclusive, false).values()) {
+            occurrences.addAll(day);
+        }
+        return occurrences;
+    }
+
+    /**
+     * Expected amounts in [from, toExclusive) summed by budget category type
+     */
+    public Map<String, Double> projectedTotalsByCategory(LocalDate from, LocalDate toExclusive) {
+        Map<String, Double> totals = new HashMap<>();
+        for (ForecastOccurrence occurrence : occurrencesBetween(from, toExclusive)) {
+            if (occurrence.getAmount() != null) {
+                totals.merge(occurrence.getBudgetCategoryType(), occurrence.getAmount(), Double::sum);
+            }
+        }
+        return totals;
+    }
+
+    private NavigableMap<LocalDate, List<ForecastOccurrence>> currentUser() {
+        return byUser.getOrDefault(TenantContext.current(), Collections.emptyNavigableMap());
+    }
+
+    private void add(Map<String, NavigableMap<LocalDate, List<ForecastOccurrence>>> into, String userId,
+                     List<ForecastOccurrence> occurrences) {
+        if (occurrences.isEmpty()) {
+            return;
+        }
+        Long patternId = occurrences.get(0).getPatternId();
+        byPattern.put(patternId, occurrences);
+        userByPattern.put(patternId, userId);
+        NavigableMap<LocalDate, List<ForecastOccurrence>> byDueDate =
+            into.computeIfAbsent(userId, user -> new ConcurrentSkipListMap<>());
+        for (ForecastOccurrence occurrence : occurrences) {
+            byDueDate.compute(occurrence.getDueDate(), (date, day) -> {
+                List<ForecastOccurrence> updated = day != null ? new ArrayList<>(day) : new ArrayList<>(1);
+                updated.add(occurrence);
+                return List.copyOf(updated);
+            });
+        }
+    }
+
+    private void remove(Long patternId) {
+        List<ForecastOccurrence> occurrences = byPattern.remove(patternId);
+        if (occurrences == null) {
+            return;
+        }
+        NavigableMap<LocalDate, List<ForecastOccurrence>> byDueDate = byUser.get(userByPattern.remove(patternId));
+        for (ForecastOccurrence occurrence : occurrences) {
+            byDueDate.computeIfPresent(occurrence.getDueDate(), (date, day) -> {
+                List<ForecastOccurrence> updated = new ArrayList<>(day);
+                updated.remove(occurrence);
+                return updated.isEmpty() ? null : List.copyOf(updated);
+            });
+        }
+    }
+}
@@ -18,14 +18,17 @@ public class UserProfileService {
     
     private final UserProfileRepository userProfileRepository;
     private final NotificationPreferenceRepository notificationPreferenceRepository;
+    private final AvatarImageService avatarImageService;
     
     // Default user ID for single-user application
     private static final String DEFAULT_USER_ID = "default_user";
     
     public UserProfileService(UserProfileRepository userProfileRepository,
-                            NotificationPreferenceRepository notificationPreferenceRepository) {
+                            NotificationPreferenceRepository notificationPreferenceRepository,
+                            AvatarImageService avatarImageService) {
         this.userProfileRepository = userProfileRepository;
         this.notificationPreferenceRepository = notificationPreferenceRepository;
+        this.avatarImageService = avatarImageService;
     }
     
     /**
@@ -57,7 +60,7 @@ public class UserProfileService {
     }
     
     /**
-     * Upload avatar image
+     * Upload avatar image, stored as resized variants referenced by hash
      */
     public UserProfile uploadAvatar(InputStream inputStream, String contentType) throws IOException {
         UserProfile profile = getOrCreateDefaultProfile();
@@ -75,10 +78,14 @@ public class UserProfileService {
             throw new IOException("Invalid image type. Supported: JPEG, PNG, GIF, WebP");
         }
         
-        profile.setAvatarImage(imageData);
-        profile.setAvatarContentType(contentType);
+        String previousHash = profile.getAvatarHash();
+        profile.setAvatarHash(avatarImageService.store(imageData, contentType));
+        profile = userProfileRepository.saveAndFlush(profile);
         
-        return userProfileRepository.save(profile);
+        if (previousHash != null && !previousHash.equals(profile.getAvatarHash())) {
+            avatarImageService.release(previousHash);
+        }
+        return profile;
     }
     
     /**
@@ -86,9 +93,11 @@ public class UserProfileService {
      */
     public UserProfile removeAvatar() {
         UserProfile profile = getOrCreateDefaultProfile();
-        profile.setAvatarImage(null);
-        profile.setAvatarContentType(null);
-        return userProfileRepository.save(profile);
+        String previousHash = profile.getAvatarHash();
+        profile.setAvatarHash(null);
+        profile = userProfileRepository.saveAndFlush(profile);
+        avatarImageService.release(previousHash);
+        return profile;
     }
     
     /**
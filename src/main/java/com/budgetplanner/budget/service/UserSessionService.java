@@ -1,5 +1,6 @@
 package com.budgetplanner.budget.service;
 
+import com.budgetplanner.budget.tenant.TenantContext;
 import com.vaadin.flow.server.VaadinSession;
 import org.springframework.stereotype.Service;
 
@@ -9,40 +10,28 @@ import org.springframework.stereotype.Service;
 @Service
 public class UserSessionService {
     
-    private static final String AVATAR_KEY = "user_avatar_image";
-    private static final String AVATAR_TYPE_KEY = "user_avatar_content_type";
+    private static final String AVATAR_KEY = "user_avatar_hash";
     private static final String USER_INITIALS_KEY = "user_initials";
     private static final String USER_NAME_KEY = "user_full_name";
+    private static final String USER_ID_KEY = "user_id";
     
     /**
-     * Store avatar image in session
+     * Store the hash of the user's avatar in session, the image itself is served from {@code /avatars}
      */
-    public void setAvatarInSession(byte[] avatarImage, String contentType) {
+    public void setAvatarInSession(String avatarHash) {
         VaadinSession session = VaadinSession.getCurrent();
         if (session != null) {
-            session.setAttribute(AVATAR_KEY, avatarImage);
-            session.setAttribute(AVATAR_TYPE_KEY, contentType);
+            session.setAttribute(AVATAR_KEY, avatarHash);
         }
     }
     
     /**
-     * Get avatar image from session
+     * Get avatar hash from session
      */
-    public byte[] getAvatarFromSession() {
+    public String getAvatarHash() {
         VaadinSession session = VaadinSession.getCurrent();
         if (session != null) {
-            return (byte[]) session.getAttribute(AVATAR_KEY);
-        }
-        return null;
-    }
-    
-    /**
-     * Get avatar content type from session
-     */
-    public String getAvatarContentType() {
-        VaadinSession session = VaadinSession.getCurrent();
-        if (session != null) {
-            return (String) session.getAttribute(AVATAR_TYPE_KEY);
+            return (String) session.getAttribute(AVATAR_KEY);
         }
         return null;
     }
@@ -51,8 +40,7 @@ public class UserSessionService {
      * Check if user has avatar in session
      */
     public boolean hasAvatar() {
-        byte[] avatar = getAvatarFromSession();
-        return avatar != null && avatar.length > 0;
+        return getAvatarHash() != null;
     }
     
     /**
@@ -62,7 +50,6 @@ public class UserSessionService {
         VaadinSession session = VaadinSession.getCurrent();
         if (session != null) {
             session.setAttribute(AVATAR_KEY, null);
-            session.setAttribute(AVATAR_TYPE_KEY, null);
         }
     }
     
@@ -111,16 +98,19 @@ public class UserSessionService {
     }
     
     /**
-     * Get current user ID (for multi-user support in future)
-     * Currently returns default user ID
+     * Get current user ID, the tenant whose data the current thread sees
+     * (the session's user, or the default user when none is signed in)
      */
     public String getCurrentUserId() {
+        return TenantContext.current();
+    }
+
+    /**
+     * User signed in to the current UI session, null outside a session or when nobody is signed in
+     */
+    public static String getSessionUserId() {
         VaadinSession session = VaadinSession.getCurrent();
-        if (session != null) {
-            String userId = (String) session.getAttribute("user_id");
-            return userId != null ? userId : "default_user";
-        }
-        return "default_user";
+        return session != null ? (String) session.getAttribute(USER_ID_KEY) : null;
     }
     
     /**
@@ -130,7 +120,6 @@ public class UserSessionService {
         VaadinSession session = VaadinSession.getCurrent();
         if (session != null) {
             session.setAttribute(AVATAR_KEY, null);
-            session.setAttribute(AVATAR_TYPE_KEY, null);
             session.setAttribute(USER_INITIALS_KEY, null);
             session.setAttribute(USER_NAME_KEY, null);
         }
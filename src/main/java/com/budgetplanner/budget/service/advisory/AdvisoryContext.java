@@ -0,0 +1,62 @@
+package com.budgetplanner.budget.service.advisory;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.BudgetItem;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Per-evaluation data shared by all rules: the month being advised on and its budget items.
+ * Budget items are built once, on first use, from the current-month transactions the engine
+ * collected during its pass, so the budget rules do not query transactions again.
+ */
+public class AdvisoryContext {
+
+    private final YearMonth currentMonth;
+    private final LocalDate monthStart;
+    private final LocalDate monthEnd;
+    private final BiFunction<YearMonth, List<BankTransaction>, List<BudgetItem>> budgetItemBuilder;
+    private final List<BankTransaction> currentMonthTransactions = new ArrayList<>();
+    private List<BudgetItem> budgetItems;
+
+    public AdvisoryContext(YearMonth currentMonth,
+                           BiFunction<YearMonth, List<BankTransaction>, List<BudgetItem>> budgetItemBuilder) {
+        this.currentMonth = currentMonth;
+        this.monthStart = currentMonth.atDay(1);
+        this.monthEnd = currentMonth.atEndOfMonth();
+        this.budgetItemBuilder = budgetItemBuilder;
+    }
+
+    public YearMonth getCurrentMonth() {
+        return currentMonth;
+    }
+
+    /**
+     * Advisory window: the current month and the three before it
+     */
+    public LocalDate getWindowStart() {
+        return currentMonth.minusMonths(3).atDay(1);
+    }
+
+    public LocalDate getWindowEnd() {
+        return monthEnd;
+    }
+
+    void observe(BankTransaction transaction) {
+        LocalDate date = transaction.getTransactionDate();
+        if (!date.isBefore(monthStart) && !date.isAfter(monthEnd)) {
+            currentMonthTransactions.add(transaction);
+        }
+    }
+
+    public List<BudgetItem> getBudgetItems() {
+        if (budgetItems == null) {
+            budgetItems = budgetItemBuilder.apply(currentMonth, currentMonthTransactions);
+        }
+        return budgetItems;
+    }
+}
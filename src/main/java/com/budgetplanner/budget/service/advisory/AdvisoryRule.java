@@ -0,0 +1,33 @@
+package com.budgetplanner.budget.service.advisory;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.service.AIAdvisoryService.AdvisoryTip;
+
+import java.util.List;
+
+/**
+ * One advisory heuristic. The engine makes a single pass over the transactions and hands every
+ * transaction to each rule's accumulator, so a rule only keeps the state it needs and never rescans.
+ * Rules are stateless; a fresh accumulator is started per evaluation, which keeps batch runs thread-safe.
+ */
+public interface AdvisoryRule {
+
+    Accumulator start(AdvisoryContext context);
+
+    interface Accumulator {
+
+        void accept(BankTransaction transaction);
+
+        /**
+         * Called once after the pass, adds this rule's tips (if any)
+         */
+        void finish(List<AdvisoryTip> tips);
+    }
+
+    /**
+     * Priority score for tips, impact relative to the impact that counts as maximum priority
+     */
+    static int priority(double impact, double maxImpact) {
+        return Math.min(100, (int) ((impact / maxImpact) * 100));
+    }
+}
@@ -0,0 +1,65 @@
+package com.budgetplanner.budget.service.advisory;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.service.AIAdvisoryService.AdvisoryTip;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a set of {@link AdvisoryRule}s over one shared pass of the transactions: O(n) in the number of
+ * transactions, with each rule folding them into its own accumulator.
+ */
+public class AdvisoryRuleEngine {
+
+    public static final int MAX_TIPS = 6;
+
+    private final List<AdvisoryRule> rules;
+
+    public AdvisoryRuleEngine(List<AdvisoryRule> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * The built-in rules, in the order their tips are listed when priorities tie
+     */
+    public static AdvisoryRuleEngine withDefaultRules() {
+        return new AdvisoryRuleEngine(List.of(
+            new BudgetOverrunRule(),
+            new SpendingTrendRule(),
+            new FrequentPurchaseRule(),
+            new BudgetReallocationRule(),
+            new SavingsOpportunityRule(),
+            new SeasonalSpendingRule()
+        ));
+    }
+
+    /**
+     * Top tips, highest priority first, for transactions within the context's advisory window
+     */
+    public List<AdvisoryTip> evaluate(AdvisoryContext context, List<BankTransaction> transactions) {
+        List<AdvisoryRule.Accumulator> accumulators = new ArrayList<>(rules.size());
+        for (AdvisoryRule rule : rules) {
+            accumulators.add(rule.start(context));
+        }
+
+        for (BankTransaction transaction : transactions) {
+            context.observe(transaction);
+            for (AdvisoryRule.Accumulator accumulator : accumulators) {
+                accumulator.accept(transaction);
+            }
+        }
+
+        List<AdvisoryTip> tips = new ArrayList<>();
+        for (AdvisoryRule.Accumulator accumulator : accumulators) {
+            accumulator.finish(tips);
+        }
+
+        return tips.stream()
+            .sorted(Comparator.comparing(AdvisoryTip::getPriority).reversed())
+            .limit(MAX_TIPS)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,59 @@
+package com.budgetplanner.budget.service.advisory;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.BudgetItem;
+import com.budgetplanner.budget.service.AIAdvisoryService.AdvisoryTip;
+import com.budgetplanner.budget.util.CurrencyFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Categories where this month's spending exceeds the plan by more than 20%
+ */
+public class BudgetOverrunRule implements AdvisoryRule {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetOverrunRule.class);
+
+    @Override
+    public Accumulator start(AdvisoryContext context) {
+        return new Accumulator() {
+            @Override
+            public void accept(BankTransaction transaction) {
+                // Works on the context's budget items
+            }
+
+            @Override
+            public void finish(List<AdvisoryTip> tips) {
+                try {
+                    for (BudgetItem item : context.getBudgetItems()) {
+                        if (item.getActual() > item.getPlanned() && item.getPlanned() > 0) {
+                            double overrun = item.getActual() - item.getPlanned();
+                            double overrunPercent = (overrun / item.getPlanned()) * 100;
+
+                            if (overrunPercent > 20) { // Significant overrun
+                                String message = String.format(
+                                    "You've overspent on %s by %s (%.0f%% over budget). " +
+                                    "Consider setting spending alerts or finding alternatives to reduce this category.",
+                                    item.getCategory(), CurrencyFormatter.formatUSD(overrun), overrunPercent
+                                );
+
+                                tips.add(new AdvisoryTip(
+                                    "Budget Overrun Alert",
+                                    message,
+                                    AdvisoryTip.TipType.WARNING,
+                                    AdvisoryTip.Category.BUDGETING,
+                                    AdvisoryRule.priority(overrunPercent, 50)
+                                ));
+                            }
+                        }
+                    }
+                } catch (Exception e) {
+                    // Budget analysis is best effort, the other rules still produce tips
+                    log.atDebug().setCause(e).log("Budget overrun analysis failed");
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.budgetplanner.budget.service.advisory;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.BudgetItem;
+import com.budgetplanner.budget.service.AIAdvisoryService.AdvisoryTip;
+import com.budgetplanner.budget.util.CurrencyFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Categories running well under plan, whose surplus could go to savings
+ */
+public class BudgetReallocationRule implements AdvisoryRule {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetReallocationRule.class);
+
+    @Override
+    public Accumulator start(AdvisoryContext context) {
+        return new Accumulator() {
+            @Override
+            public void accept(BankTransaction transaction) {
+                // Works on the context's budget items
+            }
+
+            @Override
+            public void finish(List<AdvisoryTip> tips) {
+                try {
+                    for (BudgetItem item : context.getBudgetItems()) {
+                        if (item.getPlanned() > 0 && item.getActual() < item.getPlanned() * 0.7) {
+                            double savings = item.getPlanned() - item.getActual();
+
+                            if (savings > 50) {
+                                String message = String.format(
+                                    "You're spending %s less than budgeted on %s. " +
+                                    "Consider reallocating this surplus to savings or other financial goals.",
+                                    CurrencyFormatter.formatUSD(savings), item.getCategory()
+                                );
+
+                                tips.add(new AdvisoryTip(
+                                    "Budget Reallocation Opportunity",
+                                    message,
+                                    AdvisoryTip.TipType.OPPORTUNITY,
+                                    AdvisoryTip.Category.BUDGETING,
+                                    AdvisoryRule.priority(savings, 100)
+                                ));
+                            }
+                        }
+                    }
+                } catch (Exception e) {
+                    log.atDebug().setCause(e).log("Budget variance analysis failed");
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.budgetplanner.budget.service.advisory;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.service.AIAdvisoryService.AdvisoryTip;
+import com.budgetplanner.budget.util.CurrencyFormatter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Frequent small purchases at one merchant that add up
+ */
+public class FrequentPurchaseRule implements AdvisoryRule {
+
+    @Override
+    public Accumulator start(AdvisoryContext context) {
+        // merchant -> {purchase count, total spent}
+        Map<String, double[]> merchants = new HashMap<>();
+
+        return new Accumulator() {
+            @Override
+            public void accept(BankTransaction transaction) {
+                double amount = transaction.getAmount();
+                if (amount < 0 && Math.abs(amount) < 50 && transaction.getMerchantName() != null) { // Small expenses
+                    double[] totals = merchants.computeIfAbsent(transaction.getMerchantName(), merchant -> new double[2]);
+                    totals[0]++;
+                    totals[1] += Math.abs(amount);
+                }
+            }
+
+            @Override
+            public void finish(List<AdvisoryTip> tips) {
+                for (Map.Entry<String, double[]> entry : merchants.entrySet()) {
+                    int purchases = (int) entry.getValue()[0];
+                    double totalSpent = entry.getValue()[1];
+
+                    if (purchases >= 8 && totalSpent > 100) { // Frequent purchases
+                        String message = String.format(
+                            "You've made %d purchases at %s totaling %s. " +
+                            "Consider if these frequent small purchases align with your budget priorities.",
+                            purchases, entry.getKey(), CurrencyFormatter.formatUSD(totalSpent)
+                        );
+
+                        tips.add(new AdvisoryTip(
+                            "Frequent Small Purchases",
+                            message,
+                            AdvisoryTip.TipType.SUGGESTION,
+                            AdvisoryTip.Category.SPENDING_HABITS,
+                            AdvisoryRule.priority(totalSpent, 200)
+                        ));
+                    }
+                }
+            }
+        };
+    }
+}
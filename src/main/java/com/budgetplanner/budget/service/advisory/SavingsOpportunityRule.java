@@ -0,0 +1,75 @@
+package com.budgetplanner.budget.service.advisory;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.service.AIAdvisoryService.AdvisoryTip;
+import com.budgetplanner.budget.util.CurrencyFormatter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dining out compared to groceries, and repeated subscription charges worth reviewing
+ */
+public class SavingsOpportunityRule implements AdvisoryRule {
+
+    @Override
+    public Accumulator start(AdvisoryContext context) {
+        return new Accumulator() {
+            private double diningOut;
+            private double groceries;
+            private final Map<String, int[]> chargesByMerchant = new HashMap<>();
+
+            @Override
+            public void accept(BankTransaction transaction) {
+                String category = transaction.getBudgetCategory();
+                if ("Dining Out".equals(category)) {
+                    diningOut += Math.abs(transaction.getAmount());
+                } else if ("Groceries".equals(category)) {
+                    groceries += Math.abs(transaction.getAmount());
+                }
+                if (transaction.getAmount() < 0 && transaction.getMerchantName() != null) {
+                    // Lower-casing per merchant in finish() rather than per transaction here
+                    chargesByMerchant.computeIfAbsent(transaction.getMerchantName(), merchant -> new int[1])[0]++;
+                }
+            }
+
+            @Override
+            public void finish(List<AdvisoryTip> tips) {
+                if (diningOut > groceries * 0.8) {
+                    String message = String.format(
+                        "You're spending %s on dining out vs %s on groceries. " +
+                        "Cooking more meals at home could save you approximately %s per month.",
+                        CurrencyFormatter.formatUSD(diningOut), CurrencyFormatter.formatUSD(groceries),
+                        CurrencyFormatter.formatUSD(diningOut * 0.3)
+                    );
+
+                    tips.add(new AdvisoryTip(
+                        "Home Cooking Savings",
+                        message,
+                        AdvisoryTip.TipType.SUGGESTION,
+                        AdvisoryTip.Category.MONEY_SAVING,
+                        AdvisoryRule.priority(diningOut * 0.3, 150)
+                    ));
+                }
+
+                for (Map.Entry<String, int[]> entry : chargesByMerchant.entrySet()) {
+                    if (entry.getValue()[0] >= 3 && entry.getKey().toLowerCase().contains("subscription")) {
+                        String message = String.format(
+                            "Review your subscription to %s. Cancel unused subscriptions to free up monthly budget.",
+                            entry.getKey()
+                        );
+
+                        tips.add(new AdvisoryTip(
+                            "Subscription Review",
+                            message,
+                            AdvisoryTip.TipType.SUGGESTION,
+                            AdvisoryTip.Category.MONEY_SAVING,
+                            70
+                        ));
+                    }
+                }
+            }
+        };
+    }
+}
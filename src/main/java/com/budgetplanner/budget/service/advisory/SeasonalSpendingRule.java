@@ -0,0 +1,47 @@
+package com.budgetplanner.budget.service.advisory;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.service.AIAdvisoryService.AdvisoryTip;
+
+import java.util.List;
+
+/**
+ * Elevated holiday shopping and entertainment spending in November and December
+ */
+public class SeasonalSpendingRule implements AdvisoryRule {
+
+    @Override
+    public Accumulator start(AdvisoryContext context) {
+        int currentMonthValue = context.getCurrentMonth().getMonthValue();
+        boolean holidaySeason = currentMonthValue == 11 || currentMonthValue == 12;
+
+        return new Accumulator() {
+            private double holidaySpending;
+
+            @Override
+            public void accept(BankTransaction transaction) {
+                if (holidaySeason && transaction.getTransactionDate().getMonthValue() >= 11) {
+                    String category = transaction.getBudgetCategory();
+                    if ("Shopping".equals(category) || "Entertainment".equals(category)) {
+                        holidaySpending += Math.abs(transaction.getAmount());
+                    }
+                }
+            }
+
+            @Override
+            public void finish(List<AdvisoryTip> tips) {
+                if (holidaySeason && holidaySpending > 500) {
+                    String message = "Holiday spending is elevated. Consider setting a holiday budget limit and tracking gift expenses to avoid overspending.";
+
+                    tips.add(new AdvisoryTip(
+                        "Holiday Spending Alert",
+                        message,
+                        AdvisoryTip.TipType.WARNING,
+                        AdvisoryTip.Category.SEASONAL,
+                        85
+                    ));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.budgetplanner.budget.service.advisory;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.service.AIAdvisoryService.AdvisoryTip;
+import com.budgetplanner.budget.util.CurrencyFormatter;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-income categories whose latest month of spending is 30% above the month before
+ */
+public class SpendingTrendRule implements AdvisoryRule {
+
+    private static final int WINDOW_MONTHS = 4;
+
+    @Override
+    public Accumulator start(AdvisoryContext context) {
+        LocalDate windowStart = context.getWindowStart();
+        int windowStartIndex = windowStart.getYear() * 12 + windowStart.getMonthValue() - 1;
+
+        // categoryType -> category -> spending per month of the window (null slot = no transactions)
+        Map<String, Map<String, Double[]>> spending = new HashMap<>();
+
+        return new Accumulator() {
+            @Override
+            public void accept(BankTransaction transaction) {
+                String categoryType = transaction.getBudgetCategoryType();
+                if (categoryType == null || categoryType.equals("INCOME")) {
+                    return;
+                }
+                LocalDate date = transaction.getTransactionDate();
+                int slot = date.getYear() * 12 + date.getMonthValue() - 1 - windowStartIndex;
+                if (slot < 0 || slot >= WINDOW_MONTHS) {
+                    return;
+                }
+                Double[] monthly = spending
+                    .computeIfAbsent(categoryType, type -> new HashMap<>())
+                    .computeIfAbsent(String.valueOf(transaction.getBudgetCategory()), category -> new Double[WINDOW_MONTHS]);
+                double amount = Math.abs(transaction.getAmount());
+                monthly[slot] = monthly[slot] == null ? amount : monthly[slot] + amount;
+            }
+
+            @Override
+            public void finish(List<AdvisoryTip> tips) {
+                for (Map<String, Double[]> categories : spending.values()) {
+                    for (Map.Entry<String, Double[]> entry : categories.entrySet()) {
+                        addTrendTip(entry.getKey(), entry.getValue(), tips);
+                    }
+                }
+            }
+        };
+    }
+
+    private void addTrendTip(String category, Double[] monthly, List<AdvisoryTip> tips) {
+        // Compare the two most recent months that had spending in this category
+        int last = WINDOW_MONTHS - 1;
+        while (last >= 0 && monthly[last] == null) {
+            last--;
+        }
+        int previous = last - 1;
+        while (previous >= 0 && monthly[previous] == null) {
+            previous--;
+        }
+        if (previous < 0) {
+            return;
+        }
+
+        double lastAmount = monthly[last];
+        double previousAmount = monthly[previous];
+
+        if (lastAmount > previousAmount * 1.3) { // 30% increase
+            double increase = lastAmount - previousAmount;
+            String message = String.format(
+                "Your %s spending increased by %s this month. " +
+                "Review recent purchases and consider if this trend aligns with your financial goals.",
+                category, CurrencyFormatter.formatUSD(increase)
+            );
+
+            tips.add(new AdvisoryTip(
+                "Spending Trend Alert",
+                message,
+                AdvisoryTip.TipType.INSIGHT,
+                AdvisoryTip.Category.SPENDING_ANALYSIS,
+                AdvisoryRule.priority(increase, 100)
+            ));
+        }
+    }
+}
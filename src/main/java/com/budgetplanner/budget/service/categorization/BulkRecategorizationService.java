@@ -0,0 +1,105 @@
+package com.budgetplanner.budget.service.categorization;
+
+import com.budgetplanner.budget.metrics.BudgetMetrics;
+import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.service.AuditLogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Recategorizes many transactions at once with set-based UPDATEs instead of loading and saving each one.
+ *
+ * Only rows whose category or type actually change are written and counted. Every call records one audit
+ * entry, and with {@code remember} also saves a {@link CategorizationRuleBook} rule so future ingests of
+ * matching transactions get the same category. Bulk UPDATEs bypass the entity's domain events, so one
+ * change event is published per affected bank login and month instead.
+ */
+@Service
+@Transactional
+public class BulkRecategorizationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkRecategorizationService.class);
+
+    // Ids per UPDATE, keeps the IN list within what databases accept
+    private static final int ID_CHUNK = 1_000;
+
+    private final BankTransactionRepository transactionRepository;
+    private final CategorizationRuleBook ruleBook;
+    private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BulkRecategorizationService(BankTransactionRepository transactionRepository,
+                                       CategorizationRuleBook ruleBook,
+                                       AuditLogService auditLogService,
+                                       ApplicationEventPublisher eventPublisher) {
+        this.transactionRepository = transactionRepository;
+        this.ruleBook = ruleBook;
+        this.auditLogService = auditLogService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Gives every transaction matching {@code criteria} the category and type; returns how many changed
+     */
+    public int recategorize(TransactionCriteria criteria, String budgetCategory, String budgetCategoryType) {
+        return recategorize(criteria, budgetCategory, budgetCategoryType, false);
+    }
+
+    /**
+     * As {@link #recategorize(TransactionCriteria, String, String)}, and with {@code remember} also keeps a
+     * rule for transactions ingested later. Remembering needs conditions, not an id set.
+     */
+    public int recategorize(TransactionCriteria criteria, String budgetCategory, String budgetCategoryType,
+                            boolean remember) {
+        Objects.requireNonNull(budgetCategory, "budgetCategory");
+        Objects.requireNonNull(budgetCategoryType, "budgetCategoryType");
+        if (remember) {
+            ruleBook.add(criteria, budgetCategory, budgetCategoryType);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> itemDates = new ArrayList<>();
+        int changed = 0;
+        if (criteria.isIdSet()) {
+            List<Long> ids = new ArrayList<>(criteria.getIds());
+            for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ID_CHUNK));
+                itemDates.addAll(transactionRepository.findItemDatesToRecategorizeByIds(chunk, budgetCategory,
+                    budgetCategoryType));
+                changed += transactionRepository.recategorizeByIds(chunk, budgetCategory, budgetCategoryType, now);
+            }
+        } else {
+            itemDates.addAll(transactionRepository.findItemDatesToRecategorizeMatching(criteria.getMerchantName(),
+                criteria.descriptionLike(), criteria.getPlaidCategory(), criteria.getMinAmount(),
+                criteria.getMaxAmount(), criteria.getBankAccountId(), budgetCategory, budgetCategoryType));
+            changed = transactionRepository.recategorizeMatching(criteria.getMerchantName(),
+                criteria.descriptionLike(), criteria.getPlaidCategory(), criteria.getMinAmount(),
+                criteria.getMaxAmount(), criteria.getBankAccountId(), budgetCategory, budgetCategoryType, now);
+        }
+
+        if (changed > 0 || remember) {
+            auditLogService.logTransactionAction("BULK_RECATEGORIZE", "BULK",
+                "Recategorized " + changed + " transactions (" + criteria + ")"
+                    + (remember ? " and saved a rule for future transactions" : ""),
+                null, budgetCategoryType + " / " + budgetCategory);
+        }
+        MonthlyChangeEvents.publish(eventPublisher, itemDates);
+        BudgetMetrics.transactionsCategorized("bulk", changed);
+        log.atInfo()
+            .addKeyValue("criteria", criteria)
+            .addKeyValue("category", budgetCategory)
+            .addKeyValue("categoryType", budgetCategoryType)
+            .addKeyValue("changed", changed)
+            .addKeyValue("remember", remember)
+            .log("Bulk recategorization");
+        return changed;
+    }
+}
@@ -0,0 +1,201 @@
+package com.budgetplanner.budget.service.categorization;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.CategorizationRule;
+import com.budgetplanner.budget.repository.CategorizationRuleRepository;
+import com.budgetplanner.budget.repository.SavingsGoalRepository;
+import com.budgetplanner.budget.service.TransactionMetaService;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The users' categorization rules, applied to transactions as they are ingested.
+ *
+ * Each user's enabled rules are compiled into a {@link RuleIndex} of their own, and a transaction is only
+ * evaluated against its user's index; when several match, the newest rule that sets a field
+ * wins and all of their tags are added. A rule added here is saved in the caller's transaction, takes effect
+ * once that transaction commits, and is then applied to the stored transactions by {@link RuleBackfill} in the
+ * background.
+ */
+@Service
+public class CategorizationRuleBook {
+
+    private static final Logger log = LoggerFactory.getLogger(CategorizationRuleBook.class);
+
+    private final CategorizationRuleRepository ruleRepository;
+    private final RuleBackfill ruleBackfill;
+    private final SavingsGoalRepository savingsGoalRepository;
+    private final TransactionMetaService transactionMetaService;
+
+    // Per user; replaced, never modified
+    private volatile Map<String, RuleIndex> indexes = Map.of();
+
+    public CategorizationRuleBook(CategorizationRuleRepository ruleRepository,
+                                  RuleBackfill ruleBackfill,
+                                  SavingsGoalRepository savingsGoalRepository,
+                                  TransactionMetaService transactionMetaService) {
+        this.ruleRepository = ruleRepository;
+        this.ruleBackfill = ruleBackfill;
+        this.savingsGoalRepository = savingsGoalRepository;
+        this.transactionMetaService = transactionMetaService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<CategorizationRule> rules = reload();
+        int pending = 0;
+        for (CategorizationRule rule : rules) {
+            // Added before a restart that interrupted its backfill
+            if (rule.getBackfilledAt() == null) {
+                ruleBackfill.backfill(rule.getUserId(), rule.getId());
+                pending++;
+            }
+        }
+        log.atInfo().addKeyValue("rules", rules.size()).addKeyValue("pendingBackfills", pending)
+            .log("Categorization rules loaded");
+    }
+
+    /**
+     * Reloads every user's rules, picking up the rules other nodes added
+     */
+    public void resync() {
+        reload();
+    }
+
+    private synchronized List<CategorizationRule> reload() {
+        // Under the lock, so a rule added meanwhile is either loaded here or added on top afterwards
+        List<CategorizationRule> rules = TenantContext.callAsSystem(ruleRepository::findByEnabledTrueOrderByIdAsc);
+        Map<String, List<CategorizationRule>> byUser = new HashMap<>();
+        rules.forEach(rule -> byUser.computeIfAbsent(rule.getUserId(), user -> new ArrayList<>()).add(rule));
+        Map<String, RuleIndex> loaded = new HashMap<>();
+        byUser.forEach((user, userRules) -> loaded.put(user, new RuleIndex(userRules)));
+        indexes = Map.copyOf(loaded);
+        return rules;
+    }
+
+    /**
+     * Saves a rule that gives transactions matching {@code criteria} the category and type
+     */
+    public CategorizationRule add(TransactionCriteria criteria, String budgetCategory, String budgetCategoryType) {
+        if (criteria.isIdSet()) {
+            throw new IllegalArgumentException("A rule needs conditions, not a set of transactions");
+        }
+        CategorizationRule rule = new CategorizationRule(criteria.getMerchantName(), criteria.getDescriptionPattern(),
+            criteria.getPlaidCategory(), budgetCategory, budgetCategoryType);
+        rule.setMinAmount(criteria.getMinAmount());
+        rule.setMaxAmount(criteria.getMaxAmount());
+        rule.setBankAccountId(criteria.getBankAccountId());
+        return add(rule);
+    }
+
+    /**
+     * Saves a new rule; it needs at least one condition and one action
+     */
+    public CategorizationRule add(CategorizationRule rule) {
+        RuleIndex.criteria(rule);
+        if (rule.getTagName() != null && rule.getTagName().isBlank()) {
+            rule.setTagName(null);
+        }
+        if (rule.getBudgetCategory() == null && rule.getBudgetCategoryType() == null
+            && rule.getTagName() == null && rule.getSavingsGoalId() == null) {
+            throw new IllegalArgumentException("A rule needs a category, type, tag or goal to set");
+        }
+        if (rule.getSavingsGoalId() != null && !savingsGoalRepository.existsById(rule.getSavingsGoalId())) {
+            throw new IllegalArgumentException("No savings goal with id " + rule.getSavingsGoalId());
+        }
+        rule.setEnabled(true);
+        rule.setBackfilledAt(null);
+        CategorizationRule saved = ruleRepository.save(rule);
+        afterCommit(() -> {
+            synchronized (this) {
+                Map<String, RuleIndex> updated = new HashMap<>(indexes);
+                updated.put(saved.getUserId(), indexOf(saved.getUserId()).with(saved));
+                indexes = Map.copyOf(updated);
+            }
+            ruleBackfill.backfill(saved.getUserId(), saved.getId());
+        });
+        return saved;
+    }
+
+    /**
+     * Applies the matching rules' category, type and goal to a transaction about to be stored; returns false if
+     * no rule matches. Tags need the stored transaction, see {@link #applyTags}.
+     */
+    public boolean apply(BankTransaction transaction) {
+        RuleIndex.Match match = indexOf(transaction.getUserId()).evaluate(transaction);
+        if (match == null) {
+            return false;
+        }
+        if (match.getBudgetCategory() != null) {
+            transaction.setBudgetCategory(match.getBudgetCategory());
+        }
+        if (match.getBudgetCategoryType() != null) {
+            transaction.setBudgetCategoryType(match.getBudgetCategoryType());
+        }
+        if (match.getSavingsGoalId() != null && transaction.getSavingsGoal() == null) {
+            // Goals are only ever deactivated, and add() checked this one exists, so no lookup is needed
+            transaction.setSavingsGoal(savingsGoalRepository.getReferenceById(match.getSavingsGoalId()));
+        }
+        return true;
+    }
+
+    /**
+     * Adds the matching rules' tags to just stored transactions, one bulk insert per tag; returns the links added
+     */
+    public int applyTags(Collection<BankTransaction> stored) {
+        Map<String, RuleIndex> current = indexes;
+        if (stored.isEmpty() || current.values().stream().noneMatch(RuleIndex::tagging)) {
+            return 0;
+        }
+        Map<String, List<BankTransaction>> byTag = new LinkedHashMap<>();
+        for (BankTransaction transaction : stored) {
+            RuleIndex.Match match = indexOf(current, transaction.getUserId()).evaluate(transaction);
+            if (match != null) {
+                match.getTagNames().forEach(tag -> byTag.computeIfAbsent(tag, key -> new ArrayList<>()).add(transaction));
+            }
+        }
+        int added = 0;
+        for (Map.Entry<String, List<BankTransaction>> tag : byTag.entrySet()) {
+            added += transactionMetaService.tagAll(tag.getValue(), tag.getKey());
+        }
+        return added;
+    }
+
+    public int size() {
+        return indexes.values().stream().mapToInt(RuleIndex::size).sum();
+    }
+
+    private RuleIndex indexOf(String userId) {
+        return indexOf(indexes, userId);
+    }
+
+    private static RuleIndex indexOf(Map<String, RuleIndex> indexes, String userId) {
+        return userId != null ? indexes.getOrDefault(userId, RuleIndex.EMPTY) : RuleIndex.EMPTY;
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.budgetplanner.budget.service.categorization;
+
+import com.budgetplanner.budget.event.TransactionChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Change events for set-based updates, which bypass the entity's domain events: one
+ * {@link TransactionChangedEvent} per bank login and month, enough for the listeners that refresh per month
+ * and user.
+ */
+final class MonthlyChangeEvents {
+
+    private MonthlyChangeEvents() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Publishes the events for (plaid item id, transaction date) rows
+     */
+    static void publish(ApplicationEventPublisher eventPublisher, List<Object[]> itemDates) {
+        Map<String, LocalDate> months = new LinkedHashMap<>();
+        Map<String, String> items = new LinkedHashMap<>();
+        for (Object[] row : itemDates) {
+            String itemId = (String) row[0];
+            LocalDate date = (LocalDate) row[1];
+            String key = itemId + "|" + YearMonth.from(date);
+            if (months.putIfAbsent(key, date) == null) {
+                items.put(key, itemId);
+            }
+        }
+        months.forEach((key, date) -> eventPublisher.publishEvent(
+            new TransactionChangedEvent(null, items.get(key), date)));
+    }
+}
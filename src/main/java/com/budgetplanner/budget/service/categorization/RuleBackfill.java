@@ -0,0 +1,140 @@
+package com.budgetplanner.budget.service.categorization;
+
+import com.budgetplanner.budget.metrics.BudgetMetrics;
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.CategorizationRule;
+import com.budgetplanner.budget.model.SavingsGoal;
+import com.budgetplanner.budget.repository.BankTransactionRepository;
+import com.budgetplanner.budget.repository.CategorizationRuleRepository;
+import com.budgetplanner.budget.repository.SavingsGoalRepository;
+import com.budgetplanner.budget.service.TransactionMetaService;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Applies a newly added rule to the transactions already stored, in the background.
+ *
+ * Each action is one set-based statement over the rule's conditions: the category and type skip transactions
+ * reviewed by hand, the goal is only assigned to transactions without one, and the tag is added through
+ * {@link TransactionMetaService#tagAll}. The rule is marked backfilled in the same transaction, so a backfill
+ * that fails or is cut short by a shutdown runs again at the next start. The worker runs as the rule's user,
+ * whichever thread submitted the backfill.
+ */
+@Service
+public class RuleBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleBackfill.class);
+
+    private final CategorizationRuleRepository ruleRepository;
+    private final BankTransactionRepository transactionRepository;
+    private final SavingsGoalRepository savingsGoalRepository;
+    private final TransactionMetaService transactionMetaService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate newTransaction;
+
+    public RuleBackfill(CategorizationRuleRepository ruleRepository,
+                        BankTransactionRepository transactionRepository,
+                        SavingsGoalRepository savingsGoalRepository,
+                        TransactionMetaService transactionMetaService,
+                        ApplicationEventPublisher eventPublisher,
+                        PlatformTransactionManager transactionManager) {
+        this.ruleRepository = ruleRepository;
+        this.transactionRepository = transactionRepository;
+        this.savingsGoalRepository = savingsGoalRepository;
+        this.transactionMetaService = transactionMetaService;
+        this.eventPublisher = eventPublisher;
+        // Also called after the commit that saved the rule, where joining that transaction would be wrong
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Applies the rule of {@code userId} to that user's stored transactions; completes with the number of
+     * changes made, or exceptionally if the rule does not exist or the backfill fails
+     */
+    @Async
+    public CompletableFuture<Integer> backfill(String userId, Long ruleId) {
+        long startTime = System.currentTimeMillis();
+        try {
+            Integer changes = TenantContext.callAs(userId, () -> newTransaction.execute(status -> {
+                CategorizationRule rule = ruleRepository.findById(ruleId)
+                    .orElseThrow(() -> new IllegalStateException("No rule " + ruleId + " of user " + userId));
+                return Boolean.TRUE.equals(rule.getEnabled()) && rule.getBackfilledAt() == null ? apply(rule) : 0;
+            }));
+            log.atInfo()
+                .addKeyValue("ruleId", ruleId)
+                .addKeyValue("userId", userId)
+                .addKeyValue("changes", changes)
+                .addKeyValue("durationMs", System.currentTimeMillis() - startTime)
+                .log("Rule backfill complete");
+            return CompletableFuture.completedFuture(changes);
+        } catch (RuntimeException e) {
+            log.atError().addKeyValue("ruleId", ruleId).addKeyValue("userId", userId).setCause(e)
+                .log("Rule backfill failed");
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private int apply(CategorizationRule rule) {
+        TransactionCriteria criteria = RuleIndex.criteria(rule);
+        LocalDateTime now = LocalDateTime.now();
+
+        int categorized = 0;
+        if (rule.getBudgetCategory() != null || rule.getBudgetCategoryType() != null) {
+            List<Object[]> itemDates = transactionRepository.findItemDatesForRuleCategory(criteria.getMerchantName(),
+                criteria.descriptionLike(), criteria.getPlaidCategory(), criteria.getMinAmount(),
+                criteria.getMaxAmount(), criteria.getBankAccountId(), rule.getBudgetCategory(),
+                rule.getBudgetCategoryType());
+            categorized = transactionRepository.applyRuleCategory(criteria.getMerchantName(),
+                criteria.descriptionLike(), criteria.getPlaidCategory(), criteria.getMinAmount(),
+                criteria.getMaxAmount(), criteria.getBankAccountId(), rule.getBudgetCategory(),
+                rule.getBudgetCategoryType(), now);
+            MonthlyChangeEvents.publish(eventPublisher, itemDates);
+            BudgetMetrics.transactionsCategorized("rule", categorized);
+        }
+
+        int assigned = 0;
+        if (rule.getSavingsGoalId() != null) {
+            SavingsGoal goal = savingsGoalRepository.findById(rule.getSavingsGoalId()).orElse(null);
+            if (goal != null) {
+                assigned = transactionRepository.assignGoalMatching(criteria.getMerchantName(),
+                    criteria.descriptionLike(), criteria.getPlaidCategory(), criteria.getMinAmount(),
+                    criteria.getMaxAmount(), criteria.getBankAccountId(), goal, now);
+            } else {
+                log.atWarn().addKeyValue("ruleId", rule.getId()).addKeyValue("goalId", rule.getSavingsGoalId())
+                    .log("Rule assigns a goal that no longer exists");
+            }
+        }
+
+        int tagged = 0;
+        if (rule.getTagName() != null) {
+            List<Long> ids = transactionRepository.findIdsMatching(criteria.getMerchantName(),
+                criteria.descriptionLike(), criteria.getPlaidCategory(), criteria.getMinAmount(),
+                criteria.getMaxAmount(), criteria.getBankAccountId());
+            List<BankTransaction> references = new ArrayList<>(ids.size());
+            ids.forEach(id -> references.add(transactionRepository.getReferenceById(id)));
+            tagged = transactionMetaService.tagAll(references, rule.getTagName());
+        }
+
+        rule.setBackfilledAt(now);
+        log.atDebug()
+            .addKeyValue("ruleId", rule.getId())
+            .addKeyValue("categorized", categorized)
+            .addKeyValue("goalsAssigned", assigned)
+            .addKeyValue("tagged", tagged)
+            .log("Rule applied to stored transactions");
+        return categorized + assigned + tagged;
+    }
+}
@@ -0,0 +1,179 @@
+package com.budgetplanner.budget.service.categorization;
+
+import com.budgetplanner.budget.model.BankTransaction;
+import com.budgetplanner.budget.model.CategorizationRule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Enabled rules compiled for evaluation at ingest. Rules with a merchant condition are indexed by merchant,
+ * rules with an account but no merchant condition by account, and only the rest are tested against every
+ * transaction, so a transaction costs the rules that could match it rather than all of them. Immutable; adding
+ * a rule builds a new index.
+ */
+final class RuleIndex {
+
+    static final RuleIndex EMPTY = new RuleIndex(List.of());
+
+    // Newest first
+    private static final Comparator<CompiledRule> PRIORITY = Comparator.comparing((CompiledRule rule) -> rule.id).reversed();
+
+    private final List<CategorizationRule> rules;
+    private final Map<String, List<CompiledRule>> byMerchant = new HashMap<>();
+    private final Map<Long, List<CompiledRule>> byAccount = new HashMap<>();
+    private final List<CompiledRule> unindexed = new ArrayList<>();
+    private final boolean tagging;
+
+    RuleIndex(Collection<CategorizationRule> rules) {
+        this.rules = List.copyOf(rules);
+        boolean anyTags = false;
+        for (CategorizationRule rule : this.rules) {
+            CompiledRule compiled = new CompiledRule(rule);
+            if (compiled.criteria.getMerchantName() != null) {
+                byMerchant.computeIfAbsent(compiled.criteria.getMerchantName(), key -> new ArrayList<>()).add(compiled);
+            } else if (compiled.criteria.getBankAccountId() != null) {
+                byAccount.computeIfAbsent(compiled.criteria.getBankAccountId(), key -> new ArrayList<>()).add(compiled);
+            } else {
+                unindexed.add(compiled);
+            }
+            anyTags |= compiled.tagName != null;
+        }
+        byMerchant.values().forEach(list -> list.sort(PRIORITY));
+        byAccount.values().forEach(list -> list.sort(PRIORITY));
+        unindexed.sort(PRIORITY);
+        this.tagging = anyTags;
+    }
+
+    // Replaces the rule if a resync already loaded it
+    RuleIndex with(CategorizationRule rule) {
+        List<CategorizationRule> updated = new ArrayList<>(rules);
+        updated.removeIf(existing -> Objects.equals(existing.getId(), rule.getId()));
+        updated.add(rule);
+        return new RuleIndex(updated);
+    }
+
+    int size() {
+        return rules.size();
+    }
+
+    /**
+     * True if any rule adds a tag
+     */
+    boolean tagging() {
+        return tagging;
+    }
+
+    /**
+     * Combined actions of the rules matching the transaction, null if none matches
+     */
+    Match evaluate(BankTransaction transaction) {
+        String lowerDescription = transaction.getDescription() != null
+            ? transaction.getDescription().toLowerCase(Locale.ROOT) : null;
+        List<CompiledRule> matched = null;
+        matched = collect(byMerchant.get(transaction.getMerchantName()), transaction, lowerDescription, matched);
+        if (transaction.getBankAccount() != null) {
+            matched = collect(byAccount.get(transaction.getBankAccount().getId()), transaction, lowerDescription, matched);
+        }
+        matched = collect(unindexed, transaction, lowerDescription, matched);
+        if (matched == null) {
+            return null;
+        }
+        matched.sort(PRIORITY);
+
+        Match match = new Match();
+        for (CompiledRule rule : matched) {
+            if (match.budgetCategory == null) {
+                match.budgetCategory = rule.budgetCategory;
+            }
+            if (match.budgetCategoryType == null) {
+                match.budgetCategoryType = rule.budgetCategoryType;
+            }
+            if (match.savingsGoalId == null) {
+                match.savingsGoalId = rule.savingsGoalId;
+            }
+            if (rule.tagName != null) {
+                match.tagNames.add(rule.tagName);
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Conditions of a stored rule
+     */
+    static TransactionCriteria criteria(CategorizationRule rule) {
+        return TransactionCriteria.matching(rule.getMerchantName(), rule.getDescriptionPattern(),
+            rule.getPlaidCategory(), rule.getMinAmount(), rule.getMaxAmount(), rule.getBankAccountId());
+    }
+
+    private static List<CompiledRule> collect(List<CompiledRule> candidates, BankTransaction transaction,
+                                              String lowerDescription, List<CompiledRule> matched) {
+        if (candidates == null) {
+            return matched;
+        }
+        for (CompiledRule rule : candidates) {
+            if (rule.criteria.matches(transaction, lowerDescription)) {
+                if (matched == null) {
+                    matched = new ArrayList<>(2);
+                }
+                matched.add(rule);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * What the matching rules set: for each field the newest rule that sets it, and every rule's tag
+     */
+    static final class Match {
+
+        private String budgetCategory;
+        private String budgetCategoryType;
+        private Long savingsGoalId;
+        private final Set<String> tagNames = new LinkedHashSet<>();
+
+        String getBudgetCategory() {
+            return budgetCategory;
+        }
+
+        String getBudgetCategoryType() {
+            return budgetCategoryType;
+        }
+
+        Long getSavingsGoalId() {
+            return savingsGoalId;
+        }
+
+        Set<String> getTagNames() {
+            return tagNames;
+        }
+    }
+
+    private static final class CompiledRule {
+
+        private final Long id;
+        private final TransactionCriteria criteria;
+        private final String budgetCategory;
+        private final String budgetCategoryType;
+        private final String tagName;
+        private final Long savingsGoalId;
+
+        private CompiledRule(CategorizationRule rule) {
+            this.id = rule.getId();
+            this.criteria = criteria(rule);
+            this.budgetCategory = rule.getBudgetCategory();
+            this.budgetCategoryType = rule.getBudgetCategoryType();
+            this.tagName = rule.getTagName();
+            this.savingsGoalId = rule.getSavingsGoalId();
+        }
+    }
+}
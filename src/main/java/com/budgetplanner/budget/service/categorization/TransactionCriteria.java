@@ -0,0 +1,180 @@
+package com.budgetplanner.budget.service.categorization;
+
+import com.budgetplanner.budget.model.BankTransaction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Which transactions a bulk recategorization or a categorization rule applies to: either an explicit set of
+ * ids, or conditions on merchant name (exact), description (contains, ignoring case), Plaid category (exact),
+ * amount range (inclusive, ignoring the sign) and bank account. Conditions left null match anything, but at
+ * least one must be given.
+ */
+public final class TransactionCriteria {
+
+    private final Set<Long> ids;
+    private final String merchantName;
+    private final String descriptionPattern;
+    private final String plaidCategory;
+    private final Double minAmount;
+    private final Double maxAmount;
+    private final Long bankAccountId;
+    // Lower-case description pattern, so matching lower-cases only the description
+    private final String descriptionNeedle;
+
+    private TransactionCriteria(Set<Long> ids, String merchantName, String descriptionPattern, String plaidCategory,
+                                Double minAmount, Double maxAmount, Long bankAccountId) {
+        this.ids = ids;
+        this.merchantName = merchantName;
+        this.descriptionPattern = descriptionPattern;
+        this.plaidCategory = plaidCategory;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.bankAccountId = bankAccountId;
+        this.descriptionNeedle = descriptionPattern != null ? descriptionPattern.toLowerCase(Locale.ROOT) : null;
+    }
+
+    public static TransactionCriteria ids(Collection<Long> ids) {
+        return new TransactionCriteria(ids.stream().filter(id -> id != null).collect(Collectors.toUnmodifiableSet()),
+            null, null, null, null, null, null);
+    }
+
+    public static TransactionCriteria matching(String merchantName, String descriptionPattern, String plaidCategory) {
+        return matching(merchantName, descriptionPattern, plaidCategory, null, null, null);
+    }
+
+    public static TransactionCriteria matching(String merchantName, String descriptionPattern, String plaidCategory,
+                                               Double minAmount, Double maxAmount, Long bankAccountId) {
+        if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+            throw new IllegalArgumentException("Minimum amount " + minAmount + " is above maximum " + maxAmount);
+        }
+        TransactionCriteria criteria = new TransactionCriteria(null, blankToNull(merchantName),
+            blankToNull(descriptionPattern), blankToNull(plaidCategory), minAmount, maxAmount, bankAccountId);
+        if (criteria.merchantName == null && criteria.descriptionPattern == null && criteria.plaidCategory == null
+            && minAmount == null && maxAmount == null && bankAccountId == null) {
+            throw new IllegalArgumentException("Give a merchant, description, Plaid category, amount or account condition");
+        }
+        return criteria;
+    }
+
+    /**
+     * True for an explicit id set, false for conditions
+     */
+    public boolean isIdSet() {
+        return ids != null;
+    }
+
+    public Set<Long> getIds() {
+        return ids;
+    }
+
+    public String getMerchantName() {
+        return merchantName;
+    }
+
+    public String getDescriptionPattern() {
+        return descriptionPattern;
+    }
+
+    public String getPlaidCategory() {
+        return plaidCategory;
+    }
+
+    public Double getMinAmount() {
+        return minAmount;
+    }
+
+    public Double getMaxAmount() {
+        return maxAmount;
+    }
+
+    public Long getBankAccountId() {
+        return bankAccountId;
+    }
+
+    /**
+     * The description condition as a lower-case LIKE pattern with {@code !} as escape character, or null
+     */
+    public String descriptionLike() {
+        if (descriptionPattern == null) {
+            return null;
+        }
+        String escaped = descriptionNeedle
+            .replace("!", "!!")
+            .replace("%", "!%")
+            .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Same test as the database query, for a transaction in memory
+     */
+    public boolean matches(BankTransaction transaction) {
+        return matches(transaction, descriptionNeedle == null || transaction.getDescription() == null
+            ? null : transaction.getDescription().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * As {@link #matches(BankTransaction)} with the description already lower-cased, for callers testing many
+     * criteria against one transaction
+     */
+    boolean matches(BankTransaction transaction, String lowerDescription) {
+        if (ids != null) {
+            return ids.contains(transaction.getId());
+        }
+        if (merchantName != null && !merchantName.equals(transaction.getMerchantName())) {
+            return false;
+        }
+        if (plaidCategory != null && !plaidCategory.equals(transaction.getPlaidCategory())) {
+            return false;
+        }
+        if (minAmount != null || maxAmount != null) {
+            if (transaction.getAmount() == null) {
+                return false;
+            }
+            double amount = Math.abs(transaction.getAmount());
+            if ((minAmount != null && amount < minAmount) || (maxAmount != null && amount > maxAmount)) {
+                return false;
+            }
+        }
+        if (bankAccountId != null && (transaction.getBankAccount() == null
+            || !bankAccountId.equals(transaction.getBankAccount().getId()))) {
+            return false;
+        }
+        return descriptionNeedle == null || (lowerDescription != null && lowerDescription.contains(descriptionNeedle));
+    }
+
+    @Override
+    public String toString() {
+        if (ids != null) {
+            return ids.size() + " selected transactions";
+        }
+        List<String> conditions = new ArrayList<>();
+        if (merchantName != null) {
+            conditions.add("merchant '" + merchantName + "'");
+        }
+        if (descriptionPattern != null) {
+            conditions.add("description containing '" + descriptionPattern + "'");
+        }
+        if (plaidCategory != null) {
+            conditions.add("Plaid category '" + plaidCategory + "'");
+        }
+        if (minAmount != null || maxAmount != null) {
+            conditions.add("amount " + (minAmount != null ? minAmount : 0) + " to "
+                + (maxAmount != null ? maxAmount : "any"));
+        }
+        if (bankAccountId != null) {
+            conditions.add("account " + bankAccountId);
+        }
+        return String.join(", ", conditions);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,148 @@
+package com.budgetplanner.budget.service.cluster;
+
+import com.budgetplanner.budget.model.ClusterNode;
+import com.budgetplanner.budget.repository.ClusterNodeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * This node's place among the application nodes sharing the database, and its share of the per-account
+ * scheduled work.
+ *
+ * Every node refreshes a heartbeat row in {@code cluster_nodes} and rebuilds a {@link HashRing} from the
+ * nodes heard from within the node TTL. An account belongs to the node the ring gives for it, so the nodes
+ * work on disjoint slices and a node joining or leaving moves only its own share. For up to one heartbeat
+ * after a change the nodes may disagree, and an account can be taken by two nodes or by none for one run;
+ * syncs skip transactions they already stored and the next run picks up a skipped account. A node that
+ * shuts down removes its row, so the others take over its share at their next heartbeat rather than after
+ * the TTL.
+ */
+@Service
+public class ClusterMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+
+    // Rows of nodes silent for this many TTLs are removed
+    private static final int STALE_ROW_TTLS = 10;
+
+    private final ClusterNodeRepository repository;
+    private final TransactionTemplate newTransaction;
+    private final String nodeId;
+    private final Duration nodeTtl;
+
+    // Alone until the first heartbeat
+    private volatile HashRing ring;
+
+    public ClusterMembership(ClusterNodeRepository repository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${cluster.node-id:}") String nodeId,
+                             @Value("${cluster.node-ttl-seconds:30}") long nodeTtlSeconds) {
+        this.repository = repository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.nodeTtl = Duration.ofSeconds(Math.max(1, nodeTtlSeconds));
+        this.ring = new HashRing(List.of(this.nodeId));
+    }
+
+    /**
+     * Joins before the scheduled jobs start, so their first runs already take only this node's share
+     */
+    @PostConstruct
+    public void join() {
+        heartbeat();
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.heartbeat-ms:10000}", initialDelayString = "${cluster.heartbeat-ms:10000}")
+    public void heartbeat() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // Keep working with the nodes known so far
+            log.atError().addKeyValue("nodeId", nodeId).setCause(e).log("Cluster heartbeat failed");
+        }
+    }
+
+    /**
+     * Writes this node's heartbeat and re-reads the live nodes
+     */
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> live = newTransaction.execute(status -> {
+            if (repository.heartbeat(nodeId, now) == 0) {
+                repository.save(new ClusterNode(nodeId, now));
+            }
+            repository.deleteSilentSince(now.minus(nodeTtl.multipliedBy(STALE_ROW_TTLS)));
+            return repository.findLiveNodeIds(now.minus(nodeTtl));
+        });
+        HashRing updated = new HashRing(live);
+        if (!updated.getNodes().equals(ring.getNodes())) {
+            log.atInfo().addKeyValue("nodeId", nodeId).addKeyValue("nodes", updated.getNodes())
+                .log("Cluster membership changed");
+        }
+        ring = updated;
+    }
+
+    @PreDestroy
+    public void leave() {
+        try {
+            newTransaction.executeWithoutResult(status -> repository.deleteById(nodeId));
+        } catch (Exception e) {
+            log.atWarn().addKeyValue("nodeId", nodeId).setCause(e).log("Could not leave the cluster");
+        }
+    }
+
+    public boolean owns(String key) {
+        return nodeId.equals(ring.nodeFor(key));
+    }
+
+    /**
+     * The items this node works on, by their key
+     */
+    public <T> List<T> ownShare(Collection<T> items, Function<? super T, String> key) {
+        HashRing current = ring;
+        return items.stream()
+            .filter(item -> nodeId.equals(current.nodeFor(key.apply(item))))
+            .toList();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Live node ids as of the last heartbeat, sorted
+     */
+    public List<String> getNodes() {
+        return ring.getNodes();
+    }
+
+    /**
+     * Host name plus a random suffix
+     */
+    public static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,65 @@
+package com.budgetplanner.budget.service.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Consistent hash ring over node ids.
+ *
+ * Every node is placed at many points of a 64-bit ring and a key belongs to the node of the first point at or
+ * after the key's hash. When a node joins it takes over only keys from the others, and when one leaves only
+ * its keys move. The hash does not depend on the JVM, so nodes that see the same node ids agree on every
+ * owner. Immutable.
+ */
+public final class HashRing {
+
+    // Points per node; more points even out the nodes' shares
+    private static final int POINTS_PER_NODE = 160;
+
+    private final List<String> nodes;
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    public HashRing(Collection<String> nodeIds) {
+        this.nodes = List.copyOf(new TreeSet<>(nodeIds));
+        for (String node : nodes) {
+            for (int i = 0; i < POINTS_PER_NODE; i++) {
+                points.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * Node owning {@code key}, or null when the ring has no nodes
+     */
+    public String nodeFor(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    /**
+     * Node ids, sorted
+     */
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    static long hash(String value) {
+        // FNV-1a over the UTF-8 bytes, then the SplitMix64 finalizer so similar keys spread over the whole ring
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
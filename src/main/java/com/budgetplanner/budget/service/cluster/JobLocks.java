@@ -0,0 +1,93 @@
+package com.budgetplanner.budget.service.cluster;
+
+import com.budgetplanner.budget.repository.SchedulerLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Locks for scheduled jobs that must run on one node at a time, in the style of ShedLock: one row per job in
+ * {@code scheduler_locks} records which node runs it and until when.
+ *
+ * Every node's schedule fires; the node that takes the lock (a conditional UPDATE, or the INSERT that creates
+ * the row on a lock's first use, where the losers hit the primary key) runs the job and the others skip that
+ * run. A lock is held for at most {@code lockAtMost}, so a node
+ * that dies mid-run blocks the job only until then; a run that takes longer may overlap the next one. After
+ * the run the lock stays taken for the rest of the minimum hold, so a node whose clock or schedule is a
+ * little behind does not run the same occurrence again. Times come from the nodes' clocks, which must agree
+ * to well within the minimum hold. Lock statements run in transactions of their own.
+ */
+@Service
+public class JobLocks {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLocks.class);
+
+    private final SchedulerLockRepository repository;
+    private final ClusterMembership membership;
+    private final TransactionTemplate newTransaction;
+    private final Duration minHold;
+
+    public JobLocks(SchedulerLockRepository repository,
+                    ClusterMembership membership,
+                    PlatformTransactionManager transactionManager,
+                    @Value("${cluster.lock.min-hold-seconds:30}") long minHoldSeconds) {
+        this.repository = repository;
+        this.membership = membership;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.minHold = Duration.ofSeconds(Math.max(0, minHoldSeconds));
+    }
+
+    /**
+     * Runs {@code job} if this node gets the lock {@code name}; returns whether it ran
+     */
+    public boolean runLocked(String name, Duration lockAtMost, Runnable job) {
+        String node = membership.getNodeId();
+        // Millisecond precision, so the release matches the stored value on every database
+        LocalDateTime lockedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        if (!tryLock(name, node, lockedAt, lockedAt.plus(lockAtMost))) {
+            log.atDebug().addKeyValue("job", name).log("Job is locked by another node, skipping");
+            return false;
+        }
+        try {
+            job.run();
+            return true;
+        } finally {
+            LocalDateTime holdUntil = lockedAt.plus(minHold.compareTo(lockAtMost) < 0 ? minHold : lockAtMost);
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime until = now.isAfter(holdUntil) ? now : holdUntil;
+            try {
+                newTransaction.executeWithoutResult(status -> repository.release(name, node, lockedAt, until));
+            } catch (Exception e) {
+                // The lock frees itself at lockAtMost
+                log.atWarn().addKeyValue("job", name).setCause(e).log("Could not release job lock");
+            }
+        }
+    }
+
+    private boolean tryLock(String name, String node, LocalDateTime now, LocalDateTime until) {
+        Integer taken = newTransaction.execute(status -> repository.takeIfFree(name, node, now, until));
+        if (taken != null && taken > 0) {
+            return true;
+        }
+        if (Boolean.TRUE.equals(newTransaction.execute(status -> repository.existsById(name)))) {
+            return false;
+        }
+        try {
+            newTransaction.executeWithoutResult(status -> repository.create(name, node, now, until));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+            return false;
+        }
+    }
+}
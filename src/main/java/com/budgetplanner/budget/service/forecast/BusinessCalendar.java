@@ -0,0 +1,97 @@
+package com.budgetplanner.budget.service.forecast;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Banking days: weekends are never business days, plus the holidays of the configured region.
+ * A bill falling on a non-business day is expected on the next business day, which is when it posts.
+ */
+public class BusinessCalendar {
+
+    private final boolean federalHolidays;
+    private final Map<Integer, Set<LocalDate>> holidaysByYear = new ConcurrentHashMap<>();
+
+    private BusinessCalendar(boolean federalHolidays) {
+        this.federalHolidays = federalHolidays;
+    }
+
+    /**
+     * {@code US} for weekends plus US federal (Federal Reserve) holidays, {@code NONE} for weekends only
+     */
+    public static BusinessCalendar forRegion(String region) {
+        if ("US".equalsIgnoreCase(region)) {
+            return new BusinessCalendar(true);
+        }
+        if ("NONE".equalsIgnoreCase(region)) {
+            return new BusinessCalendar(false);
+        }
+        throw new IllegalArgumentException("Unsupported holiday region: " + region);
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        DayOfWeek day = date.getDayOfWeek();
+        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+            return false;
+        }
+        return !federalHolidays || !holidaysByYear.computeIfAbsent(date.getYear(), BusinessCalendar::usHolidays).contains(date);
+    }
+
+    /**
+     * The date itself if it is a business day, otherwise the next one
+     */
+    public LocalDate onOrAfter(LocalDate date) {
+        LocalDate result = date;
+        while (!isBusinessDay(result)) {
+            result = result.plusDays(1);
+        }
+        return result;
+    }
+
+    /**
+     * Observed US federal holidays falling in {@code year}
+     */
+    private static Set<LocalDate> usHolidays(int year) {
+        Set<LocalDate> holidays = new HashSet<>();
+        holidays.add(observed(LocalDate.of(year, Month.JANUARY, 1)));
+        holidays.add(nthWeekday(year, Month.JANUARY, DayOfWeek.MONDAY, 3));   // Martin Luther King Jr. Day
+        holidays.add(nthWeekday(year, Month.FEBRUARY, DayOfWeek.MONDAY, 3));  // Presidents' Day
+        holidays.add(LocalDate.of(year, Month.MAY, 1).with(TemporalAdjusters.lastInMonth(DayOfWeek.MONDAY))); // Memorial Day
+        holidays.add(observed(LocalDate.of(year, Month.JUNE, 19)));
+        holidays.add(observed(LocalDate.of(year, Month.JULY, 4)));
+        holidays.add(nthWeekday(year, Month.SEPTEMBER, DayOfWeek.MONDAY, 1)); // Labor Day
+        holidays.add(nthWeekday(year, Month.OCTOBER, DayOfWeek.MONDAY, 2));   // Columbus Day
+        holidays.add(observed(LocalDate.of(year, Month.NOVEMBER, 11)));
+        holidays.add(nthWeekday(year, Month.NOVEMBER, DayOfWeek.THURSDAY, 4)); // Thanksgiving
+        holidays.add(observed(LocalDate.of(year, Month.DECEMBER, 25)));
+
+        // New Year's Day on a Saturday is observed on December 31 of the year before
+        LocalDate nextNewYear = observed(LocalDate.of(year + 1, Month.JANUARY, 1));
+        if (nextNewYear.getYear() == year) {
+            holidays.add(nextNewYear);
+        }
+        holidays.removeIf(date -> date.getYear() != year);
+        return holidays;
+    }
+
+    private static LocalDate observed(LocalDate holiday) {
+        switch (holiday.getDayOfWeek()) {
+            case SATURDAY:
+                return holiday.minusDays(1);
+            case SUNDAY:
+                return holiday.plusDays(1);
+            default:
+                return holiday;
+        }
+    }
+
+    private static LocalDate nthWeekday(int year, Month month, DayOfWeek dayOfWeek, int n) {
+        return LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(n, dayOfWeek));
+    }
+}
@@ -0,0 +1,56 @@
+package com.budgetplanner.budget.service.forecast;
+
+import java.time.LocalDate;
+
+/**
+ * One expected future charge or deposit of a recurring pattern
+ */
+public class ForecastOccurrence {
+
+    private final Long patternId;
+    private final String merchantName;
+    private final String budgetCategoryType;
+    private final Double amount;
+    private final LocalDate scheduledDate;
+    private final LocalDate dueDate;
+
+    public ForecastOccurrence(Long patternId, String merchantName, String budgetCategoryType, Double amount,
+                              LocalDate scheduledDate, LocalDate dueDate) {
+        this.patternId = patternId;
+        this.merchantName = merchantName;
+        this.budgetCategoryType = budgetCategoryType;
+        this.amount = amount;
+        this.scheduledDate = scheduledDate;
+        this.dueDate = dueDate;
+    }
+
+    public Long getPatternId() {
+        return patternId;
+    }
+
+    public String getMerchantName() {
+        return merchantName;
+    }
+
+    public String getBudgetCategoryType() {
+        return budgetCategoryType;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    /**
+     * The date the cadence lands on
+     */
+    public LocalDate getScheduledDate() {
+        return scheduledDate;
+    }
+
+    /**
+     * The scheduled date moved to the next business day, when the charge actually posts
+     */
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+}
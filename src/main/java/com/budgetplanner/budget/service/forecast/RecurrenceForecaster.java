@@ -0,0 +1,99 @@
+package com.budgetplanner.budget.service.forecast;
+
+import com.budgetplanner.budget.event.RecurringPatternChangedEvent;
+import com.budgetplanner.budget.model.RecurringTransaction;
+import com.budgetplanner.budget.model.RecurringTransaction.RecurrenceFrequency;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Projects the next occurrences of a recurring pattern.
+ *
+ * Month-based cadences step in calendar months from the anchor date instead of a fixed day count, so
+ * a bill on the 15th stays on the 15th. An anchor on the last day of its month stays at month end
+ * (Jan 31, Feb 28, Mar 31, ...), and a day the target month lacks is clamped (the 30th is Feb 28).
+ * Each date is then moved to the next business day of the calendar.
+ */
+public class RecurrenceForecaster {
+
+    private final BusinessCalendar calendar;
+
+    public RecurrenceForecaster(BusinessCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    /**
+     * The pattern's next {@code count} occurrences, starting with the one currently expected (which may be
+     * in the past when the pattern is overdue). Empty if the pattern has no date to anchor on.
+     */
+    public List<ForecastOccurrence> forecast(RecurringTransaction pattern, int count) {
+        return forecast(pattern.getId(), pattern.getMerchantName(), pattern.getBudgetCategoryType(), pattern.getAmount(),
+            pattern.currentExpectedDate(), pattern.getFrequency(), pattern.getIntervalDays(), count);
+    }
+
+    /**
+     * Same as {@link #forecast(RecurringTransaction, int)} for a pattern as carried by its change event
+     */
+    public List<ForecastOccurrence> forecast(RecurringPatternChangedEvent pattern, int count) {
+        return forecast(pattern.getPatternId(), pattern.getMerchantName(), pattern.getBudgetCategoryType(),
+            pattern.getAmount(), pattern.getExpectedDate(), pattern.getFrequency(), pattern.getIntervalDays(), count);
+    }
+
+    private List<ForecastOccurrence> forecast(Long patternId, String merchantName, String budgetCategoryType,
+                                              Double amount, LocalDate anchor, RecurrenceFrequency frequency,
+                                              Integer intervalDays, int count) {
+        if (anchor == null || frequency == null) {
+            return List.of();
+        }
+
+        List<ForecastOccurrence> occurrences = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            LocalDate scheduled = scheduledDate(anchor, frequency, intervalDays, n);
+            if (scheduled == null) {
+                break;
+            }
+            occurrences.add(new ForecastOccurrence(patternId, merchantName, budgetCategoryType, amount, scheduled,
+                calendar.onOrAfter(scheduled)));
+        }
+        return occurrences;
+    }
+
+    /**
+     * The {@code n}-th scheduled date after {@code anchor} (n = 0 is the anchor itself), or null when a
+     * custom cadence has no interval
+     */
+    public static LocalDate scheduledDate(LocalDate anchor, RecurrenceFrequency frequency, Integer intervalDays, int n) {
+        switch (frequency) {
+            case WEEKLY:
+                return anchor.plusWeeks(n);
+            case BI_WEEKLY:
+                return anchor.plusWeeks(2L * n);
+            case MONTHLY:
+                return plusMonths(anchor, n);
+            case BI_MONTHLY:
+                return plusMonths(anchor, 2 * n);
+            case QUARTERLY:
+                return plusMonths(anchor, 3 * n);
+            case SEMI_ANNUALLY:
+                return plusMonths(anchor, 6 * n);
+            case ANNUALLY:
+                return plusMonths(anchor, 12 * n);
+            default:
+                if (intervalDays == null || intervalDays <= 0) {
+                    return n == 0 ? anchor : null;
+                }
+                return anchor.plusDays((long) intervalDays * n);
+        }
+    }
+
+    private static LocalDate plusMonths(LocalDate anchor, int months) {
+        // Always computed from the anchor, so a clamped month (Feb 28) does not drag later months down
+        if (anchor.getDayOfMonth() == anchor.lengthOfMonth()) {
+            return YearMonth.from(anchor).plusMonths(months).atEndOfMonth();
+        }
+        return anchor.plusMonths(months);
+    }
+}
@@ -0,0 +1,15 @@
+package com.budgetplanner.budget.service.live;
+
+/**
+ * What changed, at the granularity views refresh their sections
+ */
+public enum LiveTopic {
+    /** Bank transactions were stored or updated (sync, import, manual entry, recategorization) */
+    TRANSACTIONS,
+    /** In-app notifications were created, read or deleted */
+    NOTIFICATIONS,
+    /** Bank accounts were linked, updated or deactivated */
+    ACCOUNTS,
+    /** A transaction sync finished */
+    SYNC
+}
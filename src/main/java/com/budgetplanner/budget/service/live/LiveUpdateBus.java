@@ -0,0 +1,226 @@
+package com.budgetplanner.budget.service.live;
+
+import com.budgetplanner.budget.event.BankAccountChangedEvent;
+import com.budgetplanner.budget.event.NotificationChangedEvent;
+import com.budgetplanner.budget.event.SyncCompletedEvent;
+import com.budgetplanner.budget.event.TransactionChangedEvent;
+import com.budgetplanner.budget.metrics.BudgetMetrics;
+import com.budgetplanner.budget.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Server-side bus that turns committed domain changes into coalesced UI refreshes.
+ *
+ * Domain events are mapped to {@link LiveTopic}s after commit and collected in a pending set per tenant. The
+ * sets are flushed once no change has arrived for the quiet period, or at the latest after the max delay since
+ * the first pending change, so a sync that stores 1,000 transactions reaches each subscriber as one flush with
+ * {TRANSACTIONS, SYNC}. Subscribers (one per open UI) belong to the tenant they subscribed as and only hear
+ * about their own tenant's changes to the topics they registered for; a change made as the system tenant
+ * may concern anyone and goes to every subscriber.
+ *
+ * Flushes run on a single scheduler thread; listeners must hand off quickly (views use UI.access).
+ */
+@Component
+public class LiveUpdateBus {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateBus.class);
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final long quietNanos;
+    private final long maxDelayNanos;
+    private final AtomicLong flushes = new AtomicLong();
+
+    // Guarded by this
+    private Map<String, Set<LiveTopic>> pending = new HashMap<>();
+    private boolean flushScheduled;
+    private long firstPendingNanos;
+    private long lastPublishNanos;
+
+    public LiveUpdateBus(@Value("${live-updates.quiet-ms:250}") long quietMillis,
+                         @Value("${live-updates.max-delay-ms:1000}") long maxDelayMillis) {
+        this.quietNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, quietMillis));
+        this.maxDelayNanos = Math.max(quietNanos, TimeUnit.MILLISECONDS.toNanos(maxDelayMillis));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-updates");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registers a listener of the current tenant for the given topics; it receives the subset of them that
+     * changed for that tenant since its last flush. Cancel the subscription when the subscriber goes away
+     * (e.g. on UI detach).
+     */
+    public Subscription subscribe(Set<LiveTopic> topics, Consumer<Set<LiveTopic>> listener) {
+        String tenant = TenantContext.current();
+        Subscriber subscriber = new Subscriber(EnumSet.copyOf(topics), listener);
+        subscribers.compute(tenant, (key, list) -> {
+            List<Subscriber> tenantSubscribers = list != null ? list : new CopyOnWriteArrayList<>();
+            tenantSubscribers.add(subscriber);
+            return tenantSubscribers;
+        });
+        return () -> subscribers.computeIfPresent(tenant, (key, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * Marks a topic changed for the current tenant; its subscribers hear about it with the next flush
+     */
+    public void publish(LiveTopic topic) {
+        publish(TenantContext.current(), topic);
+    }
+
+    /**
+     * Marks a topic changed for a tenant, or for everyone when it is the system tenant
+     */
+    public void publish(String tenant, LiveTopic topic) {
+        long now = System.nanoTime();
+        BudgetMetrics.liveUpdates("published", 1);
+        synchronized (this) {
+            pending.computeIfAbsent(tenant, key -> EnumSet.noneOf(LiveTopic.class)).add(topic);
+            lastPublishNanos = now;
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+            firstPendingNanos = now;
+        }
+        schedule(quietNanos);
+    }
+
+    // Listeners run on the committing thread, so the current tenant is the user whose data changed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        publish(LiveTopic.TRANSACTIONS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationChanged(NotificationChangedEvent event) {
+        publish(LiveTopic.NOTIFICATIONS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBankAccountChanged(BankAccountChangedEvent event) {
+        publish(LiveTopic.ACCOUNTS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSyncCompleted(SyncCompletedEvent event) {
+        publish(LiveTopic.SYNC);
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Number of flushes delivered so far
+     */
+    public long flushCount() {
+        return flushes.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void schedule(long delayNanos) {
+        try {
+            scheduler.schedule(this::flushIfSettled, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            // Shutting down, nobody left to update
+            log.atDebug().setCause(e).log("Live update flush not scheduled");
+        }
+    }
+
+    private void flushIfSettled() {
+        Map<String, Set<LiveTopic>> changed;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long untilQuiet = lastPublishNanos + quietNanos - now;
+            long untilMaxDelay = firstPendingNanos + maxDelayNanos - now;
+            if (untilQuiet > 0 && untilMaxDelay > 0) {
+                // Changes are still coming in, wait for a gap (but not past the max delay)
+                schedule(Math.min(untilQuiet, untilMaxDelay));
+                return;
+            }
+            changed = pending;
+            pending = new HashMap<>();
+            flushScheduled = false;
+        }
+        deliver(changed);
+    }
+
+    private void deliver(Map<String, Set<LiveTopic>> changed) {
+        flushes.incrementAndGet();
+        BudgetMetrics.liveUpdates("flushed", 1);
+        Set<LiveTopic> broadcast = changed.getOrDefault(TenantContext.SYSTEM, EnumSet.noneOf(LiveTopic.class));
+        // Only tenants with changes are visited, unless a system change concerns everyone
+        Collection<String> tenants = broadcast.isEmpty() ? changed.keySet() : subscribers.keySet();
+        int notified = 0;
+        for (String tenant : tenants) {
+            Set<LiveTopic> tenantChanged = EnumSet.copyOf(broadcast);
+            tenantChanged.addAll(changed.getOrDefault(tenant, EnumSet.noneOf(LiveTopic.class)));
+            for (Subscriber subscriber : subscribers.getOrDefault(tenant, List.of())) {
+                Set<LiveTopic> relevant = EnumSet.copyOf(tenantChanged);
+                relevant.retainAll(subscriber.topics);
+                if (relevant.isEmpty()) {
+                    continue;
+                }
+                try {
+                    subscriber.listener.accept(relevant);
+                    notified++;
+                } catch (RuntimeException e) {
+                    log.atWarn().addKeyValue("topics", relevant).setCause(e).log("Live update subscriber failed");
+                }
+            }
+        }
+        BudgetMetrics.liveUpdates("pushed", notified);
+        log.atDebug()
+            .addKeyValue("tenants", changed.size())
+            .addKeyValue("subscribers", notified)
+            .log("Live updates flushed");
+    }
+
+    /**
+     * Handle of one subscription
+     */
+    public interface Subscription {
+        void cancel();
+    }
+
+    private static final class Subscriber {
+
+        private final Set<LiveTopic> topics;
+        private final Consumer<Set<LiveTopic>> listener;
+
+        private Subscriber(Set<LiveTopic> topics, Consumer<Set<LiveTopic>> listener) {
+            this.topics = topics;
+            this.listener = listener;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.budgetplanner.budget.service.notification;
+
+import com.budgetplanner.budget.model.NotificationTemplate;
+
+/**
+ * The active template of a category with its subject and bodies precompiled
+ */
+public final class CompiledNotificationTemplate {
+
+    private final String templateName;
+    private final CompiledTemplate emailSubject;
+    private final CompiledTemplate emailBody;
+    private final CompiledTemplate smsBody;
+
+    private CompiledNotificationTemplate(NotificationTemplate template) {
+        this.templateName = template.getTemplateName();
+        this.emailSubject = CompiledTemplate.compile(template.getEmailSubject());
+        this.emailBody = CompiledTemplate.compile(template.getEmailBody());
+        this.smsBody = template.getSmsBody() != null ? CompiledTemplate.compile(template.getSmsBody()) : null;
+    }
+
+    public static CompiledNotificationTemplate compile(NotificationTemplate template) {
+        return new CompiledNotificationTemplate(template);
+    }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+
+    public CompiledTemplate getEmailSubject() {
+        return emailSubject;
+    }
+
+    public CompiledTemplate getEmailBody() {
+        return emailBody;
+    }
+
+    /**
+     * Null when the template has no SMS text, the category is then email-only
+     */
+    public CompiledTemplate getSmsBody() {
+        return smsBody;
+    }
+}
@@ -0,0 +1,85 @@
+package com.budgetplanner.budget.service.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A notification template parsed once into literal text and {@code {placeholder}} slots, so rendering
+ * is a single append pass instead of a regex scan plus a string replace per placeholder.
+ *
+ * Placeholders are non-empty names between braces; unknown or null values render as an empty string
+ * and {@code {}} stays literal text.
+ */
+public final class CompiledTemplate {
+
+    private static final CompiledTemplate EMPTY = new CompiledTemplate(new String[] {""}, new String[0]);
+
+    // literals.length == placeholders.length + 1: literal, placeholder, literal, ..., literal
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, String[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static CompiledTemplate compile(String template) {
+        if (template == null || template.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int pos = 0;
+        while (pos < template.length()) {
+            int open = template.indexOf('{', pos);
+            int close = open < 0 ? -1 : template.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            if (close == open + 1) {
+                literal.append(template, pos, close + 1);
+            } else {
+                literal.append(template, pos, open);
+                literals.add(literal.toString());
+                literal.setLength(0);
+                placeholders.add(template.substring(open + 1, close));
+            }
+            pos = close + 1;
+        }
+        literal.append(template, pos, template.length());
+        literals.add(literal.toString());
+
+        return new CompiledTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    public String render(Map<String, String> data) {
+        if (placeholders.length == 0) {
+            return literals[0];
+        }
+        StringBuilder out = new StringBuilder(literalLength + 32 * placeholders.length);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            String value = data.get(placeholders[i]);
+            if (value != null) {
+                out.append(value);
+            }
+        }
+        return out.append(literals[placeholders.length]).toString();
+    }
+
+    /**
+     * Placeholder names in order of appearance
+     */
+    public List<String> getPlaceholders() {
+        return List.of(placeholders);
+    }
+}
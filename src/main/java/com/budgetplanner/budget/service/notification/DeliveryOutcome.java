@@ -0,0 +1,12 @@
+package com.budgetplanner.budget.service.notification;
+
+/**
+ * How the dispatch of one notification to one user ended
+ */
+public enum DeliveryOutcome {
+    DELIVERED,  // Every targeted channel's provider accepted it
+    PARTIAL,    // Some channels delivered, the others failed
+    SKIPPED,    // Nothing to send: no preferences, category switched off, no template or no usable channel
+    FAILED,     // Every targeted channel's provider failed, worth retrying
+    REJECTED    // Not accepted: queue full or dispatcher stopped, worth retrying
+}
@@ -0,0 +1,40 @@
+package com.budgetplanner.budget.service.notification;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Outcome of one dispatch and the channels that delivered it
+ */
+public final class DeliveryResult {
+
+    private final DeliveryOutcome outcome;
+    private final Set<NotificationChannel> deliveredChannels;
+
+    DeliveryResult(DeliveryOutcome outcome, Set<NotificationChannel> deliveredChannels) {
+        this.outcome = outcome;
+        this.deliveredChannels = deliveredChannels.isEmpty()
+            ? Collections.emptySet()
+            : Collections.unmodifiableSet(EnumSet.copyOf(deliveredChannels));
+    }
+
+    static DeliveryResult of(DeliveryOutcome outcome) {
+        return new DeliveryResult(outcome, Collections.emptySet());
+    }
+
+    public DeliveryOutcome getOutcome() {
+        return outcome;
+    }
+
+    public Set<NotificationChannel> getDeliveredChannels() {
+        return deliveredChannels;
+    }
+
+    /**
+     * True if any channel delivered it
+     */
+    public boolean isDelivered() {
+        return outcome == DeliveryOutcome.DELIVERED || outcome == DeliveryOutcome.PARTIAL;
+    }
+}
@@ -0,0 +1,38 @@
+package com.budgetplanner.budget.service.notification;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Joins the channel deliveries of one notification and completes once every channel has reported:
+ * DELIVERED if all of them succeeded, PARTIAL if some did, FAILED if none did
+ */
+final class DeliveryTracker {
+
+    private final CompletableFuture<DeliveryResult> result;
+    private final int channels;
+    private final Set<NotificationChannel> delivered = EnumSet.noneOf(NotificationChannel.class);
+    private int reported;
+
+    DeliveryTracker(CompletableFuture<DeliveryResult> result, int channels) {
+        this.result = result;
+        this.channels = channels;
+    }
+
+    void complete(NotificationChannel channel, boolean success) {
+        DeliveryResult done;
+        synchronized (this) {
+            if (success) {
+                delivered.add(channel);
+            }
+            if (++reported < channels) {
+                return;
+            }
+            DeliveryOutcome outcome = delivered.isEmpty() ? DeliveryOutcome.FAILED
+                : delivered.size() == channels ? DeliveryOutcome.DELIVERED : DeliveryOutcome.PARTIAL;
+            done = new DeliveryResult(outcome, delivered);
+        }
+        result.complete(done);
+    }
+}
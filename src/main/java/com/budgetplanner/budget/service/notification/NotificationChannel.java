@@ -0,0 +1,9 @@
+package com.budgetplanner.budget.service.notification;
+
+/**
+ * Delivery channels of the dispatch pipeline, each with its own queue, batch size and provider
+ */
+public enum NotificationChannel {
+    EMAIL,
+    SMS
+}
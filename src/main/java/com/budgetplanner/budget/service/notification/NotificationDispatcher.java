@@ -0,0 +1,389 @@
+package com.budgetplanner.budget.service.notification;
+
+import com.budgetplanner.budget.metrics.BudgetMetrics;
+import com.budgetplanner.budget.model.AppNotification;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification delivery pipeline: a bounded intake queue, render workers that resolve preferences and
+ * templates from {@link NotificationSettingsCache}, and one bounded queue per channel drained by a
+ * single sender thread that hands the provider batches of up to the channel's batch size.
+ *
+ * Backpressure: {@link #submit} waits up to the submit timeout for room in the intake queue and then
+ * rejects (the outcome is REJECTED); render workers block while a channel queue is full, so a
+ * slow provider throttles rendering instead of growing memory.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private final NotificationSettingsCache settings;
+    private final Map<NotificationChannel, NotificationProvider> providers = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, BlockingQueue<OutboundMessage>> outbound = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Integer> batchSizes = new EnumMap<>(NotificationChannel.class);
+    private final BlockingQueue<Dispatch> intake;
+    private final int renderThreads;
+    private final long lingerNanos;
+    private final long submitTimeoutMillis;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public NotificationDispatcher(NotificationSettingsCache settings,
+                                  List<NotificationProvider> providers,
+                                  @Value("${notification.dispatch.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${notification.dispatch.render-threads:2}") int renderThreads,
+                                  @Value("${notification.dispatch.email-batch-size:100}") int emailBatchSize,
+                                  @Value("${notification.dispatch.sms-batch-size:50}") int smsBatchSize,
+                                  @Value("${notification.dispatch.batch-linger-ms:50}") long batchLingerMillis,
+                                  @Value("${notification.dispatch.submit-timeout-ms:1000}") long submitTimeoutMillis) {
+        this.settings = settings;
+        this.intake = BudgetMetrics.gaugeNotificationQueue("intake", new ArrayBlockingQueue<>(Math.max(1, queueCapacity)));
+        this.renderThreads = Math.max(1, renderThreads);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, batchLingerMillis));
+        this.submitTimeoutMillis = Math.max(0, submitTimeoutMillis);
+        batchSizes.put(NotificationChannel.EMAIL, Math.max(1, emailBatchSize));
+        batchSizes.put(NotificationChannel.SMS, Math.max(1, smsBatchSize));
+
+        for (NotificationProvider provider : providers) {
+            NotificationChannel channel = provider.getChannel();
+            if (this.providers.putIfAbsent(channel, provider) != null) {
+                throw new IllegalStateException("More than one notification provider for " + channel);
+            }
+            String queueName = channel.name().toLowerCase(Locale.ROOT);
+            outbound.put(channel, BudgetMetrics.gaugeNotificationQueue(queueName,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity))));
+        }
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < renderThreads; i++) {
+            startWorker("notification-render-" + i, this::renderLoop);
+        }
+        for (NotificationChannel channel : outbound.keySet()) {
+            startWorker("notification-send-" + channel.name().toLowerCase(Locale.ROOT), () -> sendLoop(channel));
+        }
+        log.atInfo()
+            .addKeyValue("renderThreads", renderThreads)
+            .addKeyValue("channels", outbound.keySet())
+            .addKeyValue("batchSizes", batchSizes)
+            .log("Notification dispatcher started");
+    }
+
+    /**
+     * Stops the workers; notifications still queued complete as REJECTED
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+
+        List<Dispatch> undispatched = new ArrayList<>();
+        intake.drainTo(undispatched);
+        undispatched.forEach(dispatch -> dispatch.result.complete(DeliveryResult.of(DeliveryOutcome.REJECTED)));
+        for (BlockingQueue<OutboundMessage> queue : outbound.values()) {
+            List<OutboundMessage> unsent = new ArrayList<>();
+            queue.drainTo(unsent);
+            unsent.forEach(message -> message.delivered(false));
+        }
+        if (!undispatched.isEmpty()) {
+            log.atWarn().addKeyValue("notifications", undispatched.size()).log("Notification dispatcher stopped with queued notifications");
+        }
+    }
+
+    /**
+     * Queues one notification for the user; completes with true once any channel delivered it
+     */
+    public CompletableFuture<Boolean> submit(AppNotification notification, String userId) {
+        return dispatch(notification, userId, null, Set.of()).thenApply(DeliveryResult::isDelivered);
+    }
+
+    /**
+     * Queues one notification for the user and reports how its delivery ended, per channel. Channels in
+     * {@code skipChannels} already delivered it on an earlier attempt and are left out. The idempotency
+     * key, if any, travels with the rendered messages to the providers.
+     */
+    public CompletableFuture<DeliveryResult> dispatch(AppNotification notification, String userId,
+                                                      String idempotencyKey, Set<NotificationChannel> skipChannels) {
+        CompletableFuture<DeliveryResult> result = new CompletableFuture<>();
+        if (!running) {
+            result.complete(DeliveryResult.of(DeliveryOutcome.REJECTED));
+            return result;
+        }
+        try {
+            if (!intake.offer(new Dispatch(notification, userId, idempotencyKey, skipChannels, result),
+                              submitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                BudgetMetrics.notificationRejected();
+                log.atWarn()
+                    .addKeyValue("userId", userId)
+                    .addKeyValue("notificationId", notification.getId())
+                    .log("Notification queue full, notification rejected");
+                result.complete(DeliveryResult.of(DeliveryOutcome.REJECTED));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.complete(DeliveryResult.of(DeliveryOutcome.REJECTED));
+        }
+        return result;
+    }
+
+    /**
+     * Queues the notification for every user, with their preferences loaded up front in a few queries.
+     * Completes with the number of users it was delivered to.
+     */
+    public CompletableFuture<Integer> submitAll(AppNotification notification, Collection<String> userIds) {
+        preload(userIds);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            results.add(submit(notification, userId));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+            .thenApply(done -> (int) results.stream().filter(CompletableFuture::join).count());
+    }
+
+    /**
+     * Loads the preferences of users about to be dispatched to in a few queries, instead of one per user
+     */
+    public void preload(Collection<String> userIds) {
+        settings.preload(userIds);
+    }
+
+    /**
+     * Sends one message straight to its channel's provider, bypassing the queues (configuration checks)
+     */
+    public boolean sendDirect(OutboundMessage message) {
+        NotificationProvider provider = providers.get(message.getChannel());
+        if (provider == null) {
+            return false;
+        }
+        try {
+            return provider.sendBatch(List.of(message));
+        } catch (Exception e) {
+            log.atError().addKeyValue("to", message.getTo()).setCause(e).log("Error sending {}", message.getChannel());
+            return false;
+        }
+    }
+
+    /**
+     * Notifications waiting to be rendered
+     */
+    public int pendingNotifications() {
+        return intake.size();
+    }
+
+    private void startWorker(String name, Runnable loop) {
+        Thread worker = new Thread(loop, name);
+        worker.setDaemon(true);
+        workers.add(worker);
+        worker.start();
+    }
+
+    private void renderLoop() {
+        while (running) {
+            Dispatch dispatch;
+            try {
+                dispatch = intake.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (dispatch != null) {
+                render(dispatch);
+            }
+        }
+    }
+
+    private void render(Dispatch dispatch) {
+        AppNotification notification = dispatch.notification;
+        String userId = dispatch.userId;
+        try {
+            Optional<NotificationRecipient> recipientOpt = settings.getRecipient(userId);
+            if (recipientOpt.isEmpty()) {
+                log.atDebug().addKeyValue("userId", userId).log("No notification preferences for user");
+                dispatch.result.complete(DeliveryResult.of(DeliveryOutcome.SKIPPED));
+                return;
+            }
+            NotificationRecipient recipient = recipientOpt.get();
+
+            // Check if user wants notifications for this category
+            if (!recipient.isCategoryEnabled(notification.getCategory())) {
+                log.atDebug()
+                    .addKeyValue("userId", userId)
+                    .addKeyValue("category", notification.getCategory())
+                    .log("Notification category disabled for user");
+                dispatch.result.complete(DeliveryResult.of(DeliveryOutcome.SKIPPED));
+                return;
+            }
+
+            Optional<CompiledNotificationTemplate> templateOpt = settings.getTemplate(notification.getCategory());
+            if (templateOpt.isEmpty()) {
+                log.atWarn().addKeyValue("category", notification.getCategory()).log("No active notification template");
+                dispatch.result.complete(DeliveryResult.of(DeliveryOutcome.SKIPPED));
+                return;
+            }
+            CompiledNotificationTemplate template = templateOpt.get();
+
+            String email = usable(NotificationChannel.EMAIL, dispatch) ? recipient.emailTarget() : null;
+            String phone = usable(NotificationChannel.SMS, dispatch) && template.getSmsBody() != null
+                ? recipient.smsTarget() : null;
+            int channels = (email != null ? 1 : 0) + (phone != null ? 1 : 0);
+            if (channels == 0) {
+                dispatch.result.complete(DeliveryResult.of(DeliveryOutcome.SKIPPED));
+                return;
+            }
+
+            Map<String, String> data = buildNotificationData(notification);
+            DeliveryTracker tracker = new DeliveryTracker(dispatch.result, channels);
+            if (email != null) {
+                outbound.get(NotificationChannel.EMAIL).put(new OutboundMessage(NotificationChannel.EMAIL, email,
+                    template.getEmailSubject().render(data), template.getEmailBody().render(data),
+                    dispatch.idempotencyKey, tracker));
+            }
+            if (phone != null) {
+                outbound.get(NotificationChannel.SMS).put(new OutboundMessage(NotificationChannel.SMS, phone,
+                    null, template.getSmsBody().render(data), dispatch.idempotencyKey, tracker));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dispatch.result.complete(DeliveryResult.of(DeliveryOutcome.REJECTED));
+        } catch (Exception e) {
+            log.atError()
+                .addKeyValue("userId", userId)
+                .addKeyValue("notificationId", notification.getId())
+                .setCause(e)
+                .log("Error sending notification");
+            dispatch.result.complete(DeliveryResult.of(DeliveryOutcome.FAILED));
+        }
+    }
+
+    private boolean usable(NotificationChannel channel, Dispatch dispatch) {
+        return providers.containsKey(channel) && !dispatch.skipChannels.contains(channel);
+    }
+
+    private void sendLoop(NotificationChannel channel) {
+        NotificationProvider provider = providers.get(channel);
+        BlockingQueue<OutboundMessage> queue = outbound.get(channel);
+        int batchSize = batchSizes.get(channel);
+        List<OutboundMessage> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                OutboundMessage first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                // Wait up to the linger time for a partial batch to fill
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    OutboundMessage next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                send(channel, provider, batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(message -> message.delivered(false));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(NotificationChannel channel, NotificationProvider provider, List<OutboundMessage> batch) {
+        boolean sent;
+        try {
+            sent = provider.sendBatch(Collections.unmodifiableList(batch));
+        } catch (Exception e) {
+            log.atError().addKeyValue("channel", channel).addKeyValue("messages", batch.size()).setCause(e)
+                .log("Error sending notification batch");
+            sent = false;
+        }
+        for (OutboundMessage message : batch) {
+            message.delivered(sent);
+        }
+        BudgetMetrics.notificationsSent(channel.name().toLowerCase(Locale.ROOT), sent ? "success" : "failure", batch.size());
+        if (!sent) {
+            log.atWarn().addKeyValue("channel", channel).addKeyValue("messages", batch.size()).log("Notification batch failed");
+        }
+    }
+
+    /**
+     * Build data map for template placeholders
+     */
+    private static Map<String, String> buildNotificationData(AppNotification notification) {
+        Map<String, String> data = new HashMap<>();
+        data.put("title", notification.getTitle());
+        data.put("message", notification.getMessage());
+        data.put("category", notification.getCategory());
+        data.put("priority", notification.getPriority());
+        data.put("date", notification.getCreatedAt() != null ? notification.getCreatedAt().toString() : null);
+        return data;
+    }
+
+    private static final class Dispatch {
+        private final AppNotification notification;
+        private final String userId;
+        private final String idempotencyKey;
+        private final Set<NotificationChannel> skipChannels;
+        private final CompletableFuture<DeliveryResult> result;
+
+        private Dispatch(AppNotification notification, String userId, String idempotencyKey,
+                         Set<NotificationChannel> skipChannels, CompletableFuture<DeliveryResult> result) {
+            this.notification = notification;
+            this.userId = userId;
+            this.idempotencyKey = idempotencyKey;
+            this.skipChannels = skipChannels;
+            this.result = result;
+        }
+    }
+}
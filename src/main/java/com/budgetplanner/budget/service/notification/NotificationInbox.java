@@ -0,0 +1,290 @@
+package com.budgetplanner.budget.service.notification;
+
+import com.budgetplanner.budget.event.NotificationChangedEvent;
+import com.budgetplanner.budget.model.AppNotification;
+import com.budgetplanner.budget.repository.AppNotificationRepository;
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The in-app notification inbox: writes, keyset-paginated reads and maintained counts.
+ *
+ * Total and unread counts per user and category are kept in memory. They are seeded with one GROUP BY query
+ * at startup and then follow every write made here, applied after commit to the writing user's counts.
+ * Read-state changes and deletes are conditional statements whose row counts give the exact change, so
+ * concurrent writers cannot skew the counts; the bulk operations recount the user's rows in their own
+ * transaction instead. Write notifications through this service rather than the repository, or the counts
+ * drift until the next {@link #resync()}.
+ */
+@Service
+public class NotificationInbox {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationInbox.class);
+
+    public static final String ALL = "ALL";
+    public static final String UNREAD = "UNREAD";
+
+    // Start of the newest-first keyset order, later than any stored notification
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final int RESYNC_ATTEMPTS = 3;
+
+    private final AppNotificationRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate newTransaction;
+
+    // Per user and category, guarded by this
+    private Map<String, Map<String, CategoryCounts>> counts = new HashMap<>();
+    private volatile boolean loaded;
+    private long changes;
+
+    public NotificationInbox(AppNotificationRepository repository, ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        resync();
+    }
+
+    /**
+     * Re-reads the counts from the database
+     */
+    public void resync() {
+        for (int attempt = 0; attempt < RESYNC_ATTEMPTS; attempt++) {
+            long version;
+            synchronized (this) {
+                version = changes;
+            }
+            Map<String, Map<String, CategoryCounts>> seeded = new HashMap<>();
+            // In a transaction of its own: a caller's transaction would only see the caller's rows
+            for (Object[] row : TenantContext.callAsSystem(() ->
+                    newTransaction.execute(status -> repository.countByUserCategoryAndRead()))) {
+                add(seeded.computeIfAbsent((String) row[0], user -> new HashMap<>()), (String) row[1], row[2], row[3]);
+            }
+            synchronized (this) {
+                // A write committed while counting may or may not be in the result, count again
+                if (version == changes || attempt == RESYNC_ATTEMPTS - 1) {
+                    counts = seeded;
+                    loaded = true;
+                    log.atInfo().addKeyValue("users", seeded.size()).log("Notification counts loaded");
+                    return;
+                }
+            }
+        }
+    }
+
+    @Transactional
+    public AppNotification create(AppNotification notification) {
+        AppNotification saved = repository.save(notification);
+        boolean unread = !Boolean.TRUE.equals(saved.getIsRead());
+        String user = TenantContext.current();
+        afterCommit(() -> adjust(user, saved.getCategory(), 1, unread ? 1 : 0));
+        return saved;
+    }
+
+    @Transactional
+    public List<AppNotification> createAll(Collection<AppNotification> notifications) {
+        List<AppNotification> saved = repository.saveAll(notifications);
+        String user = TenantContext.current();
+        afterCommit(() -> saved.forEach(notification ->
+            adjust(user, notification.getCategory(), 1, Boolean.TRUE.equals(notification.getIsRead()) ? 0 : 1)));
+        return saved;
+    }
+
+    /**
+     * Up to {@code size} notifications of the filter ({@link #ALL}, {@link #UNREAD} or a category), newest
+     * first, starting after {@code after} (the last one of the previous page, null for the first page)
+     */
+    @Transactional(readOnly = true)
+    public List<AppNotification> page(String filter, AppNotification after, int size) {
+        LocalDateTime createdAt = after != null ? after.getCreatedAt() : KEYSET_START;
+        Long id = after != null ? after.getId() : Long.MAX_VALUE;
+        PageRequest page = PageRequest.of(0, Math.max(1, size));
+        if (filter == null || ALL.equals(filter)) {
+            return repository.findPageAfter(createdAt, id, page);
+        }
+        if (UNREAD.equals(filter)) {
+            return repository.findUnreadPageAfter(createdAt, id, page);
+        }
+        return repository.findCategoryPageAfter(filter, createdAt, id, page);
+    }
+
+    /**
+     * Sets the read state; returns false if it already had it
+     */
+    @Transactional
+    public boolean setRead(AppNotification notification, boolean read) {
+        if (repository.updateRead(notification.getId(), read, read ? LocalDateTime.now() : null) == 0) {
+            return false;
+        }
+        notification.setIsRead(read);
+        if (!read) {
+            notification.setReadAt(null);
+        }
+        String user = TenantContext.current();
+        afterCommit(() -> adjust(user, notification.getCategory(), 0, read ? -1 : 1));
+        eventPublisher.publishEvent(new NotificationChangedEvent(notification.getId()));
+        return true;
+    }
+
+    /**
+     * Deletes the notification; returns false if it was already gone
+     */
+    @Transactional
+    public boolean delete(AppNotification notification) {
+        // Whichever state the row is in now, exactly one of the two statements removes it
+        int unread = repository.deleteInState(notification.getId(), notification.getCategory(), false);
+        int read = unread == 0 ? repository.deleteInState(notification.getId(), notification.getCategory(), true) : 0;
+        if (unread + read == 0) {
+            return false;
+        }
+        String user = TenantContext.current();
+        afterCommit(() -> adjust(user, notification.getCategory(), -1, -unread));
+        eventPublisher.publishEvent(new NotificationChangedEvent(notification.getId()));
+        return true;
+    }
+
+    /**
+     * Marks all of the current user's notifications read with one bulk UPDATE; returns how many were unread
+     */
+    @Transactional
+    public int markAllRead() {
+        int rows = repository.markAllRead(TenantContext.current(), LocalDateTime.now());
+        settleBulk(rows);
+        return rows;
+    }
+
+    /**
+     * Deletes all of the current user's notifications with one bulk DELETE; returns how many there were
+     */
+    @Transactional
+    public int clearAll() {
+        int rows = repository.deleteAllOfUser(TenantContext.current());
+        settleBulk(rows);
+        return rows;
+    }
+
+    /**
+     * Counts of the current user; the total and unread per category likewise
+     */
+    public long total() {
+        ensureLoaded();
+        synchronized (this) {
+            return userCounts().values().stream().mapToLong(category -> category.total).sum();
+        }
+    }
+
+    public long unread() {
+        ensureLoaded();
+        synchronized (this) {
+            return userCounts().values().stream().mapToLong(category -> category.unread).sum();
+        }
+    }
+
+    public long total(String category) {
+        ensureLoaded();
+        synchronized (this) {
+            CategoryCounts counted = userCounts().get(category);
+            return counted != null ? counted.total : 0;
+        }
+    }
+
+    public long unread(String category) {
+        ensureLoaded();
+        synchronized (this) {
+            CategoryCounts counted = userCounts().get(category);
+            return counted != null ? counted.unread : 0;
+        }
+    }
+
+    /**
+     * A bulk statement's row count does not say which categories changed, so the user's counts are recounted
+     * in the same transaction and replace the maintained ones after commit
+     */
+    private void settleBulk(int rows) {
+        if (rows == 0) {
+            return;
+        }
+        String user = TenantContext.current();
+        Map<String, CategoryCounts> recounted = new HashMap<>();
+        for (Object[] row : repository.countByCategoryAndRead()) {
+            add(recounted, (String) row[0], row[1], row[2]);
+        }
+        afterCommit(() -> replace(user, recounted));
+        // Bulk statements bypass the entity's domain events
+        eventPublisher.publishEvent(new NotificationChangedEvent(null));
+    }
+
+    // Callers hold the lock and have ensured the counts are loaded
+    private Map<String, CategoryCounts> userCounts() {
+        return counts.getOrDefault(TenantContext.current(), Map.of());
+    }
+
+    private synchronized void replace(String user, Map<String, CategoryCounts> userCounts) {
+        changes++;
+        counts.put(user, userCounts);
+    }
+
+    private static void add(Map<String, CategoryCounts> userCounts, String category, Object read, Object rows) {
+        CategoryCounts counted = userCounts.computeIfAbsent(category, key -> new CategoryCounts());
+        long count = ((Number) rows).longValue();
+        counted.total += count;
+        if (!Boolean.TRUE.equals(read)) {
+            counted.unread += count;
+        }
+    }
+
+    private synchronized void adjust(String user, String category, long total, long unread) {
+        changes++;
+        CategoryCounts counted = counts.computeIfAbsent(user, key -> new HashMap<>())
+            .computeIfAbsent(category, key -> new CategoryCounts());
+        counted.total = Math.max(0, counted.total + total);
+        counted.unread = Math.max(0, counted.unread + unread);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            resync();
+        }
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private static final class CategoryCounts {
+        private long total;
+        private long unread;
+    }
+}
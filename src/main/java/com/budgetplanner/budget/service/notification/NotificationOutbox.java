@@ -0,0 +1,232 @@
+package com.budgetplanner.budget.service.notification;
+
+import com.budgetplanner.budget.model.AppNotification;
+import com.budgetplanner.budget.model.NotificationOutboxEntry;
+import com.budgetplanner.budget.model.NotificationOutboxEntry.OutboxStatus;
+import com.budgetplanner.budget.repository.NotificationOutboxRepository;
+import com.budgetplanner.budget.service.cluster.ClusterMembership;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for notifications.
+ *
+ * {@link #enqueue} joins the caller's transaction, so a notification is stored if and only if the change
+ * that triggered it commits. Nodes claim due entries in batches with {@code SELECT ... FOR UPDATE SKIP LOCKED}
+ * and mark them IN_FLIGHT under a lease; every completion is conditional on still holding the claim, so
+ * an entry is only ever worked on by one node at a time. A node that dies mid-batch leaves its entries to
+ * be re-claimed once the lease runs out.
+ *
+ * Failed attempts are retried with exponential backoff (plus up to 20% jitter) until the attempt limit,
+ * then the entry is FAILED. Channels that took the notification on a partly failed attempt are recorded
+ * and left out of the retries.
+ */
+@Service
+public class NotificationOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutbox.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    // Bound for the IN list of one existing-key check
+    private static final int KEY_CHECK_CHUNK = 1000;
+
+    private final NotificationOutboxRepository repository;
+    private final String nodeId;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public NotificationOutbox(NotificationOutboxRepository repository,
+                              @Value("${notification.outbox.node-id:}") String nodeId,
+                              @Value("${notification.outbox.lease-seconds:300}") long leaseSeconds,
+                              @Value("${notification.outbox.max-attempts:8}") int maxAttempts,
+                              @Value("${notification.outbox.initial-backoff-seconds:30}") long initialBackoffSeconds,
+                              @Value("${notification.outbox.max-backoff-seconds:3600}") long maxBackoffSeconds) {
+        this.repository = repository;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? ClusterMembership.defaultNodeId() : nodeId;
+        this.lease = Duration.ofSeconds(Math.max(1, leaseSeconds));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = Duration.ofSeconds(Math.max(1, initialBackoffSeconds));
+        this.maxBackoff = Duration.ofSeconds(Math.max(initialBackoffSeconds, maxBackoffSeconds));
+    }
+
+    /**
+     * Queues a stored notification for the user. The key is derived from the notification id and the user,
+     * so queueing it again is a no-op. Returns false if it was already queued.
+     */
+    @Transactional
+    public boolean enqueue(AppNotification notification, String userId) {
+        return enqueue(notification, userId, idempotencyKey(notification, userId));
+    }
+
+    /**
+     * Queues a notification under the caller's idempotency key; returns false if the key was already used
+     */
+    @Transactional
+    public boolean enqueue(AppNotification notification, String userId, String idempotencyKey) {
+        if (repository.existsByIdempotencyKey(idempotencyKey)) {
+            return false;
+        }
+        repository.save(new NotificationOutboxEntry(idempotencyKey, userId, notification));
+        return true;
+    }
+
+    /**
+     * Queues a stored notification for every user (a wave) with one batched insert; returns how many were new
+     */
+    @Transactional
+    public int enqueueAll(AppNotification notification, Collection<String> userIds) {
+        Map<String, String> userByKey = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            userByKey.putIfAbsent(idempotencyKey(notification, userId), userId);
+        }
+        List<String> keys = new ArrayList<>(userByKey.keySet());
+        for (int from = 0; from < keys.size(); from += KEY_CHECK_CHUNK) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + KEY_CHECK_CHUNK));
+            repository.findExistingKeys(chunk).forEach(userByKey::remove);
+        }
+
+        List<NotificationOutboxEntry> entries = new ArrayList<>(userByKey.size());
+        userByKey.forEach((key, userId) -> entries.add(new NotificationOutboxEntry(key, userId, notification)));
+        repository.saveAll(entries);
+        return entries.size();
+    }
+
+    /**
+     * Claims up to {@code limit} due entries for this node
+     */
+    @Transactional
+    public List<NotificationOutboxEntry> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = repository.lockDueIds(now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        repository.markClaimed(ids, nodeId, now.plus(lease), OutboxStatus.IN_FLIGHT);
+        return repository.findAllById(ids);
+    }
+
+    /**
+     * Renews the lease of entries this node still holds, for deliveries that outlast the first one
+     */
+    @Transactional
+    public int extendLease(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return repository.extendLease(ids, nodeId, LocalDateTime.now().plus(lease), OutboxStatus.IN_FLIGHT);
+    }
+
+    @Transactional
+    public int markSent(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return repository.markSent(ids, nodeId, LocalDateTime.now(), OutboxStatus.IN_FLIGHT, OutboxStatus.SENT);
+    }
+
+    /**
+     * Nothing to deliver (e.g. the user switched the category off): done, without retrying
+     */
+    @Transactional
+    public boolean markSkipped(NotificationOutboxEntry entry, String reason) {
+        return repository.release(entry.getId(), nodeId, LocalDateTime.now(), truncate(reason),
+            entry.getDeliveredChannels(), OutboxStatus.IN_FLIGHT, OutboxStatus.SKIPPED) > 0;
+    }
+
+    /**
+     * Schedules the next attempt with backoff, or gives up after the last one. {@code delivered} are the
+     * channels that did take it this time.
+     */
+    @Transactional
+    public boolean markAttemptFailed(NotificationOutboxEntry entry, String error, Set<NotificationChannel> delivered) {
+        int attempts = entry.getAttempts() != null ? entry.getAttempts() : 1;
+        LocalDateTime now = LocalDateTime.now();
+        Set<NotificationChannel> allDelivered = deliveredChannels(entry);
+        allDelivered.addAll(delivered);
+        String channels = allDelivered.isEmpty() ? null
+            : allDelivered.stream().map(Enum::name).collect(Collectors.joining(","));
+        if (attempts >= maxAttempts) {
+            log.atWarn()
+                .addKeyValue("outboxId", entry.getId())
+                .addKeyValue("userId", entry.getUserId())
+                .addKeyValue("attempts", attempts)
+                .addKeyValue("error", error)
+                .log("Notification delivery failed permanently");
+            return repository.release(entry.getId(), nodeId, now, truncate(error), channels,
+                OutboxStatus.IN_FLIGHT, OutboxStatus.FAILED) > 0;
+        }
+        return repository.release(entry.getId(), nodeId, now.plus(backoff(attempts)), truncate(error), channels,
+            OutboxStatus.IN_FLIGHT, OutboxStatus.PENDING) > 0;
+    }
+
+    /**
+     * Channels that took the entry's notification on earlier attempts
+     */
+    public static Set<NotificationChannel> deliveredChannels(NotificationOutboxEntry entry) {
+        Set<NotificationChannel> channels = EnumSet.noneOf(NotificationChannel.class);
+        if (entry.getDeliveredChannels() != null) {
+            for (String channel : entry.getDeliveredChannels().split(",")) {
+                if (!channel.isBlank()) {
+                    channels.add(NotificationChannel.valueOf(channel.trim()));
+                }
+            }
+        }
+        return channels;
+    }
+
+    @Transactional
+    public int purgeSentBefore(LocalDateTime cutoff) {
+        return repository.deleteSentBefore(cutoff, OutboxStatus.SENT);
+    }
+
+    /**
+     * Delay before the attempt after {@code attempts} failed ones: initial, 2x, 4x, ... capped, plus jitter
+     */
+    public Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(0, attempts - 1), 30);
+        long millis = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << doublings);
+        return Duration.ofMillis(millis + ThreadLocalRandom.current().nextLong(millis / 5 + 1));
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Duration getLease() {
+        return lease;
+    }
+
+    /**
+     * Key of a stored notification for one user
+     */
+    public static String idempotencyKey(AppNotification notification, String userId) {
+        if (notification.getId() == null) {
+            throw new IllegalArgumentException("Notification must be saved before it is queued, or pass an idempotency key");
+        }
+        return "notification-" + notification.getId() + "-" + userId;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,206 @@
+package com.budgetplanner.budget.service.notification;
+
+import com.budgetplanner.budget.metrics.BudgetMetrics;
+import com.budgetplanner.budget.model.NotificationOutboxEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Delivers the notification outbox: claims due entries in batches, hands them to the
+ * {@link NotificationDispatcher} with their idempotency keys, and records each outcome. Every node runs
+ * its own poller; the claims keep them from sending the same entry.
+ */
+@Component
+public class NotificationOutboxPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxPoller.class);
+
+    // Outcome names of the outbox metrics
+    private static final String SENT = "sent";
+    private static final String SKIPPED = "skipped";
+    private static final String RETRY = "retry";
+
+    private final NotificationOutbox outbox;
+    private final NotificationDispatcher dispatcher;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final int retentionDays;
+
+    public NotificationOutboxPoller(NotificationOutbox outbox,
+                                    NotificationDispatcher dispatcher,
+                                    @Value("${notification.outbox.batch-size:200}") int batchSize,
+                                    @Value("${notification.outbox.max-batches-per-poll:50}") int maxBatchesPerPoll,
+                                    @Value("${notification.outbox.retention-days:7}") int retentionDays) {
+        this.outbox = outbox;
+        this.dispatcher = dispatcher;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchesPerPoll = Math.max(1, maxBatchesPerPoll);
+        this.retentionDays = Math.max(1, retentionDays);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            drain();
+        } catch (Exception e) {
+            log.atError().setCause(e).log("Error delivering notification outbox");
+        }
+    }
+
+    /**
+     * Delivers due entries until none are left or the per-poll batch limit is reached; returns how many
+     * were delivered
+     */
+    public int drain() {
+        int delivered = 0;
+        for (int batch = 0; batch < maxBatchesPerPoll; batch++) {
+            List<NotificationOutboxEntry> entries = outbox.claimBatch(batchSize);
+            if (entries.isEmpty()) {
+                break;
+            }
+            delivered += deliver(entries);
+            if (entries.size() < batchSize) {
+                break;
+            }
+        }
+        return delivered;
+    }
+
+    private int deliver(List<NotificationOutboxEntry> entries) {
+        dispatcher.preload(entries.stream().map(NotificationOutboxEntry::getUserId).toList());
+        List<CompletableFuture<DeliveryResult>> results = new ArrayList<>(entries.size());
+        for (NotificationOutboxEntry entry : entries) {
+            results.add(dispatcher.dispatch(entry.toNotification(), entry.getUserId(), entry.getIdempotencyKey(),
+                NotificationOutbox.deliveredChannels(entry)));
+        }
+
+        // Settle well inside the lease, so no other node re-claims entries still being sent here
+        long deadline = System.nanoTime() + outbox.getLease().toNanos() / 2;
+        List<Long> sent = new ArrayList<>();
+        List<Integer> unsettled = new ArrayList<>();
+        int retried = 0;
+        int skipped = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            DeliveryResult result = await(results.get(i), deadline);
+            if (result == null) {
+                unsettled.add(i);
+                continue;
+            }
+            switch (record(entries.get(i), result)) {
+                case SENT:
+                    sent.add(entries.get(i).getId());
+                    break;
+                case SKIPPED:
+                    skipped++;
+                    break;
+                default:
+                    retried++;
+            }
+        }
+        int marked = outbox.markSent(sent);
+        if (!unsettled.isEmpty()) {
+            settleLater(entries, results, unsettled);
+        }
+
+        BudgetMetrics.outboxProcessed(SENT, marked);
+        BudgetMetrics.outboxProcessed(SKIPPED, skipped);
+        BudgetMetrics.outboxProcessed(RETRY, retried);
+        log.atDebug()
+            .addKeyValue("claimed", entries.size())
+            .addKeyValue("sent", marked)
+            .addKeyValue("skipped", skipped)
+            .addKeyValue("retried", retried)
+            .addKeyValue("unsettled", unsettled.size())
+            .log("Delivered notification outbox batch");
+        return marked;
+    }
+
+    /**
+     * Dispatches still running at the deadline may yet reach their channels, so their entries are neither
+     * released nor retried: the claim is renewed and each outcome is recorded once its dispatch settles.
+     * A dispatch that outlasts the renewed lease is re-claimed like the batch of a node that died.
+     */
+    private void settleLater(List<NotificationOutboxEntry> entries, List<CompletableFuture<DeliveryResult>> results,
+                             List<Integer> unsettled) {
+        List<Long> ids = new ArrayList<>(unsettled.size());
+        unsettled.forEach(i -> ids.add(entries.get(i).getId()));
+        outbox.extendLease(ids);
+        log.atWarn().addKeyValue("entries", ids.size()).log("Notification deliveries outlasted the batch deadline");
+
+        for (int i : unsettled) {
+            NotificationOutboxEntry entry = entries.get(i);
+            results.get(i)
+                .handle((result, failure) -> result != null ? result : DeliveryResult.of(DeliveryOutcome.FAILED))
+                .thenAccept(result -> recordLate(entry, result));
+        }
+    }
+
+    private void recordLate(NotificationOutboxEntry entry, DeliveryResult result) {
+        try {
+            String outcome = record(entry, result);
+            int count = SENT.equals(outcome) ? outbox.markSent(List.of(entry.getId())) : 1;
+            BudgetMetrics.outboxProcessed(outcome, count);
+        } catch (RuntimeException e) {
+            log.atError().setCause(e).addKeyValue("outboxId", entry.getId())
+                .log("Error recording a late notification delivery");
+        }
+    }
+
+    /**
+     * Releases a settled entry that is skipped or to be retried; a sent entry is left for the caller to mark.
+     * Returns the outcome's metric name.
+     */
+    private String record(NotificationOutboxEntry entry, DeliveryResult result) {
+        switch (result.getOutcome()) {
+            case DELIVERED:
+                return SENT;
+            case SKIPPED:
+                // Nothing left to send; if an earlier attempt reached a channel it was still sent
+                if (entry.getDeliveredChannels() != null) {
+                    return SENT;
+                }
+                outbox.markSkipped(entry, "Nothing to deliver");
+                return SKIPPED;
+            default:
+                outbox.markAttemptFailed(entry, "Delivery " + result.getOutcome().name().toLowerCase(),
+                    result.getDeliveredChannels());
+                return RETRY;
+        }
+    }
+
+    /**
+     * The dispatch's result, or null if it is still running at the deadline (or this thread was interrupted)
+     */
+    private static DeliveryResult await(CompletableFuture<DeliveryResult> result, long deadline) {
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return DeliveryResult.of(DeliveryOutcome.FAILED);
+        } catch (TimeoutException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Daily cleanup of delivered entries
+     */
+    @Scheduled(cron = "${notification.outbox.purge-cron:0 15 3 * * *}")
+    public void purgeSent() {
+        int purged = outbox.purgeSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        log.atInfo().addKeyValue("purged", purged).log("Purged delivered notification outbox entries");
+    }
+}
@@ -0,0 +1,18 @@
+package com.budgetplanner.budget.service.notification;
+
+import java.util.List;
+
+/**
+ * Sends the messages of one channel. The dispatcher hands over batches of up to the channel's batch
+ * size, from a single sender thread per channel.
+ */
+public interface NotificationProvider {
+
+    NotificationChannel getChannel();
+
+    /**
+     * Sends every message of the batch; returns false if the batch failed as a whole. Exceptions are
+     * treated as a failed batch.
+     */
+    boolean sendBatch(List<OutboundMessage> batch);
+}
@@ -0,0 +1,74 @@
+package com.budgetplanner.budget.service.notification;
+
+import com.budgetplanner.budget.model.NotificationPreference;
+
+/**
+ * Immutable snapshot of one user's notification preferences, safe to share between dispatch threads
+ */
+public final class NotificationRecipient {
+
+    private final String userId;
+    private final String emailAddress;
+    private final String phoneNumber;
+    private final boolean emailEnabled;
+    private final boolean smsEnabled;
+    private final boolean aiInsightsEnabled;
+    private final boolean budgetAlertsEnabled;
+    private final boolean savingsTipsEnabled;
+    private final boolean recurringRemindersEnabled;
+
+    private NotificationRecipient(NotificationPreference preference) {
+        this.userId = preference.getUserId();
+        this.emailAddress = preference.getEmailAddress();
+        this.phoneNumber = preference.getPhoneNumber();
+        this.emailEnabled = Boolean.TRUE.equals(preference.getEmailEnabled());
+        this.smsEnabled = Boolean.TRUE.equals(preference.getSmsEnabled());
+        this.aiInsightsEnabled = Boolean.TRUE.equals(preference.getAiInsightsEnabled());
+        this.budgetAlertsEnabled = Boolean.TRUE.equals(preference.getBudgetAlertsEnabled());
+        this.savingsTipsEnabled = Boolean.TRUE.equals(preference.getSavingsTipsEnabled());
+        this.recurringRemindersEnabled = Boolean.TRUE.equals(preference.getRecurringRemindersEnabled());
+    }
+
+    public static NotificationRecipient of(NotificationPreference preference) {
+        return new NotificationRecipient(preference);
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Address to email, or null when email is off or no address is on file
+     */
+    public String emailTarget() {
+        return emailEnabled ? emailAddress : null;
+    }
+
+    /**
+     * Number to text, or null when SMS is off or no number is on file
+     */
+    public String smsTarget() {
+        return smsEnabled ? phoneNumber : null;
+    }
+
+    /**
+     * Check if notification category is enabled for user
+     */
+    public boolean isCategoryEnabled(String category) {
+        if (category == null) {
+            return true;
+        }
+        switch (category) {
+            case "AI_INSIGHT":
+                return aiInsightsEnabled;
+            case "BUDGET_ALERT":
+                return budgetAlertsEnabled;
+            case "SAVINGS_TIP":
+                return savingsTipsEnabled;
+            case "RECURRING_REMINDER":
+                return recurringRemindersEnabled;
+            default:
+                return true;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.budgetplanner.budget.service.notification;
+
+import com.budgetplanner.budget.event.NotificationPreferenceChangedEvent;
+import com.budgetplanner.budget.event.NotificationTemplateChangedEvent;
+import com.budgetplanner.budget.model.NotificationPreference;
+import com.budgetplanner.budget.repository.NotificationPreferenceRepository;
+import com.budgetplanner.budget.repository.NotificationTemplateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of notification preferences and compiled templates for the dispatch pipeline.
+ *
+ * Misses are cached too (a user without preferences, a category without an active template), so a
+ * wave costs at most one lookup per user. Entries are dropped after the commit of any save through the
+ * repositories of this node, and all of them by {@link #clear}; a load that raced with such a change is
+ * returned but not cached.
+ */
+@Component
+public class NotificationSettingsCache {
+
+    // Bound for the IN list of one preload query
+    private static final int PRELOAD_CHUNK = 1000;
+
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final NotificationTemplateRepository templateRepository;
+    private final int maxRecipients;
+
+    private final ConcurrentMap<String, Optional<NotificationRecipient>> recipients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Optional<CompiledNotificationTemplate>> templates = new ConcurrentHashMap<>();
+    private final AtomicLong preferenceVersion = new AtomicLong();
+    private final AtomicLong templateVersion = new AtomicLong();
+
+    public NotificationSettingsCache(NotificationPreferenceRepository preferenceRepository,
+                                     NotificationTemplateRepository templateRepository,
+                                     @Value("${notification.cache.max-recipients:100000}") int maxRecipients) {
+        this.preferenceRepository = preferenceRepository;
+        this.templateRepository = templateRepository;
+        this.maxRecipients = Math.max(1, maxRecipients);
+    }
+
+    public Optional<NotificationRecipient> getRecipient(String userId) {
+        Optional<NotificationRecipient> cached = recipients.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long version = preferenceVersion.get();
+        Optional<NotificationRecipient> loaded = preferenceRepository.findByUserId(userId).map(NotificationRecipient::of);
+        cacheRecipient(userId, loaded, version);
+        return loaded;
+    }
+
+    /**
+     * Loads the preferences of every uncached user in a few IN queries, ahead of a wave
+     */
+    public void preload(Collection<String> userIds) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (String userId : userIds) {
+            if (userId != null && !recipients.containsKey(userId)) {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        long version = preferenceVersion.get();
+        List<String> pending = new ArrayList<>(missing);
+        for (int from = 0; from < pending.size(); from += PRELOAD_CHUNK) {
+            List<String> chunk = pending.subList(from, Math.min(pending.size(), from + PRELOAD_CHUNK));
+            for (NotificationPreference preference : preferenceRepository.findByUserIdIn(chunk)) {
+                cacheRecipient(preference.getUserId(), Optional.of(NotificationRecipient.of(preference)), version);
+                missing.remove(preference.getUserId());
+            }
+        }
+        for (String userId : missing) {
+            cacheRecipient(userId, Optional.empty(), version);
+        }
+    }
+
+    /**
+     * The first active template of the category, compiled
+     */
+    public Optional<CompiledNotificationTemplate> getTemplate(String category) {
+        if (category == null) {
+            return Optional.empty();
+        }
+        Optional<CompiledNotificationTemplate> cached = templates.get(category);
+        if (cached != null) {
+            return cached;
+        }
+        long version = templateVersion.get();
+        Optional<CompiledNotificationTemplate> loaded = templateRepository.findByCategoryAndIsActiveTrue(category)
+            .stream()
+            .findFirst()
+            .map(CompiledNotificationTemplate::compile);
+        if (templateVersion.get() == version) {
+            templates.put(category, loaded);
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPreferenceChanged(NotificationPreferenceChangedEvent event) {
+        preferenceVersion.incrementAndGet();
+        if (event.getUserId() != null) {
+            recipients.remove(event.getUserId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTemplateChanged(NotificationTemplateChangedEvent event) {
+        templateVersion.incrementAndGet();
+        // A template may have moved between categories, the few compiled ones are cheap to rebuild
+        templates.clear();
+    }
+
+    /**
+     * Drops every entry, for changes this node got no event for (saves on other nodes)
+     */
+    public void clear() {
+        preferenceVersion.incrementAndGet();
+        templateVersion.incrementAndGet();
+        recipients.clear();
+        templates.clear();
+    }
+
+    public int cachedRecipients() {
+        return recipients.size();
+    }
+
+    private void cacheRecipient(String userId, Optional<NotificationRecipient> recipient, long version) {
+        if (preferenceVersion.get() != version) {
+            return;
+        }
+        if (recipients.size() >= maxRecipients) {
+            recipients.clear();
+        }
+        recipients.put(userId, recipient);
+    }
+}
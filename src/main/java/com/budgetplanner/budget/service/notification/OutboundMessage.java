@@ -0,0 +1,58 @@
+package com.budgetplanner.budget.service.notification;
+
+/**
+ * One rendered email or SMS waiting in its channel queue. The subject is null for SMS.
+ */
+public final class OutboundMessage {
+
+    private final NotificationChannel channel;
+    private final String to;
+    private final String subject;
+    private final String body;
+    private final String idempotencyKey;
+    private final DeliveryTracker tracker;
+
+    public OutboundMessage(NotificationChannel channel, String to, String subject, String body) {
+        this(channel, to, subject, body, null, null);
+    }
+
+    OutboundMessage(NotificationChannel channel, String to, String subject, String body,
+                    String idempotencyKey, DeliveryTracker tracker) {
+        this.channel = channel;
+        this.to = to;
+        this.subject = subject;
+        this.body = body;
+        this.idempotencyKey = idempotencyKey;
+        this.tracker = tracker;
+    }
+
+    public NotificationChannel getChannel() {
+        return channel;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Key of the outbox entry this message came from, null for direct sends. Stable across retries,
+     * providers that support it should pass it on so a retried send is not delivered twice.
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    void delivered(boolean success) {
+        if (tracker != null) {
+            tracker.complete(channel, success);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.budgetplanner.budget.service.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Sends email batches using SendGrid API
+ *
+ * TODO: Integration with SendGrid
+ * 1. Add SendGrid dependency to pom.xml:
+ *    <dependency>
+ *      <groupId>com.sendgrid</groupId>
+ *      <artifactId>sendgrid-java</artifactId>
+ *      <version>4.9.3</version>
+ *    </dependency>
+ *
+ * 2. Add SendGrid API key to application.properties:
+ *    sendgrid.api-key=your-sendgrid-api-key
+ *    sendgrid.from-email=noreply@budgetplanner.com
+ *    sendgrid.from-name=Budget Planner
+ *
+ * 3. One mail/send request takes up to 1000 personalizations, so a batch becomes one request per
+ *    distinct subject and body (a wave renders the same text for every recipient).
+ */
+@Component
+@ConditionalOnProperty(name = "notification.stub.enabled", havingValue = "false", matchIfMissing = true)
+public class SendGridEmailProvider implements NotificationProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(SendGridEmailProvider.class);
+
+    @Value("${sendgrid.api-key:#{null}}")
+    private String sendGridApiKey;
+
+    @Value("${sendgrid.from-email:noreply@budgetplanner.com}")
+    private String fromEmail;
+
+    @Value("${sendgrid.from-name:Budget Planner}")
+    private String fromName;
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.EMAIL;
+    }
+
+    @Override
+    public boolean sendBatch(List<OutboundMessage> batch) {
+        if (sendGridApiKey == null || sendGridApiKey.trim().isEmpty()) {
+            log.atInfo().addKeyValue("emails", batch.size()).log("SendGrid API key not configured, emails not sent");
+            // Message content stays at DEBUG, it can carry balances and merchant names
+            for (OutboundMessage message : batch) {
+                log.atDebug()
+                    .addKeyValue("to", message.getTo())
+                    .addKeyValue("subject", message.getSubject())
+                    .addKeyValue("body", message.getBody())
+                    .log("Simulated email");
+            }
+            return true; // Simulate success for now
+        }
+
+        /* TODO: Uncomment when SendGrid is configured
+        SendGrid sg = new SendGrid(sendGridApiKey);
+        Map<List<String>, List<OutboundMessage>> byContent = batch.stream()
+            .collect(Collectors.groupingBy(m -> List.of(m.getSubject(), m.getBody())));
+
+        for (List<OutboundMessage> group : byContent.values()) {
+            Mail mail = new Mail();
+            mail.setFrom(new Email(fromEmail, fromName));
+            mail.setSubject(group.get(0).getSubject());
+            mail.addContent(new Content("text/html", group.get(0).getBody()));
+            for (OutboundMessage message : group) {
+                Personalization personalization = new Personalization();
+                personalization.addTo(new Email(message.getTo()));
+                if (message.getIdempotencyKey() != null) {
+                    // SendGrid does not deduplicate, but the key shows up in event webhooks for tracing
+                    personalization.addCustomArg("idempotency_key", message.getIdempotencyKey());
+                }
+                mail.addPersonalization(personalization);
+            }
+
+            Request request = new Request();
+            request.setMethod(Method.POST);
+            request.setEndpoint("mail/send");
+            request.setBody(mail.build());
+            Response response = sg.api(request);
+            if (response.getStatusCode() < 200 || response.getStatusCode() >= 300) {
+                return false;
+            }
+        }
+        return true;
+        */
+
+        log.atInfo().addKeyValue("emails", batch.size()).log("Email batch would be sent");
+        return true;
+    }
+}
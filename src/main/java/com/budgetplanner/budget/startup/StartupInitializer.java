@@ -0,0 +1,36 @@
+package com.budgetplanner.budget.startup;
+
+import java.util.Set;
+
+/**
+ * A piece of startup work (resetting tables, seeding defaults or sample data) run by
+ * {@link StartupOrchestrator}. Initializers of one phase run in parallel, each once the initializers it
+ * {@link #dependsOn() depends on} have finished.
+ */
+public interface StartupInitializer {
+
+    enum Phase {
+        /** Runs before the application reports ready; a failure stops startup */
+        CRITICAL,
+        /** Runs in the background once the application is ready; a failure is only logged */
+        DEFERRED
+    }
+
+    /**
+     * Unique name, used for dependencies, logs and the startup step tags
+     */
+    String name();
+
+    default Phase phase() {
+        return Phase.CRITICAL;
+    }
+
+    /**
+     * Names of initializers that must finish first. Those of an earlier phase have always finished.
+     */
+    default Set<String> dependsOn() {
+        return Set.of();
+    }
+
+    void initialize();
+}
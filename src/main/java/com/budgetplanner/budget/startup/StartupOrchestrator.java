@@ -0,0 +1,168 @@
+package com.budgetplanner.budget.startup;
+
+import com.budgetplanner.budget.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs every {@link StartupInitializer} on a small pool instead of one {@code CommandLineRunner} after another.
+ *
+ * The critical phase runs as an {@link ApplicationRunner}, so it is done before {@link ApplicationReadyEvent}
+ * and the listeners that build in-memory indexes from the tables it resets. The deferred phase starts on
+ * that event and finishes in the background. Each phase is recorded as a {@code budget.startup.<phase>} step
+ * of the context's {@link ApplicationStartup}, tagged with the duration of each initializer, and so shows up
+ * in {@code /actuator/startup} next to Spring's own steps.
+ */
+@Component
+public class StartupOrchestrator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupOrchestrator.class);
+
+    private final Map<String, StartupInitializer> initializers = new LinkedHashMap<>();
+    private final ApplicationStartup applicationStartup;
+    private final ThreadPoolTaskExecutor executor;
+
+    public StartupOrchestrator(List<StartupInitializer> initializers,
+                               ApplicationStartup applicationStartup,
+                               @Value("${startup.parallelism:4}") int parallelism) {
+        for (StartupInitializer initializer : initializers) {
+            if (this.initializers.putIfAbsent(initializer.name(), initializer) != null) {
+                throw new IllegalStateException("Duplicate startup initializer " + initializer.name());
+            }
+        }
+        this.applicationStartup = applicationStartup;
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        // Idle after startup, so let the threads go
+        executor.setKeepAliveSeconds(10);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("Startup-");
+        executor.setTaskDecorator(TenantContext::propagate);
+        executor.initialize();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            runPhase(StartupInitializer.Phase.CRITICAL).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Critical startup initializer failed", e.getCause());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        startDeferred();
+    }
+
+    /**
+     * Starts the deferred phase without waiting for it
+     */
+    public CompletableFuture<Void> startDeferred() {
+        return runPhase(StartupInitializer.Phase.DEFERRED).exceptionally(e -> {
+            log.atError().setCause(e.getCause()).log("Deferred startup initializer failed");
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private CompletableFuture<Void> runPhase(StartupInitializer.Phase phase) {
+        String phaseName = phase.name().toLowerCase();
+        StartupStep step = applicationStartup.start("budget.startup." + phaseName);
+        long start = System.nanoTime();
+
+        Map<String, Long> durations = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Void>> scheduled = new HashMap<>();
+        List<CompletableFuture<Void>> all = new ArrayList<>();
+        for (StartupInitializer initializer : initializers.values()) {
+            if (initializer.phase() == phase) {
+                all.add(schedule(initializer, scheduled, new HashSet<>(), durations));
+            }
+        }
+
+        return CompletableFuture.allOf(all.toArray(CompletableFuture[]::new)).whenComplete((ignored, failure) -> {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            synchronized (durations) {
+                durations.forEach((name, ms) -> step.tag(name, ms + "ms"));
+            }
+            step.tag("wall", millis + "ms");
+            step.end();
+            log.atInfo()
+                .addKeyValue("phase", phaseName)
+                .addKeyValue("initializers", all.size())
+                .addKeyValue("durationMs", millis)
+                .log("Startup phase finished");
+        });
+    }
+
+    private CompletableFuture<Void> schedule(StartupInitializer initializer,
+                                             Map<String, CompletableFuture<Void>> scheduled,
+                                             Set<String> visiting, Map<String, Long> durations) {
+        CompletableFuture<Void> existing = scheduled.get(initializer.name());
+        if (existing != null) {
+            return existing;
+        }
+        if (!visiting.add(initializer.name())) {
+            throw new IllegalStateException("Startup initializers depend on each other: " + visiting);
+        }
+
+        List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+        for (String name : initializer.dependsOn()) {
+            StartupInitializer dependency = initializers.get(name);
+            if (dependency == null) {
+                throw new IllegalStateException(initializer.name() + " depends on unknown startup initializer " + name);
+            }
+            if (dependency.phase().compareTo(initializer.phase()) > 0) {
+                throw new IllegalStateException(initializer.name() + " depends on later startup initializer " + name);
+            }
+            if (dependency.phase() == initializer.phase()) {
+                prerequisites.add(schedule(dependency, scheduled, visiting, durations));
+            }
+        }
+        visiting.remove(initializer.name());
+
+        CompletableFuture<Void> future = CompletableFuture.allOf(prerequisites.toArray(CompletableFuture[]::new))
+            .thenRunAsync(() -> run(initializer, durations), executor);
+        scheduled.put(initializer.name(), future);
+        return future;
+    }
+
+    private void run(StartupInitializer initializer, Map<String, Long> durations) {
+        long start = System.nanoTime();
+        initializer.initialize();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        synchronized (durations) {
+            durations.put(initializer.name(), millis);
+        }
+        log.atInfo()
+            .addKeyValue("initializer", initializer.name())
+            .addKeyValue("durationMs", millis)
+            .log("Startup initializer finished");
+    }
+}
@@ -0,0 +1,101 @@
+package com.budgetplanner.budget.tenant;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * The user (tenant) whose data the current thread reads and writes.
+ *
+ * Hibernate stamps and filters every {@code @TenantId} entity with {@link #current()}: an explicit
+ * {@link #runAs} scope of this thread first, then the signed-in user of the UI session, then
+ * {@link #DEFAULT_TENANT} (the single-user install). Work that spans users (startup index loads, sweeps,
+ * scheduled syncs) runs in {@link #runAsSystem}, which sees every user's rows and must not create any;
+ * per-user work found that way runs as its user again. A transaction keeps the tenant it began with, so
+ * switch tenants outside of one or open a new one inside. A thread does not inherit the tenant of the thread
+ * that started its work: {@code @Async} methods and the pools decorated with {@link #propagate} capture it
+ * when the work is submitted, other hand-offs must {@link #propagate} it themselves.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default_user";
+    // Root tenant: Hibernate disables the tenant filter for it
+    public static final String SYSTEM = "__system__";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+    private static volatile Supplier<String> sessionTenant = () -> null;
+
+    // Private constructor to prevent instantiation
+    private TenantContext() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Tenant of the current thread, never null
+     */
+    public static String current() {
+        String tenant = CURRENT.get();
+        if (tenant != null) {
+            return tenant;
+        }
+        tenant = sessionTenant.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    public static boolean isSystem(String tenant) {
+        return SYSTEM.equals(tenant);
+    }
+
+    /**
+     * Sets where {@link #current()} finds the signed-in user outside a {@link #runAs} scope, returning null
+     * when there is none (e.g. on a background thread)
+     */
+    public static void setSessionTenant(Supplier<String> lookup) {
+        sessionTenant = Objects.requireNonNull(lookup);
+    }
+
+    /**
+     * Runs {@code work} as {@code tenant}; transactions it opens are scoped to that tenant
+     */
+    public static <T> T callAs(String tenant, Supplier<T> work) {
+        Objects.requireNonNull(tenant, "tenant");
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static void runAs(String tenant, Runnable work) {
+        callAs(tenant, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> T callAsSystem(Supplier<T> work) {
+        return callAs(SYSTEM, work);
+    }
+
+    public static void runAsSystem(Runnable work) {
+        runAs(SYSTEM, work);
+    }
+
+    /**
+     * Wraps {@code task} to run as the tenant current now, for handing work to another thread
+     */
+    public static Runnable propagate(Runnable task) {
+        String tenant = current();
+        return () -> runAs(tenant, task);
+    }
+
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        String tenant = current();
+        return () -> callAs(tenant, task);
+    }
+}
@@ -0,0 +1,26 @@
+package com.budgetplanner.budget.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Hands {@link TenantContext#current()} to Hibernate for every session it opens; the system tenant is the
+ * root tenant, so its sessions are not filtered.
+ */
+public class TenantResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.current();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        // A session bound to a transaction keeps the tenant it was opened with
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return TenantContext.isSystem(tenantId);
+    }
+}
@@ -1,12 +1,10 @@
 package com.budgetplanner.budget.util;
 
+import com.budgetplanner.budget.controller.AvatarController;
 import com.budgetplanner.budget.service.UserSessionService;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.html.Span;
-import com.vaadin.flow.server.StreamResource;
-
-import java.io.ByteArrayInputStream;
 
 /**
  * Helper utility to create avatar logo for sidebars
@@ -29,15 +27,7 @@ public class AvatarHelper {
         
         if (userSessionService.hasAvatar()) {
             // Show avatar image
-            Image img = new Image();
-            byte[] avatarData = userSessionService.getAvatarFromSession();
-            StreamResource resource = new StreamResource("avatar.png", 
-                () -> new ByteArrayInputStream(avatarData));
-            img.setSrc(resource);
-            img.setWidth("45px");
-            img.setHeight("45px");
-            img.getStyle().set("object-fit", "cover");
-            logo.add(img);
+            logo.add(createAvatarImage(userSessionService.getAvatarHash(), 45));
         } else {
             // Show user initials
             logo.getStyle()
@@ -54,4 +44,18 @@ public class AvatarHelper {
         
         return logo;
     }
+
+    /**
+     * Creates a square avatar image loaded from its cacheable URL
+     * @param avatarHash Hash of the avatar, as stored on the profile
+     * @param cssPixels Width and height the image is shown at
+     * @return Image sized to {@code cssPixels}
+     */
+    public static Image createAvatarImage(String avatarHash, int cssPixels) {
+        Image img = new Image(AvatarController.url(avatarHash, cssPixels), "Avatar");
+        img.setWidth(cssPixels + "px");
+        img.setHeight(cssPixels + "px");
+        img.getStyle().set("object-fit", "cover");
+        return img;
+    }
 }
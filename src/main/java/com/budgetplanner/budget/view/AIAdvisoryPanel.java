@@ -1,6 +1,7 @@
 package com.budgetplanner.budget.view;
 
 import com.budgetplanner.budget.service.AIAdvisoryService;
+import com.budgetplanner.budget.service.AdvisoryTipStore;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.html.Div;
@@ -10,18 +11,24 @@ import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class AIAdvisoryPanel extends VerticalLayout {
     
-    private final AIAdvisoryService advisoryService;
+    private static final DateTimeFormatter UPDATED_AT_FORMAT = DateTimeFormatter.ofPattern("MMM d, h:mm a");
+    
+    private final AdvisoryTipStore advisoryTipStore;
     private VerticalLayout tipsContainer;
     private Button refreshButton;
+    private Span updatedLabel;
     private YearMonth currentPeriod;
     
-    public AIAdvisoryPanel(AIAdvisoryService advisoryService) {
-        this.advisoryService = advisoryService;
+    public AIAdvisoryPanel(AdvisoryTipStore advisoryTipStore) {
+        this.advisoryTipStore = advisoryTipStore;
         this.currentPeriod = YearMonth.now();
         
         initializePanel();
@@ -83,11 +90,17 @@ public class AIAdvisoryPanel extends VerticalLayout {
         
         titleLayout.add(aiIcon, title);
         
+        // When the precomputed tips were last analyzed
+        updatedLabel = new Span();
+        updatedLabel.getStyle().set("font-size", "var(--lumo-font-size-xs)")
+                               .set("color", "var(--lumo-secondary-text-color)");
+        titleLayout.add(updatedLabel);
+        
         // Refresh button
         refreshButton = new Button(VaadinIcon.REFRESH.create());
         refreshButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY, ButtonVariant.LUMO_ICON);
         refreshButton.getElement().setProperty("title", "Refresh AI insights");
-        refreshButton.addClickListener(e -> loadAdvisoryTips());
+        refreshButton.addClickListener(e -> showSnapshot(advisoryTipStore.recomputeDashboardTips(currentPeriod)));
         
         header.add(titleLayout, refreshButton);
         return header;
@@ -99,35 +112,34 @@ public class AIAdvisoryPanel extends VerticalLayout {
     }
     
     private void loadAdvisoryTips() {
-        // Clear existing tips
+        // Precomputed by AdvisoryTipStore, only a cold month is analyzed here
+        try {
+            showSnapshot(advisoryTipStore.getDashboardTips(currentPeriod));
+        } catch (Exception e) {
+            tipsContainer.removeAll();
+            updatedLabel.setText("");
+            showErrorMessage();
+        }
+    }
+    
+    private void showSnapshot(AdvisoryTipStore.TipSnapshot snapshot) {
         tipsContainer.removeAll();
+        updatedLabel.setText(formatUpdatedAt(snapshot.getComputedAt()));
         
-        // Show loading state
-        Div loadingDiv = new Div();
-        loadingDiv.add(new Span("🔄 Analyzing your spending patterns..."));
-        loadingDiv.getStyle().set("text-align", "center")
-                             .set("padding", "var(--lumo-space-m)")
-                             .set("color", "var(--lumo-secondary-text-color)");
-        tipsContainer.add(loadingDiv);
-        
-        // Simulate async loading (in real implementation, this could be async)
-        getUI().ifPresent(ui -> ui.access(() -> {
-            try {
-                List<AIAdvisoryService.AdvisoryTip> tips = advisoryService.generatePersonalizedTips(currentPeriod);
-                
-                // Remove loading indicator
-                tipsContainer.removeAll();
-                
-                if (tips.isEmpty()) {
-                    showNoTipsMessage();
-                } else {
-                    displayTips(tips);
-                }
-            } catch (Exception e) {
-                tipsContainer.removeAll();
-                showErrorMessage();
-            }
-        }));
+        List<AIAdvisoryService.AdvisoryTip> tips = snapshot.getTips();
+        if (tips.isEmpty()) {
+            showNoTipsMessage();
+        } else {
+            displayTips(tips);
+        }
+    }
+    
+    private String formatUpdatedAt(LocalDateTime computedAt) {
+        long minutes = Duration.between(computedAt, LocalDateTime.now()).toMinutes();
+        if (minutes < 1) return "Updated just now";
+        if (minutes < 60) return "Updated " + minutes + " min ago";
+        if (minutes < 24 * 60) return "Updated " + (minutes / 60) + " h ago";
+        return "Updated " + computedAt.format(UPDATED_AT_FORMAT);
     }
     
     private void displayTips(List<AIAdvisoryService.AdvisoryTip> tips) {
@@ -77,12 +77,8 @@ public class BankAccountManagementDialog extends Dialog {
         add(content);
         
         // Footer buttons
-        Button closeButton = new Button("Close", e -> {
-            // First close the dialog
-            close();
-            // Then reload the whole page so all views re-query fresh data
-            getUI().ifPresent(ui -> ui.getPage().reload());
-        });
+        // Open views pick up the changes through the live-update bus, no reload needed
+        Button closeButton = new Button("Close", e -> close());
         closeButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
         closeButton.getStyle()
             .set("border-radius", "10px")
@@ -368,9 +364,6 @@ public class BankAccountManagementDialog extends Dialog {
                                 .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
 
                         refreshAccountsGrid();
-
-                        // Immediately reload the page so all views pick up fresh data
-                        ui.getPage().reload();
                     }));
                 } catch (Exception e) {
                     getUI().ifPresent(ui -> ui.access(() -> {
@@ -0,0 +1,43 @@
+package com.budgetplanner.budget.view;
+
+import com.budgetplanner.budget.service.live.LiveTopic;
+import com.budgetplanner.budget.service.live.LiveUpdateBus;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Wires a view to the {@link LiveUpdateBus} for as long as it is attached to a UI
+ */
+public final class LiveUpdates {
+
+    private LiveUpdates() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Subscribes the component while attached, as the signed-in user of its session. The handler runs inside
+     * {@link UI#access} with the topics that changed for that user since the previous flush, and the changes
+     * reach the browser through server push.
+     */
+    public static void bind(Component component, LiveUpdateBus bus, Set<LiveTopic> topics,
+                            Consumer<Set<LiveTopic>> handler) {
+        component.addAttachListener(attach -> {
+            UI ui = attach.getUI();
+            LiveUpdateBus.Subscription subscription = bus.subscribe(topics, changed -> {
+                try {
+                    ui.access(() -> handler.accept(changed));
+                } catch (UIDetachedException e) {
+                    // Session closed before the detach listener ran, the subscription goes with it
+                }
+            });
+            component.addDetachListener(detach -> {
+                subscription.cancel();
+                detach.unregisterListener();
+            });
+        });
+    }
+}
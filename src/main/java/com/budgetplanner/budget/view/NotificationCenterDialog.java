@@ -1,6 +1,7 @@
 package com.budgetplanner.budget.view;
 
 import com.budgetplanner.budget.service.AIAdvisoryService;
+import com.budgetplanner.budget.service.AdvisoryTipStore;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.dialog.Dialog;
@@ -16,12 +17,12 @@ import java.util.List;
 
 public class NotificationCenterDialog extends Dialog {
     
-    private final AIAdvisoryService advisoryService;
+    private final AdvisoryTipStore advisoryTipStore;
     private VerticalLayout notificationsContainer;
     private YearMonth currentPeriod;
     
-    public NotificationCenterDialog(AIAdvisoryService advisoryService, YearMonth currentPeriod) {
-        this.advisoryService = advisoryService;
+    public NotificationCenterDialog(AdvisoryTipStore advisoryTipStore, YearMonth currentPeriod) {
+        this.advisoryTipStore = advisoryTipStore;
         this.currentPeriod = currentPeriod;
         
         initializeDialog();
@@ -104,7 +105,7 @@ public class NotificationCenterDialog extends Dialog {
         notificationsContainer.removeAll();
         
         try {
-            List<AIAdvisoryService.AdvisoryTip> tips = advisoryService.generatePersonalizedTips(currentPeriod);
+            List<AIAdvisoryService.AdvisoryTip> tips = advisoryTipStore.getDashboardTips(currentPeriod).getTips();
             
             if (tips.isEmpty()) {
                 showNoNotificationsMessage();
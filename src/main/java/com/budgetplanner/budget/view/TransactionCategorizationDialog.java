@@ -3,8 +3,11 @@ package com.budgetplanner.budget.view;
 import com.budgetplanner.budget.model.BankTransaction;
 import com.budgetplanner.budget.util.CurrencyFormatter;
 import com.budgetplanner.budget.service.BankAccountService;
+import com.budgetplanner.budget.service.categorization.BulkRecategorizationService;
+import com.budgetplanner.budget.service.categorization.TransactionCriteria;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.GridVariant;
@@ -22,12 +25,18 @@ import com.vaadin.flow.data.renderer.ComponentRenderer;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 public class TransactionCategorizationDialog extends Dialog {
     
     private final BankAccountService bankAccountService;
+    private final BulkRecategorizationService bulkRecategorizationService;
     private final String originalCategory;
     private final String originalCategoryType;
     private final YearMonth yearMonth;
@@ -36,6 +45,7 @@ public class TransactionCategorizationDialog extends Dialog {
     private Grid<BankTransaction> transactionGrid;
     private Span totalAmountSpan;
     private Span transactionCountSpan;
+    private Checkbox rememberCheckbox;
     
     // Category options
     private static final String[] CATEGORY_TYPES = {"INCOME", "EXPENSES", "BILLS", "SAVINGS"};
@@ -47,11 +57,13 @@ public class TransactionCategorizationDialog extends Dialog {
     };
     
     public TransactionCategorizationDialog(BankAccountService bankAccountService, 
+                                         BulkRecategorizationService bulkRecategorizationService,
                                          String category, 
                                          String categoryType, 
                                          YearMonth yearMonth,
                                          Consumer<Void> onSaveCallback) {
         this.bankAccountService = bankAccountService;
+        this.bulkRecategorizationService = bulkRecategorizationService;
         this.originalCategory = category;
         this.originalCategoryType = categoryType;
         this.yearMonth = yearMonth;
@@ -273,27 +285,52 @@ public class TransactionCategorizationDialog extends Dialog {
         saveAllButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
         saveAllButton.addClickListener(event -> saveAllChanges());
         
+        rememberCheckbox = new Checkbox("Apply to all transactions from these merchants, now and in future");
+        
         Button closeButton = new Button("Close", VaadinIcon.CLOSE.create());
         closeButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
         closeButton.addClickListener(event -> close());
         
-        layout.add(saveAllButton, closeButton);
+        layout.add(rememberCheckbox, saveAllButton, closeButton);
+        layout.setAlignItems(HorizontalLayout.Alignment.CENTER);
         return layout;
     }
     
     private void saveAllChanges() {
         try {
             List<BankTransaction> transactions = transactionGrid.getGenericDataView().getItems().toList();
-            int updatedCount = 0;
             
+            // One set-based update per target category instead of one save per row
+            Map<List<String>, List<BankTransaction>> byTarget = new LinkedHashMap<>();
             for (BankTransaction transaction : transactions) {
                 if (transaction.getBudgetCategory() != null && transaction.getBudgetCategoryType() != null) {
-                    bankAccountService.updateTransactionCategory(
-                        transaction.getId(),
-                        transaction.getBudgetCategory(),
-                        transaction.getBudgetCategoryType()
-                    );
-                    updatedCount++;
+                    byTarget.computeIfAbsent(
+                        List.of(transaction.getBudgetCategoryType(), transaction.getBudgetCategory()),
+                        key -> new ArrayList<>()).add(transaction);
+                }
+            }
+            
+            int updatedCount = 0;
+            boolean remember = rememberCheckbox.getValue();
+            for (Map.Entry<List<String>, List<BankTransaction>> target : byTarget.entrySet()) {
+                String categoryType = target.getKey().get(0);
+                String category = target.getKey().get(1);
+                updatedCount += bulkRecategorizationService.recategorize(
+                    TransactionCriteria.ids(target.getValue().stream().map(BankTransaction::getId).toList()),
+                    category,
+                    categoryType
+                );
+                if (remember && !(category.equals(originalCategory) && categoryType.equals(originalCategoryType))) {
+                    Set<String> merchants = new LinkedHashSet<>();
+                    target.getValue().forEach(transaction -> {
+                        if (transaction.getMerchantName() != null && !transaction.getMerchantName().isBlank()) {
+                            merchants.add(transaction.getMerchantName());
+                        }
+                    });
+                    for (String merchant : merchants) {
+                        updatedCount += bulkRecategorizationService.recategorize(
+                            TransactionCriteria.matching(merchant, null, null), category, categoryType, true);
+                    }
                 }
             }
             
@@ -1,9 +1,11 @@
 package com.budgetplanner.budget.view;
 
+import com.budgetplanner.budget.metrics.BudgetMetrics;
 import com.budgetplanner.budget.model.BankTransaction;
 import com.budgetplanner.budget.model.RecurringTransaction;
 import com.budgetplanner.budget.service.BankAccountService;
 import com.budgetplanner.budget.service.DashboardDataService;
+import com.budgetplanner.budget.service.TransactionDetailsBundle;
 import com.budgetplanner.budget.service.TransactionMetaService;
 import com.budgetplanner.budget.service.RecurringTransactionService;
 import com.vaadin.flow.component.button.Button;
@@ -40,6 +42,9 @@ public class TransactionDetailsDialog extends Dialog {
     private final DashboardDataService dashboardDataService;
     private final TransactionMetaService transactionMetaService;
     private final RecurringTransactionService recurringTransactionService;
+    private final TransactionDetailsBundle.Details details;
+    // Splits as last loaded or saved from this dialog
+    private java.util.List<com.budgetplanner.budget.model.TransactionSplit> currentSplits;
 
     private TextArea notesField;
     // Goal selection
@@ -55,7 +60,8 @@ public class TransactionDetailsDialog extends Dialog {
                                    BankAccountService bankAccountService,
                                    DashboardDataService dashboardDataService,
                                    TransactionMetaService transactionMetaService,
-                                   RecurringTransactionService recurringTransactionService) {
+                                   RecurringTransactionService recurringTransactionService,
+                                   TransactionDetailsBundle detailsBundle) {
         this.transaction = transaction;
         this.formattedAmount = formattedAmount;
         this.categoryColor = categoryColor;
@@ -63,6 +69,12 @@ public class TransactionDetailsDialog extends Dialog {
         this.dashboardDataService = dashboardDataService;
         this.transactionMetaService = transactionMetaService;
         this.recurringTransactionService = recurringTransactionService;
+
+        // Everything the dialog and its sub-dialogs show, in one parallel round of queries
+        long start = System.nanoTime();
+        this.details = detailsBundle.load(transaction);
+        this.currentSplits = details.getSplits();
+        BudgetMetrics.recordViewLoad("TransactionDetailsDialog", "open", System.nanoTime() - start);
         
         initializeDialog();
     }
@@ -227,8 +239,7 @@ public class TransactionDetailsDialog extends Dialog {
         };
 
         // Load existing splits, or prefill a single line for the full amount
-        java.util.List<com.budgetplanner.budget.model.TransactionSplit> existing =
-                bankAccountService.getSplitsForTransaction(transaction);
+        java.util.List<com.budgetplanner.budget.model.TransactionSplit> existing = currentSplits;
         if (existing.isEmpty()) {
             addRow.accept(Math.abs(transaction.getAmount() != null ? transaction.getAmount() : 0.0),
                     transaction.getBudgetCategory());
@@ -270,6 +281,7 @@ public class TransactionDetailsDialog extends Dialog {
                 });
 
                 bankAccountService.saveSplitsForTransaction(transaction, splits);
+                currentSplits = java.util.List.copyOf(splits);
                 dialog.close();
             } catch (IllegalArgumentException ex) {
                 Notification n = Notification.show(ex.getMessage(), 3000, Notification.Position.TOP_CENTER);
@@ -305,8 +317,7 @@ public class TransactionDetailsDialog extends Dialog {
         matchesList.setSpacing(false);
         matchesList.getStyle().set("gap", "6px");
 
-        java.util.List<RecurringTransaction> matches =
-                recurringTransactionService.findMatchingRecurringPatterns(transaction);
+        java.util.List<RecurringTransaction> matches = details.getRecurringMatches();
 
         if (matches.isEmpty()) {
             Span empty = new Span("No recurring patterns found yet.");
@@ -760,15 +771,15 @@ public class TransactionDetailsDialog extends Dialog {
             return;
         }
         // Goal
-        selectedGoal = bankAccountService.getGoalForTransaction(transaction);
+        selectedGoal = details.getSavingsGoal();
         updateGoalDisplay();
 
-        String note = transactionMetaService.getNoteForTransaction(transaction);
+        String note = details.getNote();
         if (notesField != null) {
             notesField.setValue(note != null ? note : "");
         }
 
-        List<String> tags = transactionMetaService.getTagsForTransaction(transaction);
+        List<String> tags = details.getTags();
         selectedTags.clear();
         selectedTags.addAll(tags);
         updateSelectedTagsDisplay();
@@ -835,7 +846,7 @@ public class TransactionDetailsDialog extends Dialog {
         content.add(addTagField);
 
         // Existing tags with checkboxes
-        java.util.List<String> allTags = transactionMetaService.getAllTagNames();
+        java.util.List<String> allTags = details.getAllTagNames();
         for (String tagName : allTags) {
             Checkbox cb = new Checkbox(tagName);
             cb.setValue(selectedTags.contains(tagName));
@@ -892,8 +903,7 @@ public class TransactionDetailsDialog extends Dialog {
         list.setSpacing(false);
         list.getStyle().set("gap", "4px");
 
-        java.util.List<com.budgetplanner.budget.model.SavingsGoal> goals =
-                bankAccountService.getAllActiveSavingsGoals();
+        java.util.List<com.budgetplanner.budget.model.SavingsGoal> goals = details.getActiveSavingsGoals();
 
         java.util.function.Consumer<String> refreshList = filter -> {
             list.removeAll();
@@ -993,7 +1003,7 @@ public class TransactionDetailsDialog extends Dialog {
         content.add(description);
 
         // List of all tags
-        java.util.List<String> allTags = transactionMetaService.getAllTagNames();
+        java.util.List<String> allTags = details.getAllTagNames();
         for (String tagName : allTags) {
             Div row = new Div();
             row.getStyle()
@@ -1063,7 +1073,7 @@ public class TransactionDetailsDialog extends Dialog {
         list.setSpacing(false);
         list.getStyle().set("gap", "8px");
 
-        List<BankTransaction> similar = bankAccountService.getSimilarTransactions(transaction, 5);
+        List<BankTransaction> similar = details.getSimilarTransactions();
 
         if (similar.isEmpty()) {
             Span empty = new Span("No similar transactions yet");